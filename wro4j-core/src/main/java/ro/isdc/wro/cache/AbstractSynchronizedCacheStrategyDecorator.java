@@ -1,7 +1,10 @@
 package ro.isdc.wro.cache;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -9,11 +12,18 @@ import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.config.jmx.CacheStatistics;
+import ro.isdc.wro.util.ObjectDecorator;
+
 
 /**
  * Ensure that the {@link AbstractSynchronizedCacheStrategyDecorator#loadValue(Object)} will be called only once for the same
  * key. This behavior is important for avoiding redundant execution of expensive computation in concurrent environment
  * which cause high memory and CPU consumption.
+ * <p/>
+ * The lookup of a cached value doesn't acquire any lock, thus the cache hits are not contended. Concurrent misses of
+ * the same key wait for a single computation of the value.
  * 
  * @author Alex Objelean
  * @created 30 Apr 2012
@@ -22,10 +32,39 @@ import org.slf4j.LoggerFactory;
 public abstract class AbstractSynchronizedCacheStrategyDecorator<K, V>
     extends CacheStrategyDecorator<K, V> {
   private static final Logger LOG = LoggerFactory.getLogger(AbstractSynchronizedCacheStrategyDecorator.class);
-  private ConcurrentMap<K, ReadWriteLock> locks = new ConcurrentHashMap<K, ReadWriteLock>();
+  /**
+   * Locks used to serialize the writes of the same key. The reads are not guarded by these locks. Contains only the
+   * keys having a value in the cache (or being loaded), the lock of a key being removed when its value is removed or
+   * fails to load. Thus the keys of this map are also the keys to refresh.
+   */
+  private final ConcurrentMap<K, ReadWriteLock> locks = new ConcurrentHashMap<K, ReadWriteLock>();
+  /**
+   * Holds the computations in progress, allowing concurrent misses of the same key to share the result.
+   */
+  private final ConcurrentMap<K, FutureTask<V>> pendingLoads = new ConcurrentHashMap<K, FutureTask<V>>();
+  
+  /**
+   * Records the usage of the cache.
+   */
+  private final CacheStatistics statistics = new CacheStatistics();
   
   public AbstractSynchronizedCacheStrategyDecorator(final CacheStrategy<K, V> decorated) {
     super(decorated);
+    shareStatistics(decorated);
+  }
+  
+  /**
+   * Provides the statistics to the caches of the decorators chain which contribute to them (ex: the size-bounded cache
+   * recording the evictions, decorated by an index or a second level cache).
+   */
+  private void shareStatistics(final CacheStrategy<K, V> decorated) {
+    Object object = decorated;
+    while (object != null) {
+      if (object instanceof CacheStatisticsAware) {
+        ((CacheStatisticsAware) object).setStatistics(statistics);
+      }
+      object = object instanceof ObjectDecorator<?> ? ((ObjectDecorator<?>) object).getDecoratedObject() : null;
+    }
   }
   
   /**
@@ -34,50 +73,187 @@ public abstract class AbstractSynchronizedCacheStrategyDecorator<K, V>
   public V get(final K key) {
     Validate.notNull(key);
     LOG.debug("Searching cache key: {}", key);
+    // the hit path doesn't acquire any lock, the decorated cache is responsible for thread-safe reads.
+    final V value = getDecoratedObject().get(key);
+    if (value != null) {
+      statistics.recordHit();
+      return value;
+    }
+    statistics.recordMiss();
+    return loadOnce(key);
+  }
+  
+  /**
+   * Checks if the key has a value, without loading it and without recording any statistics.
+   * 
+   * @return true if the decorated cache holds a value for the provided key.
+   * @since 1.4.8
+   */
+  public boolean isCached(final K key) {
+    Validate.notNull(key);
+    return getDecoratedObject().get(key) != null;
+  }
+  
+  /**
+   * Loads the value of a missing key. Concurrent misses for the same key share the same computation: the first thread
+   * performs the load, while the others wait for its result.
+   */
+  private V loadOnce(final K key) {
+    final FutureTask<V> task = new FutureTask<V>(new Callable<V>() {
+      public V call() {
+        return loadAndPut(key);
+      }
+    });
+    FutureTask<V> pending = pendingLoads.putIfAbsent(key, task);
+    if (pending == null) {
+      pending = task;
+      task.run();
+    }
+    try {
+      return pending.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new WroRuntimeException("Interrupted while loading value of key: " + key, e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new WroRuntimeException("Problem while loading value of key: " + key, cause);
+    } finally {
+      pendingLoads.remove(key, pending);
+    }
+  }
+  
+  /**
+   * Loads the value while holding the write lock of the key. This way, a concurrent {@link #put(Object, Object)} (ex:
+   * an eviction) is applied after the load is complete and is not overwritten by the loaded value.
+   */
+  private V loadAndPut(final K key) {
+    final ReadWriteLock lock = lockKey(key);
     V value = null;
-    final ReadWriteLock lock = getLockForKey(key);
-    lock.readLock().lock();
     try {
+      // the value could have been loaded by a computation which completed after the lookup
       value = getDecoratedObject().get(key);
+      if (value == null) {
+        LOG.debug("Cache is empty. Loading new value...");
+        final long start = System.currentTimeMillis();
+        value = loadValue(key);
+        statistics.recordLoad(System.currentTimeMillis() - start);
+        getDecoratedObject().put(key, value);
+      }
+      return value;
     } finally {
-      lock.readLock().unlock();
+      // forget the key if the load failed
+      unlockKey(key, lock, value == null);
     }
-    if (value == null) {
-      lock.writeLock().lock();
+  }
+  
+  /**
+   * {@inheritDoc}
+   */
+  public void put(final K key, final V value) {
+    final ReadWriteLock lock = lockKey(key);
+    try {
+      getDecoratedObject().put(key, value);
+    } finally {
+      unlockKey(key, lock, value == null);
+    }
+  }
+  
+  /**
+   * Recomputes the value of each key having a value in the cache, without removing it first. The keys whose value was
+   * removed by the decorated cache (ex: evicted by a size-bounded cache) are forgotten. While the new value is
+   * computed, the stale value is still returned by {@link #get(Object)}. Once the computation is complete, the stale
+   * value is replaced atomically. If the computation of a value fails, the stale value is kept.
+   * 
+   * @since 1.4.8
+   */
+  public void refresh() {
+    LOG.debug("Refreshing cached values...");
+    for (final K key : locks.keySet()) {
       try {
-        // this is necessary to ensure that the load wasn't invoked 
-        value = getDecoratedObject().get(key);
-        if (value == null) {
-          LOG.debug("Cache is empty. Loading new value...");
-          value = loadValue(key);
-          put(key, value);
-        } 
-      } finally {
-        lock.writeLock().unlock();
+        refreshKey(key);
+      } catch (final RuntimeException e) {
+        LOG.error("Failed to refresh the value of key: " + key + ". The stale value will be used.", e);
+      }
+    }
+  }
+  
+  private void refreshKey(final K key) {
+    final V staleValue = getDecoratedObject().get(key);
+    V newValue = null;
+    if (staleValue != null) {
+      LOG.debug("Refreshing value of key: {}", key);
+      newValue = reloadValue(key);
+    }
+    final ReadWriteLock lock = lockKey(key);
+    V value = null;
+    try {
+      value = getDecoratedObject().get(key);
+      // replace only if the value wasn't changed (cleared or reloaded) while the new one was computed
+      if (newValue != null && value == staleValue) {
+        getDecoratedObject().put(key, newValue);
+      }
+    } finally {
+      unlockKey(key, lock, value == null);
+    }
+  }
+  
+  /**
+   * @return the {@link CacheStatistics} describing the usage of this cache.
+   * @since 1.4.8
+   */
+  public CacheStatistics getStatistics() {
+    return statistics;
+  }
+  
+  /**
+   * Acquires the write lock of the key. Retries if the acquired lock was removed in the meantime (the key was
+   * forgotten), ensuring that the same key is never guarded by two different locks.
+   * 
+   * @return the locked lock, to be released using {@link #unlockKey(Object, ReadWriteLock, boolean)}.
+   */
+  private ReadWriteLock lockKey(final K key) {
+    while (true) {
+      final ReadWriteLock newLock = new ReentrantReadWriteLock();
+      final ReadWriteLock existingLock = locks.putIfAbsent(key, newLock);
+      final ReadWriteLock lock = existingLock == null ? newLock : existingLock;
+      lock.writeLock().lock();
+      if (locks.get(key) == lock) {
+        return lock;
       }
+      lock.writeLock().unlock();
     }
-    return value;
   }
   
   /**
-   * {@inheritDoc}
+   * Releases the lock acquired by {@link #lockKey(Object)}.
+   * 
+   * @param forget
+   *          true if the key doesn't have a value anymore, in which case its lock and any data associated with it are
+   *          removed.
    */
-  public void put(K key, V value) {
-    final ReadWriteLock lock = getLockForKey(key);
-    lock.writeLock().lock();
+  private void unlockKey(final K key, final ReadWriteLock lock, final boolean forget) {
     try {
-      getDecoratedObject().put(key, value);
+      if (forget && locks.remove(key, lock)) {
+        LOG.debug("Forgetting key: {}", key);
+        onKeyRemoved(key);
+      }
     } finally {
       lock.writeLock().unlock();
     }
   }
   
   /**
-   * Ensure that the returned lock will never be null.
+   * Invoked when the value of a key is removed or fails to load, allowing the implementations to discard the data
+   * associated with the key. Invoked while holding the lock of the key. Does nothing by default.
+   * 
+   * @since 1.4.8
    */
-  private ReadWriteLock getLockForKey(final K key) {
-    final ReadWriteLock lock = locks.putIfAbsent(key, new ReentrantReadWriteLock());
-    return lock == null ? locks.get(key) : lock;
+  protected void onKeyRemoved(final K key) {
   }
   
   /**
@@ -85,4 +261,15 @@ public abstract class AbstractSynchronizedCacheStrategyDecorator<K, V>
    * multiple times for the same key.
    */
   protected abstract V loadValue(final K key);
+  
+  /**
+   * Computes the new value of a key during {@link #refresh()}. This method is invoked outside of any lock, thus the
+   * stale value is still available while the new value is computed. By default, delegates to
+   * {@link #loadValue(Object)}.
+   * 
+   * @return the new value associated with the key or null if the stale value should be kept.
+   */
+  protected V reloadValue(final K key) {
+    return loadValue(key);
+  }
 }
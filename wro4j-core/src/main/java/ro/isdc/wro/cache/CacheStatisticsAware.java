@@ -0,0 +1,21 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.cache;
+
+import ro.isdc.wro.config.jmx.CacheStatistics;
+
+
+/**
+ * Implemented by the {@link CacheStrategy}'s which contribute to the {@link CacheStatistics} (ex: by recording the
+ * evictions). The statistics object is provided by the decorator recording the lookups.
+ *
+ * @since 1.4.8
+ */
+public interface CacheStatisticsAware {
+  /**
+   * @param statistics
+   *          the {@link CacheStatistics} to update.
+   */
+  void setStatistics(CacheStatistics statistics);
+}
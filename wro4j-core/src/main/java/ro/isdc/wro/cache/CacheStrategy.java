@@ -15,11 +15,17 @@ package ro.isdc.wro.cache;
 public interface CacheStrategy<K, V> {
   /**
    * Put a value in the cache using a key.
+   * <p/>
+   * Since 1.4.8, a null value means that the entry associated with the key must be removed. This is how the
+   * {@link ro.isdc.wro.manager.WroManager} evicts only the groups changed by a model reload or by a resource change,
+   * instead of clearing the whole cache. The built-in strategies and decorators honour it. A custom strategy which
+   * stores the null value (or ignores it) keeps serving the stale content of these groups until the cache is cleared,
+   * so it must remove the entry instead.
    *
    * @param key
    *          Object.
    * @param value
-   *          Object.
+   *          Object, or null to remove the entry associated with the key.
    */
   void put(final K key, final V value);
 
@@ -3,24 +3,36 @@
  */
 package ro.isdc.wro.cache;
 
-import java.io.BufferedOutputStream;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.io.Serializable;
-import java.util.zip.GZIPOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.http.support.encoding.ContentEncoder;
+import ro.isdc.wro.http.support.encoding.GzipContentEncoder;
 
 
 /**
- * Entry holding a resource content along with its associated hash.
+ * Entry holding a resource content along with its associated hash. Besides the raw content, the entry holds the bytes
+ * of the content (using the configured encoding) and the representations of the content for each
+ * {@link ContentEncoder} used to serve it. These are computed only once, allowing the response to be written without
+ * any charset encoding or compression.
+ * <p/>
+ * When {@link WroConfiguration#isCacheOffHeap()} is true, the raw content is not kept as a {@link String}: its bytes
+ * and its encoded representations are stored in direct {@link ByteBuffer}'s, outside of the java heap. In this case,
+ * the methods returning a {@link String} or a byte array create a copy on the heap, while the methods returning a
+ * {@link ByteBuffer} do not.
  *
  * @author Alex Objelean
  */
@@ -28,46 +40,87 @@ import ro.isdc.wro.config.Context;
 public final class ContentHashEntry
   implements Serializable {
   private static final Logger LOG = LoggerFactory.getLogger(ContentHashEntry.class);
+  private static final ContentEncoder GZIP_ENCODER = new GzipContentEncoder();
   private String rawContent;
-  private byte[] gzippedContent;
   private String hash;
+  /**
+   * The charset used to compute the bytes of the raw content.
+   */
+  private final String encoding;
+  /**
+   * When true, the content is stored in direct buffers.
+   */
+  private final boolean offHeap;
+  /**
+   * The bytes of the raw content.
+   */
+  private volatile byte[] rawBytes;
+  /**
+   * Encoded representations of raw content. Maps the name of the encoder to the encoded content.
+   */
+  private final Map<String, byte[]> encodedContents = new ConcurrentHashMap<String, byte[]>();
+  /**
+   * The bytes of the raw content stored off-heap. Used instead of rawContent and rawBytes when offHeap is true.
+   */
+  private transient volatile ByteBuffer rawBuffer;
+  /**
+   * Encoded representations of raw content stored off-heap. Used instead of encodedContents when offHeap is true.
+   */
+  private final transient Map<String, ByteBuffer> encodedBuffers = new ConcurrentHashMap<String, ByteBuffer>();
 
-  private ContentHashEntry(final String rawContent, final String hash) {
-    this.rawContent = rawContent;
+  private ContentHashEntry(final String rawContent, final String hash, final String encoding, final boolean offHeap,
+      final Map<String, byte[]> encodedContents) {
+    this.encoding = encoding;
+    this.offHeap = offHeap;
     this.hash = hash;
-    //the trade-off between the memory and processing time
-    if (Context.get().getConfig().isCacheGzippedContent()) {
-      gzippedContent = computeGzippedContent(rawContent);
+    setRawContent(rawContent);
+    for (final Map.Entry<String, byte[]> entry : encodedContents.entrySet()) {
+      if (offHeap) {
+        encodedBuffers.put(entry.getKey(), toDirectBuffer(entry.getValue()));
+      } else {
+        this.encodedContents.put(entry.getKey(), entry.getValue());
+      }
     }
   }
 
-  private byte[] computeGzippedContent(final String content) {
-    LOG.debug("Gzipping the content....");
-    try {
-      final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      final OutputStream os = new GZIPOutputStream(new BufferedOutputStream(baos));
-      IOUtils.copy(new ByteArrayInputStream(content.getBytes(Context.get().getConfig().getEncoding())), os);
-      os.close();
-      return baos.toByteArray();
-    } catch (final IOException e) {
-      throw new WroRuntimeException("Problem while computing gzipped content", e).logError();
-    }
-  };
-
-
   /**
    * Factory method.
    *
    * @return {@link ContentHashEntry} based on supplied values.
    */
   public static final ContentHashEntry valueOf(final String rawContent, final String hash) {
-    return new ContentHashEntry(rawContent, hash);
+    return valueOf(rawContent, hash, Collections.<String, byte[]> emptyMap());
+  }
+
+  /**
+   * Factory method used to restore an entry along with its already computed encoded representations.
+   *
+   * @param encodedContents
+   *          the encoded representations of the raw content, mapped by the name of the encoder.
+   */
+  static ContentHashEntry valueOf(final String rawContent, final String hash, final Map<String, byte[]> encodedContents) {
+    Validate.notNull(encodedContents);
+    final WroConfiguration config = Context.get().getConfig();
+    final ContentHashEntry entry = new ContentHashEntry(rawContent, hash, config.getEncoding(),
+        config.isCacheOffHeap(), encodedContents);
+    //the trade-off between the memory and processing time
+    if (config.isCacheGzippedContent() && rawContent != null) {
+      entry.getEncodedBuffer(GZIP_ENCODER);
+    }
+    return entry;
   }
 
   /**
-   * @return the content
+   * @return the content. When the content is stored off-heap, a new {@link String} is created for each invocation.
    */
   public String getRawContent() {
+    if (offHeap && rawBuffer != null) {
+      try {
+        return new String(toByteArray(rawBuffer), encoding);
+      } catch (final UnsupportedEncodingException e) {
+        throw new WroRuntimeException("Unsupported encoding: " + encoding, e);
+      }
+    }
     return this.rawContent;
   }
 
@@ -76,7 +129,14 @@ public final class ContentHashEntry
    * @param rawContent the content to set
    */
   public void setRawContent(final String rawContent) {
-    this.rawContent = rawContent;
+    this.rawBytes = null;
+    this.encodedContents.clear();
+    if (offHeap) {
+      this.encodedBuffers.clear();
+      this.rawBuffer = rawContent == null ? null : toDirectBuffer(getBytes(rawContent));
+    } else {
+      this.rawContent = rawContent;
+    }
   }
 
 
@@ -95,21 +155,215 @@ public final class ContentHashEntry
     this.hash = hash;
   }
 
+  /**
+   * @return the charset used to compute the bytes of the raw content.
+   * @since 1.4.8
+   */
+  public String getEncoding() {
+    return encoding;
+  }
+
+  /**
+   * @return true if this entry has a not null raw content.
+   * @since 1.4.8
+   */
+  public boolean hasContent() {
+    return offHeap ? rawBuffer != null : rawContent != null;
+  }
+
+  /**
+   * @return the bytes of the raw content, using the encoding configured when this entry was created. The bytes are
+   *         computed only once.
+   * @since 1.4.8
+   */
+  public byte[] getRawBytes() {
+    Validate.isTrue(hasContent(), "Cannot compute bytes of null content");
+    if (offHeap) {
+      return toByteArray(rawBuffer);
+    }
+    if (rawBytes == null) {
+      rawBytes = getBytes(rawContent);
+    }
+    return rawBytes;
+  }
+
+  /**
+   * @return a read-only {@link ByteBuffer} holding the bytes of the raw content. When the content is stored off-heap,
+   *         no copy is created.
+   * @since 1.4.8
+   */
+  public ByteBuffer getRawBuffer() {
+    Validate.isTrue(hasContent(), "Cannot compute bytes of null content");
+    return offHeap ? rawBuffer.asReadOnlyBuffer() : ByteBuffer.wrap(getRawBytes());
+  }
+
+  /**
+   * @param encoder
+   *          the {@link ContentEncoder} used to encode the raw bytes.
+   * @return the encoded content. The encoded content is computed once for each encoder.
+   * @since 1.4.8
+   */
+  public byte[] getEncodedContent(final ContentEncoder encoder) {
+    Validate.notNull(encoder);
+    if (offHeap) {
+      return toByteArray(getEncodedBuffer(encoder));
+    }
+    byte[] encodedContent = encodedContents.get(encoder.getName());
+    if (encodedContent == null) {
+      encodedContent = encode(encoder);
+      encodedContents.put(encoder.getName(), encodedContent);
+    }
+    return encodedContent;
+  }
+
+  /**
+   * @param encoder
+   *          the {@link ContentEncoder} used to encode the raw bytes.
+   * @return a {@link ByteBuffer} holding the encoded content. When the content is stored off-heap, a read-only view of
+   *         the direct buffer is returned and no copy is created.
+   * @since 1.4.8
+   */
+  public ByteBuffer getEncodedBuffer(final ContentEncoder encoder) {
+    Validate.notNull(encoder);
+    if (!offHeap) {
+      return ByteBuffer.wrap(getEncodedContent(encoder));
+    }
+    ByteBuffer encodedBuffer = encodedBuffers.get(encoder.getName());
+    if (encodedBuffer == null) {
+      encodedBuffer = toDirectBuffer(encode(encoder));
+      encodedBuffers.put(encoder.getName(), encodedBuffer);
+    }
+    return encodedBuffer.asReadOnlyBuffer();
+  }
+
+  private byte[] encode(final ContentEncoder encoder) {
+    LOG.debug("Encoding the content using {}....", encoder.getName());
+    try {
+      return encoder.encode(getRawBytes());
+    } catch (final IOException e) {
+      throw new WroRuntimeException("Problem while computing " + encoder.getName() + " content", e).logError();
+    }
+  }
+
   /**
    * @return the gzippedContent
    */
   public byte[] getGzippedContent() {
-    if (gzippedContent == null) {
-      return computeGzippedContent(rawContent);
+    return getEncodedContent(GZIP_ENCODER);
+  }
+
+  /**
+   * @return the encoded representations of the raw content computed so far, mapped by the name of the encoder.
+   */
+  Map<String, byte[]> getEncodedContents() {
+    if (offHeap) {
+      final Map<String, byte[]> map = new HashMap<String, byte[]>();
+      for (final Map.Entry<String, ByteBuffer> entry : encodedBuffers.entrySet()) {
+        map.put(entry.getKey(), toByteArray(entry.getValue()));
+      }
+      return map;
+    }
+    return Collections.unmodifiableMap(encodedContents);
+  }
+
+  /**
+   * @return read-only {@link ByteBuffer}'s holding the encoded representations of the raw content computed so far,
+   *         mapped by the name of the encoder. No copy is created, even when the content is stored off-heap.
+   */
+  Map<String, ByteBuffer> getEncodedBuffers() {
+    final Map<String, ByteBuffer> map = new HashMap<String, ByteBuffer>();
+    if (offHeap) {
+      for (final Map.Entry<String, ByteBuffer> entry : encodedBuffers.entrySet()) {
+        map.put(entry.getKey(), entry.getValue().asReadOnlyBuffer());
+      }
+    } else {
+      for (final Map.Entry<String, byte[]> entry : encodedContents.entrySet()) {
+        map.put(entry.getKey(), ByteBuffer.wrap(entry.getValue()).asReadOnlyBuffer());
+      }
+    }
+    return map;
+  }
+
+  /**
+   * @return an estimation of the memory (in bytes) used by the content of this entry: the raw content, its bytes and
+   *         all its encoded representations computed so far.
+   * @since 1.4.8
+   */
+  public long getWeight() {
+    return getHeapWeight() + getOffHeapWeight();
+  }
+
+  /**
+   * @return an estimation of the memory (in bytes) used by the content of this entry on the java heap. An entry storing
+   *         its content off-heap keeps nothing on the heap: only the methods returning a {@link String} or a byte array
+   *         (and the computation of an encoded representation) create transient copies, which are not retained.
+   * @since 1.4.8
+   */
+  public long getHeapWeight() {
+    if (offHeap || rawContent == null) {
+      return 0;
+    }
+    // each char of the raw content uses 2 bytes
+    long weight = 2L * rawContent.length() + getRawBytes().length;
+    for (final byte[] encodedContent : encodedContents.values()) {
+      weight += encodedContent.length;
     }
-    return this.gzippedContent;
+    return weight;
+  }
+
+  /**
+   * @return the memory (in bytes) used by the content of this entry outside of the java heap.
+   * @since 1.4.8
+   */
+  public long getOffHeapWeight() {
+    if (!offHeap || rawBuffer == null) {
+      return 0;
+    }
+    long weight = rawBuffer.remaining();
+    for (final ByteBuffer encodedBuffer : encodedBuffers.values()) {
+      weight += encodedBuffer.remaining();
+    }
+    return weight;
   }
 
   /**
    * Used by unit test to prove that gzipped content is cached only when required.
    */
   byte[] getGzippedContentInternal() {
-    return this.gzippedContent;
+    if (offHeap) {
+      final ByteBuffer encodedBuffer = encodedBuffers.get(GZIP_ENCODER.getName());
+      return encodedBuffer == null ? null : toByteArray(encodedBuffer);
+    }
+    return encodedContents.get(GZIP_ENCODER.getName());
+  }
+
+  private byte[] getBytes(final String content) {
+    try {
+      return content.getBytes(encoding);
+    } catch (final UnsupportedEncodingException e) {
+      throw new WroRuntimeException("Unsupported encoding: " + encoding, e);
+    }
+  }
+
+  private static ByteBuffer toDirectBuffer(final byte[] bytes) {
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+    buffer.put(bytes);
+    buffer.flip();
+    return buffer;
+  }
+
+  private static byte[] toByteArray(final ByteBuffer buffer) {
+    final ByteBuffer source = buffer.duplicate();
+    final byte[] bytes = new byte[source.remaining()];
+    source.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * The direct buffers cannot be serialized, so an entry stored off-heap is serialized as an entry stored on the heap.
+   */
+  private Object writeReplace() {
+    return offHeap ? new ContentHashEntry(getRawContent(), hash, encoding, false, getEncodedContents()) : this;
   }
 
   /**
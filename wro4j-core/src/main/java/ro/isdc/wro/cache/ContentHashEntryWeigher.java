@@ -0,0 +1,62 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.cache;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.http.support.encoding.ContentEncoder;
+import ro.isdc.wro.http.support.encoding.DeflateContentEncoder;
+import ro.isdc.wro.http.support.encoding.GzipContentEncoder;
+
+
+/**
+ * Weighs a {@link ContentHashEntry} by the number of bytes used by its content.
+ * <p/>
+ * A {@link ContentHashEntry} computes its bytes and its encoded representations lazily, when it is served, and keeps
+ * them afterwards. Since the caches bounded by weight compute the weight only once, the bytes and the representations
+ * of the {@link ContentEncoder}'s used to serve the entry are computed before the entry is weighed. The encoded
+ * representations are not computed when gzip is disabled by the configuration.
+ *
+ * @since 1.4.8
+ */
+public class ContentHashEntryWeigher
+    implements Weigher<ContentHashEntry> {
+  private final List<ContentEncoder> contentEncoders;
+
+  /**
+   * Uses the {@link ContentEncoder}'s used by default to serve the entries (gzip and deflate).
+   */
+  public ContentHashEntryWeigher() {
+    this(Arrays.<ContentEncoder> asList(new GzipContentEncoder(), new DeflateContentEncoder()));
+  }
+
+  /**
+   * @param contentEncoders
+   *          the {@link ContentEncoder}'s used to serve the entries.
+   */
+  public ContentHashEntryWeigher(final List<ContentEncoder> contentEncoders) {
+    Validate.notNull(contentEncoders);
+    this.contentEncoders = contentEncoders;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long weigh(final ContentHashEntry value) {
+    if (value.hasContent()) {
+      // the buffers are views of the stored content, so no copy is created when the content is stored off-heap
+      value.getRawBuffer();
+      if (!Context.isContextSet() || Context.get().getConfig().isGzipEnabled()) {
+        for (final ContentEncoder encoder : contentEncoders) {
+          value.getEncodedBuffer(encoder);
+        }
+      }
+    }
+    return value.getWeight();
+  }
+}
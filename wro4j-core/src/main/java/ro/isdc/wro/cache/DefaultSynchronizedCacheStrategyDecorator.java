@@ -2,11 +2,17 @@ package ro.isdc.wro.cache;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.ContextPropagatingCallable;
 import ro.isdc.wro.model.group.Inject;
 import ro.isdc.wro.model.group.processor.GroupsProcessor;
 import ro.isdc.wro.model.resource.support.ResourceAuthorizationManager;
@@ -27,6 +33,11 @@ public class DefaultSynchronizedCacheStrategyDecorator extends AbstractSynchroni
   private HashStrategy hashBuilder; 
   @Inject
   private ResourceAuthorizationManager authorizationManager;
+  /**
+   * Holds a request independent copy of the {@link Context} used when the value of a key was loaded (see
+   * {@link Context#copy()}). This allows the value to be refreshed outside of the request cycle.
+   */
+  private final Map<CacheEntry, Context> contexts = new ConcurrentHashMap<CacheEntry, Context>();
   
   public DefaultSynchronizedCacheStrategyDecorator(final CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy) {
     super(cacheStrategy);
@@ -38,9 +49,37 @@ public class DefaultSynchronizedCacheStrategyDecorator extends AbstractSynchroni
   @Override
   protected ContentHashEntry loadValue(final CacheEntry key) {
     LOG.debug("load value in cache for key: {}", key);
+    if (Context.isContextSet()) {
+      contexts.put(key, Context.get().copy());
+    }
     final String content = groupsProcessor.process(key);
     LOG.debug("found content: {}", StringUtils.abbreviate(content, 30));
-    return computeCacheValueByContent(content);
+    final ContentHashEntry entry = computeCacheValueByContent(content);
+    getStatistics().recordEntrySize(entry.getHeapWeight(), entry.getOffHeapWeight());
+    return entry;
+  }
+
+  /**
+   * Loads the new value using a copy of the context used when the stale value was loaded.
+   */
+  @Override
+  protected ContentHashEntry reloadValue(final CacheEntry key) {
+    final Context context = contexts.get(key);
+    if (context == null) {
+      LOG.debug("No context available for key: {}. Keeping stale value.", key);
+      return null;
+    }
+    try {
+      return new ContextPropagatingCallable<ContentHashEntry>(new Callable<ContentHashEntry>() {
+        public ContentHashEntry call() {
+          return loadValue(key);
+        }
+      }, context).call();
+    } catch (final RuntimeException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new WroRuntimeException("Problem while reloading value of key: " + key, e);
+    }
   }
 
   /**
@@ -61,9 +100,18 @@ public class DefaultSynchronizedCacheStrategyDecorator extends AbstractSynchroni
     }
   }
   
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void onKeyRemoved(final CacheEntry key) {
+    contexts.remove(key);
+  }
+  
   @Override
   public void clear() {
     super.clear();
+    contexts.clear();
     //reset authorization manager (clear any stored uri's).
     authorizationManager.clear();
   }
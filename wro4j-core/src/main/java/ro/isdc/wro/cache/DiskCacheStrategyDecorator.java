@@ -0,0 +1,459 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.cache;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.http.support.encoding.ContentEncoder;
+import ro.isdc.wro.http.support.encoding.GzipContentEncoder;
+import ro.isdc.wro.model.WroModel;
+import ro.isdc.wro.model.factory.WroModelFactory;
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.group.Inject;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
+import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.model.resource.processor.factory.ProcessorsFactory;
+import ro.isdc.wro.model.resource.support.hash.HashStrategy;
+import ro.isdc.wro.model.resource.support.hash.SHA1HashStrategy;
+import ro.isdc.wro.util.AbstractDecorator;
+
+
+/**
+ * A second level {@link CacheStrategy} which persists the processed bundles in a local directory, allowing them to
+ * survive a restart. When the decorated (memory) cache misses a key, the entry is read from the directory and is put
+ * back in the decorated cache. Each entry is stored in its own file, whose name is computed from the namespace, the
+ * {@link CacheEntry} and a fingerprint of the group resources (including their content), of the configured processors
+ * and of the encoding. When any of these changes, the persisted entry is simply ignored and replaced on the next put.
+ * <p/>
+ * The fingerprint of a group is computed when its content is put in the cache or, after a restart, when the group is
+ * first requested. It is kept until the group is evicted or the cache is cleared (ex: when the cache or the model is
+ * reloaded), in order to avoid reading the resources on each miss of the decorated cache.
+ * <p/>
+ * The directory can be shared by several JVMs: the files are written to a temporary file first and atomically renamed,
+ * so that a partially written entry is never read. Invalid files are deleted. The applications sharing the directory
+ * should use distinct namespaces, since clearing the cache deletes all the persisted entries of the namespace.
+ * <p/>
+ * The directory is listed only once, when the decorator is created. The persisted entries of a key are tracked
+ * afterwards, in order to delete the stale entries when a new one is persisted, without listing the directory again.
+ * <p/>
+ * The fingerprint does not include the settings of the processors (only their types). If the processor settings (ex:
+ * the options of a minifier) can change between two restarts, a distinct namespace should be used for each deployment
+ * (ex: the version of the application).
+ *
+ * @since 1.4.8
+ */
+public class DiskCacheStrategyDecorator
+    extends CacheStrategyDecorator<CacheEntry, ContentHashEntry> {
+  private static final Logger LOG = LoggerFactory.getLogger(DiskCacheStrategyDecorator.class);
+  private static final String EXTENSION = ".wrocache";
+  private static final String UTF8 = "UTF-8";
+  /**
+   * Header of a valid cache file, used to identify the format.
+   */
+  private static final int MAGIC = 0x77726f01;
+  private static final ContentEncoder GZIP_ENCODER = new GzipContentEncoder();
+  /**
+   * The namespace used by {@link #DiskCacheStrategyDecorator(CacheStrategy, File)}.
+   */
+  public static final String DEFAULT_NAMESPACE = "default";
+  private final File directory;
+  /**
+   * The prefix of the files persisted by this decorator, computed from the namespace.
+   */
+  private final String filePrefix;
+  /**
+   * The fingerprint of the groups, mapped by group name.
+   */
+  private final Map<String, String> fingerprints = new ConcurrentHashMap<String, String>();
+  /**
+   * The persisted files of each key, mapped by the id of the key. Guarded by itself.
+   */
+  private final Map<String, Set<File>> persistedFiles = new HashMap<String, Set<File>>();
+  /**
+   * Used to compute the file names. Does not depend on the configured {@link HashStrategy}, because a collision would
+   * result in serving wrong content.
+   */
+  private final HashStrategy fingerprintStrategy = new SHA1HashStrategy();
+  @Inject
+  private WroModelFactory modelFactory;
+  @Inject
+  private ProcessorsFactory processorsFactory;
+  @Inject
+  private UriLocatorFactory uriLocatorFactory;
+
+  /**
+   * Uses the {@link #DEFAULT_NAMESPACE}.
+   *
+   * @param decorated
+   *          the first level cache.
+   * @param directory
+   *          the folder where the entries are persisted. It is created if it doesn't exist.
+   */
+  public DiskCacheStrategyDecorator(final CacheStrategy<CacheEntry, ContentHashEntry> decorated, final File directory) {
+    this(decorated, directory, DEFAULT_NAMESPACE);
+  }
+
+  /**
+   * @param decorated
+   *          the first level cache.
+   * @param directory
+   *          the folder where the entries are persisted. It is created if it doesn't exist.
+   * @param namespace
+   *          identifies the entries persisted by this decorator (ex: the name and the version of the application),
+   *          allowing several applications to share the same directory.
+   */
+  public DiskCacheStrategyDecorator(final CacheStrategy<CacheEntry, ContentHashEntry> decorated, final File directory,
+      final String namespace) {
+    super(decorated);
+    Validate.notNull(directory);
+    Validate.notBlank(namespace);
+    directory.mkdirs();
+    Validate.isTrue(directory.isDirectory(), "Cannot use cache directory: " + directory);
+    this.directory = directory;
+    this.filePrefix = hash(namespace) + "-";
+    indexPersistedFiles();
+  }
+
+  /**
+   * Finds the entries of the namespace persisted before this decorator was created.
+   */
+  private void indexPersistedFiles() {
+    for (final File file : listPersistedFiles()) {
+      addPersistedFile(StringUtils.substringBetween(file.getName(), filePrefix, "-"), file);
+    }
+  }
+
+  /**
+   * @return the files persisted in the namespace of this decorator.
+   */
+  private File[] listPersistedFiles() {
+    final File[] files = directory.listFiles(new FileFilter() {
+      public boolean accept(final File file) {
+        final String name = file.getName();
+        return name.startsWith(filePrefix) && name.endsWith(EXTENSION);
+      }
+    });
+    return files == null ? new File[0] : files;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ContentHashEntry get(final CacheEntry key) {
+    ContentHashEntry value = super.get(key);
+    if (value == null) {
+      final File file = getFile(key);
+      if (file != null && file.isFile()) {
+        value = read(file);
+        if (value != null) {
+          LOG.debug("Loaded persisted entry of key: {}", key);
+          super.put(key, value);
+        }
+      }
+    }
+    return value;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Putting a null value deletes the persisted entry.
+   */
+  @Override
+  public void put(final CacheEntry key, final ContentHashEntry value) {
+    super.put(key, value);
+    // the content of the group resources might have changed
+    fingerprints.remove(key.getGroupName());
+    final File file = value != null && value.hasContent() ? getFile(key) : null;
+    final String keyId = getKeyId(key);
+    deleteFiles(keyId, file);
+    if (file != null) {
+      try {
+        write(file, value);
+        addPersistedFile(keyId, file);
+      } catch (final IOException e) {
+        LOG.warn("Cannot persist entry of key: " + key, e);
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Deletes all entries persisted in the namespace of this decorator.
+   */
+  @Override
+  public void clear() {
+    super.clear();
+    fingerprints.clear();
+    synchronized (persistedFiles) {
+      persistedFiles.clear();
+    }
+    for (final File file : listPersistedFiles()) {
+      LOG.debug("Deleting persisted entry: {}", file);
+      FileUtils.deleteQuietly(file);
+    }
+  }
+
+  /**
+   * @return the file used to persist the entry of the provided key or null if the group of the key doesn't exist.
+   */
+  private File getFile(final CacheEntry key) {
+    final String groupFingerprint = getGroupFingerprint(key.getGroupName());
+    if (groupFingerprint == null) {
+      return null;
+    }
+    // the rewritten urls of the css resources depend on the location of the aggregated bundle
+    final String fingerprint = hash(groupFingerprint + "|" + Context.get().getAggregatedFolderPath());
+    return new File(directory, filePrefix + getKeyId(key) + "-" + fingerprint + EXTENSION);
+  }
+
+  private String getKeyId(final CacheEntry key) {
+    return hash(key.getGroupName() + "|" + key.getType() + "|" + key.isMinimize());
+  }
+
+  /**
+   * @return the fingerprint of the group, computed only if it is not known already, or null if the group doesn't exist.
+   */
+  private String getGroupFingerprint(final String groupName) {
+    String fingerprint = fingerprints.get(groupName);
+    if (fingerprint == null) {
+      fingerprint = computeGroupFingerprint(groupName);
+      if (fingerprint != null) {
+        fingerprints.put(groupName, fingerprint);
+      }
+    }
+    return fingerprint;
+  }
+
+  /**
+   * @return the fingerprint of everything the processed content of the group depends on, except the location of the
+   *         aggregated bundle, or null if the group doesn't exist.
+   */
+  private String computeGroupFingerprint(final String groupName) {
+    final Group group = findGroup(modelFactory.create(), groupName);
+    if (group == null) {
+      return null;
+    }
+    final StringBuilder sb = new StringBuilder();
+    for (final Resource resource : group.getResources()) {
+      sb.append(resource.getUri()).append('|').append(resource.getType()).append('|').append(resource.isMinimize()).append(
+          '|').append(getContentFingerprint(resource)).append('\n');
+    }
+    for (final ResourcePreProcessor processor : processorsFactory.getPreProcessors()) {
+      sb.append(AbstractDecorator.getOriginalDecoratedObject(processor).getClass().getName()).append('\n');
+    }
+    for (final ResourcePostProcessor processor : processorsFactory.getPostProcessors()) {
+      sb.append(AbstractDecorator.getOriginalDecoratedObject(processor).getClass().getName()).append('\n');
+    }
+    sb.append(Context.get().getConfig().getEncoding());
+    return hash(sb.toString());
+  }
+
+  /**
+   * @return the fingerprint of the resource content or an empty string if the resource cannot be located.
+   */
+  private String getContentFingerprint(final Resource resource) {
+    try {
+      final InputStream is = uriLocatorFactory.locate(resource.getUri());
+      try {
+        return fingerprintStrategy.getHash(is);
+      } finally {
+        IOUtils.closeQuietly(is);
+      }
+    } catch (final IOException e) {
+      LOG.debug("Cannot locate resource: {}", resource);
+      return StringUtils.EMPTY;
+    }
+  }
+
+  private Group findGroup(final WroModel model, final String groupName) {
+    for (final Group group : model.getGroups()) {
+      if (group.getName().equals(groupName)) {
+        return group;
+      }
+    }
+    return null;
+  }
+
+  private String hash(final String value) {
+    try {
+      return fingerprintStrategy.getHash(new ByteArrayInputStream(value.getBytes(UTF8)));
+    } catch (final IOException e) {
+      throw new WroRuntimeException("Cannot compute hash of: " + value, e);
+    }
+  }
+
+  private void addPersistedFile(final String keyId, final File file) {
+    synchronized (persistedFiles) {
+      Set<File> files = persistedFiles.get(keyId);
+      if (files == null) {
+        files = new HashSet<File>();
+        persistedFiles.put(keyId, files);
+      }
+      files.add(file);
+    }
+  }
+
+  /**
+   * Deletes the known persisted entries of the key having the provided id, except the provided file.
+   */
+  private void deleteFiles(final String keyId, final File excludedFile) {
+    final Set<File> files;
+    synchronized (persistedFiles) {
+      files = persistedFiles.remove(keyId);
+    }
+    if (files != null) {
+      for (final File file : files) {
+        if (file.equals(excludedFile)) {
+          addPersistedFile(keyId, file);
+        } else {
+          LOG.debug("Deleting persisted entry: {}", file);
+          FileUtils.deleteQuietly(file);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the entry to a temporary file, which is renamed afterwards, in order to never expose a partially written
+   * file to other readers. The content is written through the channel of the file directly from the buffers of the
+   * entry, so that no copy is created on the heap when the entry is stored off-heap.
+   */
+  private void write(final File file, final ContentHashEntry value)
+      throws IOException {
+    if (Context.get().getConfig().isGzipEnabled()) {
+      // persist the gzipped content, since it will be required anyway
+      value.getEncodedBuffer(GZIP_ENCODER);
+    }
+    final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+    buffers.add(toBuffer(MAGIC));
+    addBytes(buffers, ByteBuffer.wrap(value.getHash() == null ? new byte[0] : value.getHash().getBytes(UTF8)));
+    addBytes(buffers, value.getRawBuffer());
+    final Map<String, ByteBuffer> encodedBuffers = value.getEncodedBuffers();
+    buffers.add(toBuffer(encodedBuffers.size()));
+    for (final Map.Entry<String, ByteBuffer> entry : encodedBuffers.entrySet()) {
+      addBytes(buffers, ByteBuffer.wrap(entry.getKey().getBytes(UTF8)));
+      addBytes(buffers, entry.getValue());
+    }
+    final File tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+    final FileOutputStream out = new FileOutputStream(tempFile);
+    try {
+      final FileChannel channel = out.getChannel();
+      final ByteBuffer[] sources = buffers.toArray(new ByteBuffer[buffers.size()]);
+      long length = 0;
+      for (final ByteBuffer source : sources) {
+        length += source.remaining();
+      }
+      while (length > 0) {
+        length -= channel.write(sources);
+      }
+    } finally {
+      IOUtils.closeQuietly(out);
+    }
+    // renameTo doesn't replace an existing file on some platforms
+    if (!tempFile.renameTo(file) && !(file.delete() && tempFile.renameTo(file))) {
+      FileUtils.deleteQuietly(tempFile);
+      throw new IOException("Cannot rename " + tempFile + " to " + file);
+    }
+    LOG.debug("Persisted entry: {}", file);
+  }
+
+  /**
+   * Adds the length of the bytes followed by a duplicate of the buffer holding them, leaving the position of the
+   * provided buffer unchanged.
+   */
+  private void addBytes(final List<ByteBuffer> buffers, final ByteBuffer bytes) {
+    final ByteBuffer source = bytes.duplicate();
+    buffers.add(toBuffer(source.remaining()));
+    buffers.add(source);
+  }
+
+  private ByteBuffer toBuffer(final int value) {
+    final ByteBuffer buffer = ByteBuffer.allocate(4);
+    buffer.putInt(value);
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * @return the entry read from the provided file or null if the file is not valid.
+   */
+  private ContentHashEntry read(final File file) {
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Unknown format");
+      }
+      final long length = file.length();
+      final byte[] hashBytes = readBytes(in, length);
+      final String hash = hashBytes.length == 0 ? null : new String(hashBytes, UTF8);
+      final String content = new String(readBytes(in, length), Context.get().getConfig().getEncoding());
+      final int count = in.readInt();
+      final Map<String, byte[]> encodedContents = new HashMap<String, byte[]>();
+      for (int i = 0; i < count; i++) {
+        encodedContents.put(new String(readBytes(in, length), UTF8), readBytes(in, length));
+      }
+      return ContentHashEntry.valueOf(content, hash, encodedContents);
+    } catch (final FileNotFoundException e) {
+      // deleted in the meantime
+      return null;
+    } catch (final UnsupportedEncodingException e) {
+      throw new WroRuntimeException("Unsupported encoding", e);
+    } catch (final IOException e) {
+      LOG.warn("Deleting invalid cache file: {}. Reason: {}", file, e.toString());
+      FileUtils.deleteQuietly(file);
+      return null;
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+  }
+
+  /**
+   * @param maxLength
+   *          the length of the file, used to detect an invalid length before allocating the bytes.
+   */
+  private byte[] readBytes(final DataInputStream in, final long maxLength)
+      throws IOException {
+    final int length = in.readInt();
+    if (length < 0 || length > maxLength) {
+      throw new IOException("Invalid length: " + length);
+    }
+    final byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+}
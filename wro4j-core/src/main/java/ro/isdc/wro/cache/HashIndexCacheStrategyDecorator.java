@@ -0,0 +1,174 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.Validate;
+
+import ro.isdc.wro.http.support.encoding.ContentEncoder;
+import ro.isdc.wro.util.WroUtil;
+
+
+/**
+ * Maintains an index of the validators (ETag and last modified date) of the cached entries, allowing the conditional
+ * requests to be answered without touching the content of the bundle. The index is kept in sync with the cache by
+ * observing the values which are put in or returned by the decorated cache: a new hash of a key updates its last
+ * modified date, while a removed key (or a cleared cache) removes it from the index.
+ * <p/>
+ * An entry evicted by the decorated cache itself (ex: a size-bounded cache) is removed from the index when its
+ * validators are requested, since its content can be different when it is loaded again. The headers values are
+ * formatted only once for each hash, allowing a cached bundle to be served without building any header value.
+ *
+ * @since 1.4.8
+ */
+public class HashIndexCacheStrategyDecorator
+    extends CacheStrategyDecorator<CacheEntry, ContentHashEntry> {
+  private final Map<CacheEntry, Validators> index = new ConcurrentHashMap<CacheEntry, Validators>();
+
+  public HashIndexCacheStrategyDecorator(final CacheStrategy<CacheEntry, ContentHashEntry> decorated) {
+    super(decorated);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ContentHashEntry get(final CacheEntry key) {
+    final ContentHashEntry value = super.get(key);
+    if (value != null) {
+      updateIndex(key, value);
+    }
+    return value;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void put(final CacheEntry key, final ContentHashEntry value) {
+    super.put(key, value);
+    if (value == null) {
+      index.remove(key);
+    } else {
+      updateIndex(key, value);
+    }
+  }
+
+  private void updateIndex(final CacheEntry key, final ContentHashEntry value) {
+    final String hash = value.getHash();
+    if (hash == null) {
+      index.remove(key);
+    } else {
+      final Validators validators = index.get(key);
+      if (validators == null || !hash.equals(validators.getHash())) {
+        final long contentLength = value.hasContent() ? value.getRawBuffer().remaining() : 0;
+        index.put(key, new Validators(hash, System.currentTimeMillis(), getContentType(key, value), contentLength));
+      }
+    }
+  }
+
+  private String getContentType(final CacheEntry key, final ContentHashEntry value) {
+    final String contentType = key.getType().getContentType();
+    return value.getEncoding() == null ? contentType : contentType + "; charset=" + value.getEncoding();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void clear() {
+    super.clear();
+    index.clear();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void destroy() {
+    super.destroy();
+    index.clear();
+  }
+
+  /**
+   * @return the {@link Validators} of the provided key or null if the key is not indexed or its entry is not cached
+   *         anymore.
+   */
+  public Validators getValidators(final CacheEntry key) {
+    Validate.notNull(key);
+    final Validators validators = index.get(key);
+    if (validators != null && super.get(key) == null) {
+      // evicted by the decorated cache
+      index.remove(key);
+      return null;
+    }
+    return validators;
+  }
+
+  /**
+   * The validators of a cached entry, along with the values of the corresponding response headers.
+   */
+  public static final class Validators {
+    private final String hash;
+    private final long lastModified;
+    private final String etag;
+    private final String lastModifiedAsString;
+    private final String contentType;
+    private final long contentLength;
+
+    private Validators(final String hash, final long time, final String contentType, final long contentLength) {
+      this.hash = hash;
+      // the http dates have a precision of one second
+      this.lastModified = time - time % 1000;
+      this.etag = String.format("\"%s\"", hash);
+      this.lastModifiedAsString = WroUtil.toDateAsString(lastModified);
+      this.contentType = contentType;
+      this.contentLength = contentLength;
+    }
+
+    /**
+     * @return the hash of the cached entry.
+     */
+    public String getHash() {
+      return hash;
+    }
+
+    /**
+     * @return the value of the ETag header (the quoted hash).
+     */
+    public String getETag() {
+      return etag;
+    }
+
+    /**
+     * @return the time in milliseconds (truncated to seconds) when the hash of the entry was changed.
+     */
+    public long getLastModified() {
+      return lastModified;
+    }
+
+    /**
+     * @return the value of the Last-Modified header.
+     */
+    public String getLastModifiedAsString() {
+      return lastModifiedAsString;
+    }
+
+    /**
+     * @return the value of the Content-Type header, including the charset used to encode the content.
+     */
+    public String getContentType() {
+      return contentType;
+    }
+
+    /**
+     * @return the number of bytes of the content, when it is served without any {@link ContentEncoder}.
+     */
+    public long getContentLength() {
+      return contentLength;
+    }
+  }
+}
@@ -0,0 +1,18 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.cache;
+
+/**
+ * Computes the weight of a cached value. Used by the caches whose size is bounded by the total weight of their values.
+ *
+ * @since 1.4.8
+ */
+public interface Weigher<V> {
+  /**
+   * @param value
+   *          the value to weigh. Never null.
+   * @return the weight of the value (ex: the number of bytes it occupies). Must not be negative.
+   */
+  long weigh(V value);
+}
@@ -4,8 +4,9 @@
 package ro.isdc.wro.cache.impl;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang3.Validate;
 
@@ -28,21 +29,22 @@ public class MemoryCacheStrategy<K, V> implements CacheStrategy<K, V> {
   private final Map<K, V> map;
 
   /**
-   * Default constructor. Uses a {@link HashMap} as memory cache.
+   * Default constructor. Uses a {@link ConcurrentHashMap} as memory cache, allowing reads without locking.
    */
   public MemoryCacheStrategy() {
-    this(new HashMap<K, V>());
+    this(new ConcurrentHashMap<K, V>());
   }
 
   /**
    * Constructs a new {@link MemoryCacheStrategy} and sets the Map that will be
    * used as memory cache.
    *
-   * @param cacheHolder Map to use as memory cache. It cannot be null.
+   * @param cacheHolder Map to use as memory cache. It cannot be null. A {@link ConcurrentMap} is used as is, any other
+   *        map is synchronized.
    */
   public MemoryCacheStrategy(final Map<K, V> cacheHolder) {
     Validate.notNull(cacheHolder, "The cache map cannot be null.");
-    map = Collections.synchronizedMap(cacheHolder);
+    map = cacheHolder instanceof ConcurrentMap ? cacheHolder : Collections.synchronizedMap(cacheHolder);
   }
 
   /**
@@ -54,9 +56,15 @@ public class MemoryCacheStrategy<K, V> implements CacheStrategy<K, V> {
 
   /**
    * {@inheritDoc}
+   * <p/>
+   * Putting a null value removes the entry associated with the key.
    */
   public void put(final K key, final V value) {
-    map.put(key, value);
+    if (value == null) {
+      map.remove(key);
+    } else {
+      map.put(key, value);
+    }
   }
 
   /**
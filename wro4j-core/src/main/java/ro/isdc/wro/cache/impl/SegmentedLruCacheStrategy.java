@@ -0,0 +1,296 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.cache.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.cache.CacheStatisticsAware;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentHashEntryWeigher;
+import ro.isdc.wro.cache.Weigher;
+import ro.isdc.wro.config.jmx.CacheStatistics;
+
+
+/**
+ * A {@link CacheStrategy} bounded by the total weight of its values (ex: number of bytes), instead of the number of
+ * entries. The eviction policy is a segmented LRU, which is resistant to scans: new entries are added to a probation
+ * segment and are promoted to a protected segment only when they are accessed again. When the maximum weight is
+ * exceeded, the least recently used entries of the probation segment are evicted first. The protected segment holds at
+ * most 80% of the maximum weight, its least recently used entries being moved back to the probation segment.
+ * <p/>
+ * The weight of a value is computed once, when it is added to the cache. This is why the {@link Weigher} must account
+ * for anything the value computes and keeps after it was cached (see {@link ContentHashEntryWeigher}). Values heavier
+ * than the maximum weight are not cached at all. The value is weighed before acquiring the lock of the cache.
+ * <p/>
+ * The lookups don't block: the values are read from a concurrent map, while the accesses are recorded in a buffer and
+ * applied to the segments in batches, by the thread updating the cache or by a reading thread finding the lock free.
+ * Under heavy contention some accesses can be dropped, which only reduces the precision of the recency.
+ *
+ * @since 1.4.8
+ */
+public class SegmentedLruCacheStrategy<K, V>
+    implements CacheStrategy<K, V>, CacheStatisticsAware {
+  private static final Logger LOG = LoggerFactory.getLogger(SegmentedLruCacheStrategy.class);
+  /**
+   * The percentage of the maximum weight which can be used by the protected segment.
+   */
+  private static final int PROTECTED_PERCENTAGE = 80;
+  /**
+   * The number of recorded accesses triggering their application to the segments.
+   */
+  private static final int READS_DRAIN_THRESHOLD = 32;
+  /**
+   * The maximum number of recorded accesses waiting to be applied to the segments.
+   */
+  private static final int MAX_PENDING_READS = 128;
+  private final long maxWeight;
+  private final long maxProtectedWeight;
+  private final Weigher<V> weigher;
+  /**
+   * The cached values, read without locking.
+   */
+  private final Map<K, WeightedValue<V>> values = new ConcurrentHashMap<K, WeightedValue<V>>();
+  /**
+   * Guards the segments and their weights.
+   */
+  private final Lock lock = new ReentrantLock();
+  private final Queue<K> readBuffer = new ConcurrentLinkedQueue<K>();
+  private final AtomicInteger pendingReads = new AtomicInteger();
+  private final LinkedHashMap<K, WeightedValue<V>> probationSegment = new LinkedHashMap<K, WeightedValue<V>>(16,
+      0.75f, true);
+  private final LinkedHashMap<K, WeightedValue<V>> protectedSegment = new LinkedHashMap<K, WeightedValue<V>>(16,
+      0.75f, true);
+  private long probationWeight;
+  private long protectedWeight;
+  private CacheStatistics statistics = new CacheStatistics();
+
+  /**
+   * Holds a value along with its weight.
+   */
+  private static final class WeightedValue<V> {
+    private final V value;
+    private final long weight;
+
+    WeightedValue(final V value, final long weight) {
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  /**
+   * @param maxWeight
+   *          the maximum total weight of cached values. Must be greater than 0.
+   * @param weigher
+   *          the {@link Weigher} used to compute the weight of the values.
+   */
+  public SegmentedLruCacheStrategy(final long maxWeight, final Weigher<V> weigher) {
+    Validate.isTrue(maxWeight > 0, "maxWeight must be greater than 0");
+    Validate.notNull(weigher);
+    this.maxWeight = maxWeight;
+    this.maxProtectedWeight = maxWeight * PROTECTED_PERCENTAGE / 100;
+    this.weigher = weigher;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Doesn't block: the access is only recorded, being applied to the segments later.
+   */
+  public V get(final K key) {
+    final WeightedValue<V> entry = values.get(key);
+    if (entry == null) {
+      return null;
+    }
+    recordRead(key);
+    return entry.value;
+  }
+
+  /**
+   * Records the access of a key. The recorded accesses are applied by the thread holding the lock, when it is free or
+   * when the cache is updated. The access is dropped if too many accesses are pending.
+   */
+  private void recordRead(final K key) {
+    if (pendingReads.incrementAndGet() > MAX_PENDING_READS) {
+      pendingReads.decrementAndGet();
+    } else {
+      readBuffer.offer(key);
+    }
+    if (pendingReads.get() >= READS_DRAIN_THRESHOLD && lock.tryLock()) {
+      try {
+        drainReads();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Applies the recorded accesses to the segments. Must be invoked while holding the lock.
+   */
+  private void drainReads() {
+    K key;
+    while ((key = readBuffer.poll()) != null) {
+      pendingReads.decrementAndGet();
+      // accessing an entry of the protected segment makes it the most recently used
+      if (protectedSegment.get(key) == null) {
+        final WeightedValue<V> entry = probationSegment.remove(key);
+        if (entry != null) {
+          probationWeight -= entry.weight;
+          promote(key, entry);
+        }
+      }
+    }
+  }
+
+  /**
+   * Moves an entry of the probation segment to the protected segment. The least recently used entries of the protected
+   * segment are moved back to the probation segment when the protected segment exceeds its maximum weight.
+   */
+  private void promote(final K key, final WeightedValue<V> entry) {
+    protectedSegment.put(key, entry);
+    protectedWeight += entry.weight;
+    final Iterator<Map.Entry<K, WeightedValue<V>>> iterator = protectedSegment.entrySet().iterator();
+    while (protectedWeight > maxProtectedWeight && iterator.hasNext()) {
+      final Map.Entry<K, WeightedValue<V>> eldest = iterator.next();
+      iterator.remove();
+      protectedWeight -= eldest.getValue().weight;
+      probationSegment.put(eldest.getKey(), eldest.getValue());
+      probationWeight += eldest.getValue().weight;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Putting a null value removes the entry associated with the key.
+   */
+  public void put(final K key, final V value) {
+    // weighed before acquiring the lock, since weighing can be expensive (ex: computing the encoded content)
+    final long weight = value == null ? 0 : weigher.weigh(value);
+    lock.lock();
+    try {
+      drainReads();
+      remove(key);
+      if (value != null) {
+        if (weight > maxWeight) {
+          LOG.debug("Value of key {} is too heavy to be cached: {}", key, weight);
+          return;
+        }
+        final WeightedValue<V> entry = new WeightedValue<V>(value, weight);
+        values.put(key, entry);
+        probationSegment.put(key, entry);
+        probationWeight += weight;
+        evict(key);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void remove(final K key) {
+    values.remove(key);
+    WeightedValue<V> entry = probationSegment.remove(key);
+    if (entry != null) {
+      probationWeight -= entry.weight;
+    }
+    entry = protectedSegment.remove(key);
+    if (entry != null) {
+      protectedWeight -= entry.weight;
+    }
+  }
+
+  /**
+   * Evicts the least recently used entries until the maximum weight is respected. The entries of the probation segment
+   * are evicted first, except the one which was just added.
+   */
+  private void evict(final K addedKey) {
+    final Iterator<Map.Entry<K, WeightedValue<V>>> probationIterator = probationSegment.entrySet().iterator();
+    while (probationWeight + protectedWeight > maxWeight && probationIterator.hasNext()) {
+      final Map.Entry<K, WeightedValue<V>> eldest = probationIterator.next();
+      if (!eldest.getKey().equals(addedKey)) {
+        probationIterator.remove();
+        probationWeight -= eldest.getValue().weight;
+        onEvicted(eldest.getKey());
+      }
+    }
+    final Iterator<Map.Entry<K, WeightedValue<V>>> protectedIterator = protectedSegment.entrySet().iterator();
+    while (probationWeight + protectedWeight > maxWeight && protectedIterator.hasNext()) {
+      final Map.Entry<K, WeightedValue<V>> eldest = protectedIterator.next();
+      protectedIterator.remove();
+      protectedWeight -= eldest.getValue().weight;
+      onEvicted(eldest.getKey());
+    }
+  }
+
+  private void onEvicted(final K key) {
+    LOG.debug("Evicted key: {}", key);
+    values.remove(key);
+    statistics.recordEviction();
+  }
+
+  /**
+   * @return the total weight of the cached values.
+   */
+  public long getWeight() {
+    lock.lock();
+    try {
+      return probationWeight + protectedWeight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void clear() {
+    lock.lock();
+    try {
+      while (readBuffer.poll() != null) {
+        pendingReads.decrementAndGet();
+      }
+      values.clear();
+      probationSegment.clear();
+      protectedSegment.clear();
+      probationWeight = 0;
+      protectedWeight = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void destroy() {
+    clear();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void setStatistics(final CacheStatistics statistics) {
+    Validate.notNull(statistics);
+    this.statistics = statistics;
+  }
+
+  /**
+   * @return the {@link CacheStatistics} updated by this cache.
+   */
+  public CacheStatistics getStatistics() {
+    return statistics;
+  }
+}
@@ -3,10 +3,9 @@
  */
 package ro.isdc.wro.config;
 
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletContext;
@@ -24,20 +23,32 @@ import ro.isdc.wro.http.WroFilter;
 
 /**
  * Holds the properties related to a request cycle.
+ * <p/>
+ * The context is associated directly with the thread of the request cycle, so setting, getting and removing it doesn't
+ * involve any shared state. A correlationId is created (and the context is registered by it) only when it is requested
+ * using {@link #getCorrelationId()}, in order to propagate the context to other threads.
  *
  * @author Alex Objelean
  */
 public class Context
     implements ReadOnlyContext {
   /**
-   * Maps correlationId with a Context.
+   * Maps correlationId with a Context. Holds only the contexts whose correlationId was requested.
    */
-  private static final Map<String, Context> CONTEXT_MAP = Collections.synchronizedMap(new HashMap<String, Context>());
+  private static final Map<String, Context> CONTEXT_MAP = new ConcurrentHashMap<String, Context>();
   /**
-   * Holds a correlationId, created in {@link WroFilter}. A correlationId will be associated with a {@link Context}
-   * object.
+   * Used to generate the correlationIds.
    */
-  private static ThreadLocal<String> CORRELATION_ID = new ThreadLocal<String>();
+  private static final AtomicLong CORRELATION_ID_COUNTER = new AtomicLong();
+  /**
+   * Holds the {@link Context} associated with the current thread, set in {@link WroFilter} or propagated using a
+   * correlationId.
+   */
+  private static final ThreadLocal<Context> CURRENT = new ThreadLocal<Context>();
+  /**
+   * The id used to register this context in CONTEXT_MAP. Created on demand.
+   */
+  private transient volatile String correlationId;
   private WroConfiguration config;
   /**
    * Request.
@@ -101,15 +112,14 @@ public class Context
    */
   public static Context get() {
     validateContext();
-    final String correlationId = CORRELATION_ID.get();
-    return CONTEXT_MAP.get(correlationId);
+    return CURRENT.get();
   }
 
   /**
    * @return true if the call is done during wro4j request cycle. In other words, if the context is set.
    */
   public static boolean isContextSet() {
-    return CORRELATION_ID.get() != null && CONTEXT_MAP.get(CORRELATION_ID.get()) != null;
+    return CURRENT.get() != null;
   }
 
 
@@ -139,17 +149,7 @@ public class Context
     Validate.notNull(context);
     Validate.notNull(config);
     context.setConfig(config);
-
-    final String correlationId = generateCorrelationId();
-    CORRELATION_ID.set(correlationId);
-    CONTEXT_MAP.put(correlationId, context);
-  }
-  
-  /**
-   * @return a string representation of an unique id used to store Context in a map.
-   */
-  private static String generateCorrelationId() {
-    return UUID.randomUUID().toString();
+    CURRENT.set(context);
   }
 
 
@@ -157,11 +157,11 @@ public class Context
    * Remove context from the local thread.
    */
   public static void unset() {
-    final String correlationId = CORRELATION_ID.get();
-    if (correlationId != null) {
-      CONTEXT_MAP.remove(correlationId);
+    final Context context = CURRENT.get();
+    if (context != null && context.correlationId != null) {
+      context.unregister();
     }
-    CORRELATION_ID.remove();
+    CURRENT.remove();
   }
 
 
@@ -228,6 +228,26 @@ public class Context
   }
 
 
+  /**
+   * Creates a detached copy of this context, which is not associated with the correlationId of this context. This is
+   * useful when some processing needs to be performed outside of the request cycle (ex: by a scheduler thread), after
+   * the original context was unset.
+   * <p/>
+   * The copy references the same servletContext, filterConfig and configuration, but it doesn't hold the request and
+   * the response, since these are recycled by the container once the request cycle is over.
+   *
+   * @return a new {@link Context} holding the request independent properties of this one.
+   * @since 1.4.8
+   */
+  public Context copy() {
+    final Context copy = new Context(null, null, filterConfig);
+    copy.servletContext = servletContext;
+    copy.setConfig(config);
+    copy.setAggregatedFolderPath(aggregatedFolderPath);
+    return copy;
+  }
+
+
   /**
    * Perform context clean-up.
    */
@@ -238,11 +258,17 @@ public class Context
   }
 
   /**
-   * Set the correlationId to the current thread.
+   * Set the correlationId to the current thread. The current thread will be associated with the {@link Context}
+   * registered by this correlationId, if there is any.
    */
   public static void setCorrelationId(final String correlationId) {
     Validate.notNull(correlationId);
-    CORRELATION_ID.set(correlationId);
+    final Context context = CONTEXT_MAP.get(correlationId);
+    if (context != null) {
+      CURRENT.set(context);
+    } else {
+      CURRENT.remove();
+    }
   }
   
   /**
@@ -253,15 +279,37 @@ public class Context
    * parent thread. This simulates the {@link InheritableThreadLocal} functionality.
    */
   public static void unsetCorrelationId() {
-    CORRELATION_ID.remove();
+    CURRENT.remove();
   }
   
   /**
-   * @return the correlationId associated with this thread.
+   * @return the correlationId of the {@link Context} associated with this thread. The first invocation registers the
+   *         context, allowing other threads to use it by calling {@link #setCorrelationId(String)}.
    */
   public static String getCorrelationId() {
     validateContext();
-    return CORRELATION_ID.get();
+    return CURRENT.get().register();
+  }
+  
+  /**
+   * Creates the correlationId of this context (if it doesn't exist already) and registers the context by it.
+   */
+  private synchronized String register() {
+    if (correlationId == null) {
+      correlationId = Long.toString(CORRELATION_ID_COUNTER.incrementAndGet());
+      CONTEXT_MAP.put(correlationId, this);
+    }
+    return correlationId;
+  }
+  
+  /**
+   * Removes the registration of this context, if it has any.
+   */
+  private synchronized void unregister() {
+    if (correlationId != null) {
+      CONTEXT_MAP.remove(correlationId);
+      correlationId = null;
+    }
   }
   
 
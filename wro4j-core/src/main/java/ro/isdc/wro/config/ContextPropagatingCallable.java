@@ -6,7 +6,12 @@ import org.apache.commons.lang3.Validate;
 
 
 /**
- * A {@link Callable} decorator responsible for propagating the correlationId to the decorated callable.
+ * A {@link Callable} decorator responsible for propagating the {@link Context} (using its correlationId) to the
+ * decorated callable.
+ * <p/>
+ * When created with an explicit {@link Context}, a detached copy of that context is associated with the thread running
+ * the callable. This is useful when the callable is invoked outside of the request cycle (ex: by a scheduler), after
+ * the original context was unset.
  * 
  * @author Alex Objelean
  * @created 8 May 2012
@@ -15,16 +20,38 @@ import org.apache.commons.lang3.Validate;
 public class ContextPropagatingCallable<T>
     implements Callable<T> {
   private final String correlationId;
+  private final Context context;
   private final Callable<T> decorated;
   
   public ContextPropagatingCallable(final Callable<T> decorated) {
     Validate.notNull(decorated);
     this.decorated = decorated;
     this.correlationId = Context.getCorrelationId();
+    this.context = null;
+  }
+  
+  /**
+   * @param context
+   *          the {@link Context} whose copy will be set during decorated callable invocation.
+   * @since 1.4.8
+   */
+  public ContextPropagatingCallable(final Callable<T> decorated, final Context context) {
+    Validate.notNull(decorated);
+    Validate.notNull(context);
+    this.decorated = decorated;
+    this.correlationId = null;
+    this.context = context;
   }
   
   public T call()
       throws Exception {
+    if (context != null) {
+      return callWithContextCopy();
+    }
+    if (Context.isContextSet() && correlationId.equals(Context.getCorrelationId())) {
+      // already associated with the propagated context (ex: invoked by the thread which created this callable)
+      return decorated.call();
+    }
     Context.setCorrelationId(correlationId);
     try {
       return decorated.call();
@@ -32,4 +59,21 @@ public class ContextPropagatingCallable<T>
       Context.unsetCorrelationId();
     }
   }
+  
+  /**
+   * Sets a copy of the context and restores the context of the calling thread (if any) after the invocation.
+   */
+  private T callWithContextCopy()
+      throws Exception {
+    final String originalCorrelationId = Context.isContextSet() ? Context.getCorrelationId() : null;
+    Context.set(context.copy(), context.getConfig());
+    try {
+      return decorated.call();
+    } finally {
+      Context.unset();
+      if (originalCorrelationId != null) {
+        Context.setCorrelationId(originalCorrelationId);
+      }
+    }
+  }
 }
@@ -51,16 +51,39 @@ public class PropertyWroConfigurationFactory
     config.setJmxEnabled(valueAsBoolean(properties.get(ConfigConstants.jmxEnabled.name()), true));
     config.setCacheUpdatePeriod(valueAsLong(properties.get(ConfigConstants.cacheUpdatePeriod.name()), 0));
     config.setModelUpdatePeriod(valueAsLong(properties.get(ConfigConstants.modelUpdatePeriod.name()), 0));
+    config.setResourceWatcherUpdatePeriod(valueAsLong(properties.get(ConfigConstants.resourceWatcherUpdatePeriod.name()),
+        0));
     config.setDisableCache(valueAsBoolean(properties.get(ConfigConstants.disableCache.name()), false));
     config.setIgnoreMissingResources(valueAsBoolean(properties.get(ConfigConstants.ignoreMissingResources.name()), true));
     config.setIgnoreEmptyGroup(valueAsBoolean(properties.get(ConfigConstants.ignoreEmptyGroup.name()), true));
     config.setIgnoreFailingProcessor(valueAsBoolean(properties.get(ConfigConstants.ignoreFailingProcessor.name()), false));
+    config.setBackgroundCacheRefresh(valueAsBoolean(properties.get(ConfigConstants.backgroundCacheRefresh.name()), false));
+    config.setCacheWarmUp(valueAsBoolean(properties.get(ConfigConstants.cacheWarmUp.name()), false));
+    config.setCacheOffHeap(valueAsBoolean(properties.get(ConfigConstants.cacheOffHeap.name()), false));
+    config.setCacheProcessedResources(valueAsBoolean(properties.get(ConfigConstants.cacheProcessedResources.name()),
+        false));
+    config.setProcessedResourcesMaxSize(valueAsLong(properties.get(ConfigConstants.processedResourcesMaxSize.name()),
+        WroConfiguration.DEFAULT_PROCESSED_RESOURCES_MAX_SIZE));
+    config.setAsyncEnabled(valueAsBoolean(properties.get(ConfigConstants.asyncEnabled.name()), false));
+    config.setAsyncThreads((int) valueAsLong(properties.get(ConfigConstants.asyncThreads.name()), 0));
+    config.setAsyncQueueSize((int) valueAsLong(properties.get(ConfigConstants.asyncQueueSize.name()),
+        WroConfiguration.DEFAULT_ASYNC_QUEUE_SIZE));
+    config.setAsyncTimeout(valueAsLong(properties.get(ConfigConstants.asyncTimeout.name()),
+        WroConfiguration.DEFAULT_ASYNC_TIMEOUT));
     config.setEncoding(valueAsString(properties.get(ConfigConstants.encoding.name()), WroConfiguration.DEFAULT_ENCODING));
     config.setWroManagerClassName(valueAsString(properties.get(ConfigConstants.managerFactoryClassName.name())));
     config.setMbeanName(valueAsString(properties.get(ConfigConstants.mbeanName.name())));
     config.setHeader(valueAsString(properties.get(ConfigConstants.header.name())));
     config.setCacheGzippedContent(valueAsBoolean(properties.get(ConfigConstants.cacheGzippedContent.name()), false));
     config.setParallelPreprocessing(valueAsBoolean(properties.get(ConfigConstants.parallelPreprocessing.name()), false));
+    config.setParallelThreads((int) valueAsLong(properties.get(ConfigConstants.parallelThreads.name()), 0));
+    config.setEnginePoolSize((int) valueAsLong(properties.get(ConfigConstants.enginePoolSize.name()), 0));
+    config.setEnginePoolMinIdle((int) valueAsLong(properties.get(ConfigConstants.enginePoolMinIdle.name()), 0));
+    config.setEnginePoolPrewarm((int) valueAsLong(properties.get(ConfigConstants.enginePoolPrewarm.name()), 0));
+    config.setEnginePoolExhaustedAction(valueAsString(properties.get(ConfigConstants.enginePoolExhaustedAction.name()),
+        WroConfiguration.DEFAULT_ENGINE_POOL_EXHAUSTED_ACTION));
+    config.setScriptOptimizationLevel((int) valueAsLong(properties.get(ConfigConstants.scriptOptimizationLevel.name()),
+        WroConfiguration.DEFAULT_SCRIPT_OPTIMIZATION_LEVEL));
     config.setConnectionTimeout((int) valueAsLong(properties.get(ConfigConstants.connectionTimeout.name()),
         WroConfiguration.DEFAULT_CONNECTION_TIMEOUT));
     LOG.debug("WroConfiguration created: {}", config);
@@ -0,0 +1,150 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.config.jmx;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+
+/**
+ * Thread-safe counters describing the usage of the cache.
+ *
+ * @since 1.4.8
+ */
+public class CacheStatistics
+    implements CacheStatisticsMBean {
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+  private final AtomicLong loadCount = new AtomicLong();
+  private final AtomicLong totalLoadTime = new AtomicLong();
+  private final AtomicLong measuredEntryCount = new AtomicLong();
+  private final AtomicLong totalEntryHeapSize = new AtomicLong();
+  private final AtomicLong totalEntryOffHeapSize = new AtomicLong();
+
+  public void recordHit() {
+    hitCount.incrementAndGet();
+  }
+
+  public void recordMiss() {
+    missCount.incrementAndGet();
+  }
+
+  public void recordEviction() {
+    evictionCount.incrementAndGet();
+  }
+
+  /**
+   * @param loadTime
+   *          the time (in milliseconds) spent to compute a value.
+   */
+  public void recordLoad(final long loadTime) {
+    loadCount.incrementAndGet();
+    totalLoadTime.addAndGet(loadTime);
+  }
+
+  /**
+   * @param heapSize
+   *          the number of bytes used by a computed value on the java heap.
+   * @param offHeapSize
+   *          the number of bytes used by a computed value outside of the java heap.
+   */
+  public void recordEntrySize(final long heapSize, final long offHeapSize) {
+    measuredEntryCount.incrementAndGet();
+    totalEntryHeapSize.addAndGet(heapSize);
+    totalEntryOffHeapSize.addAndGet(offHeapSize);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public double getHitRatio() {
+    final long hits = getHitCount();
+    final long lookups = hits + getMissCount();
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getLoadCount() {
+    return loadCount.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getTotalLoadTime() {
+    return totalLoadTime.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public double getAverageLoadTime() {
+    final long loads = getLoadCount();
+    return loads == 0 ? 0 : (double) getTotalLoadTime() / loads;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public double getAverageEntryHeapSize() {
+    final long entries = measuredEntryCount.get();
+    return entries == 0 ? 0 : (double) totalEntryHeapSize.get() / entries;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public double getAverageEntryOffHeapSize() {
+    final long entries = measuredEntryCount.get();
+    return entries == 0 ? 0 : (double) totalEntryOffHeapSize.get() / entries;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void reset() {
+    hitCount.set(0);
+    missCount.set(0);
+    evictionCount.set(0);
+    loadCount.set(0);
+    totalLoadTime.set(0);
+    measuredEntryCount.set(0);
+    totalEntryHeapSize.set(0);
+    totalEntryOffHeapSize.set(0);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+  }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.config.jmx;
+
+/**
+ * This interface defines the MBean exposing the statistics of the cache holding the processed groups.
+ *
+ * @since 1.4.8
+ */
+public interface CacheStatisticsMBean {
+  /**
+   * @return the number of lookups which found a cached value.
+   */
+  long getHitCount();
+
+  /**
+   * @return the number of lookups which didn't find a cached value.
+   */
+  long getMissCount();
+
+  /**
+   * @return the ratio of lookups which found a cached value, or 0 if no lookup was done.
+   */
+  double getHitRatio();
+
+  /**
+   * @return the number of values removed from the cache in order to respect its size limit.
+   */
+  long getEvictionCount();
+
+  /**
+   * @return the number of values computed.
+   */
+  long getLoadCount();
+
+  /**
+   * @return the time (in milliseconds) spent to compute the values.
+   */
+  long getTotalLoadTime();
+
+  /**
+   * @return the average time (in milliseconds) spent to compute a value, or 0 if no value was computed.
+   */
+  double getAverageLoadTime();
+
+  /**
+   * @return the average number of bytes used on the java heap by a computed value, or 0 if no value was computed.
+   */
+  double getAverageEntryHeapSize();
+
+  /**
+   * @return the average number of bytes used outside of the java heap by a computed value, or 0 if no value was
+   *         computed.
+   */
+  double getAverageEntryOffHeapSize();
+
+  /**
+   * Resets all counters.
+   */
+  void reset();
+}
@@ -32,6 +32,11 @@ public enum ConfigConstants {
    * Parameter containing an integer value for specifying how often (in seconds) the model should be refreshed.
    */
   modelUpdatePeriod,
+  /**
+   * Parameter containing an integer value for specifying how often (in seconds) the resources should be checked for
+   * changes.
+   */
+  resourceWatcherUpdatePeriod,
   /**
    * Disable cache configuration option. When true, the processed content won't be cached in DEVELOPMENT mode. In
    * DEPLOYMENT mode changing this flag will have no effect.
@@ -42,9 +47,38 @@ public enum ConfigConstants {
    */
   parallelPreprocessing,
   /**
-   * When this flag is enabled, the raw processed content will be gzipped only the first time and all subsequent
-   * requests will use the cached gzipped content. Otherwise, the gzip operation will be performed for each request.
-   * This flag allow to control the memory vs processing power trade-off.
+   * The number of threads used for parallel processing (pre processing of resources and cache warm-up). When not
+   * positive, the number of available processors is used. The default value is 0.
+   */
+  parallelThreads,
+  /**
+   * The maximum number of engines (ex: the javascript engines used by processors) created by a pool. When not
+   * positive, the number of available processors (but at least 2) is used. The default value is 0.
+   */
+  enginePoolSize,
+  /**
+   * The minimum number of idle engines kept by a pool, which are never evicted. The default value is 0.
+   */
+  enginePoolMinIdle,
+  /**
+   * The number of engines created when a pool is created, in order to avoid creating them while serving requests. The
+   * default value is 0.
+   */
+  enginePoolPrewarm,
+  /**
+   * What a pool does when all its engines are in use: GROW (create a new engine), BLOCK (wait for an engine to be
+   * returned) or FAIL. The default value is GROW.
+   */
+  enginePoolExhaustedAction,
+  /**
+   * The optimization level used by the rhino engine to compile the scripts: -1 for interpreted mode or a value between
+   * 0 and 9 for compiling the scripts to bytecode. A script which cannot be compiled to bytecode is interpreted. The
+   * default value is -1.
+   */
+  scriptOptimizationLevel,
+  /**
+   * When this flag is enabled, the gzipped content is computed as soon as the processed content is cached. Otherwise,
+   * the gzipped content is computed (only once) when it is first requested.
    */
   cacheGzippedContent,
   /**
@@ -61,6 +95,51 @@ public enum ConfigConstants {
    * will interrupt processing with a {@link RuntimeException}.
    */
   ignoreFailingProcessor,
+  /**
+   * When this flag is true, the cache is refreshed in the background each time the cacheUpdatePeriod elapses, instead
+   * of being cleared. The stale content is served until the new one is computed.
+   */
+  backgroundCacheRefresh,
+  /**
+   * When this flag is true, the content of all groups is computed and cached at filter initialization and after each
+   * cache or model reload.
+   */
+  cacheWarmUp,
+  /**
+   * When this flag is true, the bytes of the cached content are stored in direct buffers, outside of the java heap.
+   */
+  cacheOffHeap,
+  /**
+   * When this flag is true, the result of pre processing each resource is cached and reused until the content of the
+   * resource changes.
+   */
+  cacheProcessedResources,
+  /**
+   * The maximum number of characters of pre processed content cached when cacheProcessedResources is true. The least
+   * recently used resources are evicted when this size is exceeded. The default value is 10485760.
+   */
+  processedResourcesMaxSize,
+  /**
+   * When this flag is true, the requests of the groups which are not cached yet release the container thread and are
+   * processed by a dedicated pool of threads. Requires a container supporting Servlet 3.0 and the filter to be
+   * declared with async-supported. The default value is false.
+   */
+  asyncEnabled,
+  /**
+   * The number of threads processing the asynchronous requests. When not positive, the number of available processors
+   * is used. The default value is 0.
+   */
+  asyncThreads,
+  /**
+   * The maximum number of asynchronous requests waiting for a thread. When the queue is full, the request is processed
+   * by the container thread. The default value is 100.
+   */
+  asyncQueueSize,
+  /**
+   * The timeout (milliseconds) of the asynchronous processing of a request. When not positive, the timeout of the
+   * container is used. The default value is 60000.
+   */
+  asyncTimeout,
   /**
    * Encoding to use when reading and writing bytes from/to stream
    */
@@ -34,6 +34,27 @@ public final class WroConfiguration
    * Default value for connectionTimeout property.
    */
   public static int DEFAULT_CONNECTION_TIMEOUT = 2000;
+  /**
+   * Default value for enginePoolExhaustedAction property.
+   */
+  public static final String DEFAULT_ENGINE_POOL_EXHAUSTED_ACTION = "GROW";
+  /**
+   * Default value for scriptOptimizationLevel property: the interpreted mode, which avoids the size limits of the
+   * generated bytecode, easily reached by the minimized libraries.
+   */
+  public static final int DEFAULT_SCRIPT_OPTIMIZATION_LEVEL = -1;
+  /**
+   * Default value for asyncQueueSize property.
+   */
+  public static final int DEFAULT_ASYNC_QUEUE_SIZE = 100;
+  /**
+   * Default value for asyncTimeout property.
+   */
+  public static final long DEFAULT_ASYNC_TIMEOUT = 60000;
+  /**
+   * Default value for processedResourcesMaxSize property (10M characters).
+   */
+  public static final long DEFAULT_PROCESSED_RESOURCES_MAX_SIZE = 10 * 1024 * 1024;
   /**
    * How often to run a thread responsible for refreshing the cache.
    */
@@ -42,6 +63,10 @@ public final class WroConfiguration
    * How often to run a thread responsible for refreshing the model.
    */
   private long modelUpdatePeriod;
+  /**
+   * How often to run a thread responsible for detecting the changes of the resources.
+   */
+  private long resourceWatcherUpdatePeriod;
   /**
    * Gzip enable flag.
    */
@@ -61,9 +86,8 @@ public final class WroConfiguration
   private boolean disableCache = false;
 
   /**
-   * When this flag is enabled, the raw processed content will be gzipped only the first time and all subsequent
-   * requests will use the cached gzipped content. Otherwise, the gzip operation will be performed for each request.
-   * This flag allow to control the memory vs processing power trade-off.
+   * When this flag is enabled, the gzipped content is computed as soon as the processed content is cached. Otherwise,
+   * the gzipped content is computed (only once) when it is first requested.
    */
   private boolean cacheGzippedContent = false;
   /**
@@ -96,6 +120,34 @@ public final class WroConfiguration
    * By default this flag is false, because this feature is experimental.
    */
   private boolean parallelPreprocessing = false;
+  /**
+   * The number of threads shared by the parallel pre processing and the cache warm-up. When not positive, the number
+   * of available processors is used.
+   */
+  private int parallelThreads = 0;
+  /**
+   * The maximum number of engines (ex: the javascript engines used by processors) created by a pool. When not
+   * positive, the number of available processors (but at least 2) is used.
+   */
+  private int enginePoolSize = 0;
+  /**
+   * The minimum number of idle engines kept by a pool, which are not evicted.
+   */
+  private int enginePoolMinIdle = 0;
+  /**
+   * The number of engines created when a pool is created.
+   */
+  private int enginePoolPrewarm = 0;
+  /**
+   * What a pool does when all its engines are in use: GROW (create a new engine), BLOCK (wait for an engine to be
+   * returned) or FAIL.
+   */
+  private String enginePoolExhaustedAction = DEFAULT_ENGINE_POOL_EXHAUSTED_ACTION;
+  /**
+   * The optimization level used by the rhino engine to compile the scripts: -1 for interpreted mode or a value between
+   * 0 and 9 for compiling the scripts to bytecode.
+   */
+  private int scriptOptimizationLevel = DEFAULT_SCRIPT_OPTIMIZATION_LEVEL;
   /**
    * When a group is empty and this flag is false, the processing will fail. This is useful for runtime solution to
    * allow filter chaining when there is nothing to process for a given request.
@@ -106,6 +158,53 @@ public final class WroConfiguration
    * will interrupt processing with a {@link RuntimeException}.
    */
   private boolean ignoreFailingProcessor = false;
+  /**
+   * When this flag is true, the scheduler triggered by cacheUpdatePeriod will recompute the cached content in the
+   * background, instead of clearing the cache. Until the new content is computed, the stale content is served. By
+   * default this flag is false.
+   */
+  private boolean backgroundCacheRefresh = false;
+  /**
+   * When this flag is true, the content of all groups is computed and cached when the filter is initialized and after
+   * each cache or model reload, instead of waiting for the first request of each group. By default this flag is false.
+   */
+  private boolean cacheWarmUp = false;
+  /**
+   * When this flag is true, the bytes of the cached content (raw and encoded) are stored in direct buffers, outside of
+   * the java heap, reducing the garbage collection pauses caused by a large cache. By default this flag is false.
+   */
+  private boolean cacheOffHeap = false;
+  /**
+   * When this flag is true, the result of pre processing each resource is cached and reused as long as the content of
+   * the resource and the pre processors to apply are not changed. This speeds up the rebuild of groups when only few
+   * resources are changed and the processing of resources contained by more groups. By default this flag is false.
+   */
+  private boolean cacheProcessedResources = false;
+  /**
+   * The maximum number of characters of pre processed content cached when {@link #isCacheProcessedResources()} is
+   * true. The least recently used resources are evicted when this size is exceeded.
+   */
+  private long processedResourcesMaxSize = DEFAULT_PROCESSED_RESOURCES_MAX_SIZE;
+  /**
+   * When true, the requests of the groups which are not cached yet are processed asynchronously, if the container
+   * supports it (Servlet 3.0).
+   */
+  private boolean asyncEnabled = false;
+  /**
+   * The number of threads processing the asynchronous requests. When not positive, the number of available processors
+   * is used.
+   */
+  private int asyncThreads = 0;
+  /**
+   * The maximum number of asynchronous requests waiting for a thread. When the queue is full, the request is processed
+   * by the container thread.
+   */
+  private int asyncQueueSize = DEFAULT_ASYNC_QUEUE_SIZE;
+  /**
+   * The timeout (milliseconds) of the asynchronous processing of a request. When not positive, the timeout of the
+   * container is used.
+   */
+  private long asyncTimeout = DEFAULT_ASYNC_TIMEOUT;
   /**
    * Listeners for the change of cache & model period properties.
    */
@@ -161,6 +260,22 @@ public final class WroConfiguration
   }
 
 
+  /**
+   * {@inheritDoc}
+   */
+  public long getResourceWatcherUpdatePeriod() {
+    return resourceWatcherUpdatePeriod;
+  }
+
+
+  /**
+   * {@inheritDoc}
+   */
+  public void setResourceWatcherUpdatePeriod(final long period) {
+    this.resourceWatcherUpdatePeriod = period;
+  }
+
+
   /**
    * {@inheritDoc}
    */
@@ -438,6 +553,105 @@ public final class WroConfiguration
     this.parallelPreprocessing = parallelPreprocessing;
   }
 
+  /**
+   * @return the number of threads used for parallel processing. When not positive, the number of available processors
+   *         is used.
+   * @since 1.4.8
+   */
+  public int getParallelThreads() {
+    return parallelThreads;
+  }
+
+  /**
+   * @param parallelThreads
+   *          the number of threads used for parallel processing.
+   */
+  public void setParallelThreads(final int parallelThreads) {
+    this.parallelThreads = parallelThreads;
+  }
+
+  /**
+   * @return the maximum number of engines created by a pool. When not positive, the number of available processors
+   *         (but at least 2) is used.
+   * @since 1.4.8
+   */
+  public int getEnginePoolSize() {
+    return enginePoolSize;
+  }
+
+  /**
+   * @param enginePoolSize
+   *          the maximum number of engines created by a pool.
+   */
+  public void setEnginePoolSize(final int enginePoolSize) {
+    this.enginePoolSize = enginePoolSize;
+  }
+
+  /**
+   * @return the minimum number of idle engines kept by a pool.
+   * @since 1.4.8
+   */
+  public int getEnginePoolMinIdle() {
+    return enginePoolMinIdle;
+  }
+
+  /**
+   * @param enginePoolMinIdle
+   *          the minimum number of idle engines kept by a pool.
+   */
+  public void setEnginePoolMinIdle(final int enginePoolMinIdle) {
+    this.enginePoolMinIdle = enginePoolMinIdle;
+  }
+
+  /**
+   * @return the number of engines created when a pool is created.
+   * @since 1.4.8
+   */
+  public int getEnginePoolPrewarm() {
+    return enginePoolPrewarm;
+  }
+
+  /**
+   * @param enginePoolPrewarm
+   *          the number of engines created when a pool is created.
+   */
+  public void setEnginePoolPrewarm(final int enginePoolPrewarm) {
+    this.enginePoolPrewarm = enginePoolPrewarm;
+  }
+
+  /**
+   * @return the action performed by a pool when all its engines are in use: GROW, BLOCK or FAIL.
+   * @since 1.4.8
+   */
+  public String getEnginePoolExhaustedAction() {
+    return enginePoolExhaustedAction;
+  }
+
+  /**
+   * @param enginePoolExhaustedAction
+   *          the action performed by a pool when all its engines are in use: GROW, BLOCK or FAIL.
+   */
+  public void setEnginePoolExhaustedAction(final String enginePoolExhaustedAction) {
+    this.enginePoolExhaustedAction = enginePoolExhaustedAction;
+  }
+
+  /**
+   * @return the optimization level used by the rhino engine to compile the scripts.
+   * @since 1.4.8
+   */
+  public int getScriptOptimizationLevel() {
+    return scriptOptimizationLevel;
+  }
+
+  /**
+   * @param scriptOptimizationLevel
+   *          the optimization level used by the rhino engine to compile the scripts: -1 for interpreted mode or a value
+   *          between 0 and 9 for compiling the scripts to bytecode.
+   */
+  public void setScriptOptimizationLevel(final int scriptOptimizationLevel) {
+    this.scriptOptimizationLevel = scriptOptimizationLevel;
+  }
+
   /**
    * @return value of the flag responsible for handling empty group behavior.
    */
@@ -465,6 +679,148 @@ public final class WroConfiguration
     this.ignoreFailingProcessor = ignoreFailingProcessor;
   }
 
+  /**
+   * @return true if the cache should be refreshed in the background when the cacheUpdatePeriod elapses.
+   */
+  public boolean isBackgroundCacheRefresh() {
+    return backgroundCacheRefresh;
+  }
+
+  /**
+   * @param backgroundCacheRefresh
+   *          flag for turning on/off the background refresh of the cache. When false (default), the cache is cleared
+   *          each time the cacheUpdatePeriod elapses.
+   */
+  public void setBackgroundCacheRefresh(final boolean backgroundCacheRefresh) {
+    this.backgroundCacheRefresh = backgroundCacheRefresh;
+  }
+
+  /**
+   * @return true if the cache should be filled with the content of all groups before any request is served.
+   */
+  public boolean isCacheWarmUp() {
+    return cacheWarmUp;
+  }
+
+  /**
+   * @param cacheWarmUp
+   *          flag for turning on/off the cache warm-up at filter initialization and after cache or model reload.
+   */
+  public void setCacheWarmUp(final boolean cacheWarmUp) {
+    this.cacheWarmUp = cacheWarmUp;
+  }
+
+  /**
+   * @return true if the bytes of the cached content should be stored outside of the java heap.
+   */
+  public boolean isCacheOffHeap() {
+    return cacheOffHeap;
+  }
+
+  /**
+   * @param cacheOffHeap
+   *          flag for turning on/off the storage of cached content in direct buffers.
+   */
+  public void setCacheOffHeap(final boolean cacheOffHeap) {
+    this.cacheOffHeap = cacheOffHeap;
+  }
+
+  /**
+   * @return true if the result of pre processing each resource should be cached.
+   */
+  public boolean isCacheProcessedResources() {
+    return cacheProcessedResources;
+  }
+
+  /**
+   * @param cacheProcessedResources
+   *          flag for turning on/off the cache of pre processed resources.
+   */
+  public void setCacheProcessedResources(final boolean cacheProcessedResources) {
+    this.cacheProcessedResources = cacheProcessedResources;
+  }
+
+  /**
+   * @return the maximum number of characters of cached pre processed content.
+   */
+  public long getProcessedResourcesMaxSize() {
+    return processedResourcesMaxSize;
+  }
+
+  /**
+   * @param processedResourcesMaxSize
+   *          the maximum number of characters of cached pre processed content. Must be greater than 0.
+   */
+  public void setProcessedResourcesMaxSize(final long processedResourcesMaxSize) {
+    this.processedResourcesMaxSize = processedResourcesMaxSize;
+  }
+
+  /**
+   * @return true if the requests of the groups which are not cached yet should be processed asynchronously.
+   * @since 1.4.8
+   */
+  public boolean isAsyncEnabled() {
+    return asyncEnabled;
+  }
+
+  /**
+   * @param asyncEnabled
+   *          flag for turning on/off the asynchronous processing of the requests.
+   */
+  public void setAsyncEnabled(final boolean asyncEnabled) {
+    this.asyncEnabled = asyncEnabled;
+  }
+
+  /**
+   * @return the number of threads processing the asynchronous requests.
+   * @since 1.4.8
+   */
+  public int getAsyncThreads() {
+    return asyncThreads;
+  }
+
+  /**
+   * @param asyncThreads
+   *          the number of threads processing the asynchronous requests. When not positive, the number of available
+   *          processors is used.
+   */
+  public void setAsyncThreads(final int asyncThreads) {
+    this.asyncThreads = asyncThreads;
+  }
+
+  /**
+   * @return the maximum number of asynchronous requests waiting for a thread.
+   * @since 1.4.8
+   */
+  public int getAsyncQueueSize() {
+    return asyncQueueSize;
+  }
+
+  /**
+   * @param asyncQueueSize
+   *          the maximum number of asynchronous requests waiting for a thread.
+   */
+  public void setAsyncQueueSize(final int asyncQueueSize) {
+    this.asyncQueueSize = asyncQueueSize;
+  }
+
+  /**
+   * @return the timeout (milliseconds) of the asynchronous processing of a request.
+   * @since 1.4.8
+   */
+  public long getAsyncTimeout() {
+    return asyncTimeout;
+  }
+
+  /**
+   * @param asyncTimeout
+   *          the timeout (milliseconds) of the asynchronous processing of a request. When not positive, the timeout of
+   *          the container is used.
+   */
+  public void setAsyncTimeout(final long asyncTimeout) {
+    this.asyncTimeout = asyncTimeout;
+  }
+
 
   /**
    * {@inheritDoc}
@@ -33,6 +33,19 @@ public interface WroConfigurationMBean {
 	 */
 	void setCacheUpdatePeriod(final long period);
 
+  /**
+   * @return period in seconds when the resources of the model are checked for changes.
+   */
+  long getResourceWatcherUpdatePeriod();
+
+  /**
+   * Set after how many seconds the resources of the model should be checked for changes. Only the cached content of the
+   * groups containing changed resources is invalidated.
+   *
+   * @param period number of seconds. Zero or less, means never.
+   */
+  void setResourceWatcherUpdatePeriod(final long period);
+
 	/**
 	 * @return true if Gzip is Enabled.
 	 */
@@ -7,11 +7,21 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.management.JMException;
 import javax.management.MBeanServer;
@@ -19,7 +29,6 @@ import javax.management.ObjectName;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
-import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
@@ -32,19 +41,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.cache.AbstractSynchronizedCacheStrategyDecorator;
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentHashEntry;
 import ro.isdc.wro.config.Context;
 import ro.isdc.wro.config.factory.PropertiesAndFilterConfigWroConfigurationFactory;
+import ro.isdc.wro.config.jmx.CacheStatistics;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.http.handler.RequestHandler;
 import ro.isdc.wro.http.handler.factory.DefaultRequestHandlerFactory;
 import ro.isdc.wro.http.handler.factory.RequestHandlerFactory;
+import ro.isdc.wro.http.support.AsyncContextHelper;
 import ro.isdc.wro.http.support.HttpHeader;
 import ro.isdc.wro.http.support.ServletContextAttributeHelper;
 import ro.isdc.wro.manager.WroManager;
 import ro.isdc.wro.manager.factory.DefaultWroManagerFactory;
 import ro.isdc.wro.manager.factory.InjectableWroManagerFactoryDecorator;
 import ro.isdc.wro.manager.factory.WroManagerFactory;
+import ro.isdc.wro.model.group.GroupExtractor;
 import ro.isdc.wro.model.group.processor.Injector;
+import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.locator.support.DispatcherStreamLocator;
 import ro.isdc.wro.util.ObjectFactory;
 import ro.isdc.wro.util.WroUtil;
@@ -85,6 +102,24 @@ public class WroFilter
    * Used to create the collection of requestHandlers to apply
    */
   private RequestHandlerFactory requestHandlerFactory = new DefaultRequestHandlerFactory();
+  /**
+   * Flag indicating if the {@link CacheStatistics} MBean was registered.
+   */
+  private volatile boolean cacheStatisticsRegistered;
+  /**
+   * Processes the asynchronous requests. Created when the first asynchronous request is processed.
+   */
+  private ExecutorService asyncExecutor;
+  /**
+   * The asynchronous requests waiting for the group of a cache key to be processed by another request, mapped by the
+   * cache key. A key is present while its group is processed.
+   */
+  private final Map<CacheEntry, List<Runnable>> waitingAsyncRequests = new HashMap<CacheEntry, List<Runnable>>();
+  /**
+   * Request attribute holding the exception thrown while processing the request asynchronously. The request is
+   * dispatched back to the container, which handles the exception using a container thread.
+   */
+  private static final String ATTRIBUTE_ASYNC_EXCEPTION = WroFilter.class.getName() + ".asyncException";
   
   /**
    * Map containing header values used to control caching. The keys from this values are trimmed and lower-cased when
@@ -103,6 +138,11 @@ public class WroFilter
       return super.get(((String) key).toLowerCase());
     }
   };
+  /**
+   * The name and value pairs of the headersMap, computed each time the headers are initialized. Used to set the
+   * response headers without iterating the map for each request.
+   */
+  private volatile String[][] responseHeaders = new String[0][];
   
   /**
    * @return implementation of {@link ObjectFactory<WroConfiguration>} used to create a {@link WroConfiguration} object.
@@ -124,6 +164,44 @@ public class WroFilter
     registerChangeListeners();
     initJMX();
     doInit(config);
+    if (wroConfiguration.isCacheWarmUp()) {
+      warmUpCache();
+    }
+  }
+  
+  /**
+   * Fills the cache with the content of all groups. Since there is no request available during initialization, a
+   * context holding only the {@link FilterConfig} is used.
+   */
+  private void warmUpCache() {
+    Context.set(Context.webContext(null, null, filterConfig), wroConfiguration);
+    try {
+      wroManagerFactory.create().warmUpCache();
+    } finally {
+      Context.unset();
+    }
+  }
+  
+  /**
+   * Expose the {@link CacheStatistics} MBean, next to the {@link WroConfiguration} MBean. This is done when the first
+   * request is processed, because the {@link WroManager} holding the cache is created lazily.
+   */
+  @SuppressWarnings("unchecked")
+  private void registerCacheStatistics(final WroManager manager) {
+    cacheStatisticsRegistered = true;
+    final CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy = manager.getCacheStrategy();
+    if (cacheStrategy instanceof AbstractSynchronizedCacheStrategyDecorator) {
+      final CacheStatistics statistics = ((AbstractSynchronizedCacheStrategyDecorator<CacheEntry, ContentHashEntry>) cacheStrategy).getStatistics();
+      try {
+        final MBeanServer mbeanServer = getMBeanServer();
+        final ObjectName name = new ObjectName(newMBeanName(), "type", CacheStatistics.class.getSimpleName());
+        if (!mbeanServer.isRegistered(name)) {
+          mbeanServer.registerMBean(statistics, name);
+        }
+      } catch (final JMException e) {
+        LOG.error("Exception occured while registering cache statistics MBean", e);
+      }
+    }
   }
   
   /**
@@ -189,16 +267,7 @@ public class WroFilter
    * @return Context path of the application.
    */
   private String getContextPath() {
-    String contextPath = null;
-    try {
-      contextPath = (String) ServletContext.class.getMethod("getContextPath", new Class<?>[] {}).invoke(
-          filterConfig.getServletContext(), new Object[] {});
-    } catch (final Exception e) {
-      contextPath = "DEFAULT";
-      LOG.warn("Couldn't identify contextPath because you are using older version of servlet-api (<2.5). Using "
-          + contextPath + " contextPath.");
-    }
-    return contextPath.replaceFirst("/", "");
+    return WroUtil.getContextPath(filterConfig.getServletContext());
   }
 
   /**
@@ -267,6 +336,12 @@ public class WroFilter
       }
     }
     LOG.debug("Header Values: {}", headersMap);
+    final String[][] headers = new String[headersMap.size()][];
+    int index = 0;
+    for (final Map.Entry<String, String> entry : headersMap.entrySet()) {
+      headers[index++] = new String[] { entry.getKey(), entry.getValue().trim() };
+    }
+    responseHeaders = headers;
   }
 
   /**
@@ -306,7 +381,12 @@ public class WroFilter
         // add request, response & servletContext to thread local
         Context.set(Context.webContext(request, response, filterConfig), wroConfiguration);
         
-        if (!handledWithRequestHandler(request, response)) {
+        final Exception asyncException = (Exception) request.getAttribute(ATTRIBUTE_ASYNC_EXCEPTION);
+        if (asyncException != null) {
+          request.removeAttribute(ATTRIBUTE_ASYNC_EXCEPTION);
+          onException(asyncException, response, chain);
+        } else if (!handledWithRequestHandler(request, response)
+            && !processedAsynchronously(request, response, chain)) {
           processRequest(request, response);
           onRequestProcessed();
         }
@@ -365,10 +445,176 @@ public class WroFilter
     setResponseHeaders(response);
     // process the uri using manager
     final WroManager manager = wroManagerFactory.create();
+    if (wroConfiguration.isJmxEnabled() && !cacheStatisticsRegistered) {
+      registerCacheStatistics(manager);
+    }
     // getInjector().inject(manager);
     manager.process();
   }
 
+  /**
+   * When the asynchronous processing is enabled and the requested group is not cached yet, the request is processed by
+   * a dedicated pool of threads, releasing the container thread. Only one of the concurrent requests of the same group
+   * is processed while the others are waiting. When it is complete, the waiting requests are served from the cache.
+   * 
+   * @return true if the request will be processed asynchronously.
+   */
+  private boolean processedAsynchronously(final HttpServletRequest request, final HttpServletResponse response,
+      final FilterChain chain) {
+    if (!wroConfiguration.isAsyncEnabled() || wroConfiguration.isDisableCache()
+        || !AsyncContextHelper.isAsyncSupported(request)) {
+      return false;
+    }
+    final WroManager manager = wroManagerFactory.create();
+    final CacheEntry key = getCacheEntry(manager, request);
+    if (key == null || isCached(manager, key)) {
+      return false;
+    }
+    LOG.debug("Processing asynchronously the request of: {}", key);
+    final AsyncContextHelper asyncContext = AsyncContextHelper.startAsync(request);
+    if (wroConfiguration.getAsyncTimeout() > 0) {
+      asyncContext.setTimeout(wroConfiguration.getAsyncTimeout());
+    }
+    final Runnable task = newAsyncTask(request, response, asyncContext);
+    synchronized (waitingAsyncRequests) {
+      final List<Runnable> waitingRequests = waitingAsyncRequests.get(key);
+      if (waitingRequests != null) {
+        waitingRequests.add(task);
+        return true;
+      }
+      waitingAsyncRequests.put(key, new ArrayList<Runnable>());
+    }
+    executeAsync(new Runnable() {
+      public void run() {
+        try {
+          task.run();
+        } finally {
+          final List<Runnable> waitingRequests;
+          synchronized (waitingAsyncRequests) {
+            waitingRequests = waitingAsyncRequests.remove(key);
+          }
+          LOG.debug("Serving {} waiting requests of: {}", waitingRequests.size(), key);
+          for (final Runnable waitingRequest : waitingRequests) {
+            executeAsync(waitingRequest);
+          }
+        }
+      }
+    });
+    return true;
+  }
+  
+  /**
+   * @return true if the content of the key is cached or if this cannot be checked without loading it.
+   */
+  @SuppressWarnings("unchecked")
+  private boolean isCached(final WroManager manager, final CacheEntry key) {
+    final CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy = manager.getCacheStrategy();
+    return !(cacheStrategy instanceof AbstractSynchronizedCacheStrategyDecorator)
+        || ((AbstractSynchronizedCacheStrategyDecorator<CacheEntry, ContentHashEntry>) cacheStrategy).isCached(key);
+  }
+  
+  /**
+   * @return the {@link CacheEntry} of the requested group or null if the request doesn't identify a group.
+   */
+  private CacheEntry getCacheEntry(final WroManager manager, final HttpServletRequest request) {
+    final GroupExtractor groupExtractor = manager.getGroupExtractor();
+    final String groupName = groupExtractor.getGroupName(request);
+    final ResourceType type = groupExtractor.getResourceType(request);
+    return groupName == null || type == null ? null : new CacheEntry(groupName, type,
+        groupExtractor.isMinimized(request));
+  }
+  
+  /**
+   * @return a task processing the request using a {@link Context} created for the asynchronous request and completing
+   *         the asynchronous processing afterwards. The request and the response are valid until the asynchronous
+   *         processing is completed. When the processing fails, the request is dispatched back to the container, since
+   *         the filter chain cannot be continued by the thread of the task.
+   */
+  private Runnable newAsyncTask(final HttpServletRequest request, final HttpServletResponse response,
+      final AsyncContextHelper asyncContext) {
+    return new Runnable() {
+      public void run() {
+        Exception exception = null;
+        Context.set(Context.webContext(request, response, filterConfig), wroConfiguration);
+        try {
+          processRequest(request, response);
+          onRequestProcessed();
+        } catch (final Exception e) {
+          exception = e;
+        } finally {
+          Context.unset();
+        }
+        try {
+          if (exception == null) {
+            asyncContext.complete();
+          } else {
+            request.setAttribute(ATTRIBUTE_ASYNC_EXCEPTION, exception);
+            asyncContext.dispatch();
+          }
+        } catch (final RuntimeException e) {
+          // ex: the asynchronous processing was already ended by the container, because it timed out
+          LOG.debug("Cannot end the asynchronous processing", e);
+        }
+      }
+    };
+  }
+  
+  /**
+   * Submits the task to the asynchronous executor. When the executor cannot accept it (the queue is full or the filter
+   * is destroyed), the task is executed by the calling thread, so that the asynchronous request is always completed.
+   */
+  private void executeAsync(final Runnable task) {
+    try {
+      getAsyncExecutor().execute(task);
+    } catch (final RejectedExecutionException e) {
+      LOG.debug("The asynchronous task was rejected, executing it in the current thread");
+      task.run();
+    }
+  }
+  
+  /**
+   * @return the executor of the asynchronous requests, sized using {@link WroConfiguration#getAsyncThreads()} and
+   *         {@link WroConfiguration#getAsyncQueueSize()}.
+   */
+  private synchronized ExecutorService getAsyncExecutor() {
+    if (asyncExecutor == null) {
+      final int threads = wroConfiguration.getAsyncThreads() > 0 ? wroConfiguration.getAsyncThreads()
+          : Runtime.getRuntime().availableProcessors();
+      final int queueSize = wroConfiguration.getAsyncQueueSize();
+      final BlockingQueue<Runnable> queue = queueSize > 0 ? new ArrayBlockingQueue<Runnable>(queueSize)
+          : new SynchronousQueue<Runnable>();
+      asyncExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+          WroUtil.createDaemonThreadFactory("wroAsync"));
+    }
+    return asyncExecutor;
+  }
+  
+  /**
+   * Stops accepting asynchronous requests and waits for the pending ones to be completed, at most the configured
+   * asynchronous timeout. The tasks submitted afterwards are executed by the submitting thread. The lock is not held
+   * while waiting, because the running tasks submit the waiting requests.
+   */
+  private void shutdownAsyncExecutor() {
+    final ExecutorService executor;
+    synchronized (this) {
+      executor = asyncExecutor;
+    }
+    if (executor != null) {
+      executor.shutdown();
+      try {
+        final long timeout = wroConfiguration.getAsyncTimeout() > 0 ? wroConfiguration.getAsyncTimeout()
+            : WroConfiguration.DEFAULT_ASYNC_TIMEOUT;
+        if (!executor.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+          LOG.warn("The pending asynchronous requests were not completed in {} ms", timeout);
+          executor.shutdownNow();
+        }
+      } catch (final InterruptedException e) {
+        executor.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+  
   /**
    * Invoked when a {@link Exception} is thrown. Allows custom exception handling. The default implementation redirects
    * to 404 {@link WroRuntimeException} is thrown when in DEPLOYMENT mode.
@@ -412,8 +658,8 @@ public class WroFilter
    */
   protected void setResponseHeaders(final HttpServletResponse response) {
     // Force resource caching as best as possible
-    for (final Map.Entry<String, String> entry : headersMap.entrySet()) {
-      response.setHeader(entry.getKey(), entry.getValue());
+    for (final String[] header : responseHeaders) {
+      response.setHeader(header[0], header[1]);
     }
     // prevent caching when in development mode
     if (wroConfiguration.isDebug()) {
@@ -495,6 +741,7 @@ public class WroFilter
    * {@inheritDoc}
    */
   public void destroy() {
+    shutdownAsyncExecutor();
     if (wroManagerFactory != null) {
       wroManagerFactory.destroy();
     }
@@ -1,8 +1,19 @@
 package ro.isdc.wro.http.handler;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -14,13 +25,25 @@ import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.http.support.ContentTypeResolver;
+import ro.isdc.wro.http.support.HttpHeader;
 import ro.isdc.wro.http.support.UnauthorizedRequestException;
 import ro.isdc.wro.model.group.Inject;
 import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
+import ro.isdc.wro.model.resource.locator.support.LocalFileResolver;
 import ro.isdc.wro.model.resource.support.ResourceAuthorizationManager;
+import ro.isdc.wro.model.resource.support.change.ResourceChangeDetector;
+import ro.isdc.wro.model.resource.support.hash.HashStrategy;
+import ro.isdc.wro.util.WroUtil;
 
 /**
- * Provides access to wro resources via a resource proxy.
+ * Provides access to wro resources via a resource proxy. The responses contain an ETag (and a Last-Modified header for
+ * the resources backed by a local file), allowing the conditional requests to be answered with 304 status code. A
+ * single range of bytes can be requested using the Range header.
+ * <p/>
+ * The content of a resource backed by a local file is transferred directly from the file channel, while its metadata
+ * (length, content type and hash) is computed only when the file is changed. The metadata of the other resources is
+ * cached as well and invalidated when a {@link ResourceChangeDetector} reports their change, which is checked at most
+ * once per resource watcher period. This way, the conditional requests are answered without reading the resource.
  *
  * @author Ivar Conradi Østhus
  * @created 19 May 2012
@@ -31,6 +54,7 @@ public class ResourceProxyRequestHandler extends RequestHandlerSupport {
 
   public static final String PARAM_RESOURCE_ID = "id";
   public static final String PATH_RESOURCES = "wroResources";
+  private static final Pattern PATTERN_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
   
   @Inject
   private UriLocatorFactory uriLocatorFactory;
@@ -40,6 +64,17 @@ public class ResourceProxyRequestHandler extends RequestHandlerSupport {
   
   @Inject
   private ResourceAuthorizationManager authManager;
+  @Inject
+  private HashStrategy hashStrategy;
+  /**
+   * The metadata of the file-backed resources served so far, mapped by their uri.
+   */
+  private final Map<String, Metadata> fileMetadata = new ConcurrentHashMap<String, Metadata>();
+  /**
+   * The metadata of the located (not file-backed) resources served so far, mapped by their uri.
+   */
+  private final Map<String, Metadata> resourceMetadata = new ConcurrentHashMap<String, Metadata>();
+  private ResourceChangeDetector resourceChangeDetector;
 
   /**
    * {@inheritDoc}
@@ -48,7 +83,7 @@ public class ResourceProxyRequestHandler extends RequestHandlerSupport {
       throws IOException {
     final String resourceUri = request.getParameter(PARAM_RESOURCE_ID);
     verifyAccess(resourceUri, response);
-    serverProxyResourceUri(resourceUri, response);
+    serverProxyResourceUri(resourceUri, request, response);
   }
 
   /**
@@ -58,19 +93,264 @@ public class ResourceProxyRequestHandler extends RequestHandlerSupport {
     return StringUtils.contains(request.getRequestURI(), PATH_RESOURCES);
   }
 
-  private void serverProxyResourceUri(final String resourceUri, final HttpServletResponse response)
+  private void serverProxyResourceUri(final String resourceUri, final HttpServletRequest request,
+      final HttpServletResponse response)
       throws IOException {
     LOG.debug("[OK] serving proxy resource: {}", resourceUri);
-    final InputStream is = uriLocatorFactory.locate(resourceUri);
+    final File file = LocalFileResolver.get(resourceUri);
+    if (file != null) {
+      final Metadata metadata = getFileMetadata(resourceUri, file);
+      if (!answerNotModified(request, response, metadata)) {
+        serve(request, response, metadata, file, null);
+      }
+    } else {
+      Metadata metadata = getCachedResourceMetadata(resourceUri);
+      if (metadata != null && answerNotModified(request, response, metadata)) {
+        return;
+      }
+      final InputStream is = uriLocatorFactory.locate(resourceUri);
+      try {
+        final byte[] content = IOUtils.toByteArray(is);
+        if (metadata == null || metadata.length != content.length) {
+          metadata = new Metadata(ContentTypeResolver.get(resourceUri, config.getEncoding()), hash(content),
+              content.length, -1);
+          resourceMetadata.put(resourceUri, metadata);
+          getResourceChangeDetector().remember(resourceUri, content);
+          if (answerNotModified(request, response, metadata)) {
+            return;
+          }
+        }
+        serve(request, response, metadata, null, content);
+      } finally {
+        IOUtils.closeQuietly(is);
+      }
+    }
+  }
+
+  /**
+   * @return the metadata of the located resource computed by a previous request, or null if the resource was not
+   *         served yet or was changed since. The change is checked at most once per resource watcher period (never if
+   *         the resource watcher is disabled), so that most of the requests do not read the resource.
+   */
+  private Metadata getCachedResourceMetadata(final String resourceUri) {
+    final Metadata metadata = resourceMetadata.get(resourceUri);
+    if (metadata == null) {
+      return null;
+    }
+    final long period = TimeUnit.SECONDS.toMillis(config.getResourceWatcherUpdatePeriod());
+    final long now = System.currentTimeMillis();
+    if (period > 0 && now - metadata.checkedAt >= period) {
+      metadata.checkedAt = now;
+      if (getResourceChangeDetector().checkChangedFor(resourceUri)) {
+        LOG.debug("Proxy resource changed: {}", resourceUri);
+        resourceMetadata.remove(resourceUri);
+        return null;
+      }
+    }
+    return metadata;
+  }
+
+  private synchronized ResourceChangeDetector getResourceChangeDetector() {
+    if (resourceChangeDetector == null) {
+      resourceChangeDetector = new ResourceChangeDetector(uriLocatorFactory);
+    }
+    return resourceChangeDetector;
+  }
+
+  /**
+   * @return the metadata of the file backing the resource. The metadata is computed only when the file is changed.
+   */
+  private Metadata getFileMetadata(final String resourceUri, final File file)
+      throws IOException {
+    final long lastModified = file.lastModified();
+    final long length = file.length();
+    Metadata metadata = fileMetadata.get(resourceUri);
+    if (metadata == null || metadata.lastModified != lastModified || metadata.length != length) {
+      LOG.debug("Computing metadata of file: {}", file);
+      final InputStream is = new FileInputStream(file);
+      try {
+        metadata = new Metadata(ContentTypeResolver.get(resourceUri, config.getEncoding()), hashStrategy.getHash(is),
+            length, lastModified);
+      } finally {
+        IOUtils.closeQuietly(is);
+      }
+      fileMetadata.put(resourceUri, metadata);
+    }
+    return metadata;
+  }
+
+  private String hash(final byte[] content)
+      throws IOException {
+    return hashStrategy.getHash(new ByteArrayInputStream(content));
+  }
+
+  /**
+   * Writes the headers describing the content and answers with 304 status code if the client already has it.
+   *
+   * @return true if the request was answered.
+   */
+  private boolean answerNotModified(final HttpServletRequest request, final HttpServletResponse response,
+      final Metadata metadata) {
+    response.setContentType(metadata.contentType);
+    response.setHeader(HttpHeader.ETAG.toString(), metadata.etag);
+    if (metadata.lastModifiedAsString != null) {
+      response.setHeader(HttpHeader.LAST_MODIFIED.toString(), metadata.lastModifiedAsString);
+    }
+    response.setHeader(HttpHeader.ACCEPT_RANGES.toString(), "bytes");
+    if (isNotModified(request, metadata)) {
+      LOG.debug("Resource not modified. Sending {} status code", HttpServletResponse.SC_NOT_MODIFIED);
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Writes the requested part of the content, which is either transferred from the file (if not null) or written from
+   * the content array.
+   */
+  private void serve(final HttpServletRequest request, final HttpServletResponse response, final Metadata metadata,
+      final File file, final byte[] content)
+      throws IOException {
+    long start = 0;
+    long end = metadata.length - 1;
+    final long[] range = getRequestedRange(request, metadata);
+    if (range != null) {
+      if (range[0] > range[1]) {
+        response.setHeader(HttpHeader.CONTENT_RANGE.toString(), "bytes */" + metadata.length);
+        response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        return;
+      }
+      start = range[0];
+      end = range[1];
+      response.setHeader(HttpHeader.CONTENT_RANGE.toString(), "bytes " + start + "-" + end + "/" + metadata.length);
+      response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+    } else {
+      response.setStatus(HttpServletResponse.SC_OK);
+    }
+    final long count = end - start + 1;
+    response.setContentLength((int) count);
+    if ("HEAD".equals(request.getMethod())) {
+      return;
+    }
     final OutputStream outputStream = response.getOutputStream();
+    try {
+      if (file != null) {
+        transfer(file, start, count, outputStream);
+      } else {
+        outputStream.write(content, (int) start, (int) count);
+      }
+    } finally {
+      IOUtils.closeQuietly(outputStream);
+    }
+  }
 
-    response.setContentType(ContentTypeResolver.get(resourceUri, config.getEncoding()));
-    int length = IOUtils.copy(is, outputStream);
-    response.setContentLength(length);
-    response.setStatus(HttpServletResponse.SC_OK);
+  /**
+   * Transfers a region of the file using its channel, without copying it to an intermediate buffer of the heap.
+   */
+  private void transfer(final File file, final long start, final long count, final OutputStream outputStream)
+      throws IOException {
+    final FileInputStream fis = new FileInputStream(file);
+    try {
+      final FileChannel channel = fis.getChannel();
+      final WritableByteChannel target = Channels.newChannel(outputStream);
+      long position = start;
+      long remaining = count;
+      while (remaining > 0) {
+        final long transferred = channel.transferTo(position, remaining, target);
+        if (transferred <= 0) {
+          throw new IOException("Cannot transfer the content of file: " + file);
+        }
+        position += transferred;
+        remaining -= transferred;
+      }
+    } finally {
+      IOUtils.closeQuietly(fis);
+    }
+  }
 
-    IOUtils.closeQuietly(outputStream);
-    IOUtils.closeQuietly(is);
+  /**
+   * @return true if the client already has the content described by the metadata. As required by the RFC, the
+   *         If-Modified-Since header is ignored when If-None-Match is present.
+   */
+  private boolean isNotModified(final HttpServletRequest request, final Metadata metadata) {
+    final String ifNoneMatch = request.getHeader(HttpHeader.IF_NONE_MATCH.toString());
+    if (ifNoneMatch != null) {
+      return metadata.etag.equals(ifNoneMatch);
+    }
+    if (metadata.lastModified >= 0) {
+      try {
+        final long ifModifiedSince = request.getDateHeader(HttpHeader.IF_MODIFIED_SINCE.toString());
+        return ifModifiedSince >= 0 && ifModifiedSince >= metadata.lastModified - metadata.lastModified % 1000;
+      } catch (final IllegalArgumentException e) {
+        LOG.debug("Invalid If-Modified-Since header");
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the first and the last position of the single range of bytes requested, or null if the entire content
+   *         should be served. A range whose first position is greater than the last one is not satisfiable.
+   */
+  private long[] getRequestedRange(final HttpServletRequest request, final Metadata metadata) {
+    final String rangeHeader = request.getHeader(HttpHeader.RANGE.toString());
+    if (rangeHeader == null) {
+      return null;
+    }
+    final String ifRange = request.getHeader(HttpHeader.IF_RANGE.toString());
+    if (ifRange != null && !ifRange.equals(metadata.etag) && !ifRange.equals(metadata.lastModifiedAsString)) {
+      // the content changed, serve it entirely
+      return null;
+    }
+    final Matcher matcher = PATTERN_RANGE.matcher(rangeHeader.trim());
+    if (!matcher.matches() || (matcher.group(1).length() == 0 && matcher.group(2).length() == 0)) {
+      // multiple or invalid ranges are ignored
+      LOG.debug("Ignoring range: {}", rangeHeader);
+      return null;
+    }
+    final long length = metadata.length;
+    if (matcher.group(1).length() == 0) {
+      // suffix range: the last n bytes
+      final long suffixLength = Long.parseLong(matcher.group(2));
+      return new long[] { Math.max(0, length - suffixLength), suffixLength == 0 ? -1 : length - 1 };
+    }
+    final long start = Long.parseLong(matcher.group(1));
+    long end = length - 1;
+    if (matcher.group(2).length() > 0) {
+      final long requestedEnd = Long.parseLong(matcher.group(2));
+      if (requestedEnd < start) {
+        return null;
+      }
+      end = Math.min(requestedEnd, end);
+    }
+    return new long[] { start, end };
+  }
+
+  /**
+   * Describes the content of a proxied resource.
+   */
+  private static final class Metadata {
+    private final String contentType;
+    private final String etag;
+    private final long length;
+    /**
+     * The last modification time of the backing file or -1 if unknown.
+     */
+    private final long lastModified;
+    private final String lastModifiedAsString;
+    /**
+     * The last time the resource was checked for changes.
+     */
+    private volatile long checkedAt = System.currentTimeMillis();
+
+    Metadata(final String contentType, final String hash, final long length, final long lastModified) {
+      this.contentType = contentType;
+      this.etag = String.format("\"%s\"", hash);
+      this.length = length;
+      this.lastModified = lastModified;
+      this.lastModifiedAsString = lastModified >= 0 ? WroUtil.toDateAsString(lastModified) : null;
+    }
   }
 
   /**
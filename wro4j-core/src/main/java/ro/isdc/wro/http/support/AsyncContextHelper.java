@@ -0,0 +1,128 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.http.support;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import javax.servlet.ServletRequest;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.WroRuntimeException;
+
+
+/**
+ * Gives access to the asynchronous processing introduced by Servlet 3.0, using reflection. This way, the asynchronous
+ * processing can be used when the container supports it, while still compiling against an older servlet-api.
+ *
+ * @since 1.4.8
+ */
+public final class AsyncContextHelper {
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncContextHelper.class);
+  /**
+   * The javax.servlet.AsyncContext returned by the request.
+   */
+  private final Object asyncContext;
+
+  private AsyncContextHelper(final Object asyncContext) {
+    this.asyncContext = asyncContext;
+  }
+
+  /**
+   * @return true if the request can be put in asynchronous mode: the container supports Servlet 3.0 and all the filters
+   *         and the servlet involved in the request processing support asynchronous processing.
+   */
+  public static boolean isAsyncSupported(final ServletRequest request) {
+    Validate.notNull(request);
+    try {
+      return Boolean.TRUE.equals(invoke(request, "isAsyncSupported"));
+    } catch (final NoSuchMethodException e) {
+      LOG.debug("Asynchronous processing is not supported by servlet-api of the container");
+      return false;
+    }
+  }
+
+  /**
+   * Puts the request into asynchronous mode. The response is not committed when the current dispatch returns
+   * to the container.
+   *
+   * @return the {@link AsyncContextHelper} which must be used to complete the asynchronous processing.
+   */
+  public static AsyncContextHelper startAsync(final ServletRequest request) {
+    Validate.notNull(request);
+    try {
+      return new AsyncContextHelper(invoke(request, "startAsync"));
+    } catch (final NoSuchMethodException e) {
+      throw new WroRuntimeException("Asynchronous processing is not supported", e);
+    }
+  }
+
+  /**
+   * Sets the timeout of the asynchronous processing. When it expires, the container ends the asynchronous processing.
+   *
+   * @param timeout
+   *          the timeout in milliseconds. When not positive, the asynchronous processing never times out.
+   */
+  public void setTimeout(final long timeout) {
+    try {
+      invoke(asyncContext, "setTimeout", new Class<?>[] {
+        long.class
+      }, timeout);
+    } catch (final NoSuchMethodException e) {
+      throw new WroRuntimeException("Cannot set the timeout of the asynchronous processing", e);
+    }
+  }
+
+  /**
+   * Completes the asynchronous processing, committing the response.
+   */
+  public void complete() {
+    try {
+      invoke(asyncContext, "complete");
+    } catch (final NoSuchMethodException e) {
+      throw new WroRuntimeException("Cannot complete the asynchronous processing", e);
+    }
+  }
+
+  /**
+   * Dispatches the request back to the container, which processes it using a container thread.
+   */
+  public void dispatch() {
+    try {
+      invoke(asyncContext, "dispatch");
+    } catch (final NoSuchMethodException e) {
+      throw new WroRuntimeException("Cannot dispatch the asynchronous request", e);
+    }
+  }
+
+  private static Object invoke(final Object target, final String methodName)
+      throws NoSuchMethodException {
+    return invoke(target, methodName, new Class<?>[] {});
+  }
+
+  private static Object invoke(final Object target, final String methodName, final Class<?>[] parameterTypes,
+      final Object... args)
+      throws NoSuchMethodException {
+    final Method method = target.getClass().getMethod(methodName, parameterTypes);
+    if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+      // the implementation of the container could be a non public class
+      method.setAccessible(true);
+    }
+    try {
+      return method.invoke(target, args);
+    } catch (final InvocationTargetException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new WroRuntimeException("Cannot invoke " + methodName, cause);
+    } catch (final IllegalAccessException e) {
+      throw new WroRuntimeException("Cannot invoke " + methodName, e);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.http.support.encoding;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+
+
+/**
+ * Encodes the content served to the client using an encoding supported by the client (ex: gzip). Implementations must
+ * be thread-safe, since the same instance is used to encode the content of all groups.
+ * 
+ * @since 1.4.8
+ */
+public interface ContentEncoder {
+  /**
+   * @return the name of the encoding, used as the value of the Content-Encoding header and as an identifier of the
+   *         encoded representation of the content.
+   */
+  String getName();
+  
+  /**
+   * @param request
+   *          the request for which the content is served.
+   * @return true if the client accepts the content encoded with this encoder.
+   */
+  boolean accepts(HttpServletRequest request);
+  
+  /**
+   * @param content
+   *          the bytes to encode.
+   * @return the encoded bytes.
+   */
+  byte[] encode(byte[] content)
+      throws IOException;
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.http.support.encoding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import ro.isdc.wro.http.support.HttpHeader;
+import ro.isdc.wro.util.WroUtil;
+
+
+/**
+ * Encodes the content using deflate compression (zlib format, as required by the HTTP specification).
+ * 
+ * @since 1.4.8
+ */
+public class DeflateContentEncoder
+    implements ContentEncoder {
+  /**
+   * The name of the encoding.
+   */
+  public static final String NAME = "deflate";
+  
+  /**
+   * {@inheritDoc}
+   */
+  public String getName() {
+    return NAME;
+  }
+  
+  /**
+   * {@inheritDoc}
+   */
+  public boolean accepts(final HttpServletRequest request) {
+    final String acceptEncoding = request != null ? request.getHeader(HttpHeader.ACCEPT_ENCODING.toString()) : null;
+    return WroUtil.isEncodingAccepted(acceptEncoding, NAME);
+  }
+  
+  /**
+   * {@inheritDoc}
+   */
+  public byte[] encode(final byte[] content)
+      throws IOException {
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    final OutputStream os = new DeflaterOutputStream(baos);
+    os.write(content);
+    os.close();
+    return baos.toByteArray();
+  }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.http.support.encoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import ro.isdc.wro.util.WroUtil;
+import ro.isdc.wro.util.io.BufferPool;
+
+
+/**
+ * Encodes the content using gzip compression.
+ * 
+ * @since 1.4.8
+ */
+public class GzipContentEncoder
+    implements ContentEncoder {
+  /**
+   * The name of the encoding.
+   */
+  public static final String NAME = "gzip";
+  
+  /**
+   * {@inheritDoc}
+   */
+  public String getName() {
+    return NAME;
+  }
+  
+  /**
+   * {@inheritDoc}
+   */
+  public boolean accepts(final HttpServletRequest request) {
+    return WroUtil.isGzipSupported(request);
+  }
+  
+  /**
+   * {@inheritDoc}
+   */
+  public byte[] encode(final byte[] content)
+      throws IOException {
+    final BufferPool.ByteBuffer buffer = BufferPool.borrowByteBuffer();
+    try {
+      final OutputStream os = new GZIPOutputStream(buffer);
+      os.write(content);
+      os.close();
+      return buffer.toByteArray();
+    } finally {
+      BufferPool.release(buffer);
+    }
+  }
+}
@@ -8,9 +8,15 @@ import java.lang.ref.WeakReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import ro.isdc.wro.cache.AbstractSynchronizedCacheStrategyDecorator;
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.CacheStrategy;
+import ro.isdc.wro.cache.ContentHashEntry;
+
 
 /**
- * A {@link Runnable} executed by scheduler to clear the cache.
+ * A {@link Runnable} executed by scheduler to clear the cache. When background cache refresh is enabled, the cached
+ * values are recomputed instead, allowing the stale content to be served until the new one is available.
  *
  * @author Alex Objelean
  * @created 24 Oct 2011
@@ -29,9 +35,27 @@ public final class ReloadCacheRunnable
   public void run() {
     LOG.debug("Reloading Cache....");
     try {
-      wroManagerReference.get().getCacheStrategy().clear();
+      final WroManager manager = wroManagerReference.get();
+      manager.clearProcessedResources();
+      final CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy = manager.getCacheStrategy();
+      if (isBackgroundRefreshEnabled(manager) && cacheStrategy instanceof AbstractSynchronizedCacheStrategyDecorator) {
+        ((AbstractSynchronizedCacheStrategyDecorator<CacheEntry, ContentHashEntry>) cacheStrategy).refresh();
+      } else {
+        cacheStrategy.clear();
+        if (isCacheWarmUpEnabled(manager)) {
+          manager.warmUpCache();
+        }
+      }
     } catch (final Exception e) {
       LOG.error("Exception occured during cache reload: ", e);
     }
   }
-}
\ No newline at end of file
+
+  private boolean isCacheWarmUpEnabled(final WroManager manager) {
+    return manager.getConfiguration() != null && manager.getConfiguration().isCacheWarmUp();
+  }
+
+  private boolean isBackgroundRefreshEnabled(final WroManager manager) {
+    return manager.getConfiguration() != null && manager.getConfiguration().isBackgroundCacheRefresh();
+  }
+}
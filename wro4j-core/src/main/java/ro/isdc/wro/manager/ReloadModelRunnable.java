@@ -4,13 +4,19 @@
 package ro.isdc.wro.manager;
 
 import java.lang.ref.WeakReference;
+import java.util.Collection;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import ro.isdc.wro.model.factory.DefaultWroModelFactoryDecorator;
+import ro.isdc.wro.model.factory.WroModelFactory;
+
 
 /**
- * A {@link Runnable} executed by scheduler to clear the model cache.
+ * A {@link Runnable} executed by scheduler to reload the model. When possible, the new model is created while the old
+ * one is still served, then swapped atomically and only the cache entries of the groups which were changed are
+ * evicted.
  *
  * @author Alex Objelean
  * @created 24 Oct 2011
@@ -30,11 +36,22 @@ public final class ReloadModelRunnable
   public void run() {
     LOG.debug("Reloading Model....");
     try {
-      // TODO: do not destroy, until the creation is done and the new model is different than the new one
-      wroManagerReference.get().getModelFactory().destroy();
-      wroManagerReference.get().getCacheStrategy().clear();
+      final WroManager manager = wroManagerReference.get();
+      manager.clearProcessedResources();
+      final WroModelFactory modelFactory = manager.getModelFactory();
+      if (modelFactory instanceof DefaultWroModelFactoryDecorator) {
+        final Collection<String> changedGroupNames = ((DefaultWroModelFactoryDecorator) modelFactory).reload();
+        LOG.debug("Changed groups after model reload: {}", changedGroupNames);
+        manager.evictGroups(changedGroupNames);
+      } else {
+        modelFactory.destroy();
+        manager.getCacheStrategy().clear();
+      }
+      if (manager.getConfiguration() != null && manager.getConfiguration().isCacheWarmUp()) {
+        manager.warmUpCache();
+      }
     } catch (final Exception e) {
       LOG.error("Exception occured during cache reload: ", e);
     }
   }
-}
\ No newline at end of file
+}
@@ -2,6 +2,11 @@ package ro.isdc.wro.manager;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -9,6 +14,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,13 +22,18 @@ import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.cache.CacheEntry;
 import ro.isdc.wro.cache.CacheStrategy;
 import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.cache.HashIndexCacheStrategyDecorator;
+import ro.isdc.wro.cache.HashIndexCacheStrategyDecorator.Validators;
 import ro.isdc.wro.config.Context;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.http.support.HttpHeader;
+import ro.isdc.wro.http.support.encoding.ContentEncoder;
+import ro.isdc.wro.http.support.encoding.DeflateContentEncoder;
+import ro.isdc.wro.http.support.encoding.GzipContentEncoder;
 import ro.isdc.wro.model.group.GroupExtractor;
 import ro.isdc.wro.model.group.Inject;
 import ro.isdc.wro.model.resource.ResourceType;
-import ro.isdc.wro.util.WroUtil;
+import ro.isdc.wro.util.ObjectDecorator;
 
 
 /**
@@ -44,8 +55,34 @@ public class ResourceBundleProcessor {
   @Inject
   private GroupExtractor groupExtractor;
   
-  private boolean isGzipAllowed() {
-    return config.isGzipEnabled() && isGzipSupported();
+  /**
+   * The encoders used to encode the response, in the order of preference.
+   */
+  private List<ContentEncoder> contentEncoders = Arrays.<ContentEncoder> asList(new GzipContentEncoder(),
+      new DeflateContentEncoder());
+  
+  /**
+   * @return the first {@link ContentEncoder} accepted by the client or null if the content should not be encoded.
+   */
+  private ContentEncoder getContentEncoder(final HttpServletRequest request) {
+    if (config.isGzipEnabled()) {
+      for (final ContentEncoder encoder : contentEncoders) {
+        if (encoder.accepts(request)) {
+          return encoder;
+        }
+      }
+    }
+    return null;
+  }
+  
+  /**
+   * @param contentEncoders
+   *          the {@link ContentEncoder}'s to use for encoding the response, in the order of preference.
+   * @since 1.4.8
+   */
+  public void setContentEncoders(final List<ContentEncoder> contentEncoders) {
+    Validate.notNull(contentEncoders);
+    this.contentEncoders = contentEncoders;
   }
   
   /**
@@ -54,8 +91,6 @@ public class ResourceBundleProcessor {
   public void serveProcessedBundle()
       throws IOException {
     final Context context = Context.get();
-    final WroConfiguration configuration = context.getConfig();
-    
     final HttpServletRequest request = context.getRequest();
     final HttpServletResponse response = context.getResponse();
     
@@ -71,44 +106,52 @@ public class ResourceBundleProcessor {
       initAggregatedFolderPath(request, type);
       
       final CacheEntry cacheKey = new CacheEntry(groupName, type, minimize);
+      // answer the conditional and HEAD requests using the index only, without loading the bundle content. The length
+      // of the encoded content is not indexed, so a HEAD request accepting an encoding needs the cached entry.
+      Validators validators = getValidators(cacheKey);
+      if (validators != null
+          && (isNotModified(request, validators) || (isHeadRequest(request) && getContentEncoder(request) == null))) {
+        LOG.debug("Serving {} using the hash index", cacheKey);
+        serveWithoutContent(request, response, type, validators);
+        return;
+      }
       final ContentHashEntry cacheValue = cacheStrategy.get(cacheKey);
-      
-      // TODO move ETag check in wroManagerFactory
-      final String ifNoneMatch = request.getHeader(HttpHeader.IF_NONE_MATCH.toString());
+      validators = getValidators(cacheKey);
+      if (validators != null && isNotModified(request, validators)) {
+        serveWithoutContent(request, response, type, validators);
+        return;
+      }
       
       // enclose etag value in quotes to be compliant with the RFC
-      final String etagValue = String.format("\"%s\"", cacheValue.getHash());
-      
-      if (etagValue != null && etagValue.equals(ifNoneMatch)) {
+      final String etagValue = validators != null ? validators.getETag() : String.format("\"%s\"",
+          cacheValue.getHash());
+      if (validators == null && etagValue.equals(request.getHeader(HttpHeader.IF_NONE_MATCH.toString()))) {
         LOG.debug("ETag hash detected: {}. Sending {} status code", etagValue, HttpServletResponse.SC_NOT_MODIFIED);
         response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
-        // because we cannot return null, return a stream containing nothing.
-        // TODO close output stream?
         return;
       }
-      /**
-       * Set contentType before actual content is written, solves <br/>
-       * <a href="http://code.google.com/p/wro4j/issues/detail?id=341">issue341</a>
-       */
-      if (type != null) {
-        response.setContentType(type.getContentType() + "; charset=" + configuration.getEncoding());
-      }
+      setContentType(response, type, validators);
       // set ETag header
       response.setHeader(HttpHeader.ETAG.toString(), etagValue);
+      if (validators != null) {
+        response.setHeader(HttpHeader.LAST_MODIFIED.toString(), validators.getLastModifiedAsString());
+      }
       
-      os = response.getOutputStream();
-      if (cacheValue.getRawContent() != null) {
-        // use gziped response if supported & Set content length based on gzip flag
-        if (isGzipAllowed()) {
-          response.setContentLength(cacheValue.getGzippedContent().length);
-          // add gzip header and gzip response
-          response.setHeader(HttpHeader.CONTENT_ENCODING.toString(), "gzip");
-          response.setHeader("Vary", "Accept-Encoding");
-          IOUtils.write(cacheValue.getGzippedContent(), os);
+      if (cacheValue.hasContent()) {
+        // use encoded response if supported. The written bytes are computed only once by the cached entry.
+        final ContentEncoder encoder = getContentEncoder(request);
+        final ByteBuffer content;
+        if (encoder != null) {
+          content = cacheValue.getEncodedBuffer(encoder);
+          response.setHeader(HttpHeader.CONTENT_ENCODING.toString(), encoder.getName());
+          response.setHeader(HttpHeader.VARY.toString(), HttpHeader.ACCEPT_ENCODING.toString());
         } else {
-          //using getRawContent().length() is not the same and can return 2Bytes smaller size.
-          response.setContentLength(cacheValue.getRawContent().getBytes(configuration.getEncoding()).length);
-          IOUtils.write(cacheValue.getRawContent(), os, configuration.getEncoding());
+          content = cacheValue.getRawBuffer();
+        }
+        response.setContentLength(content.remaining());
+        if (!isHeadRequest(request)) {
+          os = response.getOutputStream();
+          write(content, os);
         }
       }
     } finally {
@@ -118,16 +161,93 @@ public class ResourceBundleProcessor {
   }
   
   /**
-   * @return true if Gzip is Supported
+   * Set contentType before actual content is written, solves <br/>
+   * <a href="http://code.google.com/p/wro4j/issues/detail?id=341">issue341</a>
+   */
+  private void setContentType(final HttpServletResponse response, final ResourceType type,
+      final Validators validators) {
+    if (validators != null) {
+      // already computed when the bundle was cached
+      response.setContentType(validators.getContentType());
+    } else {
+      response.setContentType(type.getContentType() + "; charset=" + Context.get().getConfig().getEncoding());
+    }
+  }
+  
+  /**
+   * Answers a conditional or a HEAD request, using only the validators of the bundle.
+   */
+  private void serveWithoutContent(final HttpServletRequest request, final HttpServletResponse response,
+      final ResourceType type, final Validators validators) {
+    response.setHeader(HttpHeader.ETAG.toString(), validators.getETag());
+    response.setHeader(HttpHeader.LAST_MODIFIED.toString(), validators.getLastModifiedAsString());
+    if (isNotModified(request, validators)) {
+      LOG.debug("ETag hash detected: {}. Sending {} status code", validators.getETag(),
+          HttpServletResponse.SC_NOT_MODIFIED);
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    } else {
+      setContentType(response, type, validators);
+      response.setContentLength((int) validators.getContentLength());
+    }
+  }
+  
+  /**
+   * @return true if the client already has the content described by the validators. As required by the RFC, the
+   *         If-Modified-Since header is ignored when If-None-Match is present.
    */
-  private boolean isGzipSupported() {
-    return WroUtil.isGzipSupported(Context.get().getRequest());
+  private boolean isNotModified(final HttpServletRequest request, final Validators validators) {
+    final String ifNoneMatch = request.getHeader(HttpHeader.IF_NONE_MATCH.toString());
+    if (ifNoneMatch != null) {
+      return validators.getETag().equals(ifNoneMatch);
+    }
+    try {
+      final long ifModifiedSince = request.getDateHeader(HttpHeader.IF_MODIFIED_SINCE.toString());
+      return ifModifiedSince >= 0 && ifModifiedSince >= validators.getLastModified();
+    } catch (final IllegalArgumentException e) {
+      LOG.debug("Invalid If-Modified-Since header: {}", request.getHeader(HttpHeader.IF_MODIFIED_SINCE.toString()));
+      return false;
+    }
+  }
+  
+  private boolean isHeadRequest(final HttpServletRequest request) {
+    return "HEAD".equals(request.getMethod());
+  }
+  
+  /**
+   * @return the indexed {@link Validators} of the key or null if the cacheStrategy has no
+   *         {@link HashIndexCacheStrategyDecorator} in its decorators chain.
+   */
+  private Validators getValidators(final CacheEntry key) {
+    Object object = cacheStrategy;
+    while (object instanceof ObjectDecorator<?>) {
+      if (object instanceof HashIndexCacheStrategyDecorator) {
+        return ((HashIndexCacheStrategyDecorator) object).getValidators(key);
+      }
+      object = ((ObjectDecorator<?>) object).getDecoratedObject();
+    }
+    return null;
+  }
+  
+  /**
+   * Writes the content of the buffer to the stream. The content of a direct buffer is transferred through a channel,
+   * without copying the entire content to the heap.
+   */
+  private void write(final ByteBuffer content, final OutputStream os)
+      throws IOException {
+    if (content.hasArray()) {
+      os.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+    } else {
+      final WritableByteChannel channel = Channels.newChannel(os);
+      while (content.hasRemaining()) {
+        channel.write(content);
+      }
+    }
   }
   
   /**
-   * Set the aggregatedFolderPath if required.
+   * Set the aggregatedFolderPath of the current {@link Context} if required.
    */
-  private void initAggregatedFolderPath(final HttpServletRequest request, final ResourceType type) {
+  static void initAggregatedFolderPath(final HttpServletRequest request, final ResourceType type) {
     if (ResourceType.CSS == type && Context.get().getAggregatedFolderPath() == null) {
       final String requestUri = request.getRequestURI();
       final String cssFolder = StringUtils.removeEnd(requestUri, FilenameUtils.getName(requestUri));
@@ -0,0 +1,43 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.manager;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A {@link Runnable} executed by scheduler to detect the changes of the resources. Only the cache entries of the groups
+ * containing changed resources are evicted.
+ *
+ * @since 1.4.8
+ */
+public final class ResourceWatcherRunnable
+  implements Runnable {
+  private static final Logger LOG = LoggerFactory.getLogger(ResourceWatcherRunnable.class);
+
+  private final WeakReference<WroManager> wroManagerReference;
+
+
+  public ResourceWatcherRunnable(final WroManager wroManager) {
+    wroManagerReference = new WeakReference<WroManager>(wroManager);
+  }
+
+  public void run() {
+    LOG.debug("Checking resources for changes....");
+    try {
+      final WroManager manager = wroManagerReference.get();
+      final Collection<String> changedGroupNames = manager.evictGroupsWithChangedResources();
+      if (!changedGroupNames.isEmpty() && manager.getConfiguration() != null
+          && manager.getConfiguration().isCacheWarmUp()) {
+        manager.warmUpCache();
+      }
+    } catch (final Exception e) {
+      LOG.error("Exception occured during resource watching: ", e);
+    }
+  }
+}
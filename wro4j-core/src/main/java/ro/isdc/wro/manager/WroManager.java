@@ -4,8 +4,17 @@
 package ro.isdc.wro.manager;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.ToStringBuilder;
@@ -16,25 +25,37 @@ import org.slf4j.LoggerFactory;
 import ro.isdc.wro.cache.CacheEntry;
 import ro.isdc.wro.cache.CacheStrategy;
 import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.ContextPropagatingCallable;
 import ro.isdc.wro.config.WroConfigurationChangeListener;
 import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.http.support.encoding.ContentEncoder;
 import ro.isdc.wro.manager.callback.LifecycleCallback;
 import ro.isdc.wro.manager.callback.LifecycleCallbackRegistry;
 import ro.isdc.wro.manager.factory.WroManagerFactory;
 import ro.isdc.wro.model.WroModel;
 import ro.isdc.wro.model.factory.WroModelFactory;
+import ro.isdc.wro.model.group.Group;
 import ro.isdc.wro.model.group.GroupExtractor;
 import ro.isdc.wro.model.group.Inject;
 import ro.isdc.wro.model.group.processor.GroupsProcessor;
 import ro.isdc.wro.model.group.processor.Injector;
+import ro.isdc.wro.model.group.processor.PreProcessorExecutor;
+import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
+import ro.isdc.wro.model.resource.processor.ManagedProcessor;
 import ro.isdc.wro.model.resource.processor.factory.ProcessorsFactory;
+import ro.isdc.wro.model.resource.processor.support.ProcessorsUtils;
+import ro.isdc.wro.model.resource.support.change.ResourceChangeDetector;
 import ro.isdc.wro.model.resource.support.hash.HashStrategy;
 import ro.isdc.wro.model.resource.support.naming.NamingStrategy;
+import ro.isdc.wro.util.AbstractDecorator;
 import ro.isdc.wro.util.LazyInitializer;
 import ro.isdc.wro.util.SchedulerHelper;
+import ro.isdc.wro.util.TaskExecutor;
 import ro.isdc.wro.util.Transformer;
+import ro.isdc.wro.util.io.BufferPool;
 
 
 /**
@@ -71,6 +92,8 @@ public class WroManager
   @Inject
   private GroupsProcessor groupsProcessor;
   @Inject
+  private PreProcessorExecutor preProcessorExecutor;
+  @Inject
   private WroConfiguration config;
   /**
    * HashBuilder for creating a hash based on the processed content.
@@ -91,7 +114,27 @@ public class WroManager
    * Schedules the cache update.
    */
   private final SchedulerHelper cacheSchedulerHelper;
+  /**
+   * Schedules the detection of the resources changes.
+   */
+  private final SchedulerHelper resourceWatcherSchedulerHelper;
+  /**
+   * Runs the parallel processing (pre processing of resources and cache warm-up).
+   */
+  private final TaskExecutor taskExecutor = new TaskExecutor("parallelProcessing");
+  private ResourceChangeDetector resourceChangeDetector;
   private ResourceBundleProcessor resourceBundleProcessor;
+  /**
+   * Detached copy of the context used by the last cache warm-up. Allows the warm-up to be repeated outside of the
+   * request cycle (ex: by the scheduler after cache or model reload).
+   */
+  private volatile Context warmUpContext;
+  private final AtomicBoolean processorsStarted = new AtomicBoolean();
+  /**
+   * Detached copy of the context used to detect the changes of the resources outside of the request cycle. It doesn't
+   * hold the request and the response (see {@link Context#copy()}), which are recycled once the request cycle is over.
+   */
+  private volatile Context resourceWatcherContext;
   
   public WroManager() {
     cacheSchedulerHelper = SchedulerHelper.create(new LazyInitializer<Runnable>() {
@@ -106,6 +149,12 @@ public class WroManager
         return new ReloadModelRunnable(WroManager.this);
       }
     }, ReloadModelRunnable.class.getSimpleName());
+    resourceWatcherSchedulerHelper = SchedulerHelper.create(new LazyInitializer<Runnable>() {
+      @Override
+      protected Runnable initialize() {
+        return new ResourceWatcherRunnable(WroManager.this);
+      }
+    }, ResourceWatcherRunnable.class.getSimpleName());
     resourceBundleProcessor = new ResourceBundleProcessor();
   }
   
@@ -118,9 +167,14 @@ public class WroManager
   public final void process()
       throws IOException {
     validate();
+    startProcessors();
     // reschedule cache & model updates
     cacheSchedulerHelper.scheduleWithPeriod(config.getCacheUpdatePeriod());
     modelSchedulerHelper.scheduleWithPeriod(config.getModelUpdatePeriod());
+    if (config.getResourceWatcherUpdatePeriod() > 0 && resourceWatcherContext == null) {
+      resourceWatcherContext = Context.get().copy();
+    }
+    resourceWatcherSchedulerHelper.scheduleWithPeriod(config.getResourceWatcherUpdatePeriod());
     // Inject
     injector.inject(getResourceBundleProcessor());
     getResourceBundleProcessor().serveProcessedBundle();
@@ -147,6 +201,186 @@ public class WroManager
     return formatVersionedResource(cacheValue.getHash(), groupUrl);
   }
   
+  /**
+   * Computes and caches the content of each group, for every resource type it contains and for both minimized and not
+   * minimized versions, before any request is made for it. The work is performed by a bounded pool of threads and the
+   * progress is reported to the registered {@link ro.isdc.wro.manager.callback.WarmUpCallback}'s. Any failure is logged and does not interrupt
+   * the warm-up of remaining groups.
+   * <p/>
+   * A detached copy of the current {@link Context} is used and remembered, allowing the warm-up to be repeated outside
+   * of the request cycle. Since no request is available, the servlet context resources are located without using the
+   * request dispatcher. The css entries processed by a processor depending on the requested folder (ex: the url
+   * rewriting of the images) are not warmed up, since the folder the group is served from (the filter mapping and the
+   * context path) is known only when the group is requested. These entries are computed by the first request.
+   * 
+   * @since 1.4.8
+   */
+  public final void warmUpCache() {
+    startProcessors();
+    if (Context.isContextSet()) {
+      warmUpContext = Context.get().copy();
+    }
+    final Context context = warmUpContext;
+    if (context == null) {
+      LOG.debug("No context available for cache warm-up. Skipping...");
+      return;
+    }
+    try {
+      final List<CacheEntry> keys = new ContextPropagatingCallable<List<CacheEntry>>(new Callable<List<CacheEntry>>() {
+        public List<CacheEntry> call() {
+          return getWarmUpKeys(modelFactory.create());
+        }
+      }, context).call();
+      warmUp(keys, context);
+    } catch (final Exception e) {
+      LOG.error("Cache warm-up failed", e);
+    }
+  }
+  
+  private List<CacheEntry> getWarmUpKeys(final WroModel model) {
+    final List<CacheEntry> keys = new ArrayList<CacheEntry>();
+    for (final Group group : model.getGroups()) {
+      for (final ResourceType type : ResourceType.values()) {
+        if (group.hasResourcesOfType(type)) {
+          for (final boolean minimize : new boolean[] { true, false }) {
+            if (dependsOnAggregatedFolderPath(type, minimize)) {
+              LOG.debug("Skipping warm-up of group {} ({}), computed on first request", group.getName(), type);
+            } else {
+              keys.add(new CacheEntry(group.getName(), type, minimize));
+            }
+          }
+        }
+      }
+    }
+    return keys;
+  }
+  
+  /**
+   * @return true if the content of a group of the given type depends on the folder it is requested from.
+   */
+  private boolean dependsOnAggregatedFolderPath(final ResourceType type, final boolean minimize) {
+    final List<Object> processors = new ArrayList<Object>(ProcessorsUtils.filterProcessorsToApply(minimize, type,
+        processorsFactory.getPreProcessors()));
+    processors.addAll(ProcessorsUtils.filterProcessorsToApply(minimize, type, processorsFactory.getPostProcessors()));
+    return ProcessorsUtils.dependsOnAggregatedFolderPath(processors);
+  }
+  
+  private void warmUp(final List<CacheEntry> keys, final Context context) {
+    LOG.debug("Warming up {} cache entries", keys.size());
+    getCallbackRegistry().onBeforeWarmUp();
+    if (!keys.isEmpty()) {
+      // process the resources shared by many groups only once
+      beginBuild();
+      final List<Callable<ContentHashEntry>> callables = new ArrayList<Callable<ContentHashEntry>>();
+      for (final CacheEntry key : keys) {
+        callables.add(new ContextPropagatingCallable<ContentHashEntry>(new Callable<ContentHashEntry>() {
+          public ContentHashEntry call() {
+            return cacheStrategy.get(key);
+          }
+        }, context));
+      }
+      try {
+        final List<Future<ContentHashEntry>> futures = taskExecutor.submit(callables,
+            context.getConfig().getParallelThreads());
+        for (int i = 0; i < futures.size(); i++) {
+          try {
+            futures.get(i).get();
+          } catch (final Exception e) {
+            LOG.error("Failed to warm up cache entry: " + keys.get(i), e);
+          }
+          getCallbackRegistry().onWarmUpProgress(i + 1, keys.size());
+        }
+      } finally {
+        endBuild();
+      }
+    }
+    getCallbackRegistry().onAfterWarmUp();
+  }
+  
+  /**
+   * Starts a build of many groups (ex: by a build tool processing all the groups). Until {@link #endBuild()} is
+   * invoked, a resource belonging to many groups is located and pre processed only once. Should be used in a
+   * try/finally block.
+   * 
+   * @since 1.4.8
+   */
+  public final void beginBuild() {
+    preProcessorExecutor.beginBuild();
+  }
+  
+  /**
+   * Ends the build started by {@link #beginBuild()}, discarding the pre processed resources shared by the processed
+   * groups.
+   * 
+   * @since 1.4.8
+   */
+  public final void endBuild() {
+    preProcessorExecutor.endBuild();
+  }
+  
+  /**
+   * Checks all the resources of the model for changes and evicts the cached content of the groups containing at least
+   * one changed resource. The first invocation only computes the fingerprints of the resources. When invoked outside of
+   * the request cycle, the context captured by the last processed request is used.
+   *
+   * @return the names of the evicted groups.
+   * @since 1.4.8
+   */
+  public final Collection<String> evictGroupsWithChangedResources() {
+    final Context context = Context.isContextSet() ? Context.get() : resourceWatcherContext;
+    if (context == null) {
+      LOG.debug("No context available for resource change detection. Skipping...");
+      return Collections.emptySet();
+    }
+    try {
+      final Collection<String> changedGroupNames = new ContextPropagatingCallable<Collection<String>>(
+          new Callable<Collection<String>>() {
+            public Collection<String> call() {
+              return getGroupNamesWithChangedResources(modelFactory.create());
+            }
+          }, context).call();
+      LOG.debug("Groups with changed resources: {}", changedGroupNames);
+      evictGroups(changedGroupNames);
+      return changedGroupNames;
+    } catch (final Exception e) {
+      LOG.error("Resource change detection failed", e);
+      return Collections.emptySet();
+    }
+  }
+
+  private Collection<String> getGroupNamesWithChangedResources(final WroModel model) {
+    final Set<String> checkedUris = new LinkedHashSet<String>();
+    final Set<String> groupNames = new LinkedHashSet<String>();
+    for (final Resource resource : model.getAllResources()) {
+      final String uri = resource.getUri();
+      // the same uri can be used by several resources (ex: with different minimize flag)
+      if (checkedUris.add(uri) && getResourceChangeDetector().checkChangedFor(uri)) {
+        groupNames.addAll(model.getGroupNamesContainingResource(uri));
+      }
+    }
+    return groupNames;
+  }
+
+  private synchronized ResourceChangeDetector getResourceChangeDetector() {
+    if (resourceChangeDetector == null) {
+      resourceChangeDetector = new ResourceChangeDetector(uriLocatorFactory);
+    }
+    return resourceChangeDetector;
+  }
+
+  /**
+   * Evicts the cached content of the provided groups, for all resource types and both minimized and not minimized
+   * versions.
+   */
+  final void evictGroups(final Collection<String> groupNames) {
+    for (final String groupName : groupNames) {
+      for (final ResourceType type : ResourceType.values()) {
+        cacheStrategy.put(new CacheEntry(groupName, type, true), null);
+        cacheStrategy.put(new CacheEntry(groupName, type, false), null);
+      }
+    }
+  }
+
   /**
    * Format the version of the resource in the path. Default implementation use hash as a folder: <hash>/groupName.js.
    * The implementation can be changed to follow a different versioning style, like version parameter:
@@ -170,6 +404,7 @@ public class WroManager
     cacheSchedulerHelper.scheduleWithPeriod(period);
     // flush the cache by destroying it.
     cacheStrategy.clear();
+    clearProcessedResources();
   }
   
   /**
@@ -179,16 +414,37 @@ public class WroManager
     LOG.info("onModelPeriodChanged with value {} has been triggered!", period);
     // trigger model destroy
     getModelFactory().destroy();
+    clearProcessedResources();
     modelSchedulerHelper.scheduleWithPeriod(period);
   }
   
   /**
-   * Called when {@link WroManager} is being taken out of service.
+   * Discards the pre processed content of the resources cached when
+   * {@link WroConfiguration#isCacheProcessedResources()} is true. Invoked when the cache or the model is reloaded.
+   * 
+   * @since 1.4.8
+   */
+  public final void clearProcessedResources() {
+    if (preProcessorExecutor != null) {
+      preProcessorExecutor.clearProcessedResources();
+    }
+  }
+  
+  /**
+   * Called when {@link WroManager} is being taken out of service. The threads of the {@link TaskExecutor} are stopped
+   * together with their pooled buffers, the buffers pooled by the current thread are dropped and the
+   * {@link ManagedProcessor}'s are destroyed.
    */
   public final void destroy() {
     try {
       cacheSchedulerHelper.destroy();
       modelSchedulerHelper.destroy();
+      resourceWatcherSchedulerHelper.destroy();
+      taskExecutor.destroy();
+      BufferPool.clear();
+      for (final ManagedProcessor processor : getManagedProcessors()) {
+        processor.destroy();
+      }
       cacheStrategy.destroy();
       modelFactory.destroy();
     } catch (final Exception e) {
@@ -198,6 +454,39 @@ public class WroManager
     }
   }
   
+  /**
+   * Starts the processors implementing {@link ManagedProcessor}, only once. Invoked when the manager is started, by
+   * the first processing or cache warm-up (ex: the warm-up performed when the filter is initialized).
+   *
+   * @since 1.4.8
+   */
+  public final void startProcessors() {
+    if (processorsStarted.compareAndSet(false, true)) {
+      for (final ManagedProcessor processor : getManagedProcessors()) {
+        processor.start();
+      }
+    }
+  }
+
+  /**
+   * @return the distinct processors implementing {@link ManagedProcessor}, the decorated ones included. A processor can
+   *         be used both as pre and post processor.
+   */
+  private Collection<ManagedProcessor> getManagedProcessors() {
+    final Map<ManagedProcessor, Boolean> processors = new IdentityHashMap<ManagedProcessor, Boolean>();
+    if (processorsFactory != null) {
+      final List<Object> candidates = new ArrayList<Object>(processorsFactory.getPreProcessors());
+      candidates.addAll(processorsFactory.getPostProcessors());
+      for (final Object candidate : candidates) {
+        final Object processor = AbstractDecorator.getOriginalDecoratedObject(candidate);
+        if (processor instanceof ManagedProcessor) {
+          processors.put((ManagedProcessor) processor, Boolean.TRUE);
+        }
+      }
+    }
+    return processors.keySet();
+  }
+
   /**
    * Check if all dependencies are set.
    */
@@ -317,6 +606,21 @@ public class WroManager
     return this.groupsProcessor;
   }
   
+  /**
+   * @return the {@link TaskExecutor} running the parallel processing, stopped when this manager is destroyed.
+   * @since 1.4.8
+   */
+  public final TaskExecutor getTaskExecutor() {
+    return taskExecutor;
+  }
+  
+  /**
+   * @return the injected {@link WroConfiguration} or null if the manager wasn't injected yet.
+   */
+  public final WroConfiguration getConfiguration() {
+    return this.config;
+  }
+  
   /**
    * Registers a callback.
    * 
@@ -335,6 +639,15 @@ public class WroManager
   public final void setModelTransformers(final List<Transformer<WroModel>> modelTransformers) {
     this.modelTransformers = modelTransformers;
   }
+  
+  /**
+   * @param contentEncoders
+   *          the {@link ContentEncoder}'s used to encode the served content, in the order of preference.
+   * @since 1.4.8
+   */
+  public final void setContentEncoders(final List<ContentEncoder> contentEncoders) {
+    getResourceBundleProcessor().setContentEncoders(contentEncoders);
+  }
  
   
   public LifecycleCallbackRegistry getCallbackRegistry() {
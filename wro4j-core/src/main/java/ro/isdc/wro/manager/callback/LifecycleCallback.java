@@ -6,6 +6,9 @@ package ro.isdc.wro.manager.callback;
 /**
  * Defines callbacks invoked by the manager during processing. Any of the lifecycle method can throw a
  * {@link RuntimeException} which will be handled properly by {@link LifecycleCallbackRegistry}.
+ * <p/>
+ * The callbacks related to the cache warm-up are declared by {@link WarmUpCallback}, which can be implemented
+ * additionally. Prefer extending {@link LifecycleCallbackSupport}, which provides empty implementations for all of them.
  *
  * @author Alex Objelean
  * @created 26 Oct 2011
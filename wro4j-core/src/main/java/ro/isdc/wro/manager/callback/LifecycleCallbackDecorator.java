@@ -15,7 +15,7 @@ import org.apache.commons.lang3.Validate;
  * @since 1.4.3
  */
 public class LifecycleCallbackDecorator
-    implements LifecycleCallback {
+    implements LifecycleCallback, WarmUpCallback {
   private final LifecycleCallback decorated;
 
   public LifecycleCallbackDecorator(final LifecycleCallback decorated) {
@@ -85,4 +85,31 @@ public class LifecycleCallbackDecorator
   public void onProcessingComplete() {
     decorated.onProcessingComplete();
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void onBeforeWarmUp() {
+    if (decorated instanceof WarmUpCallback) {
+      ((WarmUpCallback) decorated).onBeforeWarmUp();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void onWarmUpProgress(final int completed, final int total) {
+    if (decorated instanceof WarmUpCallback) {
+      ((WarmUpCallback) decorated).onWarmUpProgress(completed, total);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void onAfterWarmUp() {
+    if (decorated instanceof WarmUpCallback) {
+      ((WarmUpCallback) decorated).onAfterWarmUp();
+    }
+  }
 }
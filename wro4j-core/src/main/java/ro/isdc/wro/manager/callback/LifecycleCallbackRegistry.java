@@ -14,14 +14,15 @@ import org.slf4j.LoggerFactory;
 /**
  * Register all available callbacks. The registry acts as a {@link LifecycleCallback} itself whose implementation
  * delegate the call to registered callbacks. The registry will handle any runtime exceptions thrown by callbacks, in
- * order to allow successful lifecycle execution.
+ * order to allow successful lifecycle execution. The warm-up events are delegated only to the callbacks implementing
+ * {@link WarmUpCallback}.
  *
  * @author Alex Objelean
  * @created Created on 8 Dec 2011
  * @since 1.4.3
  */
 public class LifecycleCallbackRegistry
-  implements LifecycleCallback {
+  implements LifecycleCallback, WarmUpCallback {
   private static final Logger LOG = LoggerFactory.getLogger(LifecycleCallbackRegistry.class);
 
   /**
@@ -158,5 +159,50 @@ public class LifecycleCallbackRegistry
     }    
   }
   
+  /**
+   * {@inheritDoc}
+   */
+  public void onBeforeWarmUp() {
+    for (final LifecycleCallback callback : callbacks) {
+      if (callback instanceof WarmUpCallback) {
+        try {
+          ((WarmUpCallback) callback).onBeforeWarmUp();
+        } catch (final Exception e) {
+          LOG.error("Problem invoking onBeforeWarmUp", e);
+        }
+      }
+    }
+  }
+  
+  /**
+   * {@inheritDoc}
+   */
+  public void onWarmUpProgress(final int completed, final int total) {
+    for (final LifecycleCallback callback : callbacks) {
+      if (callback instanceof WarmUpCallback) {
+        try {
+          ((WarmUpCallback) callback).onWarmUpProgress(completed, total);
+        } catch (final Exception e) {
+          LOG.error("Problem invoking onWarmUpProgress", e);
+        }
+      }
+    }
+  }
+  
+  /**
+   * {@inheritDoc}
+   */
+  public void onAfterWarmUp() {
+    for (final LifecycleCallback callback : callbacks) {
+      if (callback instanceof WarmUpCallback) {
+        try {
+          ((WarmUpCallback) callback).onAfterWarmUp();
+        } catch (final Exception e) {
+          LOG.error("Problem invoking onAfterWarmUp", e);
+        }
+      }
+    }
+  }
+  
   
 }
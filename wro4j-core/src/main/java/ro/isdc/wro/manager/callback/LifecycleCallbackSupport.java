@@ -4,14 +4,16 @@
 package ro.isdc.wro.manager.callback;
 
 /**
- * Default implementation of {@link LifecycleCallback} interface with empty implementations.
+ * Default implementation of {@link LifecycleCallback} and {@link WarmUpCallback} interfaces with empty
+ * implementations. Custom callbacks should extend this class, in order to remain compatible with the callback methods
+ * added by future versions.
  * 
  * @author Alex Objelean
  * @created 26 Oct 2011
  * @since 1.4.3
  */
 public class LifecycleCallbackSupport
-    implements LifecycleCallback {
+    implements LifecycleCallback, WarmUpCallback {
   /**
    * {@inheritDoc}
    */
@@ -65,4 +67,22 @@ public class LifecycleCallbackSupport
    */
   public void onAfterMerge() {
   }
+  
+  /**
+   * {@inheritDoc}
+   */
+  public void onBeforeWarmUp() {
+  }
+  
+  /**
+   * {@inheritDoc}
+   */
+  public void onWarmUpProgress(final int completed, final int total) {
+  }
+  
+  /**
+   * {@inheritDoc}
+   */
+  public void onAfterWarmUp() {
+  }
 }
@@ -0,0 +1,33 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.manager.callback;
+
+/**
+ * Callbacks invoked by the manager during the cache warm-up. Declared separately from {@link LifecycleCallback} in
+ * order to keep existing implementations of that interface valid: a registered {@link LifecycleCallback} is notified
+ * about the warm-up only if it implements this interface as well (as {@link LifecycleCallbackSupport} does).
+ *
+ * @since 1.4.8
+ */
+public interface WarmUpCallback {
+  /**
+   * Called before the cache warm-up starts.
+   */
+  void onBeforeWarmUp();
+
+  /**
+   * Called each time the content of a cache entry is computed during warm-up.
+   *
+   * @param completed
+   *          the number of cache entries processed so far (including the failed ones).
+   * @param total
+   *          the number of cache entries to warm up.
+   */
+  void onWarmUpProgress(int completed, int total);
+
+  /**
+   * Called after all cache entries were warmed up.
+   */
+  void onAfterWarmUp();
+}
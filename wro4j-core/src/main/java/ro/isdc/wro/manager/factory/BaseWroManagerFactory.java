@@ -16,6 +16,7 @@ import ro.isdc.wro.cache.CacheEntry;
 import ro.isdc.wro.cache.CacheStrategy;
 import ro.isdc.wro.cache.ContentHashEntry;
 import ro.isdc.wro.cache.impl.LruMemoryCacheStrategy;
+import ro.isdc.wro.http.support.encoding.ContentEncoder;
 import ro.isdc.wro.manager.WroManager;
 import ro.isdc.wro.model.WroModel;
 import ro.isdc.wro.model.factory.WroModelFactory;
@@ -58,6 +59,10 @@ public class BaseWroManagerFactory
   private UriLocatorFactory uriLocatorFactory;
   private ProcessorsFactory processorsFactory;
   private NamingStrategy namingStrategy;
+  /**
+   * The encoders used for the served content. When null, the default encoders are used.
+   */
+  private List<ContentEncoder> contentEncoders;
   /**
    * Handles the lazy synchronized creation of the manager
    */
@@ -99,12 +104,20 @@ public class BaseWroManagerFactory
       manager.setNamingStrategy(namingStrategy);
       manager.setModelFactory(modelFactory);
       manager.setModelTransformers(modelTransformers);
+      if (contentEncoders != null) {
+        manager.setContentEncoders(contentEncoders);
+      }
       
       // initialize before injection to allow injector do its job properly
       onAfterInitializeManager(manager);
       
       return manager;
     }
+
+    @Override
+    protected void onDestroy(final WroManager manager) {
+      manager.destroy();
+    }
   };
   
   /**
@@ -135,6 +148,16 @@ public class BaseWroManagerFactory
     return this;
   }
   
+  /**
+   * @param contentEncoders
+   *          the {@link ContentEncoder}'s used to encode the served content, in the order of preference.
+   * @since 1.4.8
+   */
+  public BaseWroManagerFactory setContentEncoders(final List<ContentEncoder> contentEncoders) {
+    this.contentEncoders = contentEncoders;
+    return this;
+  }
+  
   /**
    * @return the namingStrategy
    */
@@ -316,7 +339,8 @@ public class BaseWroManagerFactory
   }
   
   /**
-   * {@inheritDoc}
+   * Destroys the created manager (if any), stopping its schedulers and executors and releasing the resources held by
+   * its processors and cache. A new manager is created by the next call of {@link #create()}.
    */
   public void destroy() {
     managerInitializer.destroy();
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2012. All rights reserved.
+ */
+package ro.isdc.wro.model;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.resource.Resource;
+
+
+/**
+ * Utility class used to compare two versions of the same {@link WroModel}. Useful to find out which groups are affected
+ * by a model reload, so that only the cached content of those groups is invalidated.
+ *
+ * @since 1.4.8
+ */
+public final class WroModelInspector {
+  private WroModelInspector() {
+  }
+
+  /**
+   * Computes the names of the groups which differ between two models. A group is considered changed when it exists only
+   * in one of the models or when its resources (uri, type, minimize flag or order) are not the same.
+   *
+   * @param oldModel
+   *          the model before reload.
+   * @param newModel
+   *          the model after reload.
+   * @return a collection of changed group names. Never null.
+   */
+  public static Collection<String> getChangedGroupNames(final WroModel oldModel, final WroModel newModel) {
+    Validate.notNull(oldModel);
+    Validate.notNull(newModel);
+    final Map<String, Group> oldGroups = groupsByName(oldModel);
+    final Map<String, Group> newGroups = groupsByName(newModel);
+    final Set<String> groupNames = new HashSet<String>(oldGroups.keySet());
+    groupNames.addAll(newGroups.keySet());
+    final Set<String> changedGroupNames = new HashSet<String>();
+    for (final String groupName : groupNames) {
+      final Group oldGroup = oldGroups.get(groupName);
+      final Group newGroup = newGroups.get(groupName);
+      if (oldGroup == null || newGroup == null || !sameResources(oldGroup.getResources(), newGroup.getResources())) {
+        changedGroupNames.add(groupName);
+      }
+    }
+    return changedGroupNames;
+  }
+
+  private static Map<String, Group> groupsByName(final WroModel model) {
+    final Map<String, Group> map = new HashMap<String, Group>();
+    for (final Group group : model.getGroups()) {
+      map.put(group.getName(), group);
+    }
+    return map;
+  }
+
+  private static boolean sameResources(final List<Resource> oldResources, final List<Resource> newResources) {
+    if (oldResources.size() != newResources.size()) {
+      return false;
+    }
+    final Iterator<Resource> newIterator = newResources.iterator();
+    for (final Resource oldResource : oldResources) {
+      final Resource newResource = newIterator.next();
+      // equals compares only uri & type
+      if (!oldResource.equals(newResource) || oldResource.isMinimize() != newResource.isMinimize()) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
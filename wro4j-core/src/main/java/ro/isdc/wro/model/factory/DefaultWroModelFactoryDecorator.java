@@ -1,14 +1,21 @@
 package ro.isdc.wro.model.factory;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.ContextPropagatingCallable;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.manager.callback.LifecycleCallbackRegistry;
 import ro.isdc.wro.model.WroModel;
+import ro.isdc.wro.model.WroModelInspector;
 import ro.isdc.wro.model.group.Inject;
 import ro.isdc.wro.model.group.processor.Injector;
 import ro.isdc.wro.model.resource.Resource;
@@ -47,47 +54,79 @@ public class DefaultWroModelFactoryDecorator
   /**
    * Responsible for model caching
    */
-  private final DestroyableLazyInitializer<WroModel> modelInitializer = new DestroyableLazyInitializer<WroModel>() {
+  private final ModelInitializer modelInitializer = new ModelInitializer();
+  /**
+   * A copy of the {@link Context} used when the model was created. Allows the model to be reloaded outside of the
+   * request cycle.
+   */
+  private volatile Context context;
+  
+  /**
+   * Holds the current model and allows it to be replaced atomically.
+   */
+  private class ModelInitializer
+      extends DestroyableLazyInitializer<WroModel> {
     @Override
     protected WroModel initialize() {
-      callbackRegistry.onBeforeModelCreated();
-      final StopWatch watch = new StopWatch("Create Model");
-      watch.start("createModel");
-      WroModel model = null;
-      try {
-        final WroModelFactory modelFactory = decorate(decorated);
-        injector.inject(modelFactory);
-        model = modelFactory.create();
-        return model;
-      } finally {
-        authorizeModelResources(model);
-        callbackRegistry.onAfterModelCreated();
-        watch.stop();
-        LOG.debug(watch.prettyPrint());
-      }
+      return createModel();
     }
     
     /**
-     * Decorate with several useful aspects, like: fallback, caching & model transformer ability.
+     * @return the current model or null if it wasn't created yet.
      */
-    private WroModelFactory decorate(final WroModelFactory decorated) {
-      return new ModelTransformerFactory(new FallbackAwareWroModelFactory(decorated)).setTransformers(modelTransformers);
+    WroModel getCurrent() {
+      return object;
     }
     
-    /**
-     * Authorizes all resources of the model to be accessed as proxy resources (only in dev mode).
-     * 
-     * @param model
-     *          {@link WroModel} created by decorated factory.
-     */
-    private void authorizeModelResources(final WroModel model) {
-      if (model != null && config.isDebug()) {
-        for (Resource resource : model.getAllResources()) {
-          authorizationManager.add(resource.getUri());
-        }
+    void replace(final WroModel model) {
+      object = model;
+    }
+  }
+  
+  /**
+   * Creates a new model using the decorated factory.
+   */
+  private WroModel createModel() {
+    if (Context.isContextSet()) {
+      context = Context.get().copy();
+    }
+    callbackRegistry.onBeforeModelCreated();
+    final StopWatch watch = new StopWatch("Create Model");
+    watch.start("createModel");
+    WroModel model = null;
+    try {
+      final WroModelFactory modelFactory = decorate(decorated);
+      injector.inject(modelFactory);
+      model = modelFactory.create();
+      return model;
+    } finally {
+      authorizeModelResources(model);
+      callbackRegistry.onAfterModelCreated();
+      watch.stop();
+      LOG.debug(watch.prettyPrint());
+    }
+  }
+  
+  /**
+   * Decorate with several useful aspects, like: fallback, caching & model transformer ability.
+   */
+  private WroModelFactory decorate(final WroModelFactory decorated) {
+    return new ModelTransformerFactory(new FallbackAwareWroModelFactory(decorated)).setTransformers(modelTransformers);
+  }
+  
+  /**
+   * Authorizes all resources of the model to be accessed as proxy resources (only in dev mode).
+   * 
+   * @param model
+   *          {@link WroModel} created by decorated factory.
+   */
+  private void authorizeModelResources(final WroModel model) {
+    if (model != null && config.isDebug()) {
+      for (Resource resource : model.getAllResources()) {
+        authorizationManager.add(resource.getUri());
       }
     }
-  };
+  }
 
   private final List<Transformer<WroModel>> modelTransformers;
   
@@ -115,6 +154,52 @@ public class DefaultWroModelFactoryDecorator
     authorizationManager.clear();
   }
   
+  /**
+   * Creates a new model and replaces the current one atomically. Until the new model is created, the current one is
+   * still returned by {@link #create()}. If no model was created yet, nothing is done, since the model will be created
+   * on demand.
+   * <p/>
+   * The new model is created using a copy of the {@link Context} used to create the current model, allowing this method
+   * to be invoked outside of the request cycle (ex: by a scheduler).
+   * 
+   * @return the names of the groups whose resources are not the same in the new model (including added and removed
+   *         groups). An empty collection is returned when nothing has changed.
+   * @since 1.4.8
+   */
+  public Collection<String> reload() {
+    final WroModel currentModel = modelInitializer.getCurrent();
+    if (currentModel == null || context == null) {
+      LOG.debug("No model created yet, nothing to reload");
+      return Collections.emptySet();
+    }
+    final WroModel newModel = createModelWithContext(context);
+    synchronized (modelInitializer) {
+      // the model could have been destroyed in the meantime, in which case it should be created on demand.
+      if (modelInitializer.getCurrent() == null) {
+        return Collections.emptySet();
+      }
+      modelInitializer.replace(newModel);
+    }
+    final Collection<String> changedGroupNames = WroModelInspector.getChangedGroupNames(currentModel, newModel);
+    LOG.debug("Model reloaded. Changed groups: {}", changedGroupNames);
+    return changedGroupNames;
+  }
+  
+  private WroModel createModelWithContext(final Context context) {
+    try {
+      return new ContextPropagatingCallable<WroModel>(new Callable<WroModel>() {
+        public WroModel call() {
+          getDecoratedObject().destroy();
+          return createModel();
+        }
+      }, context).call();
+    } catch (final RuntimeException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new WroRuntimeException("Problem while reloading the model", e);
+    }
+  }
+  
   /**
    * {@inheritDoc}
    */
@@ -4,13 +4,8 @@
 package ro.isdc.wro.model.group.processor;
 
 import java.io.IOException;
-import java.io.Reader;
-import java.io.StringReader;
-import java.io.StringWriter;
-import java.io.Writer;
 import java.util.Collection;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,8 +20,8 @@ import ro.isdc.wro.model.group.Group;
 import ro.isdc.wro.model.group.Inject;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.decorator.ExceptionHandlingProcessorDecorator;
+import ro.isdc.wro.model.resource.processor.decorator.ProcessorDecorator;
 import ro.isdc.wro.model.resource.processor.factory.ProcessorsFactory;
-import ro.isdc.wro.model.resource.processor.support.ProcessorsUtils;
 import ro.isdc.wro.util.StopWatch;
 
 
@@ -55,6 +50,17 @@ public class GroupsProcessor {
    */
   @Inject
   private transient PreProcessorExecutor preProcessorExecutor;
+  /**
+   * The decorated post processors to apply for each resource type and minimize flag.
+   */
+  private final transient ProcessorPipelines pipelines = new ProcessorPipelines() {
+    @Override
+    protected ProcessorDecorator decorate(final Object processor) {
+      final ProcessorDecorator decorated = new ExceptionHandlingProcessorDecorator(processor);
+      injector.inject(decorated);
+      return decorated;
+    }
+  };
   
   /**
    * @param cacheKey
@@ -97,8 +103,8 @@ public class GroupsProcessor {
     if (allPostProcessors.isEmpty() && processorsFactory.getPreProcessors().isEmpty()) {
       LOG.warn("No processors defined. Please, check if your configuration is correct.");
     }
-    final Collection<ResourcePostProcessor> processors = ProcessorsUtils.filterProcessorsToApply(
-        cacheEntry.isMinimize(), cacheEntry.getType(), allPostProcessors);
+    final Collection<ProcessorDecorator> processors = pipelines.get(allPostProcessors, cacheEntry.getType(),
+        cacheEntry.isMinimize());
     return applyPostProcessors(processors, content);
   }
   
@@ -106,44 +112,31 @@ public class GroupsProcessor {
    * Apply resourcePostProcessors.
    * 
    * @param processors
-   *          a collection of processors to apply on the content from the supplied writer.
+   *          a collection of decorated processors to apply on the content from the supplied writer.
    * @param content
    *          to process with all postProcessors.
    * @return the post processed content.
    */
-  private String applyPostProcessors(final Collection<ResourcePostProcessor> processors, final String content)
+  private String applyPostProcessors(final Collection<ProcessorDecorator> processors, final String content)
       throws IOException {
     LOG.debug("postProcessors: {}", processors);
     if (processors.isEmpty()) {
       return content;
     }
-    Reader reader = new StringReader(content.toString());
-    Writer writer = null;
+    CharSequence result = content;
     final StopWatch stopWatch = new StopWatch();
-    for (final ResourcePostProcessor processor : processors) {
-      stopWatch.start("Using " + processor.getClass().getSimpleName());
-      writer = new StringWriter();
+    for (final ProcessorDecorator processor : processors) {
+      stopWatch.start("Using " + processor.getOriginalDecoratedObject().getClass().getSimpleName());
       try {
         callbackRegistry.onBeforePostProcess();
-        decorateProcessor(processor).process(reader, writer);
+        // the resource doesn't matter for post processors
+        result = processor.process(null, result);
       } finally {
         stopWatch.stop();
         callbackRegistry.onAfterPostProcess();
-        IOUtils.closeQuietly(reader);
-        IOUtils.closeQuietly(writer);
       }
-      reader = new StringReader(writer.toString());
     }
     LOG.debug(stopWatch.prettyPrint());
-    return writer.toString();
-  }
-  
-  /**
-   * @return a decorated postProcessor.
-   */
-  private ResourcePostProcessor decorateProcessor(final ResourcePostProcessor processor) {
-    ResourcePostProcessor decorated = new ExceptionHandlingProcessorDecorator(processor);
-    injector.inject(decorated);
-    return decorated;
+    return result.toString();
   }
 }
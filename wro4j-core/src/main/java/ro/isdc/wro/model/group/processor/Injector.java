@@ -5,9 +5,10 @@ package ro.isdc.wro.model.group.processor;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
@@ -23,6 +24,9 @@ import ro.isdc.wro.util.ObjectDecorator;
 /**
  * Injector scans some object fields and checks if a value can be provided to a field; Injector will ignore
  * all non-null fields.
+ * <p/>
+ * The result of scanning a class (the fields having @Inject annotation and the source of their values) is computed
+ * only once and reused by all subsequent injections of objects of the same class.
  *
  * @author Alex Objelean
  * @created 20 Nov 2010
@@ -30,6 +34,11 @@ import ro.isdc.wro.util.ObjectDecorator;
 public final class Injector {
   private static final Logger LOG = LoggerFactory.getLogger(Injector.class);
   private final Map<Class<?>, Object> map;
+  /**
+   * The injection points of each scanned class, mapped by the class.
+   */
+  private final Map<Class<?>, List<InjectionPoint>> injectionPoints =
+      new ConcurrentHashMap<Class<?>, List<InjectionPoint>>();
 
   /**
    * Mapping of classes to be annotated and the corresponding injected object.
@@ -58,15 +67,12 @@ public final class Injector {
    */
   private void processInjectAnnotation(final Object object) {
     try {
-      final Collection<Field> fields = getAllFields(object);
-      for (final Field field : fields) {
-        if (field.isAnnotationPresent(Inject.class)) {
-          if (!acceptAnnotatedField(object, field)) {
-            final String message = "@Inject cannot be applied to field of type: " + field.getType();
-            LOG.error(message + ". Supported types are: {}", map.keySet());
-            throw new WroRuntimeException(message);
-          }
-        }
+      final List<InjectionPoint> points = getInjectionPoints(object.getClass());
+      if (!points.isEmpty() && !Context.isContextSet()) {
+        throw newUnsupportedFieldException(points.get(0).field);
+      }
+      for (final InjectionPoint point : points) {
+        point.inject(object);
       }
       //handle special cases like decorators. Perform recursive injection 
       if (object instanceof ObjectDecorator) {
@@ -78,49 +84,78 @@ public final class Injector {
     }
   }
 
-
   /**
-   * Return all fields for given object, also those from the super classes.
+   * @return the {@link InjectionPoint}'s of the class, computed when the class is injected for the first time.
    */
-  private Collection<Field> getAllFields(final Object object) {
-    final Collection<Field> fields = new ArrayList<Field>();
-    fields.addAll(Arrays.asList(object.getClass().getDeclaredFields()));
-    // inspect super classes
-    Class<?> superClass = object.getClass().getSuperclass();
-    do {
-      fields.addAll(Arrays.asList(superClass.getDeclaredFields()));
-      superClass = superClass.getSuperclass();
-    } while (superClass != null);
-    return fields;
+  private List<InjectionPoint> getInjectionPoints(final Class<?> clazz) {
+    List<InjectionPoint> points = injectionPoints.get(clazz);
+    if (points == null) {
+      points = createInjectionPoints(clazz);
+      injectionPoints.put(clazz, points);
+    }
+    return points;
   }
 
   /**
-   * Analyze the field containing {@link Inject} annotation and set its value to appropriate value. Override this method
-   * if you want to inject something else but uriLocatorFactory.
-   *
-   * @param object an object containing @Inject annotation.
-   * @param field {@link Field} object containing {@link Inject} annotation.
-   * @return true if field was injected with some not null value.
-   * @throws IllegalAccessException
+   * Scans all the fields of the class, also those from the super classes, and resolves the source of the value for
+   * each field having @Inject annotation.
    */
-  private boolean acceptAnnotatedField(final Object object, final Field field)
-    throws IllegalAccessException {
-    boolean accept = false;
-    // accept private modifiers
-    field.setAccessible(true);
-    if (Context.isContextSet()) {
-      for (final Map.Entry<Class<?>, Object> entry : map.entrySet()) {
-        if (entry.getKey().isAssignableFrom(field.getType())) {
-          Object value = entry.getValue();
-          // treat factories as a special case for lazy load of the objects.
-          if (value instanceof InjectorObjectFactory) {
-            value = ((InjectorObjectFactory<?>) value).create();
-          }
-          field.set(object, value);
-          return accept = true;
+  private List<InjectionPoint> createInjectionPoints(final Class<?> clazz) {
+    LOG.debug("Scanning @Inject annotation of: {}", clazz);
+    final List<InjectionPoint> points = new ArrayList<InjectionPoint>();
+    for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+      for (final Field field : current.getDeclaredFields()) {
+        if (field.isAnnotationPresent(Inject.class)) {
+          points.add(new InjectionPoint(field, getValueSource(field)));
         }
       }
     }
-    return accept;
+    return points.isEmpty() ? Collections.<InjectionPoint> emptyList() : Collections.unmodifiableList(points);
+  }
+
+  /**
+   * @return the value from the map whose key is assignable from the type of the field.
+   */
+  private Object getValueSource(final Field field) {
+    for (final Map.Entry<Class<?>, Object> entry : map.entrySet()) {
+      if (entry.getKey().isAssignableFrom(field.getType())) {
+        return entry.getValue();
+      }
+    }
+    throw newUnsupportedFieldException(field);
+  }
+
+  private WroRuntimeException newUnsupportedFieldException(final Field field) {
+    final String message = "@Inject cannot be applied to field of type: " + field.getType();
+    LOG.error(message + ". Supported types are: {}", map.keySet());
+    return new WroRuntimeException(message);
+  }
+
+  /**
+   * A field having @Inject annotation along with the source of its value.
+   */
+  private static final class InjectionPoint {
+    private final Field field;
+    /**
+     * The injected value or an {@link InjectorObjectFactory} creating it.
+     */
+    private final Object valueSource;
+
+    public InjectionPoint(final Field field, final Object valueSource) {
+      this.field = field;
+      this.valueSource = valueSource;
+      // accept private modifiers
+      field.setAccessible(true);
+    }
+
+    public void inject(final Object object)
+        throws IllegalAccessException {
+      Object value = valueSource;
+      // treat factories as a special case for lazy load of the objects.
+      if (value instanceof InjectorObjectFactory) {
+        value = ((InjectorObjectFactory<?>) value).create();
+      }
+      field.set(object, value);
+    }
   }
 }
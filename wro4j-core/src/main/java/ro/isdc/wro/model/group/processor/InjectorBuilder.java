@@ -16,6 +16,7 @@ import ro.isdc.wro.cache.CacheEntry;
 import ro.isdc.wro.cache.CacheStrategy;
 import ro.isdc.wro.cache.ContentHashEntry;
 import ro.isdc.wro.cache.DefaultSynchronizedCacheStrategyDecorator;
+import ro.isdc.wro.cache.HashIndexCacheStrategyDecorator;
 import ro.isdc.wro.config.Context;
 import ro.isdc.wro.config.ReadOnlyContext;
 import ro.isdc.wro.config.jmx.WroConfiguration;
@@ -33,6 +34,7 @@ import ro.isdc.wro.model.resource.support.hash.HashStrategy;
 import ro.isdc.wro.model.resource.support.naming.NamingStrategy;
 import ro.isdc.wro.util.LazyInitializer;
 import ro.isdc.wro.util.ObjectFactory;
+import ro.isdc.wro.util.TaskExecutor;
 
 
 /**
@@ -87,8 +89,9 @@ public class InjectorBuilder {
     @Override
     protected CacheStrategy<CacheEntry, ContentHashEntry> initialize() {
       final WroManager manager = managerFactory.create();
+      // the index observes all the values loaded, refreshed or evicted by the synchronized decorator
       final CacheStrategy<CacheEntry, ContentHashEntry> decorated = new DefaultSynchronizedCacheStrategyDecorator(
-          managerFactory.create().getCacheStrategy());
+          new HashIndexCacheStrategyDecorator(managerFactory.create().getCacheStrategy()));
       // update manager with new decorated strategy
       manager.setCacheStrategy(decorated);
       return decorated;
@@ -195,6 +198,11 @@ public class InjectorBuilder {
         return managerFactory.create().getHashStrategy();
       }
     });
+    map.put(TaskExecutor.class, new InjectorObjectFactory<TaskExecutor>() {
+      public TaskExecutor create() {
+        return managerFactory.create().getTaskExecutor();
+      }
+    });
   }
   
   /**
@@ -1,18 +1,16 @@
 package ro.isdc.wro.model.group.processor;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.Reader;
-import java.io.StringReader;
-import java.io.StringWriter;
-import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.BOMInputStream;
@@ -22,19 +20,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.cache.Weigher;
+import ro.isdc.wro.cache.impl.SegmentedLruCacheStrategy;
+import ro.isdc.wro.config.Context;
 import ro.isdc.wro.config.ContextPropagatingCallable;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.manager.callback.LifecycleCallbackRegistry;
 import ro.isdc.wro.model.group.Inject;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
-import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 import ro.isdc.wro.model.resource.processor.decorator.ExceptionHandlingProcessorDecorator;
 import ro.isdc.wro.model.resource.processor.decorator.MinimizeAwareProcessorDecorator;
+import ro.isdc.wro.model.resource.processor.decorator.ProcessorDecorator;
 import ro.isdc.wro.model.resource.processor.factory.ProcessorsFactory;
 import ro.isdc.wro.model.resource.processor.support.ProcessorsUtils;
+import ro.isdc.wro.model.resource.support.hash.HashStrategy;
+import ro.isdc.wro.model.resource.support.hash.SHA1HashStrategy;
+import ro.isdc.wro.util.LazyInitializer;
+import ro.isdc.wro.util.ObjectDecorator;
 import ro.isdc.wro.util.StopWatch;
-import ro.isdc.wro.util.WroUtil;
+import ro.isdc.wro.util.TaskExecutor;
+import ro.isdc.wro.util.io.BufferPool;
 
 
 /**
@@ -47,6 +53,7 @@ import ro.isdc.wro.util.WroUtil;
  */
 public class PreProcessorExecutor {
   private static final Logger LOG = LoggerFactory.getLogger(PreProcessorExecutor.class);
+  private static final String UTF8 = "UTF-8";
   @Inject
   private UriLocatorFactory uriLocatorFactory;
   @Inject
@@ -60,7 +67,104 @@ public class PreProcessorExecutor {
   /**
    * Runs the preProcessing in parallel.
    */
-  private ExecutorService executor;
+  @Inject
+  private TaskExecutor taskExecutor;
+  /**
+   * The pre processed content of the resources, used when {@link WroConfiguration#isCacheProcessedResources()} is true.
+   * Maps the key of a resource (uri, type, minimize flags and pre processors) to its processed content. Bounded by
+   * {@link WroConfiguration#getProcessedResourcesMaxSize()}, the least recently used resources being evicted.
+   */
+  private final LazyInitializer<SegmentedLruCacheStrategy<String, ProcessedResource>> processedResources =
+      new LazyInitializer<SegmentedLruCacheStrategy<String, ProcessedResource>>() {
+        @Override
+        protected SegmentedLruCacheStrategy<String, ProcessedResource> initialize() {
+          return new SegmentedLruCacheStrategy<String, ProcessedResource>(config.getProcessedResourcesMaxSize(),
+              new Weigher<ProcessedResource>() {
+                public long weigh(final ProcessedResource value) {
+                  return value.fingerprint.length() + value.content.length();
+                }
+              });
+        }
+      };
+  /**
+   * The pre processing of the resources performed during the current build, mapped by the key of the resource. Null
+   * when no build is in progress.
+   */
+  private volatile ConcurrentMap<String, FutureTask<String>> buildScope;
+  /**
+   * The number of builds in progress. Guarded by this.
+   */
+  private int buildCount;
+  /**
+   * Flags the threads pre processing a resource of the current build.
+   */
+  private final ThreadLocal<Boolean> processingInBuild = new ThreadLocal<Boolean>();
+  /**
+   * The decorated pre processors to apply for each resource type and minimize flag.
+   */
+  private final ProcessorPipelines pipelines = new ProcessorPipelines() {
+    @Override
+    protected ProcessorDecorator decorate(final Object processor) {
+      final ProcessorDecorator decorated = new ExceptionHandlingProcessorDecorator(
+          new MinimizeAwareProcessorDecorator(processor));
+      injector.inject(decorated);
+      return decorated;
+    }
+  };
+  /**
+   * Used to detect the change of resource content.
+   */
+  private final HashStrategy fingerprintStrategy = new SHA1HashStrategy();
+  
+  /**
+   * Holds the pre processed content of a resource along with the fingerprint of its original content.
+   */
+  private static final class ProcessedResource {
+    private final String fingerprint;
+    private final String content;
+    
+    ProcessedResource(final String fingerprint, final String content) {
+      this.fingerprint = fingerprint;
+      this.content = content;
+    }
+  }
+  
+  /**
+   * Starts a build: until the build is ended, each resource is located and pre processed only once for each
+   * combination of minimize flag and pre processors, even if it belongs to many groups. A concurrent request of a
+   * resource being pre processed waits for the result instead of processing it again. Builds can be nested, the
+   * results being discarded when the outer build ends.
+   * 
+   * @since 1.4.8
+   */
+  public synchronized void beginBuild() {
+    if (buildCount++ == 0) {
+      LOG.debug("Build started");
+      buildScope = new ConcurrentHashMap<String, FutureTask<String>>();
+    }
+  }
+  
+  /**
+   * Ends the build started by {@link #beginBuild()}.
+   * 
+   * @since 1.4.8
+   */
+  public synchronized void endBuild() {
+    Validate.isTrue(buildCount > 0, "No build in progress");
+    if (--buildCount == 0) {
+      LOG.debug("Build ended, {} resources were pre processed", buildScope.size());
+      buildScope = null;
+    }
+  }
+  
+  /**
+   * Discards the cached pre processed content of the resources. Invoked when the cache or the model is reloaded.
+   * 
+   * @since 1.4.8
+   */
+  public void clearProcessedResources() {
+    processedResources.get().clear();
+  }
   
   /**
    * Apply preProcessors on resources and merge them.
@@ -77,16 +181,25 @@ public class PreProcessorExecutor {
     try {
       Validate.notNull(resources);
       LOG.debug("process and merge resources: {}", resources);
-      final StringBuffer result = new StringBuffer();
-      if (shouldRunInParallel(resources)) {
-        result.append(runInParallel(resources, minimize));
-      } else {
-        for (final Resource resource : resources) {
-          LOG.debug("\tmerging resource: {}", resource);
-          result.append(applyPreProcessors(resource, minimize));
+      // the buffers are pooled only while merging, the current thread can be a container thread
+      final boolean pooling = BufferPool.enable();
+      final StringBuilder result = BufferPool.borrowBuilder();
+      try {
+        if (shouldRunInParallel(resources)) {
+          runInParallel(resources, minimize, result);
+        } else {
+          for (final Resource resource : resources) {
+            LOG.debug("\tmerging resource: {}", resource);
+            result.append(applyPreProcessors(resource, minimize));
+          }
+        }
+        return result.toString();
+      } finally {
+        BufferPool.release(result);
+        if (pooling) {
+          BufferPool.clear();
         }
       }
-      return result.toString();
     } finally {
       callbackRegistry.onAfterMerge();
     }
@@ -94,19 +207,20 @@ public class PreProcessorExecutor {
   
   private boolean shouldRunInParallel(final List<Resource> resources) {
     final boolean isParallel = config.isParallelPreprocessing();
-    final int availableProcessors = Runtime.getRuntime().availableProcessors();
-    return isParallel && resources.size() > 1 && availableProcessors > 1;
+    final int threads = config.getParallelThreads() > 0 ? config.getParallelThreads()
+        : Runtime.getRuntime().availableProcessors();
+    return isParallel && resources.size() > 1 && threads > 1;
   }
   
   /**
    * runs the pre processors in parallel.
    * 
-   * @return merged and pre processed content.
+   * @param result
+   *          where the merged and pre processed content is appended.
    */
-  private String runInParallel(final List<Resource> resources, final boolean minimize)
+  private void runInParallel(final List<Resource> resources, final boolean minimize, final StringBuilder result)
       throws IOException {
     LOG.debug("Running preProcessing in Parallel");
-    final StringBuffer result = new StringBuffer();
     final List<Callable<String>> callables = new ArrayList<Callable<String>>();
     for (final Resource resource : resources) {
       // decorate with ContextPropagatingCallable in order to allow spawn threads to access the Context
@@ -118,91 +232,182 @@ public class PreProcessorExecutor {
         }
       }));
     }
-    final ExecutorService exec = getExecutorService();
-    final List<Future<String>> futures = new ArrayList<Future<String>>();
-    for (final Callable<String> callable : callables) {
-      futures.add(exec.submit(callable));
-    }
-    
+    // merge the results in order, the resources not started yet by the pool being processed by the current thread
+    final List<Future<String>> futures = taskExecutor.submit(callables, config.getParallelThreads());
     for (final Future<String> future : futures) {
-      try {
-        result.append(future.get());
-      } catch (final Exception e) {
-        // propagate original cause
-        final Throwable cause = e.getCause();
-        if (cause instanceof WroRuntimeException) {
-          throw (WroRuntimeException) cause;
-        } else if (cause instanceof IOException) {
-          throw (IOException) cause;
-        } else {
-          throw new WroRuntimeException("Problem during parallel pre processing", e.getCause());
-        }
-      }
+      result.append(getResult(future));
     }
-    return result.toString();
   }
   
-  private ExecutorService getExecutorService() {
-    if (executor == null) {
-      // use at most the number of available processors (true parallelism)
-      final int threadPoolSize = Runtime.getRuntime().availableProcessors();
-      LOG.debug("Parallel thread pool size: {}", threadPoolSize);
-      executor = Executors.newFixedThreadPool(threadPoolSize,
-          WroUtil.createDaemonThreadFactory("parallelPreprocessing"));
-    }
-    return executor;
+  /**
+   * @return the result of the pre processing, propagating the original cause of a failure.
+   */
+  private String getResult(final Future<String> future)
+      throws IOException {
+    try {
+      return future.get();
+    } catch (final Exception e) {
+      // propagate original cause
+      final Throwable cause = e.getCause();
+      if (cause instanceof WroRuntimeException) {
+        throw (WroRuntimeException) cause;
+      } else if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else {
+        throw new WroRuntimeException("Problem during pre processing", e.getCause());
+      }
+    }
   }
   
   /**
-   * Apply a list of preprocessors on a resource.
+   * Apply a list of preprocessors on a resource. When the cache of processed resources is enabled, the processors are
+   * applied only if the content of the resource has changed since it was last processed.
    * 
    * @param resource
    *          the {@link Resource} on which processors will be applied
-   * @param processors
-   *          the list of processor to apply on the resource.
+   * @param minimize
+   *          whether minimize aware processors must be applied or not.
    */
   private String applyPreProcessors(final Resource resource, final boolean minimize)
       throws IOException {
-    //TODO: apply filtering inside a specialized decorator
-    final Collection<ResourcePreProcessor> processors = ProcessorsUtils.filterProcessorsToApply(minimize,
-        resource.getType(), processorsFactory.getPreProcessors());
+    final Collection<ProcessorDecorator> processors = pipelines.get(processorsFactory.getPreProcessors(),
+        resource.getType(), minimize);
+    final ConcurrentMap<String, FutureTask<String>> scope = buildScope;
+    return scope == null ? processResource(resource, minimize, processors) : processResourceOnce(scope, resource,
+        minimize, processors);
+  }
+  
+  /**
+   * Pre processes a resource only if it wasn't already pre processed during the current build.
+   * 
+   * @param scope
+   *          the pre processing performed during the current build.
+   */
+  private String processResourceOnce(final ConcurrentMap<String, FutureTask<String>> scope, final Resource resource,
+      final boolean minimize, final Collection<ProcessorDecorator> processors)
+      throws IOException {
+    final String key = getProcessedResourceKey(resource, minimize, processors);
+    FutureTask<String> task = scope.get(key);
+    if (task == null) {
+      final FutureTask<String> newTask = new FutureTask<String>(new Callable<String>() {
+        public String call()
+            throws Exception {
+          return processResource(resource, minimize, processors);
+        }
+      });
+      task = scope.putIfAbsent(key, newTask);
+      if (task == null) {
+        task = newTask;
+        runInBuild(task);
+      }
+    } else if (!task.isDone() && processingInBuild.get() != null) {
+      // a resource required while pre processing another one (ex: css import) doesn't wait for the pre processing
+      // performed by other threads, avoiding circular waits.
+      return processResource(resource, minimize, processors);
+    }
+    try {
+      return getResult(task);
+    } catch (final RuntimeException e) {
+      // allow the next groups to process the resource again
+      scope.remove(key, task);
+      throw e;
+    } catch (final IOException e) {
+      scope.remove(key, task);
+      throw e;
+    }
+  }
+  
+  private void runInBuild(final FutureTask<String> task) {
+    final Boolean nested = processingInBuild.get();
+    processingInBuild.set(Boolean.TRUE);
+    try {
+      task.run();
+    } finally {
+      if (nested == null) {
+        processingInBuild.remove();
+      }
+    }
+  }
+  
+  /**
+   * Apply the preprocessors of a resource.
+   */
+  private String processResource(final Resource resource, final boolean minimize,
+      final Collection<ProcessorDecorator> processors)
+      throws IOException {
     LOG.debug("applying preProcessors: {}", processors);
-    String resourceContent = getResourceContent(resource);
+    final String resourceContent = getResourceContent(resource);
     if (processors.isEmpty()) {
       return resourceContent;
     }
-    Writer writer = null;
+    if (!config.isCacheProcessedResources()) {
+      return applyPreProcessors(resource, processors, resourceContent);
+    }
+    final String key = getProcessedResourceKey(resource, minimize, processors);
+    final String fingerprint = fingerprintStrategy.getHash(new ByteArrayInputStream(resourceContent.getBytes(UTF8)));
+    final ProcessedResource processedResource = processedResources.get().get(key);
+    if (processedResource != null && processedResource.fingerprint.equals(fingerprint)) {
+      LOG.debug("Reusing pre processed content of resource: {}", resource);
+      return processedResource.content;
+    }
+    final String processedContent = applyPreProcessors(resource, processors, resourceContent);
+    processedResources.get().put(key, new ProcessedResource(fingerprint, processedContent));
+    return processedContent;
+  }
+  
+  /**
+   * @return the key identifying the processing of a resource: its uri, type, minimize flags, the pre processors (with
+   *         all their decorators) and, only if any of the processors depends on it (ex: css url rewriting), the
+   *         location of the aggregated bundle, which is computed from the request uri.
+   */
+  private String getProcessedResourceKey(final Resource resource, final boolean minimize,
+      final Collection<ProcessorDecorator> processors) {
+    final StringBuilder key = new StringBuilder();
+    key.append(resource.getUri()).append('|').append(resource.getType()).append('|').append(resource.isMinimize());
+    key.append('|').append(minimize);
+    if (ProcessorsUtils.dependsOnAggregatedFolderPath(processors)) {
+      key.append('|').append(Context.get().getAggregatedFolderPath());
+    }
+    for (final ProcessorDecorator processor : processors) {
+      Object decorator = processor;
+      key.append('|').append(decorator.getClass().getName());
+      while (decorator instanceof ObjectDecorator) {
+        decorator = ((ObjectDecorator<?>) decorator).getDecoratedObject();
+        key.append('>').append(decorator.getClass().getName());
+      }
+    }
+    return key.toString();
+  }
+  
+  /**
+   * Apply a list of preprocessors on the content of a resource.
+   * 
+   * @param resource
+   *          the {@link Resource} on which processors will be applied
+   * @param processors
+   *          the list of decorated processors to apply on the resource.
+   * @param content
+   *          the content of the resource.
+   */
+  private String applyPreProcessors(final Resource resource, final Collection<ProcessorDecorator> processors,
+      final String content)
+      throws IOException {
+    CharSequence resourceContent = content;
     final StopWatch stopWatch = new StopWatch();
-    for (final ResourcePreProcessor processor : processors) {
-      stopWatch.start("Processor: " + processor.getClass().getSimpleName());
+    for (final ProcessorDecorator processor : processors) {
+      stopWatch.start("Processor: " + processor.getOriginalDecoratedObject().getClass().getSimpleName());
       
       callbackRegistry.onBeforePreProcess();
-      
-      writer = new StringWriter();
-      final Reader reader = new StringReader(resourceContent);
       try {
-        //decorate and process
-        decoratePreProcessor(processor).process(resource, reader, writer);
-        //use the outcome for next input
-        resourceContent = writer.toString();
+        //use the outcome for next input, without copying it
+        resourceContent = processor.process(resource, resourceContent);
       } finally {
         stopWatch.stop();
         callbackRegistry.onAfterPreProcess();
-        reader.close();
-        writer.close();
       }
     }
     LOG.debug(stopWatch.prettyPrint());
-    return writer.toString();
-  }
-  
-  /**
-   * Decorates preProcessor with mandatory decorators.
-   */
-  private ResourcePreProcessor decoratePreProcessor(final ResourcePreProcessor processor) {
-    ResourcePreProcessor decorated = new ExceptionHandlingProcessorDecorator(new MinimizeAwareProcessorDecorator(processor)); 
-    injector.inject(decorated);
-    return decorated;
+    return resourceContent.toString();
   }
   
   /**
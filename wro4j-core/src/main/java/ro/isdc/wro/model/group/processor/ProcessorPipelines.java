@@ -0,0 +1,122 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.model.group.processor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.processor.decorator.ProcessorDecorator;
+import ro.isdc.wro.model.resource.processor.factory.ProcessorsFactory;
+
+
+/**
+ * Holds the processors to apply for each combination of {@link ResourceType} and minimize flag. Each pipeline is
+ * filtered, decorated and injected only once, when the pipelines are compiled. The pipelines are compiled again only
+ * when the processors provided by the {@link ProcessorsFactory} or the {@link WroConfiguration} of the current
+ * {@link Context} are changed.
+ *
+ * @since 1.4.8
+ */
+abstract class ProcessorPipelines {
+  private static final Logger LOG = LoggerFactory.getLogger(ProcessorPipelines.class);
+  private volatile Pipelines pipelines;
+
+  /**
+   * @param processors
+   *          all the available processors, as provided by the {@link ProcessorsFactory}.
+   * @return the decorated processors eligible for the provided type and minimize flag.
+   */
+  public final List<ProcessorDecorator> get(final Collection<?> processors, final ResourceType type,
+      final boolean minimize) {
+    Validate.notNull(processors);
+    Validate.notNull(type);
+    final WroConfiguration config = Context.get().getConfig();
+    Pipelines current = pipelines;
+    if (current == null || !current.isCompiledFrom(processors, config)) {
+      LOG.debug("Compiling processor pipelines of: {}", processors);
+      current = new Pipelines(processors, config);
+      pipelines = current;
+    }
+    return current.get(type, minimize);
+  }
+
+  /**
+   * Decorates a processor with the mandatory decorators and injects it.
+   */
+  protected abstract ProcessorDecorator decorate(final Object processor);
+
+  /**
+   * The pipelines compiled from a collection of processors.
+   */
+  private final class Pipelines {
+    private final List<Object> processors;
+    private final WroConfiguration config;
+    /**
+     * The pipeline of each combination of type and minimize flag, indexed by {@link #indexOf(ResourceType, boolean)}.
+     */
+    private final List<List<ProcessorDecorator>> pipelines;
+
+    public Pipelines(final Collection<?> processors, final WroConfiguration config) {
+      this.processors = new ArrayList<Object>(processors);
+      this.config = config;
+      // decorate each processor only once, even if it belongs to several pipelines
+      final List<ProcessorDecorator> decorated = new ArrayList<ProcessorDecorator>();
+      for (final Object processor : processors) {
+        decorated.add(decorate(processor));
+      }
+      final ResourceType[] types = ResourceType.values();
+      pipelines = new ArrayList<List<ProcessorDecorator>>(types.length * 2);
+      for (final ResourceType type : types) {
+        pipelines.add(compile(decorated, type, false));
+        pipelines.add(compile(decorated, type, true));
+      }
+    }
+
+    private List<ProcessorDecorator> compile(final List<ProcessorDecorator> decorated, final ResourceType type,
+        final boolean minimize) {
+      final List<ProcessorDecorator> pipeline = new ArrayList<ProcessorDecorator>();
+      for (final ProcessorDecorator processor : decorated) {
+        if (processor.isEligible(minimize, type)) {
+          pipeline.add(processor);
+        }
+      }
+      return Collections.unmodifiableList(pipeline);
+    }
+
+    private int indexOf(final ResourceType type, final boolean minimize) {
+      return type.ordinal() * 2 + (minimize ? 1 : 0);
+    }
+
+    public List<ProcessorDecorator> get(final ResourceType type, final boolean minimize) {
+      return pipelines.get(indexOf(type, minimize));
+    }
+
+    /**
+     * @return true if these pipelines were compiled from the same processors (in the same order) and the same
+     *         configuration.
+     */
+    public boolean isCompiledFrom(final Collection<?> processors, final WroConfiguration config) {
+      if (this.config != config || this.processors.size() != processors.size()) {
+        return false;
+      }
+      final Iterator<Object> iterator = this.processors.iterator();
+      for (final Object processor : processors) {
+        if (iterator.next() != processor) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
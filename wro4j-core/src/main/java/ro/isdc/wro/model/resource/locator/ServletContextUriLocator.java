@@ -161,7 +161,10 @@ public class ServletContextUriLocator
     
     InputStream inputStream = null;
     try {
-      if (locatorStrategy.equals(LocatorStrategy.DISPATCHER_FIRST)) {
+      if (context.getRequest() == null) {
+        // outside of the request cycle (ex: cache warm-up), the request dispatcher cannot be used
+        inputStream = servletContextBasedStreamLocator(uri);
+      } else if (locatorStrategy.equals(LocatorStrategy.DISPATCHER_FIRST)) {
         inputStream = dispatcherFirstStreamLocator(uri);
       } else {
         inputStream = servletContextFirstStreamLocator(uri);
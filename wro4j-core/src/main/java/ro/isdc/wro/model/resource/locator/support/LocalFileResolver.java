@@ -0,0 +1,55 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.model.resource.locator.support;
+
+import java.io.File;
+import java.net.URI;
+
+import javax.servlet.ServletContext;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.model.resource.locator.ServletContextUriLocator;
+
+
+/**
+ * Finds the local file backing a resource, allowing it to be accessed directly (ex: checking its modification time or
+ * transferring its content) instead of being located as a stream. Only the servlet context resources having a real
+ * path and the <code>file:</code> urls are backed by a local file.
+ *
+ * @since 1.4.8
+ */
+public final class LocalFileResolver {
+  private static final Logger LOG = LoggerFactory.getLogger(LocalFileResolver.class);
+  private static final String FILE_PREFIX = "file:";
+
+  private LocalFileResolver() {
+  }
+
+  /**
+   * @param uri
+   *          the uri of the resource.
+   * @return the existing local file backing the resource or null if there is no such file. The servlet context
+   *         resources are resolved only when the {@link Context} is set.
+   */
+  public static File get(final String uri) {
+    Validate.notNull(uri);
+    File file = null;
+    try {
+      if (uri.startsWith(FILE_PREFIX)) {
+        file = new File(new URI(uri));
+      } else if (ServletContextUriLocator.isValid(uri) && Context.isContextSet()) {
+        final ServletContext servletContext = Context.get().getServletContext();
+        final String realPath = servletContext == null ? null : servletContext.getRealPath(uri);
+        file = realPath == null ? null : new File(realPath);
+      }
+    } catch (final Exception e) {
+      LOG.debug("Cannot resolve file of resource: {}", uri);
+    }
+    return file != null && file.isFile() ? file : null;
+  }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.model.resource.processor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+import ro.isdc.wro.model.resource.Resource;
+
+
+/**
+ * An optional contract for the processors able to transform the content directly, without reading it from a
+ * {@link Reader} and writing the result to a {@link Writer}. When a processor implements this interface, the content
+ * is passed from one processor to the next one without being copied. The processors which are not implementing it
+ * are still used through their {@link ResourcePreProcessor} or {@link ResourcePostProcessor} contract.
+ *
+ * @since 1.4.8
+ */
+public interface CharSequenceProcessor {
+  /**
+   * Process the provided content. The content must not be modified: a processor which needs to change it should
+   * return a new {@link CharSequence}.
+   *
+   * @param resource
+   *          the original resource as it found in the model or null when used as a post processor.
+   * @param content
+   *          the content to process.
+   * @return the processed content. The provided content can be returned when it doesn't need to be changed.
+   */
+  CharSequence process(final Resource resource, final CharSequence content)
+      throws IOException;
+}
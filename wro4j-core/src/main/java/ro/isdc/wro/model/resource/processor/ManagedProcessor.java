@@ -0,0 +1,25 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.model.resource.processor;
+
+import ro.isdc.wro.manager.WroManager;
+
+
+/**
+ * Implemented by the processors holding resources which are prepared when the {@link WroManager} using them is created
+ * (ex: a pool of engines evaluating their javascript library ahead) and released when it is destroyed.
+ *
+ * @since 1.4.8
+ */
+public interface ManagedProcessor {
+  /**
+   * Invoked once, after the {@link WroManager} using the processor is created.
+   */
+  void start();
+
+  /**
+   * Invoked when the {@link WroManager} using the processor is destroyed.
+   */
+  void destroy();
+}
@@ -7,9 +7,14 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
 
+import org.apache.commons.io.input.CharSequenceReader;
+import org.apache.commons.io.output.StringBuilderWriter;
+
 import ro.isdc.wro.model.group.processor.Minimize;
+import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
+import ro.isdc.wro.model.resource.processor.CharSequenceProcessor;
 import ro.isdc.wro.model.resource.processor.MinimizeAware;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
@@ -26,7 +31,8 @@ import ro.isdc.wro.util.ObjectDecorator;
  * @since 1.4.6
  */
 public abstract class AbstractProcessorDecoratorSupport
-  implements ResourcePreProcessor, ResourcePostProcessor, SupportedResourceTypeAware, MinimizeAware, ObjectDecorator<Object> {
+  implements ResourcePreProcessor, ResourcePostProcessor, CharSequenceProcessor, SupportedResourceTypeAware,
+  MinimizeAware, ObjectDecorator<Object> {
 
   /**
    * This method is final, because it intends to preserve the getSupportedResourceType flag of the decorated processor.
@@ -119,4 +125,29 @@ public abstract class AbstractProcessorDecoratorSupport
     throws IOException {
     process(null, reader, writer);
   }
+
+  /**
+   * Processes the content using {@link #process(Resource, Reader, Writer)}, this way the behavior of the decorators
+   * overriding it is preserved. A decorator which only delegates the processing can override this method in order to
+   * pass the content to the decorated processor without copying it.
+   *
+   * @since 1.4.8
+   */
+  public CharSequence process(final Resource resource, final CharSequence content)
+      throws IOException {
+    return processUsingWriter(this, resource, content);
+  }
+
+  /**
+   * Adapts a {@link ResourcePreProcessor} to the {@link CharSequenceProcessor} contract.
+   *
+   * @return the content written by the processor.
+   */
+  static CharSequence processUsingWriter(final ResourcePreProcessor processor, final Resource resource,
+      final CharSequence content)
+      throws IOException {
+    final StringBuilderWriter writer = new StringBuilderWriter(content.length());
+    processor.process(resource, new CharSequenceReader(content), writer);
+    return writer.getBuilder();
+  }
 }
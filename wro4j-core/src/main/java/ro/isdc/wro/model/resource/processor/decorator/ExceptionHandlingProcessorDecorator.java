@@ -55,22 +55,45 @@ public class ExceptionHandlingProcessorDecorator
       super.process(resource, innerReader, innerWriter);
       writer.write(innerWriter.toString());
     } catch (final Exception e) {
-      final String processorName = getOriginalDecoratedObject().getClass().getSimpleName();
-      LOG.debug("Failed to process the resource: {} using processor: {}", resource, processorName);
-      if (isIgnoreFailingProcessor()) {
-        writer.write(resourceContent);
-        // don't wrap exception unless required
-      } else if (e instanceof RuntimeException) {
-        throw (RuntimeException) e;
-      } else {
-        throw new WroRuntimeException("The processor: " + processorName + " failed", e);
-      }
+      handleException(resource, e);
+      writer.write(resourceContent);
     } finally {
       reader.close();
       writer.close();
     }
   }
 
+  /**
+   * Same as {@link #process(Resource, Reader, Writer)}, but the content is not copied: when the failure is ignored, the
+   * provided content is returned as it is.
+   */
+  @Override
+  public CharSequence process(final Resource resource, final CharSequence content)
+      throws IOException {
+    try {
+      return processDecorated(resource, content);
+    } catch (final Exception e) {
+      handleException(resource, e);
+      return content;
+    }
+  }
+
+  /**
+   * Propagates the exception, unless the failure should be ignored.
+   */
+  private void handleException(final Resource resource, final Exception e) {
+    final String processorName = getOriginalDecoratedObject().getClass().getSimpleName();
+    LOG.debug("Failed to process the resource: {} using processor: {}", resource, processorName);
+    if (isIgnoreFailingProcessor()) {
+      return;
+    }
+    // don't wrap exception unless required
+    if (e instanceof RuntimeException) {
+      throw (RuntimeException) e;
+    }
+    throw new WroRuntimeException("The processor: " + processorName + " failed", e);
+  }
+
   /**
    * @return true if the failure should be ignored. By default uses the {@link WroConfiguration} to get the flag value.
    */
@@ -54,10 +54,7 @@ public class MinimizeAwareProcessorDecorator
   public void process(final Resource resource, final Reader reader, final Writer writer)
       throws IOException {
     final ResourcePreProcessor processor = getDecoratedObject();
-    // apply processor only when minimize is required or the processor is not minimize aware
-    final boolean applyProcessor = (resource != null && resource.isMinimize() && minimize)
-        || (resource == null && minimize) || !isMinimize();
-    if (applyProcessor) {
+    if (isApplied(resource)) {
       LOG.debug("Using Processor: {}", processor);
       processor.process(resource, reader, writer);
     } else {
@@ -65,4 +62,25 @@ public class MinimizeAwareProcessorDecorator
       IOUtils.copy(reader, writer);
     }
   }
+
+  /**
+   * Same as {@link #process(Resource, Reader, Writer)}, but the skipped processor leaves the content untouched.
+   */
+  @Override
+  public CharSequence process(final Resource resource, final CharSequence content)
+      throws IOException {
+    if (isApplied(resource)) {
+      LOG.debug("Using Processor: {}", getDecoratedObject());
+      return processDecorated(resource, content);
+    }
+    LOG.debug("Skipping processor: {}", getDecoratedObject());
+    return content;
+  }
+
+  /**
+   * Apply processor only when minimize is required or the processor is not minimize aware.
+   */
+  private boolean isApplied(final Resource resource) {
+    return (resource != null && resource.isMinimize() && minimize) || (resource == null && minimize) || !isMinimize();
+  }
 }
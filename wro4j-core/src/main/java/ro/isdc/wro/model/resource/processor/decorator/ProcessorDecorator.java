@@ -12,6 +12,7 @@ import org.apache.commons.lang3.Validate;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
+import ro.isdc.wro.model.resource.processor.CharSequenceProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 
@@ -65,6 +66,14 @@ public class ProcessorDecorator
       protected SupportedResourceType getSupportedResourceTypeInternal() {
         return getSupportedResourceTypeForProcessor(postProcessor);
       }
+      @Override
+      public CharSequence process(final Resource resource, final CharSequence content)
+          throws IOException {
+        if (postProcessor instanceof CharSequenceProcessor) {
+          return ((CharSequenceProcessor) postProcessor).process(resource, content);
+        }
+        return super.process(resource, content);
+      }
     };
   }
 
@@ -83,6 +92,20 @@ public class ProcessorDecorator
     decoratedProcessor.process(resource, reader, writer);
   }
 
+  /**
+   * Processes the content using the decorated processor, without copying the content when the decorated processor
+   * implements {@link CharSequenceProcessor}.
+   *
+   * @since 1.4.8
+   */
+  protected final CharSequence processDecorated(final Resource resource, final CharSequence content)
+      throws IOException {
+    if (decoratedProcessor instanceof CharSequenceProcessor) {
+      return ((CharSequenceProcessor) decoratedProcessor).process(resource, content);
+    }
+    return processUsingWriter(decoratedProcessor, resource, content);
+  }
+
   /**
    * Indicates if the processor is eligible for usage based on provided criteria.
    * 
@@ -10,6 +10,7 @@ import java.io.Writer;
 import org.apache.commons.io.IOUtils;
 
 import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.processor.CharSequenceProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 import ro.isdc.wro.util.WroUtil;
@@ -22,26 +23,31 @@ import ro.isdc.wro.util.WroUtil;
  * @created Created on Nov 28, 2008
  */
 public class CommentStripperProcessor
-  implements ResourcePreProcessor, ResourcePostProcessor {
+  implements ResourcePreProcessor, ResourcePostProcessor, CharSequenceProcessor {
   /**
    * {@inheritDoc}
    */
   public void process(final Resource resource, final Reader reader, final Writer writer)
     throws IOException {
     try {
-      final String content = IOUtils.toString(reader);
-      // apply single line comment stripper processor first
-      String result = SingleLineCommentStripperProcessor.PATTERN.matcher(content).replaceAll("");
-      // apply multi line comment stripper processor after
-      result = MultiLineCommentStripperProcessor.PATTERN.matcher(result).replaceAll("");
-      result = WroUtil.EMTPY_LINE_PATTERN.matcher(result).replaceAll("");
-      writer.write(result);
+      writer.append(process(resource, IOUtils.toString(reader)));
     } finally {
       reader.close();
       writer.close();
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public CharSequence process(final Resource resource, final CharSequence content) {
+    // apply single line comment stripper processor first
+    String result = SingleLineCommentStripperProcessor.PATTERN.matcher(content).replaceAll("");
+    // apply multi line comment stripper processor after
+    result = MultiLineCommentStripperProcessor.PATTERN.matcher(result).replaceAll("");
+    return WroUtil.EMTPY_LINE_PATTERN.matcher(result).replaceAll("");
+  }
+
 
   /**
    * {@inheritDoc}
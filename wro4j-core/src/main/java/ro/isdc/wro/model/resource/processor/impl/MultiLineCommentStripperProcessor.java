@@ -11,6 +11,7 @@ import java.util.regex.Pattern;
 import org.apache.commons.io.IOUtils;
 
 import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.processor.CharSequenceProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 import ro.isdc.wro.util.WroUtil;
@@ -23,7 +24,7 @@ import ro.isdc.wro.util.WroUtil;
  * @created Created on Nov 28, 2008
  */
 public class MultiLineCommentStripperProcessor
-  implements ResourcePreProcessor, ResourcePostProcessor {
+  implements ResourcePreProcessor, ResourcePostProcessor, CharSequenceProcessor {
   /**
    * Pattern containing a regex matching multiline comments & empty new lines.
    */
@@ -37,16 +38,21 @@ public class MultiLineCommentStripperProcessor
   public void process(final Resource resource, final Reader source, final Writer destination)
     throws IOException {
     try {
-      final String content = IOUtils.toString(source);
-      String result = PATTERN.matcher(content).replaceAll("");
-      result = WroUtil.EMTPY_LINE_PATTERN.matcher(result).replaceAll("");
-      destination.write(result);
+      destination.append(process(resource, IOUtils.toString(source)));
     } finally {
       source.close();
       destination.close();
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public CharSequence process(final Resource resource, final CharSequence content) {
+    final String result = PATTERN.matcher(content).replaceAll("");
+    return WroUtil.EMTPY_LINE_PATTERN.matcher(result).replaceAll("");
+  }
+
 
   /**
    * {@inheritDoc}
@@ -17,6 +17,7 @@ import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.processor.CharSequenceProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 import ro.isdc.wro.util.ObjectFactory;
@@ -32,7 +33,7 @@ import ro.isdc.wro.util.WroUtil;
  * @created 15 Jun 2011
  */
 public class PlaceholderProcessor
-  implements ResourcePreProcessor, ResourcePostProcessor {
+  implements ResourcePreProcessor, ResourcePostProcessor, CharSequenceProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(PlaceholderProcessor.class);
   private static final Pattern PATTERN_PLACEHOLDER = Pattern.compile(WroUtil.loadRegexpWithKey("placeholder"));
   private static final Properties EMPTY_PROPERTIES = new Properties();
@@ -62,7 +63,14 @@ public class PlaceholderProcessor
    */
   public void process(final Resource resource, final Reader reader, final Writer writer)
     throws IOException {
-    final String content = IOUtils.toString(reader);
+    writer.append(process(resource, IOUtils.toString(reader)));
+  }
+
+
+  /**
+   * {@inheritDoc}
+   */
+  public CharSequence process(final Resource resource, final CharSequence content) {
     final Matcher matcher = PATTERN_PLACEHOLDER.matcher(content);
     final StringBuffer sb = new StringBuffer();
 
@@ -80,7 +88,7 @@ public class PlaceholderProcessor
       matcher.appendReplacement(sb, replaceVariable(properties, variableName));
     }
     matcher.appendTail(sb);
-    writer.write(sb.toString());
+    return sb;
   }
 
 
@@ -11,6 +11,7 @@ import java.util.regex.Pattern;
 import org.apache.commons.io.IOUtils;
 
 import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.processor.CharSequenceProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 import ro.isdc.wro.util.WroUtil;
@@ -24,7 +25,7 @@ import ro.isdc.wro.util.WroUtil;
  * @created Created on Nov 28, 2008
  */
 public class SingleLineCommentStripperProcessor
-  implements ResourcePreProcessor, ResourcePostProcessor {
+  implements ResourcePreProcessor, ResourcePostProcessor, CharSequenceProcessor {
   /**
    * Pattern containing a regex matching singleline comments & preceding empty spaces & tabs.
    */
@@ -37,16 +38,21 @@ public class SingleLineCommentStripperProcessor
   public void process(final Resource resource, final Reader reader, final Writer writer)
     throws IOException {
     try {
-      final String content = IOUtils.toString(reader);
-      String result = PATTERN.matcher(content).replaceAll("");
-      result = WroUtil.EMTPY_LINE_PATTERN.matcher(result).replaceAll("");
-      writer.write(result);
+      writer.append(process(resource, IOUtils.toString(reader)));
     } finally {
       reader.close();
       writer.close();
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public CharSequence process(final Resource resource, final CharSequence content) {
+    final String result = PATTERN.matcher(content).replaceAll("");
+    return WroUtil.EMTPY_LINE_PATTERN.matcher(result).replaceAll("");
+  }
+
 
   /**
    * {@inheritDoc}
@@ -210,12 +210,17 @@ public abstract class AbstractCssUrlRewritingProcessor
   }
   
   /**
-   * This method has protected modifier in order to be accessed by unit test class.
+   * This method has protected modifier in order to be accessed by unit test class. When there is no request (ex: the
+   * content is reloaded outside of the request cycle), the url is relative to the folder of the aggregated css, which
+   * is the folder of the request uri.
    * 
    * @return urlPrefix value.
    * @VisibleForTesting
    */
   protected String getUrlPrefix() {
+    if (context.getRequest() == null) {
+      return getProxyResourcePath();
+    }
     final String requestURI = context.getRequest().getRequestURI();
     return FilenameUtils.getFullPath(requestURI) + getProxyResourcePath();
   }
@@ -29,6 +29,7 @@ import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 import ro.isdc.wro.util.StringUtils;
 import ro.isdc.wro.util.WroUtil;
+import ro.isdc.wro.util.io.BufferPool;
 
 
 /**
@@ -99,7 +100,7 @@ public class CssImportPreProcessor
       return "";
     }
     processed.add(resource);
-    final StringBuffer sb = new StringBuffer();
+    final StringBuilder sb = new StringBuilder();
     final List<Resource> importsCollector = getImportedResources(resource);
     // for now, minimize always
     // TODO: find a way to get minimize property dynamically.
@@ -118,13 +119,17 @@ public class CssImportPreProcessor
    */
   private String removeImportStatements(final String content) {
     final Matcher m = PATTERN.matcher(content);
-    final StringBuffer sb = new StringBuffer();
-    while (m.find()) {
-      // add and check if already exist
-      m.appendReplacement(sb, "");
+    final StringBuilder sb = BufferPool.borrowBuilder();
+    try {
+      int tailIndex = 0;
+      while (m.find()) {
+        sb.append(content, tailIndex, m.start());
+        tailIndex = m.end();
+      }
+      return sb.append(content, tailIndex, content.length()).toString();
+    } finally {
+      BufferPool.release(sb);
     }
-    m.appendTail(sb);
-    return sb.toString();
   }
 
   /**
@@ -21,6 +21,7 @@ import ro.isdc.wro.model.resource.SupportedResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 import ro.isdc.wro.util.WroUtil;
+import ro.isdc.wro.util.io.BufferPool;
 
 
 /**
@@ -104,19 +105,27 @@ public class CssVariablesProcessor
   private String parseCss(final String css) {
     // map containing variables & their values
     final Map<String, String> map = new HashMap<String, String>();
-    final StringBuffer sb = new StringBuffer();
-    final Matcher m = PATTERN_VARIABLES_DEFINITION.matcher(css);
-    while (m.find()) {
-      final String variablesBody = m.group(1);
-      // LOG.debug("variables body: " + variablesBody);
-      // extract variables
-      map.putAll(extractVariables(variablesBody));
-      // remove variables definition
-      m.appendReplacement(sb, "");
+    final StringBuilder sb = BufferPool.borrowBuilder();
+    final String cleanCss;
+    try {
+      final Matcher m = PATTERN_VARIABLES_DEFINITION.matcher(css);
+      int tailIndex = 0;
+      while (m.find()) {
+        final String variablesBody = m.group(1);
+        // LOG.debug("variables body: " + variablesBody);
+        // extract variables
+        map.putAll(extractVariables(variablesBody));
+        // remove variables definition
+        sb.append(css, tailIndex, m.start());
+        tailIndex = m.end();
+      }
+      // avoid copying the css when there is nothing to remove
+      cleanCss = tailIndex == 0 ? css : sb.append(css, tailIndex, css.length()).toString();
+    } finally {
+      BufferPool.release(sb);
     }
-    m.appendTail(sb);
 
-    final String result = replaceVariables(sb.toString(), map);
+    final String result = replaceVariables(cleanCss, map);
     // LOG.debug("replaced variables: " + result);
     return result;
   }
@@ -131,20 +140,24 @@ public class CssVariablesProcessor
    * @return css with all variables replaced.
    */
   private String replaceVariables(final String css, final Map<String, String> variables) {
-    final StringBuffer sb = new StringBuffer();
-    final Matcher m = PATTERN_VARIABLE_HOLDER.matcher(css);
-    while (m.find()) {
-      final String oldMatch = m.group();
-      final String variableName = m.group(1);
-      final String variableValue = variables.get(variableName);
-      if (variableValue != null) {
-        final String newReplacement = oldMatch.replace(oldMatch, variableValue);
-        m.appendReplacement(sb, newReplacement.trim());
-      } else {
-        LOG.warn("No variable with name " + variableName + " was found!");
+    final StringBuilder sb = BufferPool.borrowBuilder();
+    try {
+      final Matcher m = PATTERN_VARIABLE_HOLDER.matcher(css);
+      int tailIndex = 0;
+      while (m.find()) {
+        final String variableName = m.group(1);
+        final String variableValue = variables.get(variableName);
+        if (variableValue != null) {
+          sb.append(css, tailIndex, m.start()).append(variableValue.trim());
+          tailIndex = m.end();
+        } else {
+          LOG.warn("No variable with name " + variableName + " was found!");
+        }
       }
+      sb.append(css, tailIndex, css.length());
+      return sb.toString();
+    } finally {
+      BufferPool.release(sb);
     }
-    m.appendTail(sb);
-    return sb.toString();
   }
 }
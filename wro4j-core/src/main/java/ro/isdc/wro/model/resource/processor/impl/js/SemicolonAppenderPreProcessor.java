@@ -6,6 +6,7 @@ package ro.isdc.wro.model.resource.processor.impl.js;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
+import java.util.regex.Pattern;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -13,6 +14,7 @@ import org.apache.commons.lang3.StringUtils;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
+import ro.isdc.wro.model.resource.processor.CharSequenceProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 import ro.isdc.wro.util.WroUtil;
 
@@ -25,12 +27,12 @@ import ro.isdc.wro.util.WroUtil;
  */
 @SupportedResourceType(ResourceType.JS)
 public class SemicolonAppenderPreProcessor
-  implements ResourcePreProcessor {
+  implements ResourcePreProcessor, CharSequenceProcessor {
   public static final String ALIAS = "semicolonAppender";
   /**
    * check if the last character is a semicolon and append only if one is missing.
    */
-  private static final String PATTERN = WroUtil.loadRegexpWithKey("javascript.hasSemicolon");
+  private static final Pattern PATTERN = Pattern.compile(WroUtil.loadRegexpWithKey("javascript.hasSemicolon"));
 
   /**
    * {@inheritDoc}
@@ -38,22 +40,28 @@ public class SemicolonAppenderPreProcessor
   public void process(final Resource resource, final Reader reader, final Writer writer)
     throws IOException {
     try {
-      final String script = IOUtils.toString(reader);
-      writer.write(script);
-      if (isSemicolonNeeded(script)) {
-        writer.write(';');
-      }
+      writer.append(process(resource, IOUtils.toString(reader)));
     } finally {
       reader.close();
       writer.close();
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public CharSequence process(final Resource resource, final CharSequence script) {
+    if (isSemicolonNeeded(script)) {
+      return new StringBuilder(script.length() + 1).append(script).append(';');
+    }
+    return script;
+  }
+
   /**
    * @param script script to process.
    * @return true if the processed content requires semicolon.
    */
-  private boolean isSemicolonNeeded(final String script) {
-    return !(script.matches(PATTERN) || StringUtils.isEmpty(script));
+  private boolean isSemicolonNeeded(final CharSequence script) {
+    return !(StringUtils.isEmpty(script) || PATTERN.matcher(script).matches());
   }
 }
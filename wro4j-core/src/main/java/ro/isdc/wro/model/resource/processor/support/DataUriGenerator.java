@@ -2,8 +2,6 @@ package ro.isdc.wro.model.resource.processor.support;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringWriter;
-import java.io.Writer;
 
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
@@ -11,6 +9,7 @@ import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.http.support.ContentTypeResolver;
 import ro.isdc.wro.util.Base64;
+import ro.isdc.wro.util.io.BufferPool;
 
 
 /**
@@ -31,15 +30,17 @@ public class DataUriGenerator {
    */
   public String generateDataURI(final InputStream inputStream, final String fileName)
       throws IOException {
-    final StringWriter writer = new StringWriter();
-    final byte[] bytes = IOUtils.toByteArray(inputStream);
-    inputStream.close();
+    final BufferPool.ByteBuffer bytes = BufferPool.borrowByteBuffer();
+    try {
+      IOUtils.copy(inputStream, bytes);
+      inputStream.close();
 
-    final String mimeType = getMimeType(fileName);
-    // actually write
-    generateDataURI(bytes, writer, mimeType);
-
-    return writer.toString();
+      final String mimeType = getMimeType(fileName);
+      // actually write
+      return generateDataURI(bytes, mimeType);
+    } finally {
+      BufferPool.release(bytes);
+    }
   }
 
   private String getMimeType(String fileName) {
@@ -58,20 +59,18 @@ public class DataUriGenerator {
   }
   
   /**
-   * Generates a data URI from a byte array and outputs to the given writer.
+   * Generates a data URI from the content of a byte buffer.
    * 
    * @param bytes
-   *          The array of bytes to output to the data URI.
-   * @param out
-   *          Where to output the data URI.
+   *          The bytes to output to the data URI.
    * @param mimeType
    *          The MIME type to specify in the data URI.
-   * @throws java.io.IOException
+   * @return the data URI.
    */
-  private void generateDataURI(final byte[] bytes, final Writer out, final String mimeType)
-      throws IOException {
+  private String generateDataURI(final BufferPool.ByteBuffer bytes, final String mimeType) {
+    final String encoded = Base64.encodeBytes(bytes.getBuffer(), 0, bytes.size());
     // create the output
-    final StringBuffer buffer = new StringBuffer();
+    final StringBuilder buffer = new StringBuilder(encoded.length() + 64);
     buffer.append(DATA_URI_PREFIX);
     
     // add MIME type
@@ -79,9 +78,7 @@ public class DataUriGenerator {
     
     // output base64-encoding
     buffer.append(";base64,");
-    buffer.append(Base64.encodeBytes(bytes));
-    
-    // output to writer
-    out.write(buffer.toString());
+    buffer.append(encoded);
+    return buffer.toString();
   }
 }
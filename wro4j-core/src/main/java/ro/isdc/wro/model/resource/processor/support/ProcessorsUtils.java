@@ -12,6 +12,8 @@ import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 import ro.isdc.wro.model.resource.processor.decorator.ProcessorDecorator;
+import ro.isdc.wro.model.resource.processor.impl.css.CssUrlRewritingProcessor;
+import ro.isdc.wro.util.AbstractDecorator;
 
 
 /**
@@ -75,4 +77,21 @@ public class ProcessorsUtils {
     }
     return null;
   }
+
+  /**
+   * @param processors
+   *          the processors (decorated or not) to check.
+   * @return true if the result of any of the processors depends on the folder of the requested group (
+   *         {@link ro.isdc.wro.config.Context#getAggregatedFolderPath()}), as the css url rewriting does.
+   * @since 1.4.8
+   */
+  public static boolean dependsOnAggregatedFolderPath(final Collection<?> processors) {
+    Validate.notNull(processors);
+    for (final Object processor : processors) {
+      if (AbstractDecorator.getOriginalDecoratedObject(processor) instanceof CssUrlRewritingProcessor) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
@@ -0,0 +1,129 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.model.resource.support.change;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
+import ro.isdc.wro.model.resource.locator.support.LocalFileResolver;
+import ro.isdc.wro.model.resource.support.hash.CRC32HashStrategy;
+import ro.isdc.wro.model.resource.support.hash.HashStrategy;
+
+
+/**
+ * Detects the changes of the resources by comparing the fingerprint of their current content with the fingerprint
+ * computed by the previous check. The first check of a resource only remembers its fingerprint. A resource which
+ * cannot be located has an empty fingerprint, so that its removal (or its re-appearance) is also detected.
+ * <p/>
+ * When the resource is backed by a local file (a servlet context resource having a real path or a <code>file:</code>
+ * url), the fingerprint is computed from the last modified time and the length of the file, without reading it.
+ * Otherwise, the fingerprint is computed from the located content using {@link CRC32HashStrategy}, which is cheap and
+ * good enough to detect a change of the same resource. This class is thread-safe.
+ * <p/>
+ * A file modified during the last {@link #QUIET_PERIOD} milliseconds is not reported as changed yet, so that a burst
+ * of writes (ex: an editor saving or a build copying several files) results in a single change, reported by the
+ * first check following the burst.
+ *
+ * @since 1.4.8
+ */
+public class ResourceChangeDetector {
+  private static final Logger LOG = LoggerFactory.getLogger(ResourceChangeDetector.class);
+  private static final String MISSING_FINGERPRINT = "";
+  /**
+   * The time (in milliseconds) a file must remain unmodified before its change is reported.
+   */
+  public static final long QUIET_PERIOD = 1000;
+  private final UriLocatorFactory uriLocatorFactory;
+  private final HashStrategy hashStrategy = new CRC32HashStrategy();
+  /**
+   * Maps the uri of a resource to the fingerprint computed by the last check.
+   */
+  private final Map<String, String> fingerprints = new ConcurrentHashMap<String, String>();
+
+  /**
+   * @param uriLocatorFactory
+   *          used to locate the resources which are checked.
+   */
+  public ResourceChangeDetector(final UriLocatorFactory uriLocatorFactory) {
+    Validate.notNull(uriLocatorFactory);
+    this.uriLocatorFactory = uriLocatorFactory;
+  }
+
+  /**
+   * @param uri
+   *          the uri of the resource to check.
+   * @return true if the content of the resource was changed since the previous check of the same uri.
+   */
+  public boolean checkChangedFor(final String uri) {
+    Validate.notNull(uri);
+    final File file = LocalFileResolver.get(uri);
+    final String fingerprint = file != null ? computeFileFingerprint(file) : computeFingerprint(uri);
+    final String previousFingerprint = fingerprints.get(uri);
+    final boolean changed = previousFingerprint != null && !previousFingerprint.equals(fingerprint);
+    if (changed && file != null && System.currentTimeMillis() - file.lastModified() < QUIET_PERIOD) {
+      LOG.debug("Resource is still being modified: {}", uri);
+      return false;
+    }
+    fingerprints.put(uri, fingerprint);
+    if (changed) {
+      LOG.debug("Resource changed: {}", uri);
+    }
+    return changed;
+  }
+
+  /**
+   * Remembers the fingerprint of the provided content as computed by a check of the resource, so that a caller which
+   * just read the content does not have to locate the resource again for the next check to be accurate.
+   *
+   * @param uri
+   *          the uri of the resource.
+   * @param content
+   *          the current content of the resource.
+   */
+  public void remember(final String uri, final byte[] content) {
+    Validate.notNull(uri);
+    Validate.notNull(content);
+    final File file = LocalFileResolver.get(uri);
+    try {
+      fingerprints.put(uri, file != null ? computeFileFingerprint(file) : hashStrategy.getHash(
+          new ByteArrayInputStream(content)));
+    } catch (final IOException e) {
+      LOG.debug("Cannot compute the fingerprint of resource: {}", uri);
+    }
+  }
+
+  private String computeFileFingerprint(final File file) {
+    return file.lastModified() + "|" + file.length();
+  }
+
+  private String computeFingerprint(final String uri) {
+    InputStream inputStream = null;
+    try {
+      inputStream = uriLocatorFactory.locate(uri);
+      return inputStream == null ? MISSING_FINGERPRINT : hashStrategy.getHash(inputStream);
+    } catch (final IOException e) {
+      LOG.debug("Cannot locate resource: {}", uri);
+      return MISSING_FINGERPRINT;
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
+  /**
+   * Forgets all the fingerprints computed so far. The next check of each resource will be considered the first one.
+   */
+  public void reset() {
+    fingerprints.clear();
+  }
+}
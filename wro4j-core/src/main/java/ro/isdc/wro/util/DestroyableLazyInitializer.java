@@ -17,6 +17,24 @@ public abstract class DestroyableLazyInitializer<T> extends LazyInitializer<T> {
    * {@link DestroyableLazyInitializer#get()} method is invoked.
    */
   public final void destroy() {
-    object = null;
+    final T destroyed;
+    synchronized (this) {
+      destroyed = object;
+      object = null;
+    }
+    if (destroyed != null) {
+      onDestroy(destroyed);
+    }
+  }
+
+  /**
+   * Invoked by {@link #destroy()} with the object being destroyed, only if it was initialized. Override it to release
+   * the resources held by the object. Does nothing by default.
+   *
+   * @param destroyed
+   *          the initialized object.
+   * @since 1.4.8
+   */
+  protected void onDestroy(final T destroyed) {
   }
 }
@@ -0,0 +1,155 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.util.io.BufferPool;
+
+
+/**
+ * A pool of threads shared by all the parallel processing performed by a {@link ro.isdc.wro.manager.WroManager} (pre
+ * processing of the resources of a group and processing of the groups during cache warm-up). The threads are created
+ * on demand and are stopped when {@link #destroy()} is invoked.
+ * <p/>
+ * A task is never waited for without being executed: when the result of a task which wasn't picked by any thread of the
+ * pool yet is requested, the task is executed by the requesting thread. This allows a task executed by the pool to
+ * submit other tasks and wait for them (ex: a group processed during warm-up pre processing its resources in parallel)
+ * without exhausting the pool, and allows the caller to help the pool instead of being blocked. After the executor is
+ * destroyed, all the tasks are executed by the requesting thread.
+ *
+ * @since 1.4.8
+ */
+public class TaskExecutor {
+  private static final Logger LOG = LoggerFactory.getLogger(TaskExecutor.class);
+  private final String name;
+  /**
+   * Created on demand. Guarded by this.
+   */
+  private ThreadPoolExecutor executor;
+  private boolean destroyed;
+
+  /**
+   * @param name
+   *          used to name the threads of the pool.
+   */
+  public TaskExecutor(final String name) {
+    Validate.notNull(name);
+    this.name = name;
+  }
+
+  /**
+   * Submits the tasks for parallel execution.
+   *
+   * @param callables
+   *          the tasks to execute.
+   * @param poolSize
+   *          the number of threads of the pool. When not positive, the number of available processors is used.
+   * @return the futures of the submitted tasks, in the order of the callables. Invoking {@link Future#get()} on a task
+   *         which is not started yet executes the task in the current thread.
+   */
+  public <T> List<Future<T>> submit(final Collection<? extends Callable<T>> callables, final int poolSize) {
+    Validate.notNull(callables);
+    final List<Future<T>> futures = new ArrayList<Future<T>>(callables.size());
+    for (final Callable<T> callable : callables) {
+      futures.add(new Task<T>(callable));
+    }
+    // the last task is left for the calling thread, which would wait for it anyway
+    final int submitted = futures.size() - 1;
+    if (submitted > 0) {
+      final ThreadPoolExecutor pool = getExecutor(poolSize);
+      if (pool != null) {
+        try {
+          for (int i = 0; i < submitted; i++) {
+            pool.execute((Task<T>) futures.get(i));
+          }
+        } catch (final RejectedExecutionException e) {
+          LOG.debug("Executor {} was destroyed, the tasks are executed by the calling thread", name);
+        }
+      }
+    }
+    return futures;
+  }
+
+  private synchronized ThreadPoolExecutor getExecutor(final int poolSize) {
+    if (destroyed) {
+      return null;
+    }
+    final int size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+    if (executor == null) {
+      LOG.debug("Creating executor {} with {} threads", name, size);
+      executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+          WroUtil.createDaemonThreadFactory(name)) {
+        @Override
+        protected void beforeExecute(final Thread thread, final Runnable runnable) {
+          // the threads of the pool are stopped when the executor is destroyed, together with their buffers
+          BufferPool.enable();
+        }
+      };
+    } else if (executor.getCorePoolSize() != size) {
+      LOG.debug("Resizing executor {} to {} threads", name, size);
+      // the maximum pool size cannot be smaller than the core pool size
+      if (size > executor.getMaximumPoolSize()) {
+        executor.setMaximumPoolSize(size);
+        executor.setCorePoolSize(size);
+      } else {
+        executor.setCorePoolSize(size);
+        executor.setMaximumPoolSize(size);
+      }
+    }
+    return executor;
+  }
+
+  /**
+   * Stops the threads of the pool. The tasks submitted afterwards are executed by the calling thread.
+   */
+  public synchronized void destroy() {
+    destroyed = true;
+    if (executor != null) {
+      LOG.debug("Destroying executor {}", name);
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  /**
+   * A task executed by the thread asking for its result, unless the pool already started it.
+   */
+  private static final class Task<T>
+      extends FutureTask<T> {
+    public Task(final Callable<T> callable) {
+      super(callable);
+    }
+
+    @Override
+    public T get()
+        throws InterruptedException, ExecutionException {
+      // does nothing when the task was already started
+      run();
+      return super.get();
+    }
+
+    @Override
+    public T get(final long timeout, final TimeUnit unit)
+        throws InterruptedException, ExecutionException, TimeoutException {
+      run();
+      return super.get(timeout, unit);
+    }
+  }
+}
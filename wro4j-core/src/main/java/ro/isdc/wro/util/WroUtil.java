@@ -16,6 +16,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -56,7 +57,8 @@ public final class WroUtil {
    * Patterns used to search for mangled Accept-Encoding header.
    */
   private static final Pattern PATTERN_ACCEPT_ENCODING = Pattern.compile(loadRegexpWithKey("requestHeader.acceptEncoding"));
-  private static final Pattern PATTERN_GZIP = Pattern.compile(loadRegexpWithKey("requestHeader.gzip"));
+  private static final Pattern PATTERN_MANGLED_ENCODINGS = Pattern.compile(loadRegexpWithKey("requestHeader.mangledEncodings"));
+  private static final Pattern PATTERN_QUALITY_VALUE = Pattern.compile(loadRegexpWithKey("requestHeader.qualityValue"));
 
   private static final AtomicInteger threadFactoryNumber = new AtomicInteger(1);
   public static InputStream EMPTY_STREAM = new ByteArrayInputStream("".getBytes());
@@ -77,6 +79,24 @@ public final class WroUtil {
     };
   }
 
+  /**
+   * @return the context path of the application without the leading slash, or DEFAULT if it cannot be identified
+   *         because an older version of servlet-api (<2.5) is used.
+   * @since 1.4.8
+   */
+  public static String getContextPath(final ServletContext servletContext) {
+    String contextPath = null;
+    try {
+      contextPath = (String) ServletContext.class.getMethod("getContextPath", new Class<?>[] {}).invoke(
+          servletContext, new Object[] {});
+    } catch (final Exception e) {
+      contextPath = "DEFAULT";
+      LOG.warn("Couldn't identify contextPath because you are using older version of servlet-api (<2.5). Using "
+          + contextPath + " contextPath.");
+    }
+    return contextPath.replaceFirst("/", "");
+  }
+
   /**
    * Transforms milliseconds into date format for response header of this form: Sat, 10 Apr 2010 17:31:31 GMT.
    * 
@@ -195,7 +215,8 @@ public final class WroUtil {
 
   /**
    * Analyze headers of the request and searches for mangled (by proxy) for "Accept-Encoding" header and its mangled
-   * variations and gzip header value and its mangled variations.
+   * variations and gzip header value and its mangled variations. The gzip encoding is not supported when it is
+   * explicitly refused (ex: <code>gzip;q=0</code>).
    * 
    * @return true if this request support gzip encoding.
    */
@@ -209,8 +230,8 @@ public final class WroUtil {
           final Matcher m = PATTERN_ACCEPT_ENCODING.matcher(headerName);
           if (m.find()) {
             final String headerValue = request.getHeader(headerName);
-            final Matcher mValue = PATTERN_GZIP.matcher(headerValue);
-            return mValue.find();
+            return headerValue != null
+                && (PATTERN_MANGLED_ENCODINGS.matcher(headerValue).find() || isEncodingAccepted(headerValue, "gzip"));
           }
         }
       }
@@ -218,6 +239,55 @@ public final class WroUtil {
     return false;
   }
 
+  /**
+   * Checks if the encoding is accepted by the value of an Accept-Encoding header. Each encoding listed by the header can
+   * have a quality value and the encodings having a zero quality value (ex: <code>deflate;q=0</code>) are not accepted.
+   * An encoding which is not listed is accepted only if the <code>*</code> wildcard is accepted.
+   * 
+   * @param acceptEncoding
+   *          the value of the Accept-Encoding header (can be null).
+   * @param encoding
+   *          the name of the encoding to check (ex: gzip).
+   * @return true if the encoding is accepted.
+   * @since 1.4.8
+   */
+  public static boolean isEncodingAccepted(final String acceptEncoding, final String encoding) {
+    Validate.notNull(encoding);
+    if (acceptEncoding == null) {
+      return false;
+    }
+    boolean acceptedByWildcard = false;
+    for (final String token : acceptEncoding.split(",")) {
+      final String[] parts = token.split(";");
+      final String name = parts[0].trim();
+      if (name.equalsIgnoreCase(encoding)) {
+        return getQualityValue(parts) > 0;
+      }
+      if ("*".equals(name)) {
+        acceptedByWildcard = getQualityValue(parts) > 0;
+      }
+    }
+    return acceptedByWildcard;
+  }
+
+  /**
+   * @return the quality value of an accepted encoding split into its name and parameters. The default (and the value
+   *         used when the parameter is invalid) is 1.
+   */
+  private static float getQualityValue(final String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      final Matcher matcher = PATTERN_QUALITY_VALUE.matcher(parts[i]);
+      if (matcher.matches()) {
+        try {
+          return Float.parseFloat(matcher.group(1));
+        } catch (final NumberFormatException e) {
+          LOG.debug("Invalid quality value: {}", parts[i]);
+        }
+      }
+    }
+    return 1;
+  }
+
   /**
    * Transforms a java multi-line string into javascript multi-line string. This technique was found at {@link http
    * ://stackoverflow.com/questions/805107/multiline-strings-in-javascript/}
@@ -0,0 +1,148 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.util.io;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+
+import ro.isdc.wro.util.TaskExecutor;
+
+
+/**
+ * A pool of growable buffers used for the intermediate results of the processing (merging, replacing, encoding). The
+ * pool is confined to the current thread, so borrowing and releasing a buffer doesn't need any synchronization and a
+ * buffer keeps the capacity it has grown to between two usages. A borrowed buffer must be released by the same thread,
+ * usually in a finally block, and must not be used after it was released:
+ *
+ * <pre>
+ * final StringBuilder sb = BufferPool.borrowBuilder();
+ * try {
+ *   // use sb
+ *   return sb.toString();
+ * } finally {
+ *   BufferPool.release(sb);
+ * }
+ * </pre>
+ *
+ * The buffers are pooled only by the threads which enabled the pooling: the threads of the {@link TaskExecutor} and the
+ * threads merging a group, for the duration of the merge. On any other thread (ex: a container thread), a new buffer
+ * is created when borrowed and dropped when released, so that no buffer (and no class of the application) is retained
+ * by the threads which are not owned by wro4j.
+ * <p/>
+ * Buffers which have grown beyond {@link #MAX_RETAINED_CAPACITY} are not kept in the pool, in order to avoid holding a
+ * lot of memory for each thread after processing an unusually large resource.
+ *
+ * @since 1.4.8
+ */
+public final class BufferPool {
+  /**
+   * The number of buffers of each kind kept by a thread. Allows nested usages (ex: a processor borrowing a buffer while
+   * the merged content is collected into another one).
+   */
+  static final int MAX_POOLED_BUFFERS = 2;
+  /**
+   * The largest capacity (chars or bytes) of a buffer which is still returned to the pool.
+   */
+  static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+  private static final int INITIAL_CAPACITY = 8 * 1024;
+  private static final ThreadLocal<BufferPool> POOL = new ThreadLocal<BufferPool>();
+  private final List<StringBuilder> builders = new ArrayList<StringBuilder>(MAX_POOLED_BUFFERS);
+  private final List<ByteBuffer> byteBuffers = new ArrayList<ByteBuffer>(MAX_POOLED_BUFFERS);
+
+  private BufferPool() {
+  }
+
+  /**
+   * Enables the pooling of the buffers released by the current thread, until {@link #clear()} is invoked.
+   *
+   * @return true if the pooling was enabled by this invocation, false if it was already enabled. Only the caller which
+   *         enabled the pooling should clear it.
+   */
+  public static boolean enable() {
+    if (POOL.get() == null) {
+      POOL.set(new BufferPool());
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Drops the buffers pooled by the current thread and disables the pooling for it.
+   */
+  public static void clear() {
+    POOL.remove();
+  }
+
+  /**
+   * @return an empty {@link StringBuilder} owned by the caller until it is released.
+   */
+  public static StringBuilder borrowBuilder() {
+    final BufferPool pool = POOL.get();
+    return pool == null || pool.builders.isEmpty() ? new StringBuilder(INITIAL_CAPACITY)
+        : pool.builders.remove(pool.builders.size() - 1);
+  }
+
+  /**
+   * Returns a builder to the pool of the current thread.
+   *
+   * @param builder
+   *          a builder obtained by {@link #borrowBuilder()}.
+   */
+  public static void release(final StringBuilder builder) {
+    Validate.notNull(builder);
+    final BufferPool pool = POOL.get();
+    if (pool != null && pool.builders.size() < MAX_POOLED_BUFFERS && builder.capacity() <= MAX_RETAINED_CAPACITY) {
+      builder.setLength(0);
+      pool.builders.add(builder);
+    }
+  }
+
+  /**
+   * @return an empty {@link ByteBuffer} owned by the caller until it is released.
+   */
+  public static ByteBuffer borrowByteBuffer() {
+    final BufferPool pool = POOL.get();
+    return pool == null || pool.byteBuffers.isEmpty() ? new ByteBuffer()
+        : pool.byteBuffers.remove(pool.byteBuffers.size() - 1);
+  }
+
+  /**
+   * Returns a byte buffer to the pool of the current thread.
+   *
+   * @param buffer
+   *          a buffer obtained by {@link #borrowByteBuffer()}.
+   */
+  public static void release(final ByteBuffer buffer) {
+    Validate.notNull(buffer);
+    final BufferPool pool = POOL.get();
+    if (pool != null && pool.byteBuffers.size() < MAX_POOLED_BUFFERS && buffer.capacity() <= MAX_RETAINED_CAPACITY) {
+      buffer.reset();
+      pool.byteBuffers.add(buffer);
+    }
+  }
+
+  /**
+   * A growable byte buffer giving access to its content without copying it.
+   */
+  public static final class ByteBuffer
+      extends ByteArrayOutputStream {
+    private ByteBuffer() {
+      super(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @return the internal array holding the content. Only the first {@link #size()} bytes are valid.
+     */
+    public byte[] getBuffer() {
+      return buf;
+    }
+
+    int capacity() {
+      return buf.length;
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.cache;
+
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import ro.isdc.wro.cache.impl.MemoryCacheStrategy;
+
+
+/**
+ * Measures the throughput of cache hits for the lock-free {@link AbstractSynchronizedCacheStrategyDecorator} compared
+ * to the previous implementation, which acquired a read lock for each lookup of a synchronized map. The results depend
+ * heavily on the hardware, this is why it is not executed as part of the test suite. Run it using the main method.
+ */
+public class CacheStrategyBenchmark {
+  private static final int[] THREADS = new int[] {
+    1, 2, 4, 8, 16, 32, 64
+  };
+  private static final int KEYS = 64;
+  private static final long DURATION_MILLIS = 2000;
+  
+  /**
+   * The read path of the decorator before becoming lock-free.
+   */
+  private static class LockingCacheStrategy
+      extends CacheStrategyDecorator<Integer, String> {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public LockingCacheStrategy() {
+      super(new MemoryCacheStrategy<Integer, String>(new HashMap<Integer, String>()));
+    }
+    
+    @Override
+    public String get(final Integer key) {
+      lock.readLock().lock();
+      try {
+        return getDecoratedObject().get(key);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+  
+  private static CacheStrategy<Integer, String> createLockFreeCacheStrategy() {
+    return new AbstractSynchronizedCacheStrategyDecorator<Integer, String>(new MemoryCacheStrategy<Integer, String>()) {
+      @Override
+      protected String loadValue(final Integer key) {
+        return "value" + key;
+      }
+    };
+  }
+  
+  /**
+   * @return the number of cache hits per second.
+   */
+  private static long measure(final CacheStrategy<Integer, String> cacheStrategy, final int threads)
+      throws InterruptedException {
+    for (int i = 0; i < KEYS; i++) {
+      cacheStrategy.put(i, "value" + i);
+    }
+    final AtomicLong hits = new AtomicLong();
+    final CountDownLatch start = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(threads);
+    final long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+    for (int i = 0; i < threads; i++) {
+      new Thread(new Runnable() {
+        public void run() {
+          try {
+            start.await();
+            long count = 0;
+            while (System.currentTimeMillis() < deadline) {
+              for (int key = 0; key < KEYS; key++) {
+                cacheStrategy.get(key);
+              }
+              count += KEYS;
+            }
+            hits.addAndGet(count);
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            done.countDown();
+          }
+        }
+      }).start();
+    }
+    start.countDown();
+    done.await();
+    return hits.get() * 1000 / DURATION_MILLIS;
+  }
+  
+  public static void main(final String[] args)
+      throws Exception {
+    // warm up the JIT
+    measure(new LockingCacheStrategy(), 4);
+    measure(createLockFreeCacheStrategy(), 4);
+    System.out.println(String.format("%8s %20s %20s", "threads", "locking (hits/s)", "lock-free (hits/s)"));
+    for (final int threads : THREADS) {
+      final long locking = measure(new LockingCacheStrategy(), threads);
+      final long lockFree = measure(createLockFreeCacheStrategy(), threads);
+      System.out.println(String.format("%8d %20d %20d", threads, locking, lockFree));
+    }
+  }
+}
@@ -3,14 +3,24 @@
  */
 package ro.isdc.wro.cache;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 import junit.framework.Assert;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import ro.isdc.wro.config.Context;
 import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.http.support.encoding.ContentEncoder;
+import ro.isdc.wro.http.support.encoding.GzipContentEncoder;
 
 /**
  * @author Alex Objelean
@@ -57,6 +67,86 @@ public class TestContentHashEntry {
     Assert.assertNotNull(entry.getGzippedContent());
   }
 
+  @Test
+  public void shouldComputeEncodedContentOnlyOnce()
+      throws Exception {
+    final ContentEncoder encoder = Mockito.spy(new GzipContentEncoder());
+    final ContentHashEntry entry = ContentHashEntry.valueOf(RAW_CONTENT, "hash");
+    final byte[] encoded = entry.getEncodedContent(encoder);
+    Assert.assertSame(encoded, entry.getEncodedContent(encoder));
+    Assert.assertSame(encoded, entry.getGzippedContent());
+    Assert.assertSame(entry.getRawBytes(), entry.getRawBytes());
+    Mockito.verify(encoder, Mockito.times(1)).encode(Mockito.any(byte[].class));
+  }
+
+  @Test
+  public void shouldComputeRawBytesUsingConfiguredEncoding()
+      throws Exception {
+    final String content = "\u0103\u00ee\u0219";
+    Context.get().getConfig().setEncoding("UTF-16");
+    final ContentHashEntry entry = ContentHashEntry.valueOf(content, "hash");
+    Assert.assertTrue(Arrays.equals(content.getBytes("UTF-16"), entry.getRawBytes()));
+  }
+
+  @Test
+  public void shouldRecomputeRepresentationsWhenRawContentChanges() {
+    final ContentHashEntry entry = ContentHashEntry.valueOf(RAW_CONTENT, "hash");
+    entry.getGzippedContent();
+    entry.getRawBytes();
+    entry.setRawContent("changed");
+    Assert.assertNull(entry.getGzippedContentInternal());
+    Assert.assertEquals("changed", new String(entry.getRawBytes()));
+  }
+
+  @Test
+  public void shouldStoreContentOffHeapWhenEnabled()
+      throws Exception {
+    Context.get().getConfig().setCacheOffHeap(true);
+    final ContentHashEntry entry = ContentHashEntry.valueOf(RAW_CONTENT, "hash");
+    Assert.assertTrue(entry.hasContent());
+    Assert.assertEquals(RAW_CONTENT, entry.getRawContent());
+    Assert.assertTrue(entry.getRawBuffer().isDirect());
+    Assert.assertTrue(Arrays.equals(RAW_CONTENT.getBytes("UTF-8"), entry.getRawBytes()));
+    Assert.assertTrue(entry.getEncodedBuffer(new GzipContentEncoder()).isDirect());
+    Assert.assertTrue(Arrays.equals(new GzipContentEncoder().encode(entry.getRawBytes()), entry.getGzippedContent()));
+    Assert.assertEquals(0, entry.getHeapWeight());
+    Assert.assertEquals(entry.getRawBytes().length + entry.getGzippedContent().length, entry.getOffHeapWeight());
+  }
+
+  @Test
+  public void shouldExposeEncodedBuffersStoredOffHeapWithoutCopy() {
+    Context.get().getConfig().setCacheOffHeap(true);
+    final ContentHashEntry entry = ContentHashEntry.valueOf(RAW_CONTENT, "hash");
+    entry.getGzippedContent();
+    final ByteBuffer buffer = entry.getEncodedBuffers().get(GzipContentEncoder.NAME);
+    Assert.assertTrue(buffer.isDirect());
+    Assert.assertTrue(buffer.isReadOnly());
+    Assert.assertEquals(entry.getGzippedContent().length, buffer.remaining());
+  }
+
+  @Test
+  public void shouldNotHaveContentWhenRawContentIsNull() {
+    Context.get().getConfig().setCacheOffHeap(true);
+    Assert.assertFalse(ContentHashEntry.valueOf(null, null).hasContent());
+    Context.get().getConfig().setCacheOffHeap(false);
+    Assert.assertFalse(ContentHashEntry.valueOf(null, null).hasContent());
+  }
+
+  @Test
+  public void shouldSerializeContentStoredOffHeap()
+      throws Exception {
+    Context.get().getConfig().setCacheOffHeap(true);
+    final ContentHashEntry entry = ContentHashEntry.valueOf(RAW_CONTENT, "hash");
+    entry.getGzippedContent();
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new ObjectOutputStream(out).writeObject(entry);
+    final ContentHashEntry deserialized = (ContentHashEntry) new ObjectInputStream(new ByteArrayInputStream(
+        out.toByteArray())).readObject();
+    Assert.assertEquals(RAW_CONTENT, deserialized.getRawContent());
+    Assert.assertEquals("hash", deserialized.getHash());
+    Assert.assertNotNull(deserialized.getGzippedContentInternal());
+  }
+
   @After
   public void tearDown() {
     Context.unset();
@@ -0,0 +1,235 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.cache.impl.MemoryCacheStrategy;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.http.support.encoding.GzipContentEncoder;
+import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
+import ro.isdc.wro.model.WroModel;
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.group.processor.InjectorBuilder;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.locator.UriLocator;
+import ro.isdc.wro.model.resource.locator.factory.SimpleUriLocatorFactory;
+import ro.isdc.wro.model.resource.processor.factory.SimpleProcessorsFactory;
+import ro.isdc.wro.model.resource.processor.impl.js.JSMinProcessor;
+import ro.isdc.wro.util.WroUtil;
+
+
+/**
+ * Test class for {@link DiskCacheStrategyDecorator}.
+ */
+public class TestDiskCacheStrategyDecorator {
+  private static final CacheEntry KEY = new CacheEntry("g1", ResourceType.JS, true);
+  private File directory;
+  private WroModel model;
+  private SimpleProcessorsFactory processorsFactory;
+  /**
+   * The content of the resources, mapped by uri.
+   */
+  private Map<String, String> contents;
+  private AtomicInteger locateCount;
+  private DiskCacheStrategyDecorator victim;
+
+  @Before
+  public void setUp() {
+    Context.set(Context.standaloneContext());
+    directory = new File(FileUtils.getTempDirectory(), "wro4j-disk-cache-" + System.nanoTime());
+    model = new WroModel().addGroup(new Group("g1").addResource(Resource.create("/a.js", ResourceType.JS)));
+    processorsFactory = new SimpleProcessorsFactory();
+    contents = new HashMap<String, String>();
+    contents.put("/a.js", "var a = 1;");
+    locateCount = new AtomicInteger();
+    victim = createDecorator();
+  }
+
+  @After
+  public void tearDown() {
+    FileUtils.deleteQuietly(directory);
+    Context.unset();
+  }
+
+  /**
+   * @return a decorator using a new (empty) memory cache, simulating a restart.
+   */
+  private DiskCacheStrategyDecorator createDecorator() {
+    return createDecorator(DiskCacheStrategyDecorator.DEFAULT_NAMESPACE);
+  }
+
+  private DiskCacheStrategyDecorator createDecorator(final String namespace) {
+    final DiskCacheStrategyDecorator decorator = new DiskCacheStrategyDecorator(
+        new MemoryCacheStrategy<CacheEntry, ContentHashEntry>(), directory, namespace);
+    final BaseWroManagerFactory managerFactory = new BaseWroManagerFactory().setModelFactory(WroUtil.factoryFor(model));
+    managerFactory.setProcessorsFactory(processorsFactory);
+    managerFactory.setUriLocatorFactory(new SimpleUriLocatorFactory().addUriLocator(new UriLocator() {
+      public boolean accept(final String uri) {
+        return true;
+      }
+
+      public InputStream locate(final String uri)
+          throws IOException {
+        locateCount.incrementAndGet();
+        if (!contents.containsKey(uri)) {
+          throw new IOException("Missing resource: " + uri);
+        }
+        return new ByteArrayInputStream(contents.get(uri).getBytes());
+      }
+    }));
+    InjectorBuilder.create(managerFactory).build().inject(decorator);
+    return decorator;
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotUseNullDirectory() {
+    new DiskCacheStrategyDecorator(new MemoryCacheStrategy<CacheEntry, ContentHashEntry>(), null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotUseFileAsDirectory()
+      throws Exception {
+    final File file = File.createTempFile("wro4j", ".tmp");
+    try {
+      new DiskCacheStrategyDecorator(new MemoryCacheStrategy<CacheEntry, ContentHashEntry>(), file);
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void shouldLoadPersistedEntryAfterRestart() {
+    victim.put(KEY, ContentHashEntry.valueOf("var a = 1;", "hash"));
+    final ContentHashEntry entry = createDecorator().get(KEY);
+    Assert.assertNotNull(entry);
+    Assert.assertEquals("var a = 1;", entry.getRawContent());
+    Assert.assertEquals("hash", entry.getHash());
+  }
+
+  @Test
+  public void shouldPersistGzippedContent() {
+    victim.put(KEY, ContentHashEntry.valueOf("var a = 1;", "hash"));
+    final ContentHashEntry entry = createDecorator().get(KEY);
+    Assert.assertNotNull(entry.getEncodedContents().get(GzipContentEncoder.NAME));
+  }
+
+  @Test
+  public void shouldPersistEntryStoredOffHeap() {
+    Context.get().getConfig().setCacheOffHeap(true);
+    final ContentHashEntry value = ContentHashEntry.valueOf("var a = 1;", "hash");
+    victim.put(KEY, value);
+    Context.get().getConfig().setCacheOffHeap(false);
+    final ContentHashEntry entry = createDecorator().get(KEY);
+    Assert.assertEquals("var a = 1;", entry.getRawContent());
+    Assert.assertEquals(new String(value.getGzippedContent()), new String(entry.getGzippedContent()));
+    // the buffers of the persisted entry are left untouched
+    Assert.assertEquals("var a = 1;", value.getRawContent());
+  }
+
+  @Test
+  public void shouldIgnorePersistedEntryWhenModelChanges() {
+    victim.put(KEY, ContentHashEntry.valueOf("var a = 1;", "hash"));
+    model.getGroupByName("g1").addResource(Resource.create("/b.js", ResourceType.JS));
+    Assert.assertNull(createDecorator().get(KEY));
+  }
+
+  @Test
+  public void shouldIgnorePersistedEntryWhenProcessorsChange() {
+    victim.put(KEY, ContentHashEntry.valueOf("var a = 1;", "hash"));
+    processorsFactory.addPreProcessor(new JSMinProcessor());
+    Assert.assertNull(createDecorator().get(KEY));
+  }
+
+  @Test
+  public void shouldIgnorePersistedEntryWhenResourceContentChanges() {
+    victim.put(KEY, ContentHashEntry.valueOf("var a = 1;", "hash"));
+    contents.put("/a.js", "var a = 2;");
+    Assert.assertNull(createDecorator().get(KEY));
+  }
+
+  @Test
+  public void shouldIgnorePersistedEntryOfOtherNamespace() {
+    victim.put(KEY, ContentHashEntry.valueOf("var a = 1;", "hash"));
+    Assert.assertNull(createDecorator("other").get(KEY));
+  }
+
+  @Test
+  public void shouldNotLocateResourcesOnEachMiss() {
+    victim.get(KEY);
+    victim.get(KEY);
+    Assert.assertEquals(1, locateCount.get());
+  }
+
+  @Test
+  public void shouldDeleteOnlyEntriesOfTheNamespaceOnClear() {
+    victim.put(KEY, ContentHashEntry.valueOf("var a = 1;", "hash"));
+    createDecorator("other").clear();
+    Assert.assertEquals(1, directory.list().length);
+    Assert.assertNotNull(createDecorator().get(KEY));
+  }
+
+  @Test
+  public void shouldReplaceStaleEntry() {
+    victim.put(KEY, ContentHashEntry.valueOf("var a = 1;", "hash"));
+    processorsFactory.addPreProcessor(new JSMinProcessor());
+    createDecorator().put(KEY, ContentHashEntry.valueOf("var a=1;", "hash2"));
+    Assert.assertEquals(1, directory.list().length);
+    Assert.assertEquals("var a=1;", createDecorator().get(KEY).getRawContent());
+  }
+
+  @Test
+  public void shouldReplaceEntryPersistedByTheSameDecorator() {
+    victim.put(KEY, ContentHashEntry.valueOf("var a = 1;", "hash"));
+    processorsFactory.addPreProcessor(new JSMinProcessor());
+    victim.put(KEY, ContentHashEntry.valueOf("var a=1;", "hash2"));
+    Assert.assertEquals(1, directory.list().length);
+  }
+
+  @Test
+  public void shouldDeletePersistedEntryWhenPuttingNull() {
+    victim.put(KEY, ContentHashEntry.valueOf("var a = 1;", "hash"));
+    victim.put(KEY, null);
+    Assert.assertNull(victim.get(KEY));
+    Assert.assertNull(createDecorator().get(KEY));
+  }
+
+  @Test
+  public void shouldDeletePersistedEntriesOnClear() {
+    victim.put(KEY, ContentHashEntry.valueOf("var a = 1;", "hash"));
+    victim.clear();
+    Assert.assertEquals(0, directory.list().length);
+    Assert.assertNull(createDecorator().get(KEY));
+  }
+
+  @Test
+  public void shouldIgnoreAndDeleteInvalidFile()
+      throws IOException {
+    victim.put(KEY, ContentHashEntry.valueOf("var a = 1;", "hash"));
+    final File file = directory.listFiles()[0];
+    FileUtils.writeStringToFile(file, "corrupted");
+    Assert.assertNull(createDecorator().get(KEY));
+    Assert.assertFalse(file.exists());
+  }
+
+  @Test
+  public void shouldNotPersistUnknownGroups() {
+    victim.put(new CacheEntry("unknown", ResourceType.JS, true), ContentHashEntry.valueOf("var a = 1;", "hash"));
+    Assert.assertEquals(0, directory.list().length);
+  }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.cache;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.cache.HashIndexCacheStrategyDecorator.Validators;
+import ro.isdc.wro.cache.impl.MemoryCacheStrategy;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.model.resource.ResourceType;
+
+
+/**
+ * Test class for {@link HashIndexCacheStrategyDecorator}.
+ */
+public class TestHashIndexCacheStrategyDecorator {
+  private static final CacheEntry KEY = new CacheEntry("g1", ResourceType.JS, true);
+  private MemoryCacheStrategy<CacheEntry, ContentHashEntry> cache;
+  private HashIndexCacheStrategyDecorator victim;
+
+  @Before
+  public void setUp() {
+    Context.set(Context.standaloneContext());
+    cache = new MemoryCacheStrategy<CacheEntry, ContentHashEntry>();
+    victim = new HashIndexCacheStrategyDecorator(cache);
+  }
+
+  @After
+  public void tearDown() {
+    Context.unset();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotGetValidatorsOfNullKey() {
+    victim.getValidators(null);
+  }
+
+  @Test
+  public void shouldIndexPutValue() {
+    victim.put(KEY, ContentHashEntry.valueOf("content", "hash"));
+    final Validators validators = victim.getValidators(KEY);
+    Assert.assertEquals("hash", validators.getHash());
+    Assert.assertEquals("\"hash\"", validators.getETag());
+    Assert.assertEquals(0, validators.getLastModified() % 1000);
+    Assert.assertNotNull(validators.getLastModifiedAsString());
+  }
+
+  @Test
+  public void shouldComputeContentTypeUsingEncodingOfCachedValue() {
+    Context.get().getConfig().setEncoding("ISO-8859-1");
+    victim.put(KEY, ContentHashEntry.valueOf("content", "hash"));
+    Assert.assertEquals(ResourceType.JS.getContentType() + "; charset=ISO-8859-1",
+        victim.getValidators(KEY).getContentType());
+  }
+
+  @Test
+  public void shouldIndexValueReturnedByDecoratedCache() {
+    cache.put(KEY, ContentHashEntry.valueOf("content", "hash"));
+    Assert.assertNull(victim.getValidators(KEY));
+    victim.get(KEY);
+    Assert.assertEquals("hash", victim.getValidators(KEY).getHash());
+  }
+
+  @Test
+  public void shouldNotIndexValueWithoutHash() {
+    victim.put(KEY, ContentHashEntry.valueOf(null, null));
+    Assert.assertNull(victim.getValidators(KEY));
+  }
+
+  @Test
+  public void shouldKeepValidatorsWhenHashIsNotChanged() {
+    victim.put(KEY, ContentHashEntry.valueOf("content", "hash"));
+    final Validators validators = victim.getValidators(KEY);
+    victim.put(KEY, ContentHashEntry.valueOf("content", "hash"));
+    Assert.assertSame(validators, victim.getValidators(KEY));
+  }
+
+  @Test
+  public void shouldUpdateValidatorsWhenHashIsChanged() {
+    victim.put(KEY, ContentHashEntry.valueOf("content", "hash"));
+    victim.put(KEY, ContentHashEntry.valueOf("changed", "hash2"));
+    Assert.assertEquals("hash2", victim.getValidators(KEY).getHash());
+  }
+
+  @Test
+  public void shouldRemoveValidatorsWhenEntryIsEvictedByDecoratedCache() {
+    victim.put(KEY, ContentHashEntry.valueOf("content", "hash"));
+    cache.clear();
+    Assert.assertNull(victim.getValidators(KEY));
+  }
+
+  @Test
+  public void shouldIndexContentLength() {
+    victim.put(KEY, ContentHashEntry.valueOf("content", "hash"));
+    Assert.assertEquals(7, victim.getValidators(KEY).getContentLength());
+  }
+
+  @Test
+  public void shouldRemoveValidatorsWhenPuttingNull() {
+    victim.put(KEY, ContentHashEntry.valueOf("content", "hash"));
+    victim.put(KEY, null);
+    Assert.assertNull(victim.getValidators(KEY));
+  }
+
+  @Test
+  public void shouldRemoveValidatorsOnClear() {
+    victim.put(KEY, ContentHashEntry.valueOf("content", "hash"));
+    victim.clear();
+    Assert.assertNull(victim.getValidators(KEY));
+  }
+}
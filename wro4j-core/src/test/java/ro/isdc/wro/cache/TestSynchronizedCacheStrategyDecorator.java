@@ -1,5 +1,8 @@
 package ro.isdc.wro.cache;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -64,6 +67,148 @@ public class TestSynchronizedCacheStrategyDecorator {
     Assert.assertEquals(2, count.get());
   }
 
+  @Test
+  public void shouldServeStaleValueWhileRefreshing() throws Exception {
+    final AtomicInteger count = createSlowCountingDecorator();
+    final String key = "key";
+    Assert.assertEquals("value-key", victim.get(key));
+    executor.execute(new Runnable() {
+      public void run() {
+        victim.refresh();
+      }
+    });
+    Thread.sleep(50);
+    // the refresh is in progress, but the stale value is returned without waiting.
+    final long start = System.currentTimeMillis();
+    Assert.assertEquals("value-key", victim.get(key));
+    Assert.assertTrue(System.currentTimeMillis() - start < 200);
+    awaitTermination();
+    Assert.assertEquals(2, count.get());
+  }
+  
+  @Test
+  public void shouldNotRefreshKeysWithoutValue() throws Exception {
+    final AtomicInteger count = createSlowCountingDecorator();
+    victim.get("key1");
+    victim.get("key2");
+    decorated.clear();
+    victim.refresh();
+    Assert.assertEquals(2, count.get());
+    Assert.assertNull(decorated.get("key1"));
+  }
+  
+  @Test
+  public void shouldReplaceValueAfterRefresh() {
+    final AtomicInteger count = new AtomicInteger();
+    victim = new AbstractSynchronizedCacheStrategyDecorator<String, String>(decorated) {
+      @Override
+      protected String loadValue(final String key) {
+        return key + "-" + count.incrementAndGet();
+      }
+    };
+    Assert.assertEquals("key-1", victim.get("key"));
+    victim.refresh();
+    Assert.assertEquals("key-2", victim.get("key"));
+  }
+  
+  @Test
+  public void shouldKeepStaleValueWhenRefreshFails() {
+    final AtomicInteger count = new AtomicInteger();
+    victim = new AbstractSynchronizedCacheStrategyDecorator<String, String>(decorated) {
+      @Override
+      protected String loadValue(final String key) {
+        if (count.incrementAndGet() > 1) {
+          throw new IllegalStateException("BOOM");
+        }
+        return "value-" + key;
+      }
+    };
+    victim.get("key");
+    victim.refresh();
+    Assert.assertEquals("value-key", victim.get("key"));
+  }
+
+  @Test
+  public void shouldPropagateLoadFailureAndRetryOnNextLookup() {
+    final AtomicInteger count = new AtomicInteger();
+    victim = new AbstractSynchronizedCacheStrategyDecorator<String, String>(decorated) {
+      @Override
+      protected String loadValue(final String key) {
+        if (count.incrementAndGet() == 1) {
+          throw new IllegalStateException("BOOM");
+        }
+        return "value-" + key;
+      }
+    };
+    try {
+      victim.get("key");
+      Assert.fail("Should have thrown exception");
+    } catch (final IllegalStateException e) {
+    }
+    Assert.assertEquals("value-key", victim.get("key"));
+    Assert.assertEquals(2, count.get());
+  }
+
+  @Test
+  public void shouldForgetKeysWithoutValue() {
+    final List<String> removedKeys = new ArrayList<String>();
+    victim = new AbstractSynchronizedCacheStrategyDecorator<String, String>(decorated) {
+      @Override
+      protected String loadValue(final String key) {
+        if ("failing".equals(key)) {
+          throw new IllegalStateException("BOOM");
+        }
+        return "value-" + key;
+      }
+
+      @Override
+      protected void onKeyRemoved(final String key) {
+        removedKeys.add(key);
+      }
+    };
+    try {
+      victim.get("failing");
+      Assert.fail("Should have thrown exception");
+    } catch (final IllegalStateException e) {
+    }
+    victim.get("removed");
+    victim.put("removed", null);
+    victim.get("evicted");
+    victim.get("kept");
+    // evicted by the decorated cache
+    decorated.put("evicted", null);
+    Assert.assertEquals(Arrays.asList("failing", "removed"), removedKeys);
+    victim.refresh();
+    victim.refresh();
+    Assert.assertEquals(Arrays.asList("failing", "removed", "evicted"), removedKeys);
+    Assert.assertEquals("value-kept", decorated.get("kept"));
+  }
+
+  @Test
+  public void shouldNotBlockHitsWhileLoadingAnotherKey() throws Exception {
+    createSlowCountingDecorator();
+    decorated.put("cached", "cachedValue");
+    executor.execute(getRunnableForKey("slow"));
+    Thread.sleep(50);
+    final long start = System.currentTimeMillis();
+    Assert.assertEquals("cachedValue", victim.get("cached"));
+    Assert.assertTrue(System.currentTimeMillis() - start < 200);
+  }
+
+  @Test
+  public void shouldRecordStatistics() {
+    createSlowCountingDecorator();
+    victim.get("key");
+    victim.get("key");
+    victim.get("key");
+    Assert.assertEquals(2, victim.getStatistics().getHitCount());
+    Assert.assertEquals(1, victim.getStatistics().getMissCount());
+    Assert.assertEquals(1, victim.getStatistics().getLoadCount());
+    Assert.assertTrue(victim.getStatistics().getTotalLoadTime() >= 250);
+    victim.getStatistics().reset();
+    Assert.assertEquals(0, victim.getStatistics().getHitCount());
+  }
+
   protected AtomicInteger createSlowCountingDecorator() {
     final AtomicInteger count = new AtomicInteger();
     victim = new AbstractSynchronizedCacheStrategyDecorator<String, String>(decorated) {
@@ -0,0 +1,190 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.cache.impl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.cache.CacheEntry;
+import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.cache.ContentHashEntryWeigher;
+import ro.isdc.wro.cache.Weigher;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.http.support.encoding.DeflateContentEncoder;
+import ro.isdc.wro.model.resource.ResourceType;
+
+
+/**
+ * Test class for {@link SegmentedLruCacheStrategy}.
+ */
+public class TestSegmentedLruCacheStrategy {
+  private SegmentedLruCacheStrategy<String, String> victim;
+
+  @Before
+  public void setUp() {
+    // the weight of a value is its length
+    victim = new SegmentedLruCacheStrategy<String, String>(10, new Weigher<String>() {
+      public long weigh(final String value) {
+        return value.length();
+      }
+    });
+  }
+
+  @After
+  public void tearDown() {
+    Context.unset();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotUseInvalidMaxWeight() {
+    new SegmentedLruCacheStrategy<CacheEntry, ContentHashEntry>(0, new ContentHashEntryWeigher());
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotUseNullWeigher() {
+    new SegmentedLruCacheStrategy<String, String>(10, null);
+  }
+
+  @Test
+  public void shouldNotExceedMaxWeight() {
+    victim.put("1", "aaaa");
+    victim.put("2", "bbbb");
+    victim.put("3", "cccc");
+    Assert.assertEquals(8, victim.getWeight());
+    Assert.assertNull(victim.get("1"));
+    Assert.assertEquals("bbbb", victim.get("2"));
+    Assert.assertEquals("cccc", victim.get("3"));
+    Assert.assertEquals(1, victim.getStatistics().getEvictionCount());
+  }
+
+  @Test
+  public void shouldKeepFrequentlyUsedEntriesDuringScan() {
+    victim.put("hot", "hh");
+    // promotes the entry to the protected segment
+    victim.get("hot");
+    for (int i = 0; i < 20; i++) {
+      victim.put("scan" + i, "ss");
+    }
+    Assert.assertEquals("hh", victim.get("hot"));
+    Assert.assertEquals(10, victim.getWeight());
+  }
+
+  @Test
+  public void shouldRemoveEntryWhenPuttingNullValue() {
+    victim.put("1", "aaaa");
+    victim.put("1", null);
+    Assert.assertNull(victim.get("1"));
+    Assert.assertEquals(0, victim.getWeight());
+    Assert.assertEquals(0, victim.getStatistics().getEvictionCount());
+  }
+
+  @Test
+  public void shouldUpdateWeightWhenReplacingValue() {
+    victim.put("1", "aaaa");
+    victim.get("1");
+    victim.put("1", "aa");
+    Assert.assertEquals(2, victim.getWeight());
+    Assert.assertEquals("aa", victim.get("1"));
+  }
+
+  @Test
+  public void shouldNotCacheTooHeavyValues() {
+    victim.put("1", "aaaa");
+    victim.put("2", "this value is too heavy");
+    Assert.assertNull(victim.get("2"));
+    Assert.assertEquals("aaaa", victim.get("1"));
+  }
+
+  @Test
+  public void shouldClearAllEntries() {
+    victim.put("1", "aaaa");
+    victim.get("1");
+    victim.put("2", "bbbb");
+    victim.clear();
+    Assert.assertEquals(0, victim.getWeight());
+    Assert.assertNull(victim.get("1"));
+    Assert.assertNull(victim.get("2"));
+  }
+
+  @Test
+  public void shouldKeepEntriesAccessedByManyLookups() {
+    victim.put("hot", "hhhh");
+    // more lookups than the accesses kept until the cache is updated
+    for (int i = 0; i < 1000; i++) {
+      victim.get("hot");
+    }
+    victim.put("1", "aaaa");
+    victim.put("2", "bbbb");
+    Assert.assertEquals("hhhh", victim.get("hot"));
+    Assert.assertNull(victim.get("1"));
+  }
+
+  @Test
+  public void shouldNotBlockLookupsWhileWeighingValue()
+      throws Exception {
+    final CountDownLatch weighing = new CountDownLatch(1);
+    final CountDownLatch weighed = new CountDownLatch(1);
+    victim = new SegmentedLruCacheStrategy<String, String>(10, new Weigher<String>() {
+      public long weigh(final String value) {
+        if ("slow".equals(value)) {
+          weighing.countDown();
+          try {
+            weighed.await(5, TimeUnit.SECONDS);
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        return value.length();
+      }
+    });
+    victim.put("1", "aaaa");
+    final Thread writer = new Thread() {
+      @Override
+      public void run() {
+        victim.put("2", "slow");
+      }
+    };
+    writer.start();
+    try {
+      Assert.assertTrue(weighing.await(5, TimeUnit.SECONDS));
+      Assert.assertEquals("aaaa", victim.get("1"));
+      Assert.assertEquals(4, victim.getWeight());
+    } finally {
+      weighed.countDown();
+      writer.join(5000);
+    }
+    Assert.assertEquals("slow", victim.get("2"));
+  }
+
+  @Test
+  public void shouldWeighContentHashEntries() {
+    Context.set(Context.standaloneContext());
+    final SegmentedLruCacheStrategy<CacheEntry, ContentHashEntry> cache = new SegmentedLruCacheStrategy<CacheEntry, ContentHashEntry>(
+        1000, new ContentHashEntryWeigher());
+    cache.put(new CacheEntry("g1", ResourceType.JS, true), ContentHashEntry.valueOf("var a = 1;", "hash"));
+    Assert.assertTrue(cache.getWeight() >= 30);
+    cache.put(new CacheEntry("g2", ResourceType.JS, true), ContentHashEntry.valueOf(null, "hash"));
+    Assert.assertNotNull(cache.get(new CacheEntry("g2", ResourceType.JS, true)));
+  }
+
+  @Test
+  public void shouldNotChangeWeightWhenContentHashEntryIsServed() {
+    Context.set(Context.standaloneContext());
+    final SegmentedLruCacheStrategy<CacheEntry, ContentHashEntry> cache = new SegmentedLruCacheStrategy<CacheEntry, ContentHashEntry>(
+        10000, new ContentHashEntryWeigher());
+    final ContentHashEntry entry = ContentHashEntry.valueOf("var a = 1;", "hash");
+    cache.put(new CacheEntry("g1", ResourceType.JS, true), entry);
+    final long weight = cache.getWeight();
+    entry.getRawBytes();
+    entry.getGzippedContent();
+    entry.getEncodedContent(new DeflateContentEncoder());
+    Assert.assertEquals(weight, entry.getWeight());
+  }
+}
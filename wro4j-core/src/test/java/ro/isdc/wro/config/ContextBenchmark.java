@@ -0,0 +1,119 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ro.isdc.wro.config.jmx.WroConfiguration;
+
+
+/**
+ * Measures the fixed cost of the {@link Context} handling performed by the filter for each request (set, a few
+ * lookups, unset), compared to the previous implementation which generated a random UUID for each request and
+ * registered the context in a synchronized map. The results depend heavily on the hardware, this is why it is not
+ * executed as part of the test suite. Run it using the main method.
+ */
+public class ContextBenchmark {
+  private static final int[] THREADS = new int[] {
+    1, 2, 4, 8, 16, 32, 64
+  };
+  /**
+   * The number of times the context is accessed during a request cycle.
+   */
+  private static final int LOOKUPS = 8;
+  private static final long DURATION_MILLIS = 2000;
+
+  /**
+   * A request cycle handled by the filter.
+   */
+  private static interface RequestCycle {
+    void run(Context context, WroConfiguration config);
+  }
+
+  /**
+   * The context handling before the correlationId was created on demand.
+   */
+  private static class LegacyRequestCycle
+      implements RequestCycle {
+    private final Map<String, Context> contextMap = Collections.synchronizedMap(new HashMap<String, Context>());
+    private final ThreadLocal<String> correlationId = new ThreadLocal<String>();
+
+    public void run(final Context context, final WroConfiguration config) {
+      context.setConfig(config);
+      final String id = UUID.randomUUID().toString();
+      correlationId.set(id);
+      contextMap.put(id, context);
+      for (int i = 0; i < LOOKUPS; i++) {
+        if (correlationId.get() != null && contextMap.get(correlationId.get()) != null) {
+          contextMap.get(correlationId.get()).getConfig();
+        }
+      }
+      contextMap.remove(correlationId.get());
+      correlationId.remove();
+    }
+  }
+
+  private static class CurrentRequestCycle
+      implements RequestCycle {
+    public void run(final Context context, final WroConfiguration config) {
+      Context.set(context, config);
+      for (int i = 0; i < LOOKUPS; i++) {
+        Context.get().getConfig();
+      }
+      Context.unset();
+    }
+  }
+
+  /**
+   * @return the number of request cycles per second.
+   */
+  private static long measure(final RequestCycle requestCycle, final int threads)
+      throws InterruptedException {
+    final WroConfiguration config = new WroConfiguration();
+    final AtomicLong cycles = new AtomicLong();
+    final CountDownLatch start = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(threads);
+    final long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+    for (int i = 0; i < threads; i++) {
+      new Thread(new Runnable() {
+        public void run() {
+          try {
+            start.await();
+            long count = 0;
+            while (System.currentTimeMillis() < deadline) {
+              requestCycle.run(Context.standaloneContext(), config);
+              count++;
+            }
+            cycles.addAndGet(count);
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            done.countDown();
+          }
+        }
+      }).start();
+    }
+    start.countDown();
+    done.await();
+    return cycles.get() * 1000 / DURATION_MILLIS;
+  }
+
+  public static void main(final String[] args)
+      throws Exception {
+    // warm up the JIT
+    measure(new LegacyRequestCycle(), 4);
+    measure(new CurrentRequestCycle(), 4);
+    System.out.println(String.format("%8s %20s %20s", "threads", "legacy (cycles/s)", "current (cycles/s)"));
+    for (final int threads : THREADS) {
+      final long legacy = measure(new LegacyRequestCycle(), threads);
+      final long current = measure(new CurrentRequestCycle(), threads);
+      System.out.println(String.format("%8d %20d %20d", threads, legacy, current));
+    }
+  }
+}
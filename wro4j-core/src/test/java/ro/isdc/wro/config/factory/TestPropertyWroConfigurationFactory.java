@@ -48,6 +48,22 @@ public class TestPropertyWroConfigurationFactory {
     Assert.assertEquals(true, config.isJmxEnabled());
     Assert.assertEquals(false, config.isCacheGzippedContent());
     Assert.assertEquals(false, config.isParallelPreprocessing());
+    Assert.assertEquals(0, config.getParallelThreads());
+    Assert.assertEquals(0, config.getEnginePoolSize());
+    Assert.assertEquals(0, config.getEnginePoolMinIdle());
+    Assert.assertEquals(0, config.getEnginePoolPrewarm());
+    Assert.assertEquals(WroConfiguration.DEFAULT_ENGINE_POOL_EXHAUSTED_ACTION, config.getEnginePoolExhaustedAction());
+    Assert.assertEquals(WroConfiguration.DEFAULT_SCRIPT_OPTIMIZATION_LEVEL, config.getScriptOptimizationLevel());
+    Assert.assertEquals(false, config.isBackgroundCacheRefresh());
+    Assert.assertEquals(false, config.isCacheWarmUp());
+    Assert.assertEquals(false, config.isCacheOffHeap());
+    Assert.assertEquals(0, config.getResourceWatcherUpdatePeriod());
+    Assert.assertEquals(false, config.isCacheProcessedResources());
+    Assert.assertEquals(WroConfiguration.DEFAULT_PROCESSED_RESOURCES_MAX_SIZE, config.getProcessedResourcesMaxSize());
+    Assert.assertEquals(false, config.isAsyncEnabled());
+    Assert.assertEquals(0, config.getAsyncThreads());
+    Assert.assertEquals(WroConfiguration.DEFAULT_ASYNC_QUEUE_SIZE, config.getAsyncQueueSize());
+    Assert.assertEquals(WroConfiguration.DEFAULT_ASYNC_TIMEOUT, config.getAsyncTimeout());
     Assert.assertEquals(WroConfiguration.DEFAULT_CONNECTION_TIMEOUT, config.getConnectionTimeout());
     Assert.assertEquals(WroConfiguration.DEFAULT_ENCODING, config.getEncoding());
     Assert.assertEquals(WroConfiguration.DEFAULT_CONNECTION_TIMEOUT, config.getConnectionTimeout());
@@ -73,9 +89,25 @@ public class TestPropertyWroConfigurationFactory {
     props.setProperty(ConfigConstants.gzipResources.name(), "false");
     props.setProperty(ConfigConstants.cacheGzippedContent.name(), "true");
     props.setProperty(ConfigConstants.parallelPreprocessing.name(), "true");
+    props.setProperty(ConfigConstants.parallelThreads.name(), "3");
+    props.setProperty(ConfigConstants.enginePoolSize.name(), "4");
+    props.setProperty(ConfigConstants.enginePoolMinIdle.name(), "2");
+    props.setProperty(ConfigConstants.enginePoolPrewarm.name(), "1");
+    props.setProperty(ConfigConstants.enginePoolExhaustedAction.name(), "BLOCK");
+    props.setProperty(ConfigConstants.scriptOptimizationLevel.name(), "9");
     props.setProperty(ConfigConstants.ignoreEmptyGroup.name(), "false");
     props.setProperty(ConfigConstants.ignoreFailingProcessor.name(), "true");
     props.setProperty(ConfigConstants.connectionTimeout.name(), "5000");
+    props.setProperty(ConfigConstants.backgroundCacheRefresh.name(), "true");
+    props.setProperty(ConfigConstants.cacheWarmUp.name(), "true");
+    props.setProperty(ConfigConstants.cacheOffHeap.name(), "true");
+    props.setProperty(ConfigConstants.resourceWatcherUpdatePeriod.name(), "30");
+    props.setProperty(ConfigConstants.cacheProcessedResources.name(), "true");
+    props.setProperty(ConfigConstants.processedResourcesMaxSize.name(), "1000");
+    props.setProperty(ConfigConstants.asyncEnabled.name(), "true");
+    props.setProperty(ConfigConstants.asyncThreads.name(), "3");
+    props.setProperty(ConfigConstants.asyncQueueSize.name(), "10");
+    props.setProperty(ConfigConstants.asyncTimeout.name(), "5000");
     
     factory = new PropertyWroConfigurationFactory(props);
 
@@ -87,9 +119,25 @@ public class TestPropertyWroConfigurationFactory {
     Assert.assertEquals(false, config.isGzipEnabled());
     Assert.assertEquals(true, config.isCacheGzippedContent());
     Assert.assertEquals(true, config.isParallelPreprocessing());
+    Assert.assertEquals(3, config.getParallelThreads());
+    Assert.assertEquals(4, config.getEnginePoolSize());
+    Assert.assertEquals(2, config.getEnginePoolMinIdle());
+    Assert.assertEquals(1, config.getEnginePoolPrewarm());
+    Assert.assertEquals("BLOCK", config.getEnginePoolExhaustedAction());
+    Assert.assertEquals(9, config.getScriptOptimizationLevel());
     Assert.assertEquals(false, config.isIgnoreEmptyGroup());
     Assert.assertEquals(true, config.isIgnoreFailingProcessor());
     Assert.assertEquals(5000, config.getConnectionTimeout());
+    Assert.assertEquals(true, config.isBackgroundCacheRefresh());
+    Assert.assertEquals(true, config.isCacheWarmUp());
+    Assert.assertEquals(true, config.isCacheOffHeap());
+    Assert.assertEquals(30, config.getResourceWatcherUpdatePeriod());
+    Assert.assertEquals(true, config.isCacheProcessedResources());
+    Assert.assertEquals(1000, config.getProcessedResourcesMaxSize());
+    Assert.assertEquals(true, config.isAsyncEnabled());
+    Assert.assertEquals(3, config.getAsyncThreads());
+    Assert.assertEquals(10, config.getAsyncQueueSize());
+    Assert.assertEquals(5000, config.getAsyncTimeout());
   }
 
 
@@ -4,11 +4,16 @@
 package ro.isdc.wro.http;
 
 import java.util.Enumeration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.servlet.FilterConfig;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import junit.framework.Assert;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -16,6 +21,7 @@ import org.mockito.Mockito;
 
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.ContextPropagatingCallable;
 
 
 /**
@@ -61,6 +67,72 @@ public class TestContext {
   }
 
 
+  @Test
+  public void shouldPropagateContextUsingCorrelationId()
+      throws Exception {
+    final Context context = Context.get();
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Context propagated = executor.submit(new ContextPropagatingCallable<Context>(new Callable<Context>() {
+        public Context call() {
+          return Context.get();
+        }
+      })).get();
+      Assert.assertSame(context, propagated);
+      // the context is not left associated with the worker thread
+      Assert.assertFalse(executor.submit(new Callable<Boolean>() {
+        public Boolean call() {
+          return Context.isContextSet();
+        }
+      }).get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void shouldReuseCorrelationIdOfSameContext() {
+    Assert.assertEquals(Context.getCorrelationId(), Context.getCorrelationId());
+  }
+
+  @Test
+  public void shouldUseDistinctCorrelationIdsForDistinctContexts() {
+    final String correlationId = Context.getCorrelationId();
+    Context.set(Context.standaloneContext());
+    Assert.assertFalse(correlationId.equals(Context.getCorrelationId()));
+  }
+
+  @Test
+  public void shouldNotResolveCorrelationIdOfUnsetContext() {
+    final String correlationId = Context.getCorrelationId();
+    Context.unset();
+    Context.setCorrelationId(correlationId);
+    Assert.assertFalse(Context.isContextSet());
+  }
+
+  @Test
+  public void shouldKeepContextRegisteredWhenCorrelationIdIsUnset() {
+    final Context context = Context.get();
+    final String correlationId = Context.getCorrelationId();
+    Context.unsetCorrelationId();
+    Assert.assertFalse(Context.isContextSet());
+    Context.setCorrelationId(correlationId);
+    Assert.assertSame(context, Context.get());
+  }
+
+  @Test
+  public void shouldNotHoldRequestAndResponseInCopy() {
+    final Context context = Context.get();
+    context.setAggregatedFolderPath("/wro/");
+    final Context copy = context.copy();
+    Assert.assertNull(copy.getRequest());
+    Assert.assertNull(copy.getResponse());
+    Assert.assertSame(context.getFilterConfig(), copy.getFilterConfig());
+    Assert.assertSame(context.getServletContext(), copy.getServletContext());
+    Assert.assertSame(context.getConfig(), copy.getConfig());
+    Assert.assertEquals("/wro/", copy.getAggregatedFolderPath());
+  }
+
   @After
   public void tearDown() {
     Context.unset();
@@ -15,8 +15,14 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
@@ -32,9 +38,12 @@ import junit.framework.Assert;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.cache.CacheEntry;
@@ -50,6 +59,8 @@ import ro.isdc.wro.http.handler.ReloadModelRequestHandler;
 import ro.isdc.wro.http.handler.RequestHandler;
 import ro.isdc.wro.http.handler.factory.RequestHandlerFactory;
 import ro.isdc.wro.http.support.DelegatingServletOutputStream;
+import ro.isdc.wro.http.support.TestAsyncContextHelper.AsyncContext;
+import ro.isdc.wro.http.support.TestAsyncContextHelper.AsyncRequest;
 import ro.isdc.wro.http.support.UnauthorizedRequestException;
 import ro.isdc.wro.manager.WroManager;
 import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
@@ -62,9 +73,13 @@ import ro.isdc.wro.model.group.Group;
 import ro.isdc.wro.model.group.InvalidGroupNameException;
 import ro.isdc.wro.model.group.processor.Injector;
 import ro.isdc.wro.model.group.processor.InjectorBuilder;
+import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.locator.UriLocator;
 import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
 import ro.isdc.wro.model.resource.locator.support.DispatcherStreamLocator;
+import ro.isdc.wro.model.resource.processor.ManagedProcessor;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.model.resource.processor.factory.SimpleProcessorsFactory;
 import ro.isdc.wro.model.resource.support.ResourceAuthorizationManager;
 import ro.isdc.wro.util.ObjectFactory;
 import ro.isdc.wro.util.WroUtil;
@@ -267,7 +282,18 @@ public class TestWroFilter {
         "ETag: 998989 | Expires: Thu, 15 Apr 2010 20:00:00 GMT");
     victim.init(mockFilterConfig);
   }
-  
+
+  @Test
+  public void shouldSetConfiguredHeadersOnResponse()
+      throws Exception {
+    when(mockFilterConfig.getInitParameter(ConfigConstants.header.name())).thenReturn(
+        "X-Custom: 998989 | Expires: Thu, 15 Apr 2010 20:00:00 GMT");
+    victim.setWroManagerFactory(createValidManagerFactory());
+    requestGroupByUri("/folder/g1.css");
+    verify(mockResponse).setHeader("x-custom", "998989");
+    verify(mockResponse).setHeader("expires", "Thu, 15 Apr 2010 20:00:00 GMT");
+  }
+
   @Test(expected = WroRuntimeException.class)
   public void testInvalidHeaderParamIsSet()
       throws Exception {
@@ -767,6 +793,191 @@ public class TestWroFilter {
     verify(mockFilterChain).doFilter(Mockito.any(HttpServletRequest.class), Mockito.any(HttpServletResponse.class));
   }
   
+  @Test
+  public void shouldProcessAsynchronouslyWhenEnabledAndGroupIsNotCached()
+      throws Exception {
+    final CountDownLatch completed = new CountDownLatch(1);
+    final AsyncContext asyncContext = mock(AsyncContext.class);
+    Mockito.doAnswer(new Answer<Void>() {
+      public Void answer(final InvocationOnMock invocation) {
+        completed.countDown();
+        return null;
+      }
+    }).when(asyncContext).complete();
+    final AsyncRequest request = prepareAsyncRequest(asyncContext);
+
+    victim.doFilter(request, mockResponse, mockFilterChain);
+
+    Assert.assertTrue(completed.await(5, TimeUnit.SECONDS));
+    verify(request).startAsync();
+    verifyChainIsNotCalled(mockFilterChain);
+    final WroManager manager = victim.getWroManagerFactory().create();
+    Assert.assertNotNull(manager.getCacheStrategy().get(new CacheEntry("g1", ResourceType.CSS, true)));
+  }
+
+  @Test
+  public void shouldProcessSynchronouslyWhenGroupIsCached()
+      throws Exception {
+    final AsyncRequest request = prepareAsyncRequest(mock(AsyncContext.class));
+    final WroManager manager = victim.getWroManagerFactory().create();
+    manager.getCacheStrategy().put(new CacheEntry("g1", ResourceType.CSS, true),
+        ContentHashEntry.valueOf("content", "hash"));
+
+    victim.doFilter(request, mockResponse, mockFilterChain);
+
+    verify(request, Mockito.never()).startAsync();
+  }
+
+  @Test
+  public void shouldProcessSynchronouslyWhenAsyncIsDisabled()
+      throws Exception {
+    final AsyncRequest request = prepareAsyncRequest(mock(AsyncContext.class));
+    victim.getConfiguration().setAsyncEnabled(false);
+
+    victim.doFilter(request, mockResponse, mockFilterChain);
+
+    verify(request, Mockito.never()).startAsync();
+  }
+
+  @Test
+  public void shouldSetConfiguredTimeoutOfAsyncRequest()
+      throws Exception {
+    final AsyncContext asyncContext = mock(AsyncContext.class);
+    final AsyncRequest request = prepareAsyncRequest(asyncContext);
+    victim.getConfiguration().setAsyncTimeout(1000);
+
+    victim.doFilter(request, mockResponse, mockFilterChain);
+
+    verify(asyncContext).setTimeout(1000);
+  }
+
+  @Test
+  public void shouldCompleteAsyncRequestInCurrentThreadWhenExecutorIsBusy()
+      throws Exception {
+    final CountDownLatch completing = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AsyncContext asyncContext = mock(AsyncContext.class);
+    Mockito.doAnswer(new Answer<Void>() {
+      public Void answer(final InvocationOnMock invocation)
+          throws Exception {
+        completing.countDown();
+        release.await(5, TimeUnit.SECONDS);
+        return null;
+      }
+    }).when(asyncContext).complete();
+    final AsyncRequest request = prepareAsyncRequest(asyncContext);
+    victim.getConfiguration().setAsyncThreads(1);
+    victim.getConfiguration().setAsyncQueueSize(0);
+    final AsyncContext rejectedAsyncContext = mock(AsyncContext.class);
+    final AsyncRequest rejectedRequest = mock(AsyncRequest.class);
+    when(rejectedRequest.getRequestURI()).thenReturn("/resource/g2.css");
+    when(rejectedRequest.isAsyncSupported()).thenReturn(true);
+    when(rejectedRequest.startAsync()).thenReturn(rejectedAsyncContext);
+    try {
+      victim.doFilter(request, mockResponse, mockFilterChain);
+      Assert.assertTrue(completing.await(5, TimeUnit.SECONDS));
+
+      victim.doFilter(rejectedRequest, mockResponse, mockFilterChain);
+
+      verify(rejectedRequest).startAsync();
+      verify(rejectedAsyncContext).complete();
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void shouldDispatchAsyncRequestToHandleExceptionInContainerThread()
+      throws Exception {
+    final CountDownLatch dispatched = new CountDownLatch(1);
+    final AsyncContext asyncContext = mock(AsyncContext.class);
+    Mockito.doAnswer(new Answer<Void>() {
+      public Void answer(final InvocationOnMock invocation) {
+        dispatched.countDown();
+        return null;
+      }
+    }).when(asyncContext).dispatch();
+    final AsyncRequest request = prepareAsyncRequest(asyncContext);
+    when(request.getRequestURI()).thenReturn("/resource/invalid.css");
+
+    victim.doFilter(request, mockResponse, mockFilterChain);
+
+    Assert.assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+    verify(asyncContext, Mockito.never()).complete();
+    final ArgumentCaptor<String> attributeName = ArgumentCaptor.forClass(String.class);
+    verify(request).setAttribute(attributeName.capture(), Mockito.any(InvalidGroupNameException.class));
+    verifyChainIsNotCalled(mockFilterChain);
+
+    final InvalidGroupNameException exception = new InvalidGroupNameException("invalid");
+    when(request.getAttribute(attributeName.getValue())).thenReturn(exception);
+    try {
+      victim.doFilter(request, mockResponse, mockFilterChain);
+      Assert.fail("The exception should be propagated by the dispatched request");
+    } catch (final InvalidGroupNameException e) {
+      Assert.assertSame(exception, e);
+    }
+    verify(request).removeAttribute(attributeName.getValue());
+    verify(request).startAsync();
+  }
+
+  /**
+   * Initialize the victim with asynchronous processing enabled and creates an async capable request of g1 group.
+   */
+  private AsyncRequest prepareAsyncRequest(final AsyncContext asyncContext)
+      throws Exception {
+    final AsyncRequest request = mock(AsyncRequest.class);
+    when(request.getRequestURI()).thenReturn("/resource/g1.css");
+    when(request.isAsyncSupported()).thenReturn(true);
+    when(request.startAsync()).thenReturn(asyncContext);
+    final WroConfiguration config = new WroConfiguration();
+    config.setAsyncEnabled(true);
+    victim.setConfiguration(config);
+    victim.setWroManagerFactory(createValidManagerFactory());
+    victim.init(mockFilterConfig);
+    return request;
+  }
+
+  @Test
+  public void shouldStopParallelProcessingThreadsWhenDestroyed()
+      throws Exception {
+    victim.setWroManagerFactory(createValidManagerFactory());
+    victim.init(mockFilterConfig);
+    final WroManager manager = victim.getWroManagerFactory().create();
+    final CountDownLatch started = new CountDownLatch(1);
+    final Callable<Thread> task = new Callable<Thread>() {
+      public Thread call() {
+        started.countDown();
+        return Thread.currentThread();
+      }
+    };
+    // the last task is executed by the calling thread
+    final List<Future<Thread>> futures = manager.getTaskExecutor().submit(Arrays.asList(task, task), 1);
+    Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+    final Thread worker = futures.get(0).get();
+    Assert.assertNotSame(Thread.currentThread(), worker);
+
+    victim.destroy();
+    worker.join(5000);
+    Assert.assertFalse(worker.isAlive());
+  }
+
+  @Test
+  public void shouldDestroyManagedProcessorsWhenDestroyed()
+      throws Exception {
+    final ResourcePreProcessor processor = Mockito.mock(ResourcePreProcessor.class,
+        Mockito.withSettings().extraInterfaces(ManagedProcessor.class));
+    final BaseWroManagerFactory managerFactory = new BaseWroManagerFactory();
+    managerFactory.setModelFactory(createValidModelFactory());
+    managerFactory.setProcessorsFactory(new SimpleProcessorsFactory().addPreProcessor(processor));
+    victim.setWroManagerFactory(managerFactory);
+    victim.init(mockFilterConfig);
+    victim.getWroManagerFactory().create().startProcessors();
+    verify((ManagedProcessor) processor).start();
+
+    victim.destroy();
+    verify((ManagedProcessor) processor).destroy();
+  }
+
   @After
   public void tearDown() {
     if (victim != null) {
@@ -7,7 +7,9 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -18,15 +20,21 @@ import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import ro.isdc.wro.config.Context;
+import ro.isdc.wro.http.support.HttpHeader;
 import ro.isdc.wro.http.support.UnauthorizedRequestException;
 import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
 import ro.isdc.wro.model.group.processor.Injector;
@@ -65,6 +73,8 @@ public class TestResourceProxyRequestHandler {
   
   private String packagePath;
   
+  private File file;
+  
   @Before
   public void setup()
       throws IOException {
@@ -97,6 +107,14 @@ public class TestResourceProxyRequestHandler {
     
   }
   
+  @After
+  public void tearDown() {
+    if (file != null) {
+      FileUtils.deleteQuietly(file);
+    }
+    Context.unset();
+  }
+  
   @Test
   public void shouldAlwaysBeEnabled() {
     assertThat(victim.isEnabled(), is(true));
@@ -214,4 +232,209 @@ public class TestResourceProxyRequestHandler {
       throws IOException {
     return this.getClass().getClassLoader().getResourceAsStream(packagePath + "/" + filename);
   }
+  
+  /**
+   * @return the uri of a file-backed resource, authorized and requested by the mocked request.
+   */
+  private String prepareFileResource(final String content)
+      throws IOException {
+    file = File.createTempFile("wro4j-proxy", ".css");
+    FileUtils.writeStringToFile(file, content);
+    final String resourceUri = file.toURI().toString();
+    when(mockAuthorizationManager.isAuthorized(resourceUri)).thenReturn(true);
+    when(request.getParameter(ResourceProxyRequestHandler.PARAM_RESOURCE_ID)).thenReturn(resourceUri);
+    when(request.getDateHeader(anyString())).thenReturn(-1L);
+    return resourceUri;
+  }
+  
+  @Test
+  public void shouldServeFileWithoutLocatingIt()
+      throws IOException {
+    prepareFileResource("body { color: red; }");
+    
+    victim.handle(request, response);
+    
+    assertThat(outputStream.toString(), is("body { color: red; }"));
+    verify(response).setContentLength(20);
+    verify(response).setContentType("text/css; charset=UTF-8");
+    verify(response).setHeader(Mockito.eq(HttpHeader.ETAG.toString()), anyString());
+    verify(response).setHeader(Mockito.eq(HttpHeader.LAST_MODIFIED.toString()), anyString());
+    verify(mockUriLocator, Mockito.never()).locate(anyString());
+  }
+  
+  @Test
+  public void shouldAnswerNotModifiedWhenETagMatches()
+      throws IOException {
+    prepareFileResource("body { color: red; }");
+    victim.handle(request, response);
+    final ArgumentCaptor<String> etagCaptor = ArgumentCaptor.forClass(String.class);
+    verify(response).setHeader(Mockito.eq(HttpHeader.ETAG.toString()), etagCaptor.capture());
+    outputStream = new ByteArrayOutputStream();
+    
+    when(request.getHeader(HttpHeader.IF_NONE_MATCH.toString())).thenReturn(etagCaptor.getValue());
+    victim.handle(request, response);
+    
+    verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    assertThat(outputStream.toString(), is(""));
+  }
+  
+  @Test
+  public void shouldAnswerNotModifiedForClasspathResourceWhenETagMatches()
+      throws IOException {
+    final String resourceUri = "classpath:" + packagePath + "/" + "test.css";
+    when(mockAuthorizationManager.isAuthorized(resourceUri)).thenReturn(true);
+    when(request.getParameter(ResourceProxyRequestHandler.PARAM_RESOURCE_ID)).thenReturn(resourceUri);
+    when(mockUriLocator.locate(anyString())).thenReturn(new ClasspathUriLocator().locate(resourceUri));
+    victim.handle(request, response);
+    final ArgumentCaptor<String> etagCaptor = ArgumentCaptor.forClass(String.class);
+    verify(response).setHeader(Mockito.eq(HttpHeader.ETAG.toString()), etagCaptor.capture());
+    
+    when(mockUriLocator.locate(anyString())).thenReturn(new ClasspathUriLocator().locate(resourceUri));
+    when(request.getHeader(HttpHeader.IF_NONE_MATCH.toString())).thenReturn(etagCaptor.getValue());
+    victim.handle(request, response);
+    
+    verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+  }
+  
+  @Test
+  public void shouldServeRequestedRangeOfFile()
+      throws IOException {
+    prepareFileResource("0123456789");
+    when(request.getHeader(HttpHeader.RANGE.toString())).thenReturn("bytes=2-4");
+    
+    victim.handle(request, response);
+    
+    assertThat(outputStream.toString(), is("234"));
+    verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+    verify(response).setHeader(HttpHeader.CONTENT_RANGE.toString(), "bytes 2-4/10");
+    verify(response).setContentLength(3);
+  }
+  
+  @Test
+  public void shouldServeSuffixRangeOfLocatedResource()
+      throws IOException {
+    final String resourceUri = "/" + packagePath + "/" + "test.css";
+    when(mockAuthorizationManager.isAuthorized(resourceUri)).thenReturn(true);
+    when(request.getParameter(ResourceProxyRequestHandler.PARAM_RESOURCE_ID)).thenReturn(resourceUri);
+    when(mockUriLocator.locate(resourceUri)).thenReturn(new ByteArrayInputStream("0123456789".getBytes()));
+    when(request.getHeader(HttpHeader.RANGE.toString())).thenReturn("bytes=-3");
+    
+    victim.handle(request, response);
+    
+    assertThat(outputStream.toString(), is("789"));
+    verify(response).setHeader(HttpHeader.CONTENT_RANGE.toString(), "bytes 7-9/10");
+  }
+  
+  @Test
+  public void shouldNotSatisfyRangeOutsideOfContent()
+      throws IOException {
+    prepareFileResource("0123456789");
+    when(request.getHeader(HttpHeader.RANGE.toString())).thenReturn("bytes=10-");
+    
+    victim.handle(request, response);
+    
+    verify(response).setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+    verify(response).setHeader(HttpHeader.CONTENT_RANGE.toString(), "bytes */10");
+    assertThat(outputStream.toString(), is(""));
+  }
+  
+  @Test
+  public void shouldServeEntireFileWhenIfRangeDoesNotMatch()
+      throws IOException {
+    prepareFileResource("0123456789");
+    when(request.getHeader(HttpHeader.RANGE.toString())).thenReturn("bytes=2-4");
+    when(request.getHeader(HttpHeader.IF_RANGE.toString())).thenReturn("\"outdated\"");
+    
+    victim.handle(request, response);
+    
+    assertThat(outputStream.toString(), is("0123456789"));
+    verify(response).setStatus(HttpServletResponse.SC_OK);
+  }
+  
+  @Test
+  public void shouldServeEntireFileWhenMultipleRangesAreRequested()
+      throws IOException {
+    prepareFileResource("0123456789");
+    when(request.getHeader(HttpHeader.RANGE.toString())).thenReturn("bytes=0-1,4-5");
+    
+    victim.handle(request, response);
+    
+    assertThat(outputStream.toString(), is("0123456789"));
+  }
+  
+  @Test
+  public void shouldServeChangedFile()
+      throws IOException {
+    prepareFileResource("0123456789");
+    victim.handle(request, response);
+    FileUtils.writeStringToFile(file, "changed");
+    file.setLastModified(file.lastModified() + 5000);
+    outputStream = new ByteArrayOutputStream();
+    
+    victim.handle(request, response);
+    
+    assertThat(outputStream.toString(), is("changed"));
+    verify(response).setContentLength(7);
+  }
+  
+  /**
+   * @return the uri of a located resource having the content of the provided array, authorized and requested by the
+   *         mocked request.
+   */
+  private String prepareLocatedResource(final String[] content)
+      throws IOException {
+    final String resourceUri = "/" + packagePath + "/" + "located.css";
+    when(mockAuthorizationManager.isAuthorized(resourceUri)).thenReturn(true);
+    when(request.getParameter(ResourceProxyRequestHandler.PARAM_RESOURCE_ID)).thenReturn(resourceUri);
+    when(mockUriLocator.locate(resourceUri)).thenAnswer(new Answer<InputStream>() {
+      public InputStream answer(final InvocationOnMock invocation) {
+        return new ByteArrayInputStream(content[0].getBytes());
+      }
+    });
+    return resourceUri;
+  }
+  
+  private String captureETag() {
+    final ArgumentCaptor<String> etagCaptor = ArgumentCaptor.forClass(String.class);
+    verify(response, Mockito.atLeastOnce()).setHeader(Mockito.eq(HttpHeader.ETAG.toString()), etagCaptor.capture());
+    return etagCaptor.getValue();
+  }
+  
+  @Test
+  public void shouldAnswerNotModifiedForLocatedResourceWithoutReadingIt()
+      throws IOException {
+    final String resourceUri = prepareLocatedResource(new String[] { "body { color: red; }" });
+    victim.handle(request, response);
+    final String etag = captureETag();
+    Mockito.reset(mockUriLocator);
+    
+    when(request.getHeader(HttpHeader.IF_NONE_MATCH.toString())).thenReturn(etag);
+    victim.handle(request, response);
+    victim.handle(request, response);
+    
+    verify(response, times(2)).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    verify(mockUriLocator, Mockito.never()).locate(resourceUri);
+  }
+  
+  @Test
+  public void shouldServeLocatedResourceChangedAfterResourceWatcherPeriod()
+      throws Exception {
+    Context.get().getConfig().setResourceWatcherUpdatePeriod(1);
+    final String[] content = new String[] { "body { color: red; }" };
+    prepareLocatedResource(content);
+    victim.handle(request, response);
+    final String etag = captureETag();
+    content[0] = "body { color: blue; }";
+    
+    when(request.getHeader(HttpHeader.IF_NONE_MATCH.toString())).thenReturn(etag);
+    victim.handle(request, response);
+    verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    
+    Thread.sleep(1100);
+    outputStream = new ByteArrayOutputStream();
+    victim.handle(request, response);
+    
+    assertThat(outputStream.toString(), is("body { color: blue; }"));
+    verify(response, times(2)).setStatus(HttpServletResponse.SC_OK);
+  }
 }
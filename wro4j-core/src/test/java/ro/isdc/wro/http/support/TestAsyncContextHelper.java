@@ -0,0 +1,100 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.http.support;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.servlet.http.HttpServletRequest;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import ro.isdc.wro.WroRuntimeException;
+
+
+/**
+ * Test class for {@link AsyncContextHelper}.
+ */
+public class TestAsyncContextHelper {
+  /**
+   * Simulates the request of a Servlet 3.0 container.
+   */
+  public static interface AsyncRequest
+      extends HttpServletRequest {
+    boolean isAsyncSupported();
+
+    AsyncContext startAsync();
+  }
+
+  /**
+   * Simulates the javax.servlet.AsyncContext.
+   */
+  public static interface AsyncContext {
+    void setTimeout(long timeout);
+
+    void complete();
+
+    void dispatch();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotCheckNullRequest() {
+    AsyncContextHelper.isAsyncSupported(null);
+  }
+
+  @Test
+  public void shouldNotSupportAsyncWithOlderServletApi() {
+    Assert.assertFalse(AsyncContextHelper.isAsyncSupported(mock(HttpServletRequest.class)));
+  }
+
+  @Test(expected = WroRuntimeException.class)
+  public void cannotStartAsyncWithOlderServletApi() {
+    AsyncContextHelper.startAsync(mock(HttpServletRequest.class));
+  }
+
+  @Test
+  public void shouldNotSupportAsyncWhenRequestDoesNotAllowIt() {
+    final AsyncRequest request = mock(AsyncRequest.class);
+    when(request.isAsyncSupported()).thenReturn(false);
+    Assert.assertFalse(AsyncContextHelper.isAsyncSupported(request));
+  }
+
+  @Test
+  public void shouldSupportAsyncWhenRequestAllowsIt() {
+    final AsyncRequest request = mock(AsyncRequest.class);
+    when(request.isAsyncSupported()).thenReturn(true);
+    Assert.assertTrue(AsyncContextHelper.isAsyncSupported(request));
+  }
+
+  @Test
+  public void shouldCompleteStartedAsyncContext() {
+    final AsyncRequest request = mock(AsyncRequest.class);
+    final AsyncContext asyncContext = mock(AsyncContext.class);
+    when(request.startAsync()).thenReturn(asyncContext);
+    AsyncContextHelper.startAsync(request).complete();
+    verify(asyncContext).complete();
+  }
+
+  @Test
+  public void shouldSetTimeoutAndDispatchStartedAsyncContext() {
+    final AsyncRequest request = mock(AsyncRequest.class);
+    final AsyncContext asyncContext = mock(AsyncContext.class);
+    when(request.startAsync()).thenReturn(asyncContext);
+    final AsyncContextHelper helper = AsyncContextHelper.startAsync(request);
+    helper.setTimeout(1000);
+    helper.dispatch();
+    verify(asyncContext).setTimeout(1000);
+    verify(asyncContext).dispatch();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldPropagateExceptionThrownByContainer() {
+    final AsyncRequest request = mock(AsyncRequest.class);
+    when(request.startAsync()).thenThrow(new IllegalStateException("BOOM!"));
+    AsyncContextHelper.startAsync(request);
+  }
+}
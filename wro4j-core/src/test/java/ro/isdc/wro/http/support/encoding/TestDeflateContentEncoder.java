@@ -0,0 +1,73 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.http.support.encoding;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ro.isdc.wro.http.support.HttpHeader;
+
+
+public class TestDeflateContentEncoder {
+  private DeflateContentEncoder victim;
+  
+  @Before
+  public void setUp() {
+    victim = new DeflateContentEncoder();
+  }
+  
+  @Test
+  public void shouldAcceptRequestsSupportingDeflate() {
+    final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    Mockito.when(request.getHeader(HttpHeader.ACCEPT_ENCODING.toString())).thenReturn("gzip, Deflate");
+    Assert.assertTrue(victim.accepts(request));
+  }
+  
+  @Test
+  public void shouldNotAcceptRequestsWithoutDeflateSupport() {
+    final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    Assert.assertFalse(victim.accepts(request));
+    Mockito.when(request.getHeader(HttpHeader.ACCEPT_ENCODING.toString())).thenReturn("gzip");
+    Assert.assertFalse(victim.accepts(request));
+    Assert.assertFalse(victim.accepts(null));
+  }
+  
+  @Test
+  public void shouldNotAcceptRequestsRefusingDeflate() {
+    final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    Mockito.when(request.getHeader(HttpHeader.ACCEPT_ENCODING.toString())).thenReturn("gzip, deflate;q=0");
+    Assert.assertFalse(victim.accepts(request));
+    Mockito.when(request.getHeader(HttpHeader.ACCEPT_ENCODING.toString())).thenReturn("deflate; q=0.0, *");
+    Assert.assertFalse(victim.accepts(request));
+    Mockito.when(request.getHeader(HttpHeader.ACCEPT_ENCODING.toString())).thenReturn("x-deflate");
+    Assert.assertFalse(victim.accepts(request));
+  }
+  
+  @Test
+  public void shouldAcceptRequestsPreferringOtherEncoding() {
+    final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    Mockito.when(request.getHeader(HttpHeader.ACCEPT_ENCODING.toString())).thenReturn("gzip;q=1.0, deflate;q=0.5");
+    Assert.assertTrue(victim.accepts(request));
+    Mockito.when(request.getHeader(HttpHeader.ACCEPT_ENCODING.toString())).thenReturn("gzip;q=0, *");
+    Assert.assertTrue(victim.accepts(request));
+  }
+  
+  @Test
+  public void shouldEncodeUsingDeflate()
+      throws Exception {
+    final byte[] content = "content to deflate".getBytes();
+    final byte[] encoded = victim.encode(content);
+    final byte[] decoded = IOUtils.toByteArray(new InflaterInputStream(new ByteArrayInputStream(encoded)));
+    Assert.assertEquals(new String(content), new String(decoded));
+  }
+}
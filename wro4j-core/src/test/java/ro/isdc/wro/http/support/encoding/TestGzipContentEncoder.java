@@ -0,0 +1,69 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.http.support.encoding;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ro.isdc.wro.http.support.HttpHeader;
+
+
+public class TestGzipContentEncoder {
+  private GzipContentEncoder victim;
+  
+  @Before
+  public void setUp() {
+    victim = new GzipContentEncoder();
+  }
+  
+  @Test
+  public void shouldAcceptRequestsSupportingGzip() {
+    final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    Mockito.when(request.getHeaderNames()).thenReturn(
+        Collections.enumeration(Collections.singleton(HttpHeader.ACCEPT_ENCODING.toString())));
+    Mockito.when(request.getHeader(HttpHeader.ACCEPT_ENCODING.toString())).thenReturn("gzip, deflate");
+    Assert.assertTrue(victim.accepts(request));
+  }
+  
+  private HttpServletRequest mockRequestAcceptingEncoding(final String acceptEncoding) {
+    final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    Mockito.when(request.getHeaderNames()).thenReturn(
+        Collections.enumeration(Collections.singleton(HttpHeader.ACCEPT_ENCODING.toString())));
+    Mockito.when(request.getHeader(HttpHeader.ACCEPT_ENCODING.toString())).thenReturn(acceptEncoding);
+    return request;
+  }
+  
+  @Test
+  public void shouldNotAcceptRequestsRefusingGzip() {
+    Assert.assertFalse(victim.accepts(mockRequestAcceptingEncoding("gzip;q=0, deflate")));
+    Assert.assertFalse(victim.accepts(mockRequestAcceptingEncoding("deflate, gzip; Q=0.000")));
+    Assert.assertFalse(victim.accepts(mockRequestAcceptingEncoding("deflate")));
+    Assert.assertFalse(victim.accepts(mockRequestAcceptingEncoding("*;q=0")));
+  }
+  
+  @Test
+  public void shouldAcceptRequestsListingGzipAfterOtherEncodings() {
+    Assert.assertTrue(victim.accepts(mockRequestAcceptingEncoding("sdch, gzip;q=0.8")));
+    Assert.assertTrue(victim.accepts(mockRequestAcceptingEncoding("deflate;q=0, *")));
+  }
+  
+  @Test
+  public void shouldEncodeUsingGzip()
+      throws Exception {
+    final byte[] content = "content to gzip".getBytes();
+    final byte[] encoded = victim.encode(content);
+    final byte[] decoded = IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(encoded)));
+    Assert.assertEquals(new String(content), new String(decoded));
+  }
+}
@@ -15,18 +15,22 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 
 import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import junit.framework.Assert;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.output.WriterOutputStream;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -37,14 +41,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.cache.AbstractSynchronizedCacheStrategyDecorator;
 import ro.isdc.wro.cache.CacheEntry;
 import ro.isdc.wro.cache.CacheStrategy;
 import ro.isdc.wro.cache.ContentHashEntry;
+import ro.isdc.wro.cache.Weigher;
+import ro.isdc.wro.cache.impl.SegmentedLruCacheStrategy;
 import ro.isdc.wro.config.Context;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.http.support.DelegatingServletOutputStream;
 import ro.isdc.wro.http.support.HttpHeader;
 import ro.isdc.wro.manager.callback.LifecycleCallback;
+import ro.isdc.wro.manager.callback.LifecycleCallbackSupport;
 import ro.isdc.wro.manager.callback.PerformanceLoggerCallback;
 import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
 import ro.isdc.wro.manager.factory.InjectableWroManagerFactoryDecorator;
@@ -60,7 +68,10 @@ import ro.isdc.wro.model.group.processor.Injector;
 import ro.isdc.wro.model.group.processor.InjectorBuilder;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.processor.ManagedProcessor;
+import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.model.resource.processor.factory.SimpleProcessorsFactory;
 import ro.isdc.wro.model.resource.support.ResourceAuthorizationManager;
 import ro.isdc.wro.model.resource.support.hash.CRC32HashStrategy;
 import ro.isdc.wro.model.resource.support.hash.MD5HashStrategy;
@@ -287,6 +298,17 @@ public class TestWroManager {
     new GenericTestBuilder().processAndCompare("/repeatedResources.js", "classpath:ro/isdc/wro/manager/repeated-out.js");
   }
   
+  @Test
+  public void shouldServeContentStoredOffHeap()
+      throws Exception {
+    new GenericTestBuilder() {
+      @Override
+      protected void onBeforeProcess() {
+        Context.get().getConfig().setCacheOffHeap(true);
+      }
+    }.processAndCompare("/repeatedResources.js", "classpath:ro/isdc/wro/manager/repeated-out.js");
+  }
+  
   @Test
   public void testWildcardDuplicatedResourcesShouldBeSkiped()
       throws Exception {
@@ -375,6 +397,109 @@ public class TestWroManager {
     managerFactory.create().process();
   }
   
+  /**
+   * Processes a request of the g1.css group using the provided manager.
+   *
+   * @return the mocked response.
+   */
+  private HttpServletResponse processGroupRequest(final WroManager manager, final String method,
+      final String ifNoneMatch, final long ifModifiedSince)
+      throws IOException {
+    final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    Mockito.when(request.getRequestURI()).thenReturn("/app/g1.css");
+    Mockito.when(request.getMethod()).thenReturn(method);
+    Mockito.when(request.getHeader(HttpHeader.IF_NONE_MATCH.toString())).thenReturn(ifNoneMatch);
+    Mockito.when(request.getDateHeader(HttpHeader.IF_MODIFIED_SINCE.toString())).thenReturn(ifModifiedSince);
+    final HttpServletResponse response = Mockito.mock(HttpServletResponse.class, Mockito.RETURNS_DEEP_STUBS);
+    Context.set(Context.webContext(request, response, Mockito.mock(FilterConfig.class)));
+    manager.process();
+    return response;
+  }
+
+  /**
+   * @return the value of the ETag header set on the response.
+   */
+  private String getETag(final HttpServletResponse response) {
+    final ArgumentCaptor<String> etagCaptor = ArgumentCaptor.forClass(String.class);
+    Mockito.verify(response).setHeader(Mockito.eq(HttpHeader.ETAG.toString()), etagCaptor.capture());
+    return etagCaptor.getValue();
+  }
+
+  @Test
+  public void shouldAnswerConditionalRequestUsingHashIndexWithoutWritingContent()
+      throws IOException {
+    final WroManager manager = managerFactory.create();
+    final String etag = getETag(processGroupRequest(manager, "GET", null, -1));
+
+    final HttpServletResponse response = processGroupRequest(manager, "GET", etag, -1);
+    Mockito.verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    Mockito.verify(response, Mockito.never()).getOutputStream();
+  }
+
+  @Test
+  public void shouldReloadEvictedContentBeforeAnsweringConditionalRequest()
+      throws IOException {
+    final WroManager manager = managerFactory.create();
+    final String etag = getETag(processGroupRequest(manager, "GET", null, -1));
+    final CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy = AbstractDecorator.getOriginalDecoratedObject(manager.getCacheStrategy());
+    // simulate an entry evicted by the cache itself
+    cacheStrategy.clear();
+
+    final HttpServletResponse response = processGroupRequest(manager, "GET", etag, -1);
+    Assert.assertNotNull(cacheStrategy.get(new CacheEntry("g1", ResourceType.CSS, true)));
+    // the reloaded content didn't change
+    Mockito.verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+  }
+
+  @Test
+  public void shouldAnswerNotModifiedWhenIfModifiedSinceIsNotOlderThanLastModified()
+      throws IOException {
+    final WroManager manager = managerFactory.create();
+    processGroupRequest(manager, "GET", null, -1);
+    final HttpServletResponse response = processGroupRequest(manager, "GET", null, System.currentTimeMillis());
+    Mockito.verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    Mockito.verify(response).setHeader(Mockito.eq(HttpHeader.LAST_MODIFIED.toString()), Mockito.anyString());
+  }
+
+  @Test
+  public void shouldServeContentWhenIfModifiedSinceIsOlderThanLastModified()
+      throws IOException {
+    final WroManager manager = managerFactory.create();
+    processGroupRequest(manager, "GET", null, -1);
+    final HttpServletResponse response = processGroupRequest(manager, "GET", null, 1000);
+    Mockito.verify(response, Mockito.never()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    Mockito.verify(response).getOutputStream();
+  }
+
+  @Test
+  public void shouldIgnoreIfModifiedSinceWhenIfNoneMatchIsPresent()
+      throws IOException {
+    final WroManager manager = managerFactory.create();
+    processGroupRequest(manager, "GET", null, -1);
+    final HttpServletResponse response = processGroupRequest(manager, "GET", "\"other\"", System.currentTimeMillis());
+    Mockito.verify(response, Mockito.never()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    Mockito.verify(response).getOutputStream();
+  }
+
+  @Test
+  public void shouldAnswerHeadRequestWithoutContent()
+      throws IOException {
+    final WroManager manager = managerFactory.create();
+    HttpServletResponse response = processGroupRequest(manager, "HEAD", null, -1);
+    final String etag = getETag(response);
+    final ArgumentCaptor<Integer> lengthCaptor = ArgumentCaptor.forClass(Integer.class);
+    Mockito.verify(response).setContentLength(lengthCaptor.capture());
+    Mockito.verify(response, Mockito.never()).getOutputStream();
+
+    // answered using the hash index
+    response = processGroupRequest(manager, "HEAD", null, -1);
+    Assert.assertEquals(etag, getETag(response));
+    Mockito.verify(response).setContentType(Mockito.anyString());
+    Mockito.verify(response).setContentLength(lengthCaptor.getValue());
+    Mockito.verify(response, Mockito.never()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    Mockito.verify(response, Mockito.never()).getOutputStream();
+  }
+
   @Test
   public void testManagerWithSchedulerAndUpdatePeriodSet()
       throws Exception {
@@ -488,7 +613,7 @@ public class TestWroManager {
   }
   
   @Test
-  public void cacheShouldBeClearedAfterModelReload()
+  public void cacheShouldBeKeptAfterModelReloadWhenModelIsNotChanged()
       throws IOException {
     final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
     final HttpServletResponse response = Mockito.mock(HttpServletResponse.class, Mockito.RETURNS_DEEP_STUBS);
@@ -509,7 +634,292 @@ public class TestWroManager {
     
     final ReloadModelRunnable reloadModelRunnable = new ReloadModelRunnable(wroManager);
     reloadModelRunnable.run();
-    Assert.assertNull(cacheStrategy.get(new CacheEntry("g3", ResourceType.CSS, true)));
+    Assert.assertNotNull(cacheStrategy.get(new CacheEntry("g3", ResourceType.CSS, true)));
+  }
+
+  @Test
+  public void shouldEvictOnlyChangedGroupsAfterModelReload()
+      throws IOException {
+    final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    final HttpServletResponse response = Mockito.mock(HttpServletResponse.class, Mockito.RETURNS_DEEP_STUBS);
+    Context.set(Context.webContext(request, response, Mockito.mock(FilterConfig.class)));
+
+    final String resourceUri = "classpath:ro/isdc/wro/manager/sample.js";
+    final WroModel[] modelHolder = new WroModel[] {
+      new WroModel().addGroup(new Group("changed").addResource(Resource.create(resourceUri, ResourceType.JS))).addGroup(
+          new Group("unchanged").addResource(Resource.create(resourceUri, ResourceType.JS)))
+    };
+    final WroModelFactory modelFactory = new WroModelFactory() {
+      public WroModel create() {
+        return modelHolder[0];
+      }
+
+      public void destroy() {
+      }
+    };
+    final WroManager wroManager = new InjectableWroManagerFactoryDecorator(
+        new BaseWroManagerFactory().setModelFactory(modelFactory)).create();
+    final CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy = wroManager.getCacheStrategy();
+    final CacheEntry changedKey = new CacheEntry("changed", ResourceType.JS, true);
+    final CacheEntry unchangedKey = new CacheEntry("unchanged", ResourceType.JS, true);
+    cacheStrategy.get(changedKey);
+    cacheStrategy.get(unchangedKey);
+
+    final Resource minimizedResource = Resource.create(resourceUri, ResourceType.JS);
+    minimizedResource.setMinimize(false);
+    modelHolder[0] = new WroModel().addGroup(new Group("changed").addResource(minimizedResource)).addGroup(
+        new Group("unchanged").addResource(Resource.create(resourceUri, ResourceType.JS)));
+    new ReloadModelRunnable(wroManager).run();
+
+    Assert.assertSame(modelHolder[0], wroManager.getModelFactory().create());
+    final CacheStrategy<CacheEntry, ContentHashEntry> originalCacheStrategy = AbstractDecorator.getOriginalDecoratedObject(cacheStrategy);
+    Assert.assertNull(originalCacheStrategy.get(changedKey));
+    Assert.assertNotNull(originalCacheStrategy.get(unchangedKey));
+  }
+
+  @Test
+  public void shouldKeepCachedContentWhenCacheIsRefreshedInBackground()
+      throws IOException {
+    final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    final HttpServletResponse response = Mockito.mock(HttpServletResponse.class, Mockito.RETURNS_DEEP_STUBS);
+    Mockito.when(request.getRequestURI()).thenReturn("/app/g3.css");
+    
+    final WroConfiguration config = new WroConfiguration();
+    config.setBackgroundCacheRefresh(true);
+    Context.set(Context.webContext(request, response, Mockito.mock(FilterConfig.class)), config);
+    
+    final WroManager wroManager = managerFactory.create();
+    wroManager.process();
+    final CacheEntry key = new CacheEntry("g3", ResourceType.CSS, true);
+    final CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy = AbstractDecorator.getOriginalDecoratedObject(wroManager.getCacheStrategy());
+    final ContentHashEntry staleValue = cacheStrategy.get(key);
+    Assert.assertNotNull(staleValue);
+    // simulate the scheduler thread, running outside of the request cycle
+    final String correlationId = Context.getCorrelationId();
+    Context.unsetCorrelationId();
+    try {
+      new ReloadCacheRunnable(wroManager).run();
+    } finally {
+      Context.setCorrelationId(correlationId);
+    }
+    final ContentHashEntry refreshedValue = cacheStrategy.get(key);
+    Assert.assertNotNull(refreshedValue);
+    Assert.assertNotSame(staleValue, refreshedValue);
+    Assert.assertEquals(staleValue.getHash(), refreshedValue.getHash());
+  }
+
+  @Test
+  public void shouldWarmUpCache() {
+    final WroModel model = new WroModel().addGroup(
+        new Group("js").addResource(Resource.create("classpath:ro/isdc/wro/manager/sample.js", ResourceType.JS))).addGroup(
+        new Group("css").addResource(Resource.create("classpath:ro/isdc/wro/manager/invalidImport.css", ResourceType.CSS)));
+    final WroManager wroManager = new InjectableWroManagerFactoryDecorator(
+        new BaseWroManagerFactory().setModelFactory(WroUtil.factoryFor(model))).create();
+    final LifecycleCallbackSupport callback = Mockito.mock(LifecycleCallbackSupport.class);
+    wroManager.registerCallback(callback);
+    // no request is available, as during filter initialization
+    Context.set(Context.webContext(null, null, Mockito.mock(FilterConfig.class)));
+    wroManager.warmUpCache();
+
+    final CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy = AbstractDecorator.getOriginalDecoratedObject(wroManager.getCacheStrategy());
+    Assert.assertNotNull(cacheStrategy.get(new CacheEntry("js", ResourceType.JS, true)));
+    Assert.assertNotNull(cacheStrategy.get(new CacheEntry("js", ResourceType.JS, false)));
+    // the default processors rewrite the css urls, which depend on the requested folder
+    Assert.assertNull(cacheStrategy.get(new CacheEntry("css", ResourceType.CSS, true)));
+    Mockito.verify(callback).onBeforeWarmUp();
+    Mockito.verify(callback).onWarmUpProgress(1, 2);
+    Mockito.verify(callback).onWarmUpProgress(2, 2);
+    Mockito.verify(callback).onAfterWarmUp();
+  }
+
+  @Test
+  public void shouldWarmUpCacheWithCallbackNotAwareOfWarmUp() {
+    final WroManager wroManager = new InjectableWroManagerFactoryDecorator(
+        new BaseWroManagerFactory().setModelFactory(getValidModelFactory())).create();
+    final LifecycleCallback callback = Mockito.mock(LifecycleCallback.class);
+    wroManager.registerCallback(callback);
+    Context.set(Context.webContext(null, null, Mockito.mock(FilterConfig.class)));
+    wroManager.warmUpCache();
+    // the lifecycle of the warmed up groups is still reported
+    Mockito.verify(callback, Mockito.atLeastOnce()).onProcessingComplete();
+  }
+
+  @Test
+  public void shouldWarmUpGroupsWithServletContextResources() {
+    final WroModel model = new WroModel().addGroup(
+        new Group("g1").addResource(Resource.create("/static/script.js", ResourceType.JS)).addResource(
+            Resource.create("/static/style.css", ResourceType.CSS)));
+    final FilterConfig filterConfig = Mockito.mock(FilterConfig.class);
+    final ServletContext servletContext = Mockito.mock(ServletContext.class);
+    Mockito.when(filterConfig.getServletContext()).thenReturn(servletContext);
+    Mockito.when(servletContext.getResourceAsStream("/static/script.js")).thenAnswer(new Answer<InputStream>() {
+      public InputStream answer(final InvocationOnMock invocation) {
+        return new ByteArrayInputStream("var a = 1;".getBytes());
+      }
+    });
+    Mockito.when(servletContext.getResourceAsStream("/static/style.css")).thenAnswer(new Answer<InputStream>() {
+      public InputStream answer(final InvocationOnMock invocation) {
+        return new ByteArrayInputStream("a { background: url(img.png); }".getBytes());
+      }
+    });
+    final BaseWroManagerFactory factory = new BaseWroManagerFactory().setModelFactory(WroUtil.factoryFor(model));
+    factory.setProcessorsFactory(new SimpleProcessorsFactory());
+    final WroManager wroManager = new InjectableWroManagerFactoryDecorator(factory).create();
+    // no request is available, as during filter initialization
+    Context.set(Context.webContext(null, null, filterConfig));
+    wroManager.warmUpCache();
+
+    final CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy = AbstractDecorator.getOriginalDecoratedObject(wroManager.getCacheStrategy());
+    Assert.assertEquals("var a = 1;", cacheStrategy.get(new CacheEntry("g1", ResourceType.JS, false)).getRawContent());
+    Assert.assertEquals("a { background: url(img.png); }",
+        cacheStrategy.get(new CacheEntry("g1", ResourceType.CSS, false)).getRawContent());
+  }
+
+  @Test
+  public void shouldServeSameCssWithRewrittenUrlsWhenCacheIsWarmedUp()
+      throws Exception {
+    final WroModel model = new WroModel().addGroup(
+        new Group("g1").addResource(Resource.create("classpath:ro/isdc/wro/manager/invalidImport.css", ResourceType.CSS)).addResource(
+            Resource.create("/static/style.css", ResourceType.CSS)));
+    final FilterConfig filterConfig = Mockito.mock(FilterConfig.class);
+    final ServletContext servletContext = Mockito.mock(ServletContext.class);
+    Mockito.when(filterConfig.getServletContext()).thenReturn(servletContext);
+    Mockito.when(servletContext.getResourceAsStream("/static/style.css")).thenAnswer(new Answer<InputStream>() {
+      public InputStream answer(final InvocationOnMock invocation) {
+        return new ByteArrayInputStream("a { background: url(img.png); }".getBytes());
+      }
+    });
+    final WroManager warmedManager = new InjectableWroManagerFactoryDecorator(
+        new BaseWroManagerFactory().setModelFactory(WroUtil.factoryFor(model))).create();
+    Context.set(Context.webContext(null, null, filterConfig));
+    warmedManager.warmUpCache();
+    final WroManager coldManager = new InjectableWroManagerFactoryDecorator(
+        new BaseWroManagerFactory().setModelFactory(WroUtil.factoryFor(model))).create();
+
+    final String expected = processCssRequest(coldManager, filterConfig);
+    Assert.assertTrue(expected, expected.contains("url(../static/img.png)"));
+    Assert.assertEquals(expected, processCssRequest(warmedManager, filterConfig));
+  }
+
+  /**
+   * Requests the g1 css group through a filter mapped to /wro/* of an application deployed under /app.
+   */
+  private String processCssRequest(final WroManager manager, final FilterConfig filterConfig)
+      throws IOException {
+    final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    final HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Mockito.when(response.getOutputStream()).thenReturn(new DelegatingServletOutputStream(out));
+    Mockito.when(request.getContextPath()).thenReturn("/app");
+    Mockito.when(request.getRequestURI()).thenReturn("/app/wro/g1.css");
+    Context.set(Context.webContext(request, response, filterConfig));
+    manager.process();
+    return new String(out.toByteArray());
+  }
+
+  @Test
+  public void shouldWarmUpCacheAfterReloadUsingLastWarmUpContext() {
+    final WroConfiguration config = new WroConfiguration();
+    config.setCacheWarmUp(true);
+    Context.set(Context.webContext(null, null, Mockito.mock(FilterConfig.class)), config);
+    final WroModel model = new WroModel().addGroup(
+        new Group("js").addResource(Resource.create("classpath:ro/isdc/wro/manager/sample.js", ResourceType.JS)));
+    final WroManager wroManager = new InjectableWroManagerFactoryDecorator(
+        new BaseWroManagerFactory().setModelFactory(WroUtil.factoryFor(model))).create();
+    wroManager.warmUpCache();
+    final CacheEntry key = new CacheEntry("js", ResourceType.JS, true);
+    final CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy = AbstractDecorator.getOriginalDecoratedObject(wroManager.getCacheStrategy());
+    Assert.assertNotNull(cacheStrategy.get(key));
+    // simulate the scheduler thread, running outside of the request cycle
+    Context.unset();
+    new ReloadCacheRunnable(wroManager).run();
+    Assert.assertNotNull(cacheStrategy.get(key));
+  }
+
+  @Test
+  public void shouldEvictOnlyGroupsContainingChangedResources()
+      throws Exception {
+    final File directory = new File(FileUtils.getTempDirectory(), "wro4j-watcher-" + System.nanoTime());
+    try {
+      final File changedFile = new File(directory, "a.js");
+      final File unchangedFile = new File(directory, "b.js");
+      FileUtils.writeStringToFile(changedFile, "var a = 1;");
+      FileUtils.writeStringToFile(unchangedFile, "var b = 1;");
+      final WroModel model = new WroModel().addGroup(
+          new Group("g1").addResource(Resource.create(changedFile.toURI().toString(), ResourceType.JS))).addGroup(
+          new Group("g2").addResource(Resource.create(unchangedFile.toURI().toString(), ResourceType.JS)));
+      final WroManager wroManager = new InjectableWroManagerFactoryDecorator(
+          new BaseWroManagerFactory().setModelFactory(WroUtil.factoryFor(model))).create();
+      // the first check computes the fingerprints only
+      Assert.assertTrue(wroManager.evictGroupsWithChangedResources().isEmpty());
+
+      final CacheEntry changedKey = new CacheEntry("g1", ResourceType.JS, true);
+      final CacheEntry unchangedKey = new CacheEntry("g2", ResourceType.JS, true);
+      wroManager.getCacheStrategy().get(changedKey);
+      wroManager.getCacheStrategy().get(unchangedKey);
+      Assert.assertTrue(wroManager.evictGroupsWithChangedResources().isEmpty());
+
+      FileUtils.writeStringToFile(changedFile, "var a = 2;");
+      // make sure the change is not considered in progress
+      changedFile.setLastModified(System.currentTimeMillis() - 5000);
+      Assert.assertEquals(Arrays.asList("g1"), new ArrayList<String>(wroManager.evictGroupsWithChangedResources()));
+      final CacheStrategy<CacheEntry, ContentHashEntry> cacheStrategy = AbstractDecorator.getOriginalDecoratedObject(wroManager.getCacheStrategy());
+      Assert.assertNull(cacheStrategy.get(changedKey));
+      Assert.assertNotNull(cacheStrategy.get(unchangedKey));
+    } finally {
+      FileUtils.deleteQuietly(directory);
+    }
+  }
+
+  @Test
+  public void shouldNotUseRequestWhenDetectingChangesOutsideOfRequestCycle()
+      throws IOException {
+    final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    final HttpServletResponse response = Mockito.mock(HttpServletResponse.class, Mockito.RETURNS_DEEP_STUBS);
+    Mockito.when(request.getRequestURI()).thenReturn("/app/g1.js");
+    final FilterConfig filterConfig = Mockito.mock(FilterConfig.class);
+    final ServletContext servletContext = Mockito.mock(ServletContext.class);
+    Mockito.when(filterConfig.getServletContext()).thenReturn(servletContext);
+    Mockito.when(servletContext.getResourceAsStream("/static/a.js")).thenAnswer(new Answer<InputStream>() {
+      public InputStream answer(final InvocationOnMock invocation) {
+        return new ByteArrayInputStream("var a = 1;".getBytes());
+      }
+    });
+    final WroConfiguration config = new WroConfiguration();
+    config.setResourceWatcherUpdatePeriod(3600);
+    Context.set(Context.webContext(request, response, filterConfig), config);
+    final WroModel model = new WroModel().addGroup(
+        new Group("g1").addResource(Resource.create("/static/a.js", ResourceType.JS)));
+    final WroManager wroManager = new InjectableWroManagerFactoryDecorator(
+        new BaseWroManagerFactory().setModelFactory(WroUtil.factoryFor(model))).create();
+    wroManager.process();
+    // simulate the scheduler thread, running after the request was recycled by the container
+    Context.unset();
+    Mockito.reset(request);
+    Assert.assertTrue(wroManager.evictGroupsWithChangedResources().isEmpty());
+    Mockito.verifyZeroInteractions(request);
+    Mockito.verify(servletContext, Mockito.atLeast(2)).getResourceAsStream("/static/a.js");
+  }
+
+  @Test
+  public void shouldRecordEvictionsOfSizeBoundedCacheWithDefaultDecorators() {
+    Context.set(Context.standaloneContext());
+    final WroModel model = new WroModel().addGroup(
+        new Group("g1").addResource(Resource.create("classpath:ro/isdc/wro/manager/sample.js", ResourceType.JS))).addGroup(
+        new Group("g2").addResource(Resource.create("classpath:ro/isdc/wro/manager/sample.js", ResourceType.JS)));
+    final BaseWroManagerFactory factory = new BaseWroManagerFactory().setModelFactory(WroUtil.factoryFor(model));
+    // holds a single entry
+    factory.setCacheStrategy(new SegmentedLruCacheStrategy<CacheEntry, ContentHashEntry>(1,
+        new Weigher<ContentHashEntry>() {
+          public long weigh(final ContentHashEntry value) {
+            return 1;
+          }
+        }));
+    final WroManager wroManager = new InjectableWroManagerFactoryDecorator(factory).create();
+    final AbstractSynchronizedCacheStrategyDecorator<CacheEntry, ContentHashEntry> cacheStrategy = (AbstractSynchronizedCacheStrategyDecorator<CacheEntry, ContentHashEntry>) wroManager.getCacheStrategy();
+    cacheStrategy.get(new CacheEntry("g1", ResourceType.JS, false));
+    cacheStrategy.get(new CacheEntry("g2", ResourceType.JS, false));
+    Assert.assertEquals(1, cacheStrategy.getStatistics().getEvictionCount());
   }
 
   @Test
@@ -520,6 +930,25 @@ public class TestWroManager {
     manager.getCallbackRegistry().onProcessingComplete();
     Mockito.verify(mockCallback, Mockito.atLeastOnce()).onProcessingComplete();
   }
+
+  @Test
+  public void shouldStartAndDestroyManagedProcessorOnce() {
+    final ResourcePreProcessor processor = Mockito.mock(ResourcePreProcessor.class,
+        Mockito.withSettings().extraInterfaces(ResourcePostProcessor.class, ManagedProcessor.class));
+    final BaseWroManagerFactory factory = new BaseWroManagerFactory().setModelFactory(getValidModelFactory());
+    factory.setProcessorsFactory(new SimpleProcessorsFactory().addPreProcessor(processor).addPostProcessor(
+        (ResourcePostProcessor) processor));
+    final WroManager manager = factory.create();
+    Mockito.verify((ManagedProcessor) processor, Mockito.never()).start();
+
+    manager.startProcessors();
+    manager.warmUpCache();
+    Mockito.verify((ManagedProcessor) processor).start();
+    Mockito.verify((ManagedProcessor) processor, Mockito.never()).destroy();
+
+    manager.destroy();
+    Mockito.verify((ManagedProcessor) processor).destroy();
+  }
   
   @After
   public void tearDown() {
@@ -54,7 +54,7 @@ public class TestLifecycleCallbackRegistry {
 
   @Test
   public void shouldInvokeRegisteredCallbacks() {
-    final LifecycleCallback callback = Mockito.mock(LifecycleCallback.class);
+    final LifecycleCallbackSupport callback = Mockito.mock(LifecycleCallbackSupport.class);
     registry.registerCallback(callback);
 
     registry.onBeforeModelCreated();
@@ -83,12 +83,21 @@ public class TestLifecycleCallbackRegistry {
 
     registry.onProcessingComplete();
     Mockito.verify(callback).onProcessingComplete();
+
+    registry.onBeforeWarmUp();
+    Mockito.verify(callback).onBeforeWarmUp();
+
+    registry.onWarmUpProgress(1, 2);
+    Mockito.verify(callback).onWarmUpProgress(1, 2);
+
+    registry.onAfterWarmUp();
+    Mockito.verify(callback).onAfterWarmUp();
   }
 
   @Test
   public void shouldCatchCallbacksExceptionsAndContinueExecution() {
-    final LifecycleCallback failingCallback = Mockito.mock(LifecycleCallback.class);
-    final LifecycleCallback simpleCallback = Mockito.spy(new LifecycleCallbackSupport());
+    final LifecycleCallbackSupport failingCallback = Mockito.mock(LifecycleCallbackSupport.class);
+    final LifecycleCallbackSupport simpleCallback = Mockito.spy(new LifecycleCallbackSupport());
 
     Mockito.doThrow(new IllegalStateException()).when(failingCallback).onBeforeModelCreated();
     Mockito.doThrow(new IllegalStateException()).when(failingCallback).onAfterModelCreated();
@@ -99,6 +108,9 @@ public class TestLifecycleCallbackRegistry {
     Mockito.doThrow(new IllegalStateException()).when(failingCallback).onBeforeMerge();
     Mockito.doThrow(new IllegalStateException()).when(failingCallback).onAfterMerge();
     Mockito.doThrow(new IllegalStateException()).when(failingCallback).onProcessingComplete();
+    Mockito.doThrow(new IllegalStateException()).when(failingCallback).onBeforeWarmUp();
+    Mockito.doThrow(new IllegalStateException()).when(failingCallback).onWarmUpProgress(1, 2);
+    Mockito.doThrow(new IllegalStateException()).when(failingCallback).onAfterWarmUp();
 
     registry.registerCallback(failingCallback);
     registry.registerCallback(simpleCallback);
@@ -112,6 +124,9 @@ public class TestLifecycleCallbackRegistry {
     registry.onBeforeMerge();
     registry.onAfterMerge();
     registry.onProcessingComplete();
+    registry.onBeforeWarmUp();
+    registry.onWarmUpProgress(1, 2);
+    registry.onAfterWarmUp();
 
     Mockito.verify(simpleCallback).onBeforeModelCreated();
     Mockito.verify(simpleCallback).onAfterModelCreated();
@@ -122,6 +137,9 @@ public class TestLifecycleCallbackRegistry {
     Mockito.verify(simpleCallback).onBeforeMerge();
     Mockito.verify(simpleCallback).onAfterMerge();
     Mockito.verify(simpleCallback).onProcessingComplete();
+    Mockito.verify(simpleCallback).onBeforeWarmUp();
+    Mockito.verify(simpleCallback).onWarmUpProgress(1, 2);
+    Mockito.verify(simpleCallback).onAfterWarmUp();
   }
 
   /**
@@ -0,0 +1,62 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.model;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import ro.isdc.wro.model.group.Group;
+import ro.isdc.wro.model.resource.Resource;
+import ro.isdc.wro.model.resource.ResourceType;
+
+
+/**
+ * Test class for {@link WroModelInspector}.
+ */
+public class TestWroModelInspector {
+  @Test(expected = NullPointerException.class)
+  public void cannotCompareNullModels() {
+    WroModelInspector.getChangedGroupNames(null, new WroModel());
+  }
+
+  @Test
+  public void shouldDetectNoChangesForEqualModels() {
+    Assert.assertTrue(WroModelInspector.getChangedGroupNames(createModel(), createModel()).isEmpty());
+  }
+
+  @Test
+  public void shouldDetectAddedAndRemovedGroups() {
+    final WroModel oldModel = createModel().addGroup(new Group("removed"));
+    final WroModel newModel = createModel().addGroup(new Group("added"));
+    Assert.assertEquals(new HashSet<String>(Arrays.asList("removed", "added")),
+        WroModelInspector.getChangedGroupNames(oldModel, newModel));
+  }
+
+  @Test
+  public void shouldDetectChangedResources() {
+    final WroModel newModel = createModel();
+    newModel.getGroupByName("g1").addResource(Resource.create("/new.js", ResourceType.JS));
+    newModel.getGroupByName("g2").getResources().get(0).setMinimize(false);
+    Assert.assertEquals(new HashSet<String>(Arrays.asList("g1", "g2")),
+        WroModelInspector.getChangedGroupNames(createModel(), newModel));
+  }
+
+  @Test
+  public void shouldDetectChangedResourcesOrder() {
+    final WroModel oldModel = new WroModel().addGroup(new Group("g1").addResource(
+        Resource.create("/a.js", ResourceType.JS)).addResource(Resource.create("/b.js", ResourceType.JS)));
+    final WroModel newModel = new WroModel().addGroup(new Group("g1").addResource(
+        Resource.create("/b.js", ResourceType.JS)).addResource(Resource.create("/a.js", ResourceType.JS)));
+    Assert.assertEquals(new HashSet<String>(Arrays.asList("g1")), WroModelInspector.getChangedGroupNames(oldModel, newModel));
+  }
+
+  private WroModel createModel() {
+    return new WroModel().addGroup(new Group("g1").addResource(Resource.create("/a.js", ResourceType.JS))).addGroup(
+        new Group("g2").addResource(Resource.create("/a.css", ResourceType.CSS)));
+  }
+}
@@ -132,6 +132,37 @@ public class TestInjector {
     Assert.assertNotNull(testProcessor.context);
   }
 
+  private class ExtendedTestProcessor extends TestProcessor {
+    @Inject
+    private WroConfiguration config;
+  }
+
+  @Test
+  public void shouldInjectEachInstanceOfSameClass() {
+    initializeValidInjector();
+    final ExtendedTestProcessor first = new ExtendedTestProcessor();
+    final ExtendedTestProcessor second = new ExtendedTestProcessor();
+    injector.inject(first);
+    injector.inject(second);
+    Assert.assertNotNull(first.config);
+    Assert.assertNotNull(second.config);
+    // inherited field
+    Assert.assertNotNull(((TestProcessor) first).context);
+    Assert.assertNotNull(((TestProcessor) second).context);
+  }
+
+  @Test
+  public void cannotInjectOutsideOfContextScopeAfterClassWasScanned() {
+    initializeValidInjector();
+    injector.inject(new ExtendedTestProcessor());
+    Context.unset();
+    try {
+      injector.inject(new ExtendedTestProcessor());
+      Assert.fail("Should have failed");
+    } catch (final WroRuntimeException e) {
+    }
+  }
+
 
   @After
   public void tearDown() {
@@ -12,7 +12,10 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletContext;
@@ -302,6 +305,157 @@ public class TestPreProcessorExecutor {
     executor.processAndMerge(resources, true);
   }
   
+  @Test
+  public void shouldReuseProcessedResourcesWhenContentIsNotChanged()
+      throws Exception {
+    Context.get().getConfig().setCacheProcessedResources(true);
+    final AtomicInteger count = new AtomicInteger();
+    final Map<String, String> contents = new HashMap<String, String>();
+    contents.put("/a.js", "a");
+    contents.put("/b.js", "b");
+    initExecutorWithContents(contents, createCountingPreProcessor(count));
+    final List<Resource> resources = createResources(Resource.create("/a.js", ResourceType.JS),
+        Resource.create("/b.js", ResourceType.JS));
+    Assert.assertEquals("ab", executor.processAndMerge(resources, true));
+    Assert.assertEquals(2, count.get());
+    
+    Assert.assertEquals("ab", executor.processAndMerge(resources, true));
+    Assert.assertEquals(2, count.get());
+    
+    contents.put("/b.js", "changed");
+    Assert.assertEquals("achanged", executor.processAndMerge(resources, true));
+    Assert.assertEquals(3, count.get());
+    
+    // a different set of minimize aware processors is applied
+    executor.processAndMerge(resources, false);
+    Assert.assertEquals(5, count.get());
+  }
+  
+  @Test
+  public void shouldReuseProcessedResourcesRequestedFromAnyFolder()
+      throws Exception {
+    Context.get().getConfig().setCacheProcessedResources(true);
+    final AtomicInteger count = new AtomicInteger();
+    final Map<String, String> contents = new HashMap<String, String>();
+    contents.put("/a.js", "a");
+    initExecutorWithContents(contents, createCountingPreProcessor(count));
+    final List<Resource> resources = createResources(Resource.create("/a.js", ResourceType.JS));
+    Context.get().setAggregatedFolderPath("/wro/");
+    executor.processAndMerge(resources, true);
+    // the processor doesn't depend on the folder of the requested group
+    Context.get().setAggregatedFolderPath("/any/path/");
+    executor.processAndMerge(resources, true);
+    Assert.assertEquals(1, count.get());
+  }
+  
+  @Test
+  public void shouldEvictLeastRecentlyUsedProcessedResources()
+      throws Exception {
+    Context.get().getConfig().setCacheProcessedResources(true);
+    // enough for a single resource: the content and its 40 characters fingerprint
+    Context.get().getConfig().setProcessedResourcesMaxSize(50);
+    final AtomicInteger count = new AtomicInteger();
+    final Map<String, String> contents = new HashMap<String, String>();
+    contents.put("/a.js", "a");
+    contents.put("/b.js", "b");
+    initExecutorWithContents(contents, createCountingPreProcessor(count));
+    executor.processAndMerge(createResources(Resource.create("/a.js", ResourceType.JS)), true);
+    executor.processAndMerge(createResources(Resource.create("/b.js", ResourceType.JS)), true);
+    executor.processAndMerge(createResources(Resource.create("/b.js", ResourceType.JS)), true);
+    Assert.assertEquals(2, count.get());
+    executor.processAndMerge(createResources(Resource.create("/a.js", ResourceType.JS)), true);
+    Assert.assertEquals(3, count.get());
+  }
+  
+  @Test
+  public void shouldProcessAgainResourcesAfterClearingProcessedResources()
+      throws Exception {
+    Context.get().getConfig().setCacheProcessedResources(true);
+    final AtomicInteger count = new AtomicInteger();
+    final Map<String, String> contents = new HashMap<String, String>();
+    contents.put("/a.js", "a");
+    initExecutorWithContents(contents, createCountingPreProcessor(count));
+    final List<Resource> resources = createResources(Resource.create("/a.js", ResourceType.JS));
+    executor.processAndMerge(resources, true);
+    executor.clearProcessedResources();
+    executor.processAndMerge(resources, true);
+    Assert.assertEquals(2, count.get());
+  }
+  
+  @Test
+  public void shouldNotReuseProcessedResourcesByDefault()
+      throws Exception {
+    final AtomicInteger count = new AtomicInteger();
+    final Map<String, String> contents = new HashMap<String, String>();
+    contents.put("/a.js", "a");
+    initExecutorWithContents(contents, createCountingPreProcessor(count));
+    final List<Resource> resources = createResources(Resource.create("/a.js", ResourceType.JS));
+    executor.processAndMerge(resources, true);
+    executor.processAndMerge(resources, true);
+    Assert.assertEquals(2, count.get());
+  }
+  
+  @Test
+  public void shouldProcessSharedResourceOnlyOnceDuringBuild()
+      throws Exception {
+    final AtomicInteger count = new AtomicInteger();
+    final Map<String, String> contents = new HashMap<String, String>();
+    contents.put("/common.js", "common");
+    contents.put("/a.js", "a");
+    contents.put("/b.js", "b");
+    initExecutorWithContents(contents, createCountingPreProcessor(count));
+    executor.beginBuild();
+    try {
+      Assert.assertEquals("commona", executor.processAndMerge(
+          createResources(Resource.create("/common.js", ResourceType.JS), Resource.create("/a.js", ResourceType.JS)),
+          true));
+      Assert.assertEquals("commonb", executor.processAndMerge(
+          createResources(Resource.create("/common.js", ResourceType.JS), Resource.create("/b.js", ResourceType.JS)),
+          true));
+      Assert.assertEquals(3, count.get());
+    } finally {
+      executor.endBuild();
+    }
+    // the result is discarded after the build
+    executor.processAndMerge(createResources(Resource.create("/common.js", ResourceType.JS)), true);
+    Assert.assertEquals(4, count.get());
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotEndBuildWhichWasNotStarted() {
+    executor.endBuild();
+  }
+  
+  private ResourcePreProcessor createCountingPreProcessor(final AtomicInteger count) {
+    return new ResourcePreProcessor() {
+      public void process(final Resource resource, final Reader reader, final Writer writer)
+          throws IOException {
+        count.incrementAndGet();
+        IOUtils.copy(reader, writer);
+      }
+    };
+  }
+  
+  /**
+   * Initialize the executor with a locator serving the content from the provided map (uri -> content).
+   */
+  private void initExecutorWithContents(final Map<String, String> contents, final ResourcePreProcessor... preProcessors) {
+    final UriLocator locator = new UriLocator() {
+      public boolean accept(final String uri) {
+        return true;
+      }
+      
+      public InputStream locate(final String uri)
+          throws IOException {
+        return new ByteArrayInputStream(contents.get(uri).getBytes());
+      }
+    };
+    final BaseWroManagerFactory managerFactory = (BaseWroManagerFactory) createWroManager(preProcessors);
+    managerFactory.setUriLocatorFactory(new SimpleUriLocatorFactory().addUriLocator(locator));
+    executor = new PreProcessorExecutor();
+    InjectorBuilder.create(managerFactory).build().inject(executor);
+  }
+  
   @After
   public void tearDown() {
     Context.unset();
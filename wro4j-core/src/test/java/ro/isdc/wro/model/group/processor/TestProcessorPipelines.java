@@ -0,0 +1,92 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.model.group.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.model.resource.processor.decorator.ProcessorDecorator;
+import ro.isdc.wro.model.resource.processor.impl.css.CssMinProcessor;
+import ro.isdc.wro.model.resource.processor.impl.css.CssUrlRewritingProcessor;
+import ro.isdc.wro.model.resource.processor.impl.js.JSMinProcessor;
+
+
+/**
+ * Test class for {@link ProcessorPipelines}.
+ */
+public class TestProcessorPipelines {
+  private ProcessorPipelines victim;
+  private int decoratedCount;
+  private List<ResourcePreProcessor> processors;
+
+  @Before
+  public void setUp() {
+    Context.set(Context.standaloneContext());
+    decoratedCount = 0;
+    victim = new ProcessorPipelines() {
+      @Override
+      protected ProcessorDecorator decorate(final Object processor) {
+        decoratedCount++;
+        return new ProcessorDecorator(processor);
+      }
+    };
+    processors = Arrays.<ResourcePreProcessor> asList(new CssUrlRewritingProcessor(), new CssMinProcessor(),
+        new JSMinProcessor());
+  }
+
+  @After
+  public void tearDown() {
+    Context.unset();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotGetPipelineOfNullProcessors() {
+    victim.get(null, ResourceType.JS, true);
+  }
+
+  @Test
+  public void shouldFilterProcessorsByTypeAndMinimizeFlag() {
+    Assert.assertEquals(2, victim.get(processors, ResourceType.CSS, true).size());
+    Assert.assertEquals(1, victim.get(processors, ResourceType.CSS, false).size());
+    Assert.assertEquals(1, victim.get(processors, ResourceType.JS, true).size());
+    Assert.assertTrue(victim.get(processors, ResourceType.JS, false).isEmpty());
+    final ProcessorDecorator processor = victim.get(processors, ResourceType.JS, true).get(0);
+    Assert.assertTrue(processor.getOriginalDecoratedObject() instanceof JSMinProcessor);
+  }
+
+  @Test
+  public void shouldDecorateProcessorsOnlyOnce() {
+    final List<ProcessorDecorator> pipeline = victim.get(processors, ResourceType.CSS, true);
+    victim.get(processors, ResourceType.JS, false);
+    // an equal collection holding the same processors
+    Assert.assertSame(pipeline, victim.get(new ArrayList<ResourcePreProcessor>(processors), ResourceType.CSS, true));
+    Assert.assertEquals(processors.size(), decoratedCount);
+  }
+
+  @Test
+  public void shouldCompileAgainWhenProcessorsAreChanged() {
+    final List<ProcessorDecorator> pipeline = victim.get(processors, ResourceType.CSS, true);
+    final List<ResourcePreProcessor> changed = new ArrayList<ResourcePreProcessor>(processors);
+    changed.set(1, new CssMinProcessor());
+    Assert.assertNotSame(pipeline, victim.get(changed, ResourceType.CSS, true));
+  }
+
+  @Test
+  public void shouldCompileAgainWhenConfigurationIsChanged() {
+    final List<ProcessorDecorator> pipeline = victim.get(processors, ResourceType.CSS, true);
+    Context.get().setConfig(new WroConfiguration());
+    Assert.assertNotSame(pipeline, victim.get(processors, ResourceType.CSS, true));
+  }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.model.resource.locator.support;
+
+import java.io.File;
+
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ro.isdc.wro.config.Context;
+
+
+public class TestLocalFileResolver {
+  private File file;
+
+  @Before
+  public void setUp()
+      throws Exception {
+    file = File.createTempFile("wro4j-resolver", ".js");
+  }
+
+  @After
+  public void tearDown() {
+    file.delete();
+    Context.unset();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotResolveNullUri() {
+    LocalFileResolver.get(null);
+  }
+
+  @Test
+  public void shouldResolveFileUrl() {
+    Assert.assertEquals(file, LocalFileResolver.get(file.toURI().toString()));
+  }
+
+  @Test
+  public void shouldNotResolveMissingFile() {
+    file.delete();
+    Assert.assertNull(LocalFileResolver.get(file.toURI().toString()));
+  }
+
+  @Test
+  public void shouldNotResolveClasspathResource() {
+    Assert.assertNull(LocalFileResolver.get("classpath:ro/isdc/wro/manager/sample.js"));
+  }
+
+  @Test
+  public void shouldNotResolveServletContextResourceWhenContextIsNotSet() {
+    Assert.assertNull(LocalFileResolver.get("/static/a.js"));
+  }
+
+  @Test
+  public void shouldResolveServletContextResourceUsingRealPath() {
+    final ServletContext servletContext = Mockito.mock(ServletContext.class);
+    Mockito.when(servletContext.getRealPath("/static/a.js")).thenReturn(file.getPath());
+    final FilterConfig filterConfig = Mockito.mock(FilterConfig.class);
+    Mockito.when(filterConfig.getServletContext()).thenReturn(servletContext);
+    Context.set(Context.webContext(null, null, filterConfig));
+    Assert.assertEquals(file, LocalFileResolver.get("/static/a.js"));
+  }
+}
@@ -4,12 +4,23 @@
 package ro.isdc.wro.model.resource.processor;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URL;
 
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
 import org.junit.Test;
 
+import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.processor.decorator.MinimizeAwareProcessorDecorator;
 import ro.isdc.wro.model.resource.processor.impl.CommentStripperProcessor;
+import ro.isdc.wro.util.Function;
 import ro.isdc.wro.util.WroTestUtils;
 
 
@@ -29,7 +40,41 @@ public class TestCommentStripperProcessor {
     final File expectedFolder = new File(url.getFile(), "expected");
     WroTestUtils.compareFromDifferentFoldersByExtension(testFolder, expectedFolder, "js", processor);
   }
-  
+
+  /**
+   * Uses the processor only through its post processor contracts, the way a post processor is adapted.
+   */
+  @Test
+  public void shouldProduceSameResultWhenPostProcessingCharSequence() {
+    final CommentStripperProcessor stripper = new CommentStripperProcessor();
+    final PostProcessor postProcessor = new PostProcessor() {
+      public void process(final Reader reader, final Writer writer)
+          throws IOException {
+        stripper.process(reader, writer);
+      }
+
+      public CharSequence process(final Resource resource, final CharSequence content) {
+        return stripper.process(resource, content);
+      }
+    };
+    final File testFolder = new File(getClass().getResource("commentStripper").getFile(), "test");
+    WroTestUtils.forEachFileInFolder(testFolder, new Function<File, Void>() {
+      public Void apply(final File file)
+          throws Exception {
+        final String content = FileUtils.readFileToString(file);
+        final StringWriter writer = new StringWriter();
+        postProcessor.process(new StringReader(content), writer);
+        // the decorator used by the processing passes the content as a CharSequence
+        final CharSequence result = new MinimizeAwareProcessorDecorator(postProcessor).process(null, content);
+        Assert.assertEquals(writer.toString(), result.toString());
+        return null;
+      }
+    });
+  }
+
+  private static interface PostProcessor
+      extends ResourcePostProcessor, CharSequenceProcessor {
+  }
 
   @Test
   public void shouldSupportCorrectResourceTypes() {
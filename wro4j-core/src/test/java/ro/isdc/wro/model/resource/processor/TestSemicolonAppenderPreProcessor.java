@@ -5,12 +5,20 @@ package ro.isdc.wro.model.resource.processor;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.net.URL;
 
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
 import org.junit.Test;
 
+import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
+import ro.isdc.wro.model.resource.processor.decorator.MinimizeAwareProcessorDecorator;
 import ro.isdc.wro.model.resource.processor.impl.js.SemicolonAppenderPreProcessor;
+import ro.isdc.wro.util.Function;
 import ro.isdc.wro.util.WroTestUtils;
 
 
@@ -32,7 +40,26 @@ public class TestSemicolonAppenderPreProcessor {
     final File expectedFolder = new File(url.getFile(), "expected");
     WroTestUtils.compareFromDifferentFoldersByExtension(testFolder, expectedFolder, "js", processor);
   }
-  
+
+  @Test
+  public void shouldProduceSameResultWhenProcessingCharSequence() {
+    final ResourcePreProcessor processor = new SemicolonAppenderPreProcessor();
+    Assert.assertTrue(processor instanceof CharSequenceProcessor);
+    final File testFolder = new File(getClass().getResource("semicolonAppender").getFile(), "test");
+    WroTestUtils.forEachFileInFolder(testFolder, new Function<File, Void>() {
+      public Void apply(final File file)
+          throws Exception {
+        final String content = FileUtils.readFileToString(file);
+        final Resource resource = Resource.create(file.getPath(), ResourceType.JS);
+        final StringWriter writer = new StringWriter();
+        processor.process(resource, new StringReader(content), writer);
+        // the decorator used by the processing passes the content as a CharSequence
+        final CharSequence result = new MinimizeAwareProcessorDecorator(processor).process(resource, content);
+        Assert.assertEquals(writer.toString(), result.toString());
+        return null;
+      }
+    });
+  }
 
   @Test
   public void shouldSupportCorrectResourceTypes() {
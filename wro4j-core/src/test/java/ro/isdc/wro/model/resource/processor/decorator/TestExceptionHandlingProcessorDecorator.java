@@ -92,4 +92,14 @@ public class TestExceptionHandlingProcessorDecorator {
         Mockito.any(Writer.class));
     Assert.assertEquals(resourceContent, writer.toString());
   }
+
+  @Test
+  public void shouldReturnSameContentWhenProcessingFails()
+      throws Exception {
+    Context.get().getConfig().setIgnoreFailingProcessor(true);
+    Mockito.doThrow(new IOException("BOOM")).when(mockProcessor).process(Mockito.any(Resource.class),
+        Mockito.any(Reader.class), Mockito.any(Writer.class));
+    final CharSequence content = new StringBuilder("alert(1);");
+    Assert.assertSame(content, victim.process(mockResource, content));
+  }
 }
@@ -0,0 +1,173 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.model.resource.support.change;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.model.resource.locator.UriLocator;
+import ro.isdc.wro.model.resource.locator.factory.UriLocatorFactory;
+
+
+public class TestResourceChangeDetector {
+  private static final String URI = "/resource.js";
+  private Map<String, String> contents;
+  private File directory;
+  private ResourceChangeDetector victim;
+
+  @Before
+  public void setUp() {
+    contents = new HashMap<String, String>();
+    directory = new File(FileUtils.getTempDirectory(), "wro4j-detector-" + System.nanoTime());
+    victim = new ResourceChangeDetector(new UriLocatorFactory() {
+      public InputStream locate(final String uri)
+          throws IOException {
+        if (!contents.containsKey(uri)) {
+          throw new IOException("Cannot locate: " + uri);
+        }
+        return new ByteArrayInputStream(contents.get(uri).getBytes());
+      }
+
+      public UriLocator getInstance(final String uri) {
+        return null;
+      }
+    });
+  }
+
+  @After
+  public void tearDown() {
+    FileUtils.deleteQuietly(directory);
+    Context.unset();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotUseNullUriLocatorFactory() {
+    new ResourceChangeDetector(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotCheckNullUri() {
+    victim.checkChangedFor(null);
+  }
+
+  @Test
+  public void shouldNotDetectChangeOnFirstCheck() {
+    contents.put(URI, "var a = 1;");
+    Assert.assertFalse(victim.checkChangedFor(URI));
+  }
+
+  @Test
+  public void shouldNotDetectChangeWhenContentIsTheSame() {
+    contents.put(URI, "var a = 1;");
+    victim.checkChangedFor(URI);
+    Assert.assertFalse(victim.checkChangedFor(URI));
+  }
+
+  @Test
+  public void shouldDetectChangeOnlyOnceWhenContentIsChanged() {
+    contents.put(URI, "var a = 1;");
+    victim.checkChangedFor(URI);
+    contents.put(URI, "var a = 2;");
+    Assert.assertTrue(victim.checkChangedFor(URI));
+    Assert.assertFalse(victim.checkChangedFor(URI));
+  }
+
+  @Test
+  public void shouldDetectRemovedResource() {
+    contents.put(URI, "var a = 1;");
+    victim.checkChangedFor(URI);
+    contents.remove(URI);
+    Assert.assertTrue(victim.checkChangedFor(URI));
+  }
+
+  @Test
+  public void shouldDetectAddedResource() {
+    victim.checkChangedFor(URI);
+    contents.put(URI, "var a = 1;");
+    Assert.assertTrue(victim.checkChangedFor(URI));
+  }
+
+  @Test
+  public void shouldNotDetectChangeAfterReset() {
+    contents.put(URI, "var a = 1;");
+    victim.checkChangedFor(URI);
+    contents.put(URI, "var a = 2;");
+    victim.reset();
+    Assert.assertFalse(victim.checkChangedFor(URI));
+  }
+
+  @Test
+  public void shouldDetectChangeOfRememberedContent() {
+    contents.put(URI, "var a = 2;");
+    victim.remember(URI, "var a = 1;".getBytes());
+    Assert.assertTrue(victim.checkChangedFor(URI));
+    victim.remember(URI, "var a = 2;".getBytes());
+    Assert.assertFalse(victim.checkChangedFor(URI));
+  }
+
+  /**
+   * @return a file, whose last modification is older than the quiet period.
+   */
+  private File writeFile(final String name, final String content, final long age)
+      throws IOException {
+    final File file = new File(directory, name);
+    FileUtils.writeStringToFile(file, content);
+    file.setLastModified(System.currentTimeMillis() - age);
+    return file;
+  }
+
+  @Test
+  public void shouldDetectChangedFileWithoutLocatingIt()
+      throws Exception {
+    final File file = writeFile("a.js", "var a = 1;", 10000);
+    final String uri = file.toURI().toString();
+    Assert.assertFalse(victim.checkChangedFor(uri));
+    // same length, different modification time
+    writeFile("a.js", "var a = 2;", 5000);
+    Assert.assertTrue(victim.checkChangedFor(uri));
+    Assert.assertFalse(victim.checkChangedFor(uri));
+  }
+
+  @Test
+  public void shouldReportChangeOfFileOnlyAfterQuietPeriod()
+      throws Exception {
+    final File file = writeFile("a.js", "var a = 1;", 10000);
+    final String uri = file.toURI().toString();
+    victim.checkChangedFor(uri);
+    writeFile("a.js", "var a = 22;", 0);
+    Assert.assertFalse(victim.checkChangedFor(uri));
+    file.setLastModified(System.currentTimeMillis() - ResourceChangeDetector.QUIET_PERIOD);
+    Assert.assertTrue(victim.checkChangedFor(uri));
+  }
+
+  @Test
+  public void shouldDetectChangedServletContextFile()
+      throws Exception {
+    final File file = writeFile("a.js", "var a = 1;", 10000);
+    final ServletContext servletContext = Mockito.mock(ServletContext.class);
+    Mockito.when(servletContext.getRealPath(URI)).thenReturn(file.getPath());
+    final FilterConfig filterConfig = Mockito.mock(FilterConfig.class);
+    Mockito.when(filterConfig.getServletContext()).thenReturn(servletContext);
+    Context.set(Context.webContext(null, null, filterConfig));
+    Assert.assertFalse(victim.checkChangedFor(URI));
+    writeFile("a.js", "var a = 2;", 5000);
+    Assert.assertTrue(victim.checkChangedFor(URI));
+  }
+}
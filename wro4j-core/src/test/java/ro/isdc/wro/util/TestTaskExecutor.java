@@ -0,0 +1,123 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestTaskExecutor {
+  private TaskExecutor victim;
+
+  @Before
+  public void setUp() {
+    victim = new TaskExecutor("test");
+  }
+
+  @After
+  public void tearDown() {
+    victim.destroy();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotCreateExecutorWithNullName() {
+    new TaskExecutor(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotSubmitNullTasks() {
+    victim.submit(null, 2);
+  }
+
+  private List<Callable<Integer>> createTasks(final int count) {
+    final List<Callable<Integer>> callables = new ArrayList<Callable<Integer>>();
+    for (int i = 0; i < count; i++) {
+      final int index = i;
+      callables.add(new Callable<Integer>() {
+        public Integer call()
+            throws Exception {
+          Thread.sleep(10);
+          return index;
+        }
+      });
+    }
+    return callables;
+  }
+
+  @Test
+  public void shouldReturnResultsInOrder()
+      throws Exception {
+    final List<Future<Integer>> futures = victim.submit(createTasks(10), 4);
+    for (int i = 0; i < futures.size(); i++) {
+      Assert.assertEquals(i, futures.get(i).get().intValue());
+    }
+  }
+
+  @Test
+  public void shouldExecuteTasksInCallingThreadAfterDestroy()
+      throws Exception {
+    victim.destroy();
+    final Thread caller = Thread.currentThread();
+    final List<Callable<Thread>> callables = new ArrayList<Callable<Thread>>();
+    for (int i = 0; i < 3; i++) {
+      callables.add(new Callable<Thread>() {
+        public Thread call() {
+          return Thread.currentThread();
+        }
+      });
+    }
+    for (final Future<Thread> future : victim.submit(callables, 2)) {
+      Assert.assertSame(caller, future.get());
+    }
+  }
+
+  @Test
+  public void shouldNotBlockWhenTasksSubmitNestedTasks()
+      throws Exception {
+    final List<Callable<Integer>> callables = new ArrayList<Callable<Integer>>();
+    for (int i = 0; i < 4; i++) {
+      callables.add(new Callable<Integer>() {
+        public Integer call()
+            throws Exception {
+          int sum = 0;
+          // the single thread of the pool is busy, the nested tasks are executed by the caller
+          for (final Future<Integer> future : victim.submit(createTasks(3), 1)) {
+            sum += future.get();
+          }
+          return sum;
+        }
+      });
+    }
+    for (final Future<Integer> future : victim.submit(callables, 1)) {
+      Assert.assertEquals(3, future.get().intValue());
+    }
+  }
+
+  @Test
+  public void shouldPropagateFailureOfTask()
+      throws Exception {
+    final List<Callable<Integer>> callables = createTasks(2);
+    callables.add(new Callable<Integer>() {
+      public Integer call() {
+        throw new IllegalStateException("BOOM");
+      }
+    });
+    final List<Future<Integer>> futures = victim.submit(callables, 2);
+    try {
+      futures.get(2).get();
+      Assert.fail("Should have failed");
+    } catch (final ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+}
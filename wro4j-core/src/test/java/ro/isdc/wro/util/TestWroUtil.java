@@ -95,6 +95,25 @@ public class TestWroUtil {
     
     request = mockRequestHeader("Accept-Encoding", "gzip,deflate,sdch");
     Assert.assertTrue(WroUtil.isGzipSupported(request));
+    
+    request = mockRequestHeader("Accept-Encoding", "gzip;q=0,deflate");
+    Assert.assertFalse(WroUtil.isGzipSupported(request));
+    
+    request = mockRequestHeader("X-cept-Encoding", "deflate, gzip;q=0");
+    Assert.assertFalse(WroUtil.isGzipSupported(request));
+  }
+  
+  @Test
+  public void shouldTakeQualityValuesIntoAccountWhenCheckingAcceptedEncoding() {
+    Assert.assertFalse(WroUtil.isEncodingAccepted(null, "gzip"));
+    Assert.assertFalse(WroUtil.isEncodingAccepted("", "gzip"));
+    Assert.assertTrue(WroUtil.isEncodingAccepted("GZIP", "gzip"));
+    Assert.assertTrue(WroUtil.isEncodingAccepted("gzip;q=0.001", "gzip"));
+    Assert.assertTrue(WroUtil.isEncodingAccepted("gzip;q=invalid", "gzip"));
+    Assert.assertFalse(WroUtil.isEncodingAccepted("gzip;q=0", "gzip"));
+    Assert.assertFalse(WroUtil.isEncodingAccepted("gzip ; q = 0.0", "gzip"));
+    Assert.assertFalse(WroUtil.isEncodingAccepted("*, gzip;q=0", "gzip"));
+    Assert.assertTrue(WroUtil.isEncodingAccepted("identity, *;q=0.5", "gzip"));
   }
   
   /**
@@ -0,0 +1,121 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.util.io;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestBufferPool {
+  @Before
+  public void setUp() {
+    BufferPool.enable();
+  }
+
+  @After
+  public void tearDown() {
+    BufferPool.clear();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotReleaseNullBuilder() {
+    BufferPool.release((StringBuilder) null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void cannotReleaseNullByteBuffer() {
+    BufferPool.release((BufferPool.ByteBuffer) null);
+  }
+
+  @Test
+  public void shouldReuseReleasedBuilder() {
+    final StringBuilder builder = BufferPool.borrowBuilder();
+    builder.append("content");
+    BufferPool.release(builder);
+    final StringBuilder reused = BufferPool.borrowBuilder();
+    Assert.assertSame(builder, reused);
+    Assert.assertEquals(0, reused.length());
+    BufferPool.release(reused);
+  }
+
+  @Test
+  public void shouldBorrowDistinctBuildersWhenNested() {
+    final StringBuilder outer = BufferPool.borrowBuilder();
+    final StringBuilder inner = BufferPool.borrowBuilder();
+    Assert.assertNotSame(outer, inner);
+    BufferPool.release(inner);
+    BufferPool.release(outer);
+  }
+
+  @Test
+  public void shouldNotRetainLargeBuffers() {
+    final StringBuilder builder = BufferPool.borrowBuilder();
+    builder.ensureCapacity(BufferPool.MAX_RETAINED_CAPACITY + 1);
+    BufferPool.release(builder);
+    final StringBuilder other = BufferPool.borrowBuilder();
+    Assert.assertNotSame(builder, other);
+    BufferPool.release(other);
+  }
+
+  @Test
+  public void shouldReuseReleasedByteBuffer() {
+    final BufferPool.ByteBuffer buffer = BufferPool.borrowByteBuffer();
+    buffer.write(1);
+    BufferPool.release(buffer);
+    final BufferPool.ByteBuffer reused = BufferPool.borrowByteBuffer();
+    Assert.assertSame(buffer, reused);
+    Assert.assertEquals(0, reused.size());
+    BufferPool.release(reused);
+  }
+
+  @Test
+  public void shouldNotEnableTwice() {
+    Assert.assertFalse(BufferPool.enable());
+  }
+
+  @Test
+  public void shouldNotPoolBuffersWhenPoolingIsNotEnabled() {
+    BufferPool.clear();
+    final StringBuilder builder = BufferPool.borrowBuilder();
+    BufferPool.release(builder);
+    Assert.assertNotSame(builder, BufferPool.borrowBuilder());
+    final BufferPool.ByteBuffer buffer = BufferPool.borrowByteBuffer();
+    BufferPool.release(buffer);
+    Assert.assertNotSame(buffer, BufferPool.borrowByteBuffer());
+  }
+
+  @Test
+  public void shouldDropPooledBuffersWhenCleared() {
+    final StringBuilder builder = BufferPool.borrowBuilder();
+    BufferPool.release(builder);
+    BufferPool.clear();
+    Assert.assertTrue(BufferPool.enable());
+    Assert.assertNotSame(builder, BufferPool.borrowBuilder());
+  }
+
+  @Test
+  public void shouldNotShareBuffersBetweenThreads()
+      throws Exception {
+    final StringBuilder builder = BufferPool.borrowBuilder();
+    BufferPool.release(builder);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final StringBuilder other = executor.submit(new Callable<StringBuilder>() {
+        public StringBuilder call() {
+          return BufferPool.borrowBuilder();
+        }
+      }).get();
+      Assert.assertNotSame(builder, other);
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -14,7 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
-import ro.isdc.wro.extensions.processor.support.ObjectPoolHelper;
+import ro.isdc.wro.extensions.processor.support.AbstractEnginePoolProcessor;
 import ro.isdc.wro.extensions.processor.support.csslint.CssLint;
 import ro.isdc.wro.extensions.processor.support.csslint.CssLintException;
 import ro.isdc.wro.model.resource.Resource;
@@ -22,7 +22,6 @@ import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
-import ro.isdc.wro.util.ObjectFactory;
 import ro.isdc.wro.util.WroUtil;
 
 
@@ -37,6 +36,7 @@ import ro.isdc.wro.util.WroUtil;
  */
 @SupportedResourceType(ResourceType.CSS)
 public class CssLintProcessor
+  extends AbstractEnginePoolProcessor<CssLint>
   implements ResourcePreProcessor, ResourcePostProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(CssLintProcessor.class);
   public static final String ALIAS = "cssLint";
@@ -45,15 +45,12 @@ public class CssLintProcessor
    */
   private String[] options;
 
-  private ObjectPoolHelper<CssLint> enginePool;
-
-  public CssLintProcessor() {
-    enginePool = new ObjectPoolHelper<CssLint>(new ObjectFactory<CssLint>() {
-      @Override
-      public CssLint create() {
-        return newCssLint();
-      }
-    });
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected CssLint createEngine() {
+    return newCssLint();
   }
 
 
@@ -70,7 +67,7 @@ public class CssLintProcessor
   public void process(final Resource resource, final Reader reader, final Writer writer)
     throws IOException {
     final String content = IOUtils.toString(reader);
-    final CssLint cssLint = enginePool.getObject();
+    final CssLint cssLint = getEnginePool().getObject();
     try {
       cssLint.setOptions(options).validate(content);
     } catch (final CssLintException e) {
@@ -90,7 +87,7 @@ public class CssLintProcessor
       writer.write(content);
       reader.close();
       writer.close();
-      enginePool.returnObject(cssLint);
+      getEnginePool().returnObject(cssLint);
     }
   }
 
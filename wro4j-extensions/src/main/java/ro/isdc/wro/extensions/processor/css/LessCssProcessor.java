@@ -14,14 +14,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
-import ro.isdc.wro.extensions.processor.support.ObjectPoolHelper;
+import ro.isdc.wro.extensions.processor.support.AbstractEnginePoolProcessor;
 import ro.isdc.wro.extensions.processor.support.less.LessCss;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
-import ro.isdc.wro.util.ObjectFactory;
 
 
 /**
@@ -103,21 +102,18 @@ import ro.isdc.wro.util.ObjectFactory;
  */
 @SupportedResourceType(ResourceType.CSS)
 public class LessCssProcessor
+  extends AbstractEnginePoolProcessor<LessCss>
   implements ResourcePreProcessor, ResourcePostProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(LessCssProcessor.class);
 
   public static final String ALIAS = "lessCss";
 
-  private ObjectPoolHelper<LessCss> enginePool;
-
-
-  public LessCssProcessor() {
-    enginePool = new ObjectPoolHelper<LessCss>(new ObjectFactory<LessCss>() {
-      @Override
-      public LessCss create() {
-        return newLessCss();
-      }
-    });
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected LessCss createEngine() {
+    return newLessCss();
   }
 
   /**
@@ -126,7 +122,7 @@ public class LessCssProcessor
   public void process(final Resource resource, final Reader reader, final Writer writer)
     throws IOException {
     final String content = IOUtils.toString(reader);
-    final LessCss lessCss = enginePool.getObject();
+    final LessCss lessCss = getEnginePool().getObject();
     try {
       writer.write(lessCss.less(content));
     } catch (final WroRuntimeException e) {
@@ -136,7 +132,7 @@ public class LessCssProcessor
           + " resource, no processing applied...", e);
     } finally {
       //return for later reuse
-      enginePool.returnObject(lessCss);
+      getEnginePool().returnObject(lessCss);
       reader.close();
       writer.close();
     }
@@ -13,14 +13,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
-import ro.isdc.wro.extensions.processor.support.ObjectPoolHelper;
+import ro.isdc.wro.extensions.processor.support.AbstractEnginePoolProcessor;
 import ro.isdc.wro.extensions.processor.support.sass.SassCss;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
-import ro.isdc.wro.util.ObjectFactory;
 
 
 /**
@@ -31,24 +30,21 @@ import ro.isdc.wro.util.ObjectFactory;
  */
 @SupportedResourceType(ResourceType.CSS)
 public class SassCssProcessor
+    extends AbstractEnginePoolProcessor<SassCss>
     implements ResourcePreProcessor, ResourcePostProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(SassCssProcessor.class);
   public static final String ALIAS = "sassCss";
   public static final String ALIAS_RUBY = "rubySassCss";
   
   
-  private ObjectPoolHelper<SassCss> enginePool;
   
+
   /**
-   * default constructor that sets the engine used to RHINO for backwards compatibility.
+   * {@inheritDoc}
    */
-  public SassCssProcessor() {
-    enginePool = new ObjectPoolHelper<SassCss>(new ObjectFactory<SassCss>() {
-      @Override
-      public SassCss create() {
-        return newEngine();
-      }
-    });
+  @Override
+  protected SassCss createEngine() {
+    return newEngine();
   }
   
   /**
@@ -57,7 +53,7 @@ public class SassCssProcessor
   public void process(final Resource resource, final Reader reader, final Writer writer)
       throws IOException {
     final String content = IOUtils.toString(reader);
-    final SassCss engine = enginePool.getObject();
+    final SassCss engine = getEnginePool().getObject();
     try {
       writer.write(engine.process(content));
     } catch (final WroRuntimeException e) {
@@ -70,7 +66,7 @@ public class SassCssProcessor
       reader.close();
       writer.close();
       try {
-        enginePool.returnObject(engine);
+        getEnginePool().returnObject(engine);
       } catch (final Exception e) {
         //should never happen
         LOG.error("Cannot return lessCss engine to the pool", e);
@@ -14,7 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
-import ro.isdc.wro.extensions.processor.support.ObjectPoolHelper;
+import ro.isdc.wro.extensions.processor.support.AbstractEnginePoolProcessor;
 import ro.isdc.wro.extensions.processor.support.linter.AbstractLinter;
 import ro.isdc.wro.extensions.processor.support.linter.LinterException;
 import ro.isdc.wro.model.resource.Resource;
@@ -22,7 +22,6 @@ import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
-import ro.isdc.wro.util.ObjectFactory;
 
 
 /**
@@ -35,21 +34,20 @@ import ro.isdc.wro.util.ObjectFactory;
  */
 @SupportedResourceType(ResourceType.JS)
 public abstract class AbstractLinterProcessor
+  extends AbstractEnginePoolProcessor<AbstractLinter>
   implements ResourcePreProcessor, ResourcePostProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(AbstractLinterProcessor.class);
-  private ObjectPoolHelper<AbstractLinter> enginePool;
   /**
    * Options to use to configure the linter.
    */
   private String[] options;
 
-  public AbstractLinterProcessor() {
-    enginePool = new ObjectPoolHelper<AbstractLinter>(new ObjectFactory<AbstractLinter>() {
-      @Override
-      public AbstractLinter create() {
-        return newLinter();
-      }
-    });
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected AbstractLinter createEngine() {
+    return newLinter();
   }
 
   public AbstractLinterProcessor setOptions(final String... options) {
@@ -63,7 +61,7 @@ public abstract class AbstractLinterProcessor
   public void process(final Resource resource, final Reader reader, final Writer writer)
     throws IOException {
     final String content = IOUtils.toString(reader);
-    final AbstractLinter linter = enginePool.getObject();
+    final AbstractLinter linter = getEnginePool().getObject();
     try {
       // TODO investigate why linter fails when trying to reuse the same instance twice
       linter.setOptions(options).validate(content);
@@ -79,7 +77,7 @@ public abstract class AbstractLinterProcessor
       writer.write(content);
       reader.close();
       writer.close();
-      enginePool.returnObject(linter);
+      getEnginePool().returnObject(linter);
     }
   }
 
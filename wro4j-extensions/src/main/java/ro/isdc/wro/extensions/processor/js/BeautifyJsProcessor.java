@@ -10,18 +10,19 @@ import java.io.Writer;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
-import ro.isdc.wro.extensions.processor.support.ObjectPoolHelper;
+import ro.isdc.wro.extensions.processor.support.AbstractEnginePoolProcessor;
 import ro.isdc.wro.extensions.processor.support.uglify.UglifyJs;
+import ro.isdc.wro.extensions.script.ScriptEngineType;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
-import ro.isdc.wro.util.ObjectFactory;
 
 
 /**
@@ -33,25 +34,29 @@ import ro.isdc.wro.util.ObjectFactory;
  */
 @SupportedResourceType(ResourceType.JS)
 public class BeautifyJsProcessor
+  extends AbstractEnginePoolProcessor<UglifyJs>
   implements ResourcePreProcessor, ResourcePostProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(BeautifyJsProcessor.class);
   public static final String ALIAS_BEAUTIFY = "beautifyJs";
+  private ScriptEngineType scriptEngineType = ScriptEngineType.RHINO;
+
   /**
-   * Engine.
+   * {@inheritDoc}
    */
-  private final ObjectPoolHelper<UglifyJs> enginePool;
+  @Override
+  protected UglifyJs createEngine() {
+    return newEngine().setScriptEngineType(scriptEngineType);
+  }
 
 
   /**
-   * Default constructor. Instantiates uglifyJs engine.
+   * @param scriptEngineType
+   *          the javascript engine used by the engines created afterwards. By default, rhino is used.
    */
-  public BeautifyJsProcessor() {
-    enginePool = new ObjectPoolHelper<UglifyJs>(new ObjectFactory<UglifyJs>() {
-      @Override
-      public UglifyJs create() {
-        return newEngine();
-      }
-    });
+  public BeautifyJsProcessor setScriptEngineType(final ScriptEngineType scriptEngineType) {
+    Validate.notNull(scriptEngineType);
+    this.scriptEngineType = scriptEngineType;
+    return this;
   }
 
 
@@ -69,7 +74,7 @@ public class BeautifyJsProcessor
   public void process(final Resource resource, final Reader reader, final Writer writer)
     throws IOException {
     final String content = IOUtils.toString(reader);
-    final UglifyJs engine = enginePool.getObject();
+    final UglifyJs engine = getEnginePool().getObject();
     try {
       final String filename = resource == null ? "noName.js" : resource.getUri();
       writer.write(engine.process(filename, content));
@@ -81,7 +86,7 @@ public class BeautifyJsProcessor
     } finally {
       reader.close();
       writer.close();
-      enginePool.returnObject(engine);
+      getEnginePool().returnObject(engine);
     }
   }
 
@@ -13,7 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
-import ro.isdc.wro.extensions.processor.support.ObjectPoolHelper;
+import ro.isdc.wro.extensions.processor.support.AbstractEnginePoolProcessor;
 import ro.isdc.wro.extensions.processor.support.cjson.CJson;
 import ro.isdc.wro.model.group.processor.Minimize;
 import ro.isdc.wro.model.resource.Resource;
@@ -21,7 +21,6 @@ import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
-import ro.isdc.wro.util.ObjectFactory;
 
 
 /**
@@ -34,14 +33,11 @@ import ro.isdc.wro.util.ObjectFactory;
 @Minimize
 @SupportedResourceType(ResourceType.JS)
 public class CJsonProcessor
+  extends AbstractEnginePoolProcessor<CJson>
   implements ResourcePreProcessor, ResourcePostProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(CJsonProcessor.class);
   public static final String ALIAS_PACK = "cjson-pack";
   public static final String ALIAS_UNPACK = "cjson-unpack";
-  /**
-   * Engine.
-   */
-  private ObjectPoolHelper<CJson> enginePool;
   /**
    * If true, the packing will be used, otherwise unpack.
    */
@@ -51,15 +47,17 @@ public class CJsonProcessor
    * Private constructor, prevent instantiation.
    */
   public CJsonProcessor(boolean pack) {
-    enginePool = new ObjectPoolHelper<CJson>(new ObjectFactory<CJson>() {
-      @Override
-      public CJson create() {
-        return newEngine();
-      }
-    });
     this.pack = pack;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected CJson createEngine() {
+    return newEngine();
+  }
+
 
   public static CJsonProcessor packProcessor() {
     return new CJsonProcessor(true);
@@ -91,14 +89,14 @@ public class CJsonProcessor
   }
 
   private String doProcess(final String content) {
-    CJson engine = enginePool.getObject();
+    CJson engine = getEnginePool().getObject();
     try {
       if (pack) {
         return engine.pack(content);
       }
       return engine.unpack(content);      
     } finally {
-      enginePool.returnObject(engine);
+      getEnginePool().returnObject(engine);
     }
   }
 
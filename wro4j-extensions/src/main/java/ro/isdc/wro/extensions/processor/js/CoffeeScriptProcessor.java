@@ -10,18 +10,19 @@ import java.io.Writer;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
-import ro.isdc.wro.extensions.processor.support.ObjectPoolHelper;
+import ro.isdc.wro.extensions.processor.support.AbstractEnginePoolProcessor;
 import ro.isdc.wro.extensions.processor.support.coffeescript.CoffeeScript;
+import ro.isdc.wro.extensions.script.ScriptEngineType;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
-import ro.isdc.wro.util.ObjectFactory;
 
 
 
@@ -34,19 +35,28 @@ import ro.isdc.wro.util.ObjectFactory;
  */
 @SupportedResourceType(ResourceType.JS)
 public class CoffeeScriptProcessor
+  extends AbstractEnginePoolProcessor<CoffeeScript>
   implements ResourcePreProcessor, ResourcePostProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(CoffeeScriptProcessor.class);
   public static final String ALIAS = "coffeeScript";
-  private ObjectPoolHelper<CoffeeScript> enginePool;
+  private ScriptEngineType scriptEngineType = ScriptEngineType.RHINO;
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected CoffeeScript createEngine() {
+    return newCoffeeScript().setScriptEngineType(scriptEngineType);
+  }
 
-  public CoffeeScriptProcessor() {
-    enginePool = new ObjectPoolHelper<CoffeeScript>(new ObjectFactory<CoffeeScript>() {
-      @Override
-      public CoffeeScript create() {
-        return newCoffeeScript();
-      }
-    });
+  /**
+   * @param scriptEngineType
+   *          the javascript engine used by the engines created afterwards. By default, rhino is used.
+   */
+  public CoffeeScriptProcessor setScriptEngineType(final ScriptEngineType scriptEngineType) {
+    Validate.notNull(scriptEngineType);
+    this.scriptEngineType = scriptEngineType;
+    return this;
   }
 
   /**
@@ -55,7 +65,7 @@ public class CoffeeScriptProcessor
   public void process(final Resource resource, final Reader reader, final Writer writer)
     throws IOException {
     final String content = IOUtils.toString(reader);
-    final CoffeeScript coffeeScript = enginePool.getObject();
+    final CoffeeScript coffeeScript = getEnginePool().getObject();
     try {
       writer.write(coffeeScript.compile(content));
     } catch (final WroRuntimeException e) {
@@ -66,7 +76,7 @@ public class CoffeeScriptProcessor
     } finally {
       reader.close();
       writer.close();
-      enginePool.returnObject(coffeeScript);
+      getEnginePool().returnObject(coffeeScript);
     }
   }
 
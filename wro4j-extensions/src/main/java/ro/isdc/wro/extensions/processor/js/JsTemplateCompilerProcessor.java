@@ -5,12 +5,13 @@ import java.io.Reader;
 import java.io.Writer;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
 
-import ro.isdc.wro.extensions.processor.support.ObjectPoolHelper;
+import ro.isdc.wro.extensions.processor.support.AbstractEnginePoolProcessor;
 import ro.isdc.wro.extensions.processor.support.template.AbstractJsTemplateCompiler;
+import ro.isdc.wro.extensions.script.ScriptEngineType;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
-import ro.isdc.wro.util.ObjectFactory;
 
 /**
  * A base class for template processors like: dustJS or hoganJS.
@@ -19,16 +20,26 @@ import ro.isdc.wro.util.ObjectFactory;
  * @since 1.4.7
  * @created 11 May 2012
  */
-public abstract class JsTemplateCompilerProcessor implements ResourcePreProcessor {
-  private final ObjectPoolHelper<AbstractJsTemplateCompiler> enginePool;
-
-  public JsTemplateCompilerProcessor() {
-    enginePool = new ObjectPoolHelper<AbstractJsTemplateCompiler>(new ObjectFactory<AbstractJsTemplateCompiler>() {
-      @Override
-      public AbstractJsTemplateCompiler create() {
-        return createCompiler();
-      }
-    });
+public abstract class JsTemplateCompilerProcessor extends AbstractEnginePoolProcessor<AbstractJsTemplateCompiler>
+    implements ResourcePreProcessor {
+  private ScriptEngineType scriptEngineType = ScriptEngineType.RHINO;
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected AbstractJsTemplateCompiler createEngine() {
+    return createCompiler().setScriptEngineType(scriptEngineType);
+  }
+
+  /**
+   * @param scriptEngineType
+   *          the javascript engine used by the engines created afterwards. By default, rhino is used.
+   */
+  public JsTemplateCompilerProcessor setScriptEngineType(final ScriptEngineType scriptEngineType) {
+    Validate.notNull(scriptEngineType);
+    this.scriptEngineType = scriptEngineType;
+    return this;
   }
 
   /**
@@ -37,11 +48,11 @@ public abstract class JsTemplateCompilerProcessor implements ResourcePreProcesso
   @Override
   public void process(Resource resource, Reader reader, Writer writer) throws IOException {
     final String content = IOUtils.toString(reader);
-    final AbstractJsTemplateCompiler jsCompiler = enginePool.getObject();
+    final AbstractJsTemplateCompiler jsCompiler = getEnginePool().getObject();
     try {
       writer.write(jsCompiler.compile(content, getArgument(resource)));
     } finally {
-      enginePool.returnObject(jsCompiler);
+      getEnginePool().returnObject(jsCompiler);
       reader.close();
       writer.close();
     }
@@ -13,7 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
-import ro.isdc.wro.extensions.processor.support.ObjectPoolHelper;
+import ro.isdc.wro.extensions.processor.support.AbstractEnginePoolProcessor;
 import ro.isdc.wro.extensions.processor.support.jsonhpack.JsonHPack;
 import ro.isdc.wro.model.group.processor.Minimize;
 import ro.isdc.wro.model.resource.Resource;
@@ -21,7 +21,6 @@ import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
-import ro.isdc.wro.util.ObjectFactory;
 
 
 /**
@@ -34,14 +33,11 @@ import ro.isdc.wro.util.ObjectFactory;
 @Minimize
 @SupportedResourceType(ResourceType.JS)
 public class JsonHPackProcessor
+    extends AbstractEnginePoolProcessor<JsonHPack>
     implements ResourcePreProcessor, ResourcePostProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(JsonHPackProcessor.class);
   public static final String ALIAS_PACK = "jsonh-pack";
   public static final String ALIAS_UNPACK = "jsonh-unpack";
-  /**
-   * Engine.
-   */
-  private ObjectPoolHelper<JsonHPack> enginePool;
   /**
    * If true, the packing will be used, otherwise unpack.
    */
@@ -49,12 +45,14 @@ public class JsonHPackProcessor
   
   public JsonHPackProcessor(boolean pack) {
     this.pack = pack;
-    enginePool = new ObjectPoolHelper<JsonHPack>(new ObjectFactory<JsonHPack>() {
-      @Override
-      public JsonHPack create() {
-        return newEngine();
-      }
-    });
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected JsonHPack createEngine() {
+    return newEngine();
   }
 
   public static JsonHPackProcessor packProcessor() {
@@ -87,14 +85,14 @@ public class JsonHPackProcessor
 
   
   private String doProcess(final String content) {
-    JsonHPack engine = enginePool.getObject();
+    JsonHPack engine = getEnginePool().getObject();
     try {
       if (pack) {
         return engine.pack(content);
       }
       return engine.unpack(content);      
     } finally {
-      enginePool.returnObject(engine);
+      getEnginePool().returnObject(engine);
     }
   }
 
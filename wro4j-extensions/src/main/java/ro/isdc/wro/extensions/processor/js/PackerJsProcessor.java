@@ -10,19 +10,20 @@ import java.io.Writer;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
-import ro.isdc.wro.extensions.processor.support.ObjectPoolHelper;
+import ro.isdc.wro.extensions.processor.support.AbstractEnginePoolProcessor;
 import ro.isdc.wro.extensions.processor.support.packer.PackerJs;
+import ro.isdc.wro.extensions.script.ScriptEngineType;
 import ro.isdc.wro.model.group.processor.Minimize;
 import ro.isdc.wro.model.resource.Resource;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.SupportedResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
-import ro.isdc.wro.util.ObjectFactory;
 
 
 /**
@@ -34,29 +35,38 @@ import ro.isdc.wro.util.ObjectFactory;
 @Minimize
 @SupportedResourceType(ResourceType.JS)
 public class PackerJsProcessor
+  extends AbstractEnginePoolProcessor<PackerJs>
   implements ResourcePreProcessor, ResourcePostProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(PackerJsProcessor.class);
   public static final String ALIAS = "packerJs";
-  private ObjectPoolHelper<PackerJs> enginePool;
+  private ScriptEngineType scriptEngineType = ScriptEngineType.RHINO;
 
-
-  public PackerJsProcessor() {
-    enginePool = new ObjectPoolHelper<PackerJs>(new ObjectFactory<PackerJs>() {
-      @Override
-      public PackerJs create() {
-        return newPackerJs();
-      }
-    });
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected PackerJs createEngine() {
+    return newPackerJs().setScriptEngineType(scriptEngineType);
   }
 
 
+  /**
+   * @param scriptEngineType
+   *          the javascript engine used by the engines created afterwards. By default, rhino is used.
+   */
+  public PackerJsProcessor setScriptEngineType(final ScriptEngineType scriptEngineType) {
+    Validate.notNull(scriptEngineType);
+    this.scriptEngineType = scriptEngineType;
+    return this;
+  }
+
   /**
    * {@inheritDoc}
    */
   public void process(final Resource resource, final Reader reader, final Writer writer)
     throws IOException {
     final String content = IOUtils.toString(reader);
-    final PackerJs packerJs = enginePool.getObject();
+    final PackerJs packerJs = getEnginePool().getObject();
     try {
       writer.write(packerJs.pack(content));
     } catch (final WroRuntimeException e) {
@@ -67,7 +77,7 @@ public class PackerJsProcessor
     } finally {
       reader.close();
       writer.close();
-      enginePool.returnObject(packerJs);
+      getEnginePool().returnObject(packerJs);
     }
   }
 
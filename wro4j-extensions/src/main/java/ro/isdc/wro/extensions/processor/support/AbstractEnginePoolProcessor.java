@@ -0,0 +1,55 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.extensions.processor.support;
+
+import ro.isdc.wro.model.resource.processor.ManagedProcessor;
+import ro.isdc.wro.util.ObjectFactory;
+
+
+/**
+ * The base class of the processors using a pool of javascript engines, which are not thread-safe. The engines are
+ * prewarmed when the processor is started and the pool is closed when the processor is destroyed.
+ *
+ * @param <T>
+ *          the type of the pooled engines.
+ * @since 1.4.8
+ */
+public abstract class AbstractEnginePoolProcessor<T>
+    implements ManagedProcessor {
+  private final ObjectPoolHelper<T> enginePool;
+
+  public AbstractEnginePoolProcessor() {
+    enginePool = new ObjectPoolHelper<T>(new ObjectFactory<T>() {
+      public T create() {
+        return createEngine();
+      }
+    });
+  }
+
+  /**
+   * @return a new engine, invoked when the pool has no idle engine.
+   */
+  protected abstract T createEngine();
+
+  /**
+   * @return the pool of the engines used by this processor.
+   */
+  protected final ObjectPoolHelper<T> getEnginePool() {
+    return enginePool;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void start() {
+    enginePool.prewarm();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void destroy() {
+    enginePool.destroy();
+  }
+}
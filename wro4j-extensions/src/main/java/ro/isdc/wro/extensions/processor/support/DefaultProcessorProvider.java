@@ -24,6 +24,7 @@ import ro.isdc.wro.extensions.processor.js.JsonHPackProcessor;
 import ro.isdc.wro.extensions.processor.js.PackerJsProcessor;
 import ro.isdc.wro.extensions.processor.js.UglifyJsProcessor;
 import ro.isdc.wro.extensions.processor.js.YUIJsCompressorProcessor;
+import ro.isdc.wro.extensions.script.ScriptEngineType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
 import ro.isdc.wro.model.resource.processor.decorator.LazyProcessorDecorator;
@@ -221,6 +222,57 @@ public class DefaultProcessorProvider
         return new HandlebarsJsProcessor();
       }
     }));
+    addJsr223Processors(map);
     return map;
   }
+
+  /**
+   * Adds the processors evaluating their javascript library with the JSR-223 engine. Their alias is the alias of the
+   * rhino based processor followed by the engine suffix (ex: uglifyJs.jsr223).
+   */
+  private void addJsr223Processors(final Map<String, ResourcePreProcessor> map) {
+    final String suffix = ScriptEngineType.JSR223.getAliasSuffix();
+    map.put(UglifyJsProcessor.ALIAS_UGLIFY + suffix, new LazyProcessorDecorator(new LazyInitializer<ResourcePreProcessor>() {
+      @Override
+      protected ResourcePreProcessor initialize() {
+        return new UglifyJsProcessor().setScriptEngineType(ScriptEngineType.JSR223);
+      }
+    }));
+    map.put(BeautifyJsProcessor.ALIAS_BEAUTIFY + suffix, new LazyProcessorDecorator(new LazyInitializer<ResourcePreProcessor>() {
+      @Override
+      protected ResourcePreProcessor initialize() {
+        return new BeautifyJsProcessor().setScriptEngineType(ScriptEngineType.JSR223);
+      }
+    }));
+    map.put(PackerJsProcessor.ALIAS + suffix, new LazyProcessorDecorator(new LazyInitializer<ResourcePreProcessor>() {
+      @Override
+      protected ResourcePreProcessor initialize() {
+        return new PackerJsProcessor().setScriptEngineType(ScriptEngineType.JSR223);
+      }
+    }));
+    map.put(CoffeeScriptProcessor.ALIAS + suffix, new LazyProcessorDecorator(new LazyInitializer<ResourcePreProcessor>() {
+      @Override
+      protected ResourcePreProcessor initialize() {
+        return new CoffeeScriptProcessor().setScriptEngineType(ScriptEngineType.JSR223);
+      }
+    }));
+    map.put(DustJsProcessor.ALIAS + suffix, new LazyProcessorDecorator(new LazyInitializer<ResourcePreProcessor>() {
+      @Override
+      protected ResourcePreProcessor initialize() {
+        return new DustJsProcessor().setScriptEngineType(ScriptEngineType.JSR223);
+      }
+    }));
+    map.put(HoganJsProcessor.ALIAS + suffix, new LazyProcessorDecorator(new LazyInitializer<ResourcePreProcessor>() {
+      @Override
+      protected ResourcePreProcessor initialize() {
+        return new HoganJsProcessor().setScriptEngineType(ScriptEngineType.JSR223);
+      }
+    }));
+    map.put(HandlebarsJsProcessor.ALIAS + suffix, new LazyProcessorDecorator(new LazyInitializer<ResourcePreProcessor>() {
+      @Override
+      protected ResourcePreProcessor initialize() {
+        return new HandlebarsJsProcessor().setScriptEngineType(ScriptEngineType.JSR223);
+      }
+    }));
+  }
 }
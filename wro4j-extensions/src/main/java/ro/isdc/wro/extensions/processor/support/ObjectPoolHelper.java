@@ -3,32 +3,72 @@
  */
 package ro.isdc.wro.extensions.processor.support;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.servlet.ServletContext;
+
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.pool.BasePoolableObjectFactory;
 import org.apache.commons.pool.impl.GenericObjectPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.util.ObjectFactory;
+import ro.isdc.wro.util.WroUtil;
 
 
 /**
  * A generic aware object pool wrapper. Probably not the best name, but it can be changed later. It helps you to avoid
  * the cast and hides the exception handling by throwing {@link RuntimeException} when borrowing or returning object to
  * the pool fails.
+ * <p/>
+ * The pool is configured using the engine pool options of {@link WroConfiguration} (size, min idle, prewarm count and
+ * the action performed when the pool is exhausted). The usage of the pools is exposed through JMX, by an
+ * {@link ObjectPoolStatisticsMBean} for each application and type of pooled object. The MBean is unregistered when the
+ * last pool using it is destroyed.
  *
  * @author Alex Objelean
  * @created 10 Nov 2011
  * @since 1.4.2
  */
 public class ObjectPoolHelper<T> {
+  private static final Logger LOG = LoggerFactory.getLogger(ObjectPoolHelper.class);
   private static final int MAX_IDLE = 2;
   private static final long MAX_WAIT = 5L * 1000L;
   private static final long EVICTABLE_IDLE_TIME = 30 * 1000L;
+  private static final String MBEAN_PREFIX = "wro4j-";
+  /**
+   * The statistics shared by all the pools holding the same type of objects for the same application, mapped by the
+   * name of their MBean.
+   */
+  private static final Map<ObjectName, SharedStatistics> STATISTICS = new HashMap<ObjectName, SharedStatistics>();
+  private final ObjectFactory<T> objectFactory;
   // Allows using the objects from the pool in a thread-safe fashion.
-  private GenericObjectPool<T> objectPool;
+  private volatile GenericObjectPool<T> objectPool;
+  /**
+   * Resolved when the first object is created, because the type of the pooled objects is known only then.
+   */
+  private volatile ObjectPoolStatistics statistics;
+  /**
+   * The name of the MBean of the statistics used by this pool.
+   */
+  private ObjectName statisticsName;
 
 
   public ObjectPoolHelper(final ObjectFactory<T> objectFactory) {
     Validate.notNull(objectFactory);
+    this.objectFactory = objectFactory;
     objectPool = newObjectPool(objectFactory);
     Validate.notNull(objectPool);
   }
@@ -37,34 +77,168 @@ public class ObjectPoolHelper<T> {
    * Creates a {@link GenericObjectPool}. Override this method to set custom objectPool configurations.
    */
   protected GenericObjectPool<T> newObjectPool(final ObjectFactory<T> objectFactory) {
-    final int maxActive = Math.max(2, Runtime.getRuntime().availableProcessors());
+    final WroConfiguration config = getConfig();
+    final int maxActive = config.getEnginePoolSize() > 0 ? config.getEnginePoolSize() : Math.max(2,
+        Runtime.getRuntime().availableProcessors());
     final GenericObjectPool<T> objectPool = new GenericObjectPool<T>(new BasePoolableObjectFactory<T>() {
       @Override
       public T makeObject()
         throws Exception {
-        return objectFactory.create();
+        final T object = objectFactory.create();
+        resolveStatistics(object).recordCreation();
+        return object;
+      }
+
+      @Override
+      public void destroyObject(final T object)
+        throws Exception {
+        resolveStatistics(object).recordEviction();
       }
     });
     objectPool.setMaxActive(maxActive);
-    objectPool.setMaxIdle(MAX_IDLE);
+    // the prewarmed objects must not be destroyed when returned to the pool
+    objectPool.setMaxIdle(Math.max(MAX_IDLE, Math.max(config.getEnginePoolMinIdle(), config.getEnginePoolPrewarm())));
+    objectPool.setMinIdle(config.getEnginePoolMinIdle());
     objectPool.setMaxWait(MAX_WAIT);
     /**
-     * Use WHEN_EXHAUSTED_GROW strategy, otherwise the pool object retrieval can fail. More details here:
+     * Use WHEN_EXHAUSTED_GROW strategy by default, otherwise the pool object retrieval can fail. More details here:
      * <a>http://code.google.com/p/wro4j/issues/detail?id=364</a>
      */
-    objectPool.setWhenExhaustedAction(GenericObjectPool.WHEN_EXHAUSTED_GROW);
+    objectPool.setWhenExhaustedAction(getWhenExhaustedAction(config.getEnginePoolExhaustedAction()));
     // make object elligible for eviction after a predefined amount of time.
     objectPool.setSoftMinEvictableIdleTimeMillis(EVICTABLE_IDLE_TIME);
     objectPool.setTimeBetweenEvictionRunsMillis(EVICTABLE_IDLE_TIME);
     return objectPool;
   }
 
+  /**
+   * @return the {@link GenericObjectPool} constant corresponding to the configured action (GROW, BLOCK or FAIL).
+   */
+  private byte getWhenExhaustedAction(final String action) {
+    if ("GROW".equalsIgnoreCase(action)) {
+      return GenericObjectPool.WHEN_EXHAUSTED_GROW;
+    } else if ("BLOCK".equalsIgnoreCase(action)) {
+      return GenericObjectPool.WHEN_EXHAUSTED_BLOCK;
+    } else if ("FAIL".equalsIgnoreCase(action)) {
+      return GenericObjectPool.WHEN_EXHAUSTED_FAIL;
+    }
+    throw new WroRuntimeException("Invalid engine pool exhausted action: " + action
+        + ". Supported values are: GROW, BLOCK, FAIL");
+  }
+
+  private WroConfiguration getConfig() {
+    return Context.isContextSet() ? Context.get().getConfig() : new WroConfiguration();
+  }
+
+  /**
+   * Creates the number of objects configured by {@link WroConfiguration#getEnginePoolPrewarm()}, so that they are not
+   * created while serving requests. The objects implementing {@link Prewarmable} also evaluate their javascript
+   * library. Usually invoked when the manager using the pool is started.
+   *
+   * @since 1.4.8
+   */
+  public void prewarm() {
+    final int count = Math.min(getConfig().getEnginePoolPrewarm(), objectPool.getMaxActive());
+    if (count > 0) {
+      LOG.debug("Prewarming pool with {} objects", count);
+      // borrow all the objects at once, otherwise the same object would be prewarmed each time
+      final List<T> objects = new ArrayList<T>(count);
+      try {
+        for (int i = 0; i < count; i++) {
+          final T object = objectPool.borrowObject();
+          objects.add(object);
+          if (object instanceof Prewarmable) {
+            ((Prewarmable) object).prewarm();
+          }
+        }
+      } catch (final Exception e) {
+        throw new WroRuntimeException("Cannot prewarm the pool", e);
+      } finally {
+        for (final T object : objects) {
+          returnObject(object);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the statistics of the pools holding the same type of objects as this pool.
+   */
+  private ObjectPoolStatistics resolveStatistics(final Object object) {
+    if (statistics == null) {
+      synchronized (STATISTICS) {
+        if (statistics == null) {
+          final String type = object == null ? "unknown" : StringUtils.defaultIfEmpty(
+              object.getClass().getSimpleName(), object.getClass().getName());
+          statisticsName = newStatisticsName(type);
+          SharedStatistics shared = STATISTICS.get(statisticsName);
+          if (shared == null) {
+            shared = new SharedStatistics();
+            STATISTICS.put(statisticsName, shared);
+            registerStatistics(statisticsName, shared.statistics);
+          }
+          shared.pools++;
+          statistics = shared.statistics;
+        }
+      }
+    }
+    return statistics;
+  }
+
+  /**
+   * @return the name of the MBean exposing the statistics of a type of pooled objects. The domain is the one used by
+   *         the MBeans of the application: the configured mbeanName or a name derived from the context path.
+   */
+  private ObjectName newStatisticsName(final String type) {
+    String domain = getConfig().getMbeanName();
+    if (StringUtils.isEmpty(domain)) {
+      final ServletContext servletContext = Context.isContextSet() ? Context.get().getServletContext() : null;
+      final String contextPath = servletContext == null ? null : WroUtil.getContextPath(servletContext);
+      domain = MBEAN_PREFIX + (StringUtils.isEmpty(contextPath) ? "ROOT" : contextPath);
+    }
+    try {
+      return new ObjectName(domain + ":type=" + ObjectPoolStatistics.class.getSimpleName() + ",name=" + type);
+    } catch (final JMException e) {
+      throw new WroRuntimeException("Invalid object pool statistics MBean name", e);
+    }
+  }
+
+  /**
+   * Expose the statistics of a type of pooled objects through JMX.
+   */
+  private void registerStatistics(final ObjectName name, final ObjectPoolStatistics statistics) {
+    if (getConfig().isJmxEnabled()) {
+      try {
+        final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        if (mbeanServer.isRegistered(name)) {
+          // left by an application which was not destroyed properly
+          mbeanServer.unregisterMBean(name);
+        }
+        mbeanServer.registerMBean(statistics, name);
+      } catch (final JMException e) {
+        LOG.error("Exception occured while registering object pool statistics MBean", e);
+      }
+    }
+  }
+
+  /**
+   * @return the statistics of the pools holding the same type of objects as this pool, or null if no object was created
+   *         yet.
+   */
+  public ObjectPoolStatistics getStatistics() {
+    return statistics;
+  }
 
   public T getObject() {
     try {
-      return objectPool.borrowObject();
+      final long start = System.currentTimeMillis();
+      final T object = objectPool.borrowObject();
+      if (statistics != null) {
+        statistics.recordBorrow(System.currentTimeMillis() - start);
+      }
+      return object;
     } catch (final Exception e) {
-      // should never happen
+      // happens only when the pool is exhausted and configured to FAIL (or to BLOCK, but no object was returned in time)
       throw new RuntimeException("Cannot get object from the pool", e);
     }
   }
@@ -79,12 +253,48 @@ public class ObjectPoolHelper<T> {
       throw new RuntimeException("Cannot get object from the pool", e);
     }
   }
-  
 
-  
+  /**
+   * Closes the pool, releasing its objects. The statistics MBean is unregistered when no other pool is using it. The
+   * objects requested afterwards are provided by a new pool (ex: when the manager using the pool is created again).
+   *
+   * @since 1.4.8
+   */
+  public void destroy() {
+    try {
+      objectPool.close();
+    } catch (final Exception e) {
+      LOG.debug("Cannot close the pool", e);
+    }
+    objectPool = newObjectPool(objectFactory);
+    synchronized (STATISTICS) {
+      if (statisticsName != null) {
+        final SharedStatistics shared = STATISTICS.get(statisticsName);
+        if (shared != null && --shared.pools == 0) {
+          STATISTICS.remove(statisticsName);
+          unregisterStatistics(statisticsName);
+        }
+        statisticsName = null;
+        statistics = null;
+      }
+    }
+  }
+
+  private void unregisterStatistics(final ObjectName name) {
+    try {
+      final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+      if (mbeanServer.isRegistered(name)) {
+        mbeanServer.unregisterMBean(name);
+      }
+    } catch (final JMException e) {
+      LOG.error("Exception occured while unregistering object pool statistics MBean", e);
+    }
+  }
+
+
   /**
    * Use a custom {@link GenericObjectPool}.
-   * 
+   *
    * @param objectPool
    *          to use.
    */
@@ -92,4 +302,12 @@ public class ObjectPoolHelper<T> {
     Validate.notNull(objectPool);
     this.objectPool = objectPool;
   }
+
+  /**
+   * The statistics of a type of pooled objects and the number of pools using them.
+   */
+  private static final class SharedStatistics {
+    private final ObjectPoolStatistics statistics = new ObjectPoolStatistics();
+    private int pools;
+  }
 }
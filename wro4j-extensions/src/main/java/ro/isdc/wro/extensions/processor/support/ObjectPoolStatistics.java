@@ -0,0 +1,94 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.extensions.processor.support;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+
+/**
+ * Thread-safe counters describing the usage of the pools holding a type of engine.
+ *
+ * @since 1.4.8
+ */
+public class ObjectPoolStatistics
+    implements ObjectPoolStatisticsMBean {
+  private final AtomicLong borrowCount = new AtomicLong();
+  private final AtomicLong totalBorrowWaitTime = new AtomicLong();
+  private final AtomicLong createCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  /**
+   * @param waitTime
+   *          the time (in milliseconds) spent waiting for an engine.
+   */
+  public void recordBorrow(final long waitTime) {
+    borrowCount.incrementAndGet();
+    totalBorrowWaitTime.addAndGet(waitTime);
+  }
+
+  public void recordCreation() {
+    createCount.incrementAndGet();
+  }
+
+  public void recordEviction() {
+    evictionCount.incrementAndGet();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getBorrowCount() {
+    return borrowCount.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getTotalBorrowWaitTime() {
+    return totalBorrowWaitTime.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public double getAverageBorrowWaitTime() {
+    final long borrows = getBorrowCount();
+    return borrows == 0 ? 0 : (double) getTotalBorrowWaitTime() / borrows;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getCreateCount() {
+    return createCount.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void reset() {
+    borrowCount.set(0);
+    totalBorrowWaitTime.set(0);
+    createCount.set(0);
+    evictionCount.set(0);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+  }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.extensions.processor.support;
+
+/**
+ * This interface defines the MBean exposing the usage of the pools holding a type of engine (ex: the less engines used
+ * by the less processor).
+ *
+ * @since 1.4.8
+ */
+public interface ObjectPoolStatisticsMBean {
+  /**
+   * @return the number of engines obtained from the pools.
+   */
+  long getBorrowCount();
+
+  /**
+   * @return the time (in milliseconds) spent waiting for an engine, including the time spent to create it.
+   */
+  long getTotalBorrowWaitTime();
+
+  /**
+   * @return the average time (in milliseconds) spent waiting for an engine, or 0 if no engine was obtained.
+   */
+  double getAverageBorrowWaitTime();
+
+  /**
+   * @return the number of engines created.
+   */
+  long getCreateCount();
+
+  /**
+   * @return the number of engines removed from the pools, because they were idle for too long or because there were
+   *         too many idle engines.
+   */
+  long getEvictionCount();
+
+  /**
+   * Resets all counters.
+   */
+  void reset();
+}
@@ -0,0 +1,19 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.extensions.processor.support;
+
+/**
+ * Implemented by the engines which can evaluate their javascript library before they are first used. Invoked by
+ * {@link ObjectPoolHelper#prewarm()} on each prewarmed engine.
+ *
+ * @since 1.4.8
+ */
+public interface Prewarmable {
+  /**
+   * Evaluates the javascript library used by the engine. Does nothing if the library was already evaluated. The
+   * resources the javascript engine associates with the current thread (ex: the rhino context) are released
+   * afterwards, since the prewarm is not performed by the thread using the engine.
+   */
+  void prewarm();
+}
@@ -11,6 +11,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.extensions.processor.support.Prewarmable;
 import ro.isdc.wro.extensions.script.RhinoScriptBuilder;
 import ro.isdc.wro.extensions.script.RhinoUtils;
 import ro.isdc.wro.util.StopWatch;
@@ -23,7 +24,8 @@ import ro.isdc.wro.util.WroUtil;
  * @author Alex Objelean
  * @since 1.3.8
  */
-public class CJson {
+public class CJson
+    implements Prewarmable {
   private static final Logger LOG = LoggerFactory.getLogger(CJson.class);
   private ScriptableObject scope;
 
@@ -48,6 +50,13 @@ public class CJson {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public void prewarm() {
+    initScriptBuilder().release();
+  }
+
 
   /**
    * @return stream of the less.js script.
@@ -6,15 +6,17 @@ package ro.isdc.wro.extensions.processor.support.coffeescript;
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.apache.commons.lang3.Validate;
 import org.mozilla.javascript.RhinoException;
-import org.mozilla.javascript.ScriptableObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.extensions.processor.support.Prewarmable;
 import ro.isdc.wro.extensions.processor.support.linter.LinterException;
-import ro.isdc.wro.extensions.script.RhinoScriptBuilder;
 import ro.isdc.wro.extensions.script.RhinoUtils;
+import ro.isdc.wro.extensions.script.ScriptBuilder;
+import ro.isdc.wro.extensions.script.ScriptEngineType;
 import ro.isdc.wro.util.StopWatch;
 import ro.isdc.wro.util.WroUtil;
 
@@ -30,22 +32,27 @@ import ro.isdc.wro.util.WroUtil;
  * @author Alex Objelean
  * @since 1.3.6
  */
-public class CoffeeScript {
+public class CoffeeScript
+    implements Prewarmable {
   private static final Logger LOG = LoggerFactory.getLogger(CoffeeScript.class);
   private String[] options;
-  private ScriptableObject scope;
+  private ScriptEngineType scriptEngineType = ScriptEngineType.RHINO;
+  /**
+   * The chain holding the evaluated coffee script, created when first used.
+   */
+  private ScriptBuilder libraryChain;
   private static final String DEFAULT_COFFE_SCRIPT = "coffee-script.min.js";
   /**
    * Initialize script builder for evaluation.
    */
-  private RhinoScriptBuilder initScriptBuilder() {
+  private ScriptBuilder initScriptBuilder() {
     try {
-      RhinoScriptBuilder builder = null;
-      if (scope == null) {
-        builder = RhinoScriptBuilder.newChain().evaluateChain(getCoffeeScriptAsStream(), DEFAULT_COFFE_SCRIPT);
-        scope = builder.getScope();
+      ScriptBuilder builder = null;
+      if (libraryChain == null) {
+        builder = scriptEngineType.newChain().evaluateChain(getCoffeeScriptAsStream(), DEFAULT_COFFE_SCRIPT);
+        libraryChain = builder;
       } else {
-        builder = RhinoScriptBuilder.newChain(scope);
+        builder = libraryChain.newChildChain();
       }
       return builder;
     } catch (final IOException ex) {
@@ -53,6 +60,13 @@ public class CoffeeScript {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public void prewarm() {
+    initScriptBuilder().release();
+  }
+
 
   /**
    * Override this method to use a different version of CoffeeScript. This method is useful for upgrading coffeeScript
@@ -75,7 +89,7 @@ public class CoffeeScript {
     final StopWatch watch = new StopWatch();
     watch.start("init");
     try {
-      final RhinoScriptBuilder builder = initScriptBuilder();
+      final ScriptBuilder builder = initScriptBuilder();
       watch.stop();
       watch.start("compile");
       final String compileScript = String.format("CoffeeScript.compile(%s, %s);", WroUtil.toJSMultiLineString(data),
@@ -117,4 +131,14 @@ public class CoffeeScript {
     this.options = options == null ? new String[] {} : options;
     return this;
   }
+
+  /**
+   * @param scriptEngineType
+   *          the javascript engine used to evaluate the coffee script. By default, rhino is used.
+   */
+  public CoffeeScript setScriptEngineType(final ScriptEngineType scriptEngineType) {
+    Validate.notNull(scriptEngineType);
+    this.scriptEngineType = scriptEngineType;
+    return this;
+  }
 }
@@ -16,6 +16,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.extensions.processor.support.Prewarmable;
 import ro.isdc.wro.extensions.processor.support.linter.OptionsBuilder;
 import ro.isdc.wro.extensions.script.RhinoScriptBuilder;
 import ro.isdc.wro.extensions.script.RhinoUtils;
@@ -34,7 +35,8 @@ import com.google.gson.reflect.TypeToken;
  * @since 1.3.8
  * @created 19 Jun 2011
  */
-public class CssLint {
+public class CssLint
+    implements Prewarmable {
   private static final Logger LOG = LoggerFactory.getLogger(CssLint.class);
   /**
    * The name of the csslint script to be used by default.
@@ -65,6 +67,13 @@ public class CssLint {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public void prewarm() {
+    initScriptBuilder().release();
+  }
+
 
   /**
    * @return the stream of the csslint script. Override this method to provide a different script version.
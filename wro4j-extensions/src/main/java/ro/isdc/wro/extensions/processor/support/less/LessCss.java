@@ -12,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.extensions.processor.support.Prewarmable;
 import ro.isdc.wro.extensions.script.RhinoScriptBuilder;
 import ro.isdc.wro.extensions.script.RhinoUtils;
 import ro.isdc.wro.util.StopWatch;
@@ -26,7 +27,8 @@ import ro.isdc.wro.util.WroUtil;
  * @author Alex Objelean
  * @since 1.3.0
  */
-public class LessCss {
+public class LessCss
+    implements Prewarmable {
   private static final Logger LOG = LoggerFactory.getLogger(LessCss.class);
   /**
    * The name of the sass script to be used by default.
@@ -60,6 +62,13 @@ public class LessCss {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public void prewarm() {
+    initScriptBuilder().release();
+  }
+
   /**
    * @return the stream of the script responsible for invoking the less transformation javascript code.
    */
@@ -11,10 +11,12 @@ import java.util.List;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.ScriptableObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.extensions.processor.support.Prewarmable;
 import ro.isdc.wro.extensions.processor.support.csslint.CssLint;
 import ro.isdc.wro.extensions.script.RhinoScriptBuilder;
 import ro.isdc.wro.extensions.script.RhinoUtils;
@@ -32,30 +34,45 @@ import com.google.gson.reflect.TypeToken;
  * @created 19 Sept 2011
  * @since 1.4.2
  */
-public abstract class AbstractLinter {
+public abstract class AbstractLinter
+    implements Prewarmable {
   private static final Logger LOG = LoggerFactory.getLogger(AbstractLinter.class);
   private OptionsBuilder optionsBuilder = new OptionsBuilder();
   /**
    * Options to apply to js hint processing
    */
   private String[] options;
+  /**
+   * The scope holding the evaluated linter script, reused by the next validations.
+   */
+  private ScriptableObject scope;
 
   /**
-   * Initialize script builder for evaluation.
+   * Initialize script builder for evaluation. The linter script is evaluated only once, the next validations using a
+   * child of its scope.
    */
   private RhinoScriptBuilder initScriptBuilder() {
     try {
       RhinoScriptBuilder builder = null;
-      // reusing the scope doesn't work here. Get the following error: TypeError: Cannot find function create in object
-      // function Object() { [native code for Object.Object, arity=1] }
-      // TODO investigate why
-      builder = RhinoScriptBuilder.newChain().evaluateChain(getScriptAsStream(), "linter.js");
+      if (scope == null) {
+        builder = RhinoScriptBuilder.newChain().evaluateChain(getScriptAsStream(), "linter.js");
+        scope = builder.getScope();
+      } else {
+        builder = RhinoScriptBuilder.newChain(scope);
+      }
       return builder;
     } catch (final IOException e) {
       throw new WroRuntimeException("Failed reading init script", e);
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public void prewarm() {
+    initScriptBuilder().release();
+  }
+
   /**
    * @return the stream of the linter script. Override this method to provide a different script version.
    */
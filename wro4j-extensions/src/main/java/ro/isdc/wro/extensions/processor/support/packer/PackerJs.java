@@ -6,13 +6,15 @@ package ro.isdc.wro.extensions.processor.support.packer;
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.apache.commons.lang3.Validate;
 import org.mozilla.javascript.RhinoException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
-import ro.isdc.wro.extensions.script.RhinoScriptBuilder;
 import ro.isdc.wro.extensions.script.RhinoUtils;
+import ro.isdc.wro.extensions.script.ScriptBuilder;
+import ro.isdc.wro.extensions.script.ScriptEngineType;
 import ro.isdc.wro.util.StopWatch;
 import ro.isdc.wro.util.WroUtil;
 
@@ -25,13 +27,24 @@ import ro.isdc.wro.util.WroUtil;
  */
 public class PackerJs {
   private static final Logger LOG = LoggerFactory.getLogger(PackerJs.class);
+  private ScriptEngineType scriptEngineType = ScriptEngineType.RHINO;
+
+  /**
+   * @param scriptEngineType
+   *          the javascript engine used to evaluate the packer script. By default, rhino is used.
+   */
+  public PackerJs setScriptEngineType(final ScriptEngineType scriptEngineType) {
+    Validate.notNull(scriptEngineType);
+    this.scriptEngineType = scriptEngineType;
+    return this;
+  }
 
   /**
    * Initialize script builder for evaluation.
    */
-  private RhinoScriptBuilder initScriptBuilder() {
+  private ScriptBuilder initScriptBuilder() {
     try {
-      return RhinoScriptBuilder.newChain().evaluateChain(getStreamForBase2(), "base2.min.js").evaluateChain(
+      return scriptEngineType.newChain().evaluateChain(getStreamForBase2(), "base2.min.js").evaluateChain(
         getStreamForPacker(), "packer.min.js");
     } catch (final IOException ex) {
       throw new IllegalStateException("Failed reading init script", ex);
@@ -65,7 +78,7 @@ public class PackerJs {
     try {
       final StopWatch watch = new StopWatch();
       watch.start("init");
-      final RhinoScriptBuilder builder = initScriptBuilder();
+      final ScriptBuilder builder = initScriptBuilder();
       watch.stop();
       watch.start("pack");
 
@@ -12,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.extensions.processor.support.Prewarmable;
 import ro.isdc.wro.extensions.script.RhinoScriptBuilder;
 import ro.isdc.wro.extensions.script.RhinoUtils;
 import ro.isdc.wro.util.StopWatch;
@@ -24,7 +25,8 @@ import ro.isdc.wro.util.WroUtil;
  *
  * @author Alex Objelean
  */
-public class SassCss {
+public class SassCss
+    implements Prewarmable {
   private static final Logger LOG = LoggerFactory.getLogger(SassCss.class);
   /**
    * The name of the sass script to be used by default.
@@ -52,6 +54,13 @@ public class SassCss {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public void prewarm() {
+    initScriptBuilder().release();
+  }
+
   /**
    * @return the stream of the uglify script. Override this method to provide a different script version.
    */
@@ -4,9 +4,11 @@ import java.io.IOException;
 import java.io.InputStream;
 
 import org.apache.commons.lang3.StringUtils;
-import org.mozilla.javascript.ScriptableObject;
+import org.apache.commons.lang3.Validate;
 
-import ro.isdc.wro.extensions.script.RhinoScriptBuilder;
+import ro.isdc.wro.extensions.processor.support.Prewarmable;
+import ro.isdc.wro.extensions.script.ScriptBuilder;
+import ro.isdc.wro.extensions.script.ScriptEngineType;
 import ro.isdc.wro.util.WroUtil;
 
 
@@ -17,8 +19,13 @@ import ro.isdc.wro.util.WroUtil;
  * @since 1.4.7
  * @created 11 May 2012
  */
-public abstract class AbstractJsTemplateCompiler {
-  private ScriptableObject scope;
+public abstract class AbstractJsTemplateCompiler
+    implements Prewarmable {
+  private ScriptEngineType scriptEngineType = ScriptEngineType.RHINO;
+  /**
+   * The chain holding the evaluated compiler script, created when first used.
+   */
+  private ScriptBuilder libraryChain;
   
   /**
    * Compiles the javascript template into plain javascript.
@@ -30,7 +37,7 @@ public abstract class AbstractJsTemplateCompiler {
    * @return the compiled javascript.
    */
   public String compile(final String content, final String optionalArgument) {
-    final RhinoScriptBuilder builder = initScriptBuilder();
+    final ScriptBuilder builder = initScriptBuilder();
     final String argStr = createArgStr(optionalArgument) + createArgStr(getArguments());
     final String compileScript =
       String.format("%s(%s%s);", getCompileCommand(), WroUtil.toJSMultiLineString(content), argStr);
@@ -49,6 +56,16 @@ public abstract class AbstractJsTemplateCompiler {
     return null;
   }
 
+  /**
+   * @param scriptEngineType
+   *          the javascript engine used to evaluate the compiler script. By default, rhino is used.
+   */
+  public AbstractJsTemplateCompiler setScriptEngineType(final ScriptEngineType scriptEngineType) {
+    Validate.notNull(scriptEngineType);
+    this.scriptEngineType = scriptEngineType;
+    return this;
+  }
+
   private String createArgStr(String argument) {
     return StringUtils.isNotBlank(argument) ? ", " + argument : "";
   }
@@ -58,18 +75,25 @@ public abstract class AbstractJsTemplateCompiler {
    */
   protected abstract InputStream getCompilerAsStream();
 
-  private RhinoScriptBuilder initScriptBuilder() {
+  private ScriptBuilder initScriptBuilder() {
     try {
-      RhinoScriptBuilder builder;
-      if (scope == null) {
-        builder = RhinoScriptBuilder.newChain().evaluateChain(getCompilerAsStream(), "templateCompiler.js");
-        scope = builder.getScope();
+      ScriptBuilder builder;
+      if (libraryChain == null) {
+        builder = scriptEngineType.newChain().evaluateChain(getCompilerAsStream(), "templateCompiler.js");
+        libraryChain = builder;
       } else {
-        builder = RhinoScriptBuilder.newChain(scope);
+        builder = libraryChain.newChildChain();
       }
       return builder;
     } catch (final IOException ex) {
       throw new IllegalStateException("Failed reading init script", ex);
     }
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void prewarm() {
+    initScriptBuilder().release();
+  }
 }
@@ -11,13 +11,14 @@ import java.io.InputStream;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.Validate;
 import org.mozilla.javascript.RhinoException;
-import org.mozilla.javascript.ScriptableObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
-import ro.isdc.wro.extensions.script.RhinoScriptBuilder;
+import ro.isdc.wro.extensions.processor.support.Prewarmable;
 import ro.isdc.wro.extensions.script.RhinoUtils;
+import ro.isdc.wro.extensions.script.ScriptBuilder;
+import ro.isdc.wro.extensions.script.ScriptEngineType;
 import ro.isdc.wro.util.StopWatch;
 import ro.isdc.wro.util.WroUtil;
 
@@ -32,7 +33,8 @@ import ro.isdc.wro.util.WroUtil;
  * @author Alex Objelean
  * @since 1.3.1
  */
-public class UglifyJs {
+public class UglifyJs
+    implements Prewarmable {
   private static final Logger LOG = LoggerFactory.getLogger(UglifyJs.class);
   /**
    * The name of the uglify script to be used by default.
@@ -48,7 +50,11 @@ public class UglifyJs {
    * Comma delimited variable names to have uglify not mangle
    */
   private String reservedNames;
-  private ScriptableObject scope;
+  private ScriptEngineType scriptEngineType = ScriptEngineType.RHINO;
+  /**
+   * The chain holding the evaluated uglify script, created when first used.
+   */
+  private ScriptBuilder libraryChain;
   
   /**
    * The type of processing supported by UglifyJs library. This enum replaces ugly boolean constructor parameter.
@@ -104,6 +110,16 @@ public class UglifyJs {
     return this;
   }
   
+  /**
+   * @param scriptEngineType
+   *          the javascript engine used to evaluate the uglify script. By default, rhino is used.
+   */
+  public UglifyJs setScriptEngineType(final ScriptEngineType scriptEngineType) {
+    Validate.notNull(scriptEngineType);
+    this.scriptEngineType = scriptEngineType;
+    return this;
+  }
+
   /**
    * @return not null value representing reservedNames.
    */
@@ -114,22 +130,29 @@ public class UglifyJs {
   /**
    * Initialize script builder for evaluation.
    */
-  private RhinoScriptBuilder initScriptBuilder() {
+  private ScriptBuilder initScriptBuilder() {
     // TODO: Find a way to encapsulate this code
-    RhinoScriptBuilder builder = null;
+    ScriptBuilder builder = null;
     try {
-      if (scope == null) {
-        builder = RhinoScriptBuilder.newChain().addJSON().evaluateChain(UglifyJs.class.getResourceAsStream("init.js"),
+      if (libraryChain == null) {
+        builder = scriptEngineType.newChain().addJSON().evaluateChain(UglifyJs.class.getResourceAsStream("init.js"),
             "initScript").evaluateChain(getScriptAsStream(), DEFAULT_UGLIFY_JS);
-        scope = builder.getScope();
+        libraryChain = builder;
       } else {
-        builder = RhinoScriptBuilder.newChain(scope);
+        builder = libraryChain.newChildChain();
       }
       return builder;
     } catch (final Exception ex) {
       throw new IllegalStateException("Failed initializing js", ex);
     }
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void prewarm() {
+    initScriptBuilder().release();
+  }
   
   /**
    * @return the stream of the uglify script. Override this method to provide a different script version.
@@ -148,7 +171,7 @@ public class UglifyJs {
     try {
       final StopWatch watch = new StopWatch();
       watch.start("init " + filename);
-      final RhinoScriptBuilder builder = initScriptBuilder();
+      final ScriptBuilder builder = initScriptBuilder();
       watch.stop();
       final String originalCode = WroUtil.toJSMultiLineString(code);
       // TODO handle reservedNames
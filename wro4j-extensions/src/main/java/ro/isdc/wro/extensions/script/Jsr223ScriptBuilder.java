@@ -0,0 +1,137 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.extensions.script;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ro.isdc.wro.WroRuntimeException;
+
+
+/**
+ * A {@link ScriptBuilder} evaluating javascript with the engine provided by the JVM through the JSR-223 api (ex:
+ * Nashorn on java 8). Each chain has its own {@link ScriptEngine}. A child chain shares the engine of its parent, but
+ * evaluates the scripts in its own {@link ScriptContext}: the variables it defines are kept in its own engine scope,
+ * while the variables defined by the parent are looked up in the global scope, which holds the engine scope of the
+ * parent. This way, the scripts evaluated by a child chain are not visible to its parent.
+ *
+ * @since 1.4.8
+ */
+public class Jsr223ScriptBuilder
+    implements ScriptBuilder {
+  private static final Logger LOG = LoggerFactory.getLogger(Jsr223ScriptBuilder.class);
+  private static final String ENGINE_NAME = "javascript";
+  private static final String SCRIPT_COMMONS = "commons.js";
+  private static final String SCRIPT_JSON = "json2.min.js";
+  private final ScriptEngine engine;
+  private final ScriptContext context;
+
+  private Jsr223ScriptBuilder(final ScriptEngine engine, final ScriptContext context) {
+    Validate.notNull(engine);
+    Validate.notNull(context);
+    this.engine = engine;
+    this.context = context;
+  }
+
+  /**
+   * @return a new chain having the commons script evaluated.
+   */
+  public static Jsr223ScriptBuilder newChain() {
+    final ScriptEngine engine = new ScriptEngineManager().getEngineByName(ENGINE_NAME);
+    if (engine == null) {
+      throw new WroRuntimeException("No javascript engine is available through JSR-223");
+    }
+    LOG.debug("Using javascript engine: {}", engine.getFactory().getEngineName());
+    try {
+      return new Jsr223ScriptBuilder(engine, engine.getContext()).evaluateChain(getScript(SCRIPT_COMMONS),
+          SCRIPT_COMMONS);
+    } catch (final IOException e) {
+      throw new RuntimeException("Problem while evaluationg commons script.", e);
+    }
+  }
+
+  /**
+   * The scripts shared with {@link RhinoScriptBuilder}.
+   */
+  private static InputStream getScript(final String name) {
+    return RhinoScriptBuilder.class.getResourceAsStream(name);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public Jsr223ScriptBuilder evaluateChain(final InputStream stream, final String sourceName)
+    throws IOException {
+    Validate.notNull(stream);
+    try {
+      return evaluateChain(IOUtils.toString(new InputStreamReader(stream)), sourceName);
+    } finally {
+      stream.close();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public Jsr223ScriptBuilder evaluateChain(final String script, final String sourceName) {
+    evaluate(script, sourceName);
+    return this;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public Jsr223ScriptBuilder addJSON() {
+    try {
+      return evaluateChain(getScript(SCRIPT_JSON), SCRIPT_JSON);
+    } catch (final IOException e) {
+      throw new RuntimeException("Couldn't initialize json2.min.js script", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public Object evaluate(final String script, final String sourceName) {
+    Validate.notNull(script);
+    context.setAttribute(ScriptEngine.FILENAME, sourceName, ScriptContext.ENGINE_SCOPE);
+    try {
+      return engine.eval(script, context);
+    } catch (final ScriptException e) {
+      throw new WroRuntimeException("Could not evaluate " + sourceName + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public Jsr223ScriptBuilder newChildChain() {
+    final ScriptContext childContext = new SimpleScriptContext();
+    childContext.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
+    childContext.setBindings(context.getBindings(ScriptContext.ENGINE_SCOPE), ScriptContext.GLOBAL_SCOPE);
+    childContext.setReader(context.getReader());
+    childContext.setWriter(context.getWriter());
+    childContext.setErrorWriter(context.getErrorWriter());
+    return new Jsr223ScriptBuilder(engine, childContext);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void release() {
+    // the scripts are evaluated using the script context of the chain, nothing is associated with the current thread
+  }
+}
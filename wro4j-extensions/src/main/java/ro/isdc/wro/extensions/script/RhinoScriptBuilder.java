@@ -3,40 +3,65 @@
  */
 package ro.isdc.wro.extensions.script;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
 import org.apache.commons.lang3.Validate;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.JavaScriptException;
 import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.Script;
 import org.mozilla.javascript.ScriptableObject;
 import org.mozilla.javascript.tools.ToolErrorReporter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import ro.isdc.wro.config.jmx.WroConfiguration;
+import ro.isdc.wro.model.resource.support.hash.HashStrategy;
+import ro.isdc.wro.model.resource.support.hash.SHA1HashStrategy;
+
 
 /**
  * Used to evaluate javascript on the serverside using rhino javascript engine. Encapsulate and hides all implementation
  * details used by rhino to evaluate javascript on the serverside.
+ * <p/>
+ * The scripts evaluated from a stream (usually the libraries) are compiled only once and the compiled script is reused
+ * by all the chains evaluating the same script. A chain created from the scope of a previous chain uses a child of that
+ * scope, instead of initializing it again.
+ * <p/>
+ * The optimization level used to compile the scripts is configured by
+ * {@link WroConfiguration#getScriptOptimizationLevel()}.
  *
  * @author Alex Objelean
  */
-public class RhinoScriptBuilder {
+public class RhinoScriptBuilder
+    implements ScriptBuilder {
   private static final Logger LOG = LoggerFactory.getLogger(RhinoScriptBuilder.class);
+  private static final String SCRIPT_COMMONS = "commons.js";
+  private static final HashStrategy HASH_STRATEGY = new SHA1HashStrategy();
+  /**
+   * The scripts compiled so far, mapped by optimization level, source name and hash of the content. A compiled script
+   * doesn't hold any state and can be executed concurrently in different scopes.
+   */
+  private static final ConcurrentMap<String, Script> COMPILED_SCRIPTS = new ConcurrentHashMap<String, Script>();
   private final ScriptableObject scope;
 
 
   private RhinoScriptBuilder() {
-    this(null);
+    this.scope = createScope();
   }
 
 
-  private RhinoScriptBuilder(final ScriptableObject scope) {
-    this.scope = createContext(scope);
+  private RhinoScriptBuilder(final ScriptableObject parentScope) {
+    Validate.notNull(parentScope);
+    this.scope = createChildScope(parentScope);
   }
 
 
@@ -44,7 +69,7 @@ public class RhinoScriptBuilder {
     initContext();
     return Context.getCurrentContext();
   }
-  
+
   /**
    * @return the context
    */
@@ -54,27 +79,88 @@ public class RhinoScriptBuilder {
 
 
   /**
-   * Initialize the context.
+   * Creates a new scope containing the standard objects and the functions defined by the commons script. The standard
+   * objects are not shared between scopes, because some libraries are extending their prototypes.
    */
-  private ScriptableObject createContext(final ScriptableObject initialScope) {
-    Context context = getContext();
-    context.setOptimizationLevel(-1);
-    // TODO redirect errors from System.err to LOG.error()
-    context.setErrorReporter(new ToolErrorReporter(false));
-    context.setLanguageVersion(Context.VERSION_1_8);
+  private ScriptableObject createScope() {
+    final Context context = getContext();
+    configure(context);
     InputStream script = null;
-    final ScriptableObject scope = (ScriptableObject) context.initStandardObjects(initialScope);
     try {
-      script = getClass().getResourceAsStream("commons.js");
-      context.evaluateReader(scope, new InputStreamReader(script), "commons.js", 1, null);
+      final ScriptableObject scope = context.initStandardObjects();
+      script = getClass().getResourceAsStream(SCRIPT_COMMONS);
+      compile(context, script, SCRIPT_COMMONS).exec(context, scope);
+      return scope;
     } catch (final IOException e) {
       throw new RuntimeException("Problem while evaluationg commons script.", e);
     } finally {
       IOUtils.closeQuietly(script);
     }
+  }
+
+  /**
+   * Creates an empty scope inheriting all the properties of the provided scope, so that the scripts already evaluated
+   * in the provided scope are not evaluated again. The top level variables defined in the child scope are not visible in
+   * the parent scope.
+   */
+  private ScriptableObject createChildScope(final ScriptableObject parentScope) {
+    final Context context = getContext();
+    configure(context);
+    final ScriptableObject scope = (ScriptableObject) context.newObject(parentScope);
+    scope.setPrototype(parentScope);
+    scope.setParentScope(null);
     return scope;
   }
 
+  /**
+   * Enters a new context, configured for script evaluation.
+   */
+  private static Context enterContext() {
+    final Context context = Context.enter();
+    configure(context);
+    return context;
+  }
+
+  private static void configure(final Context context) {
+    context.setOptimizationLevel(getOptimizationLevel());
+    // TODO redirect errors from System.err to LOG.error()
+    context.setErrorReporter(new ToolErrorReporter(false));
+    context.setLanguageVersion(Context.VERSION_1_8);
+  }
+
+  /**
+   * @return the compiled script read from the stream, reusing the script compiled by a previous invocation with the
+   *         same content.
+   */
+  private static Script compile(final Context context, final InputStream stream, final String sourceName)
+    throws IOException {
+    final String source = IOUtils.toString(new InputStreamReader(stream));
+    final int level = context.getOptimizationLevel();
+    final String key = level + ":" + sourceName + ":"
+        + HASH_STRATEGY.getHash(new ByteArrayInputStream(source.getBytes(CharEncoding.UTF_8)));
+    Script script = COMPILED_SCRIPTS.get(key);
+    if (script == null) {
+      LOG.debug("Compiling script: {}", sourceName);
+      try {
+        script = context.compileString(source, sourceName, 1, null);
+      } catch (final RuntimeException e) {
+        if (level < 0) {
+          throw e;
+        }
+        // the generated bytecode exceeded the limits of the jvm, use the interpreted mode instead
+        LOG.debug("Cannot compile {} with optimization level {}, using interpreted mode", sourceName, level);
+        context.setOptimizationLevel(-1);
+        try {
+          script = context.compileString(source, sourceName, 1, null);
+        } finally {
+          context.setOptimizationLevel(level);
+        }
+      }
+      COMPILED_SCRIPTS.put(key, script);
+    }
+    return script;
+  }
+
   /**
    * Add a client side environment to the script context (client-side aware).
    *
@@ -106,7 +192,8 @@ public class RhinoScriptBuilder {
 
 
   /**
-   * Evaluates a script and return {@link RhinoScriptBuilder} for a chained script evaluation.
+   * Evaluates a script and return {@link RhinoScriptBuilder} for a chained script evaluation. The script is compiled
+   * only once, when it is evaluated for the first time.
    *
    * @param stream {@link InputStream} of the script to evaluate.
    * @param sourceName the name of the evaluated script.
@@ -117,7 +204,8 @@ public class RhinoScriptBuilder {
     throws IOException {
     Validate.notNull(stream);
     try {
-      getContext().evaluateReader(scope, new InputStreamReader(stream), sourceName, 1, null);
+      final Context context = getContext();
+      compile(context, stream, sourceName).exec(context, scope);
       return this;
     } catch (final RuntimeException e) {
       LOG.error("Exception caught", e);
@@ -135,7 +223,7 @@ public class RhinoScriptBuilder {
    */
   private void initContext() {
     if (Context.getCurrentContext() == null) {
-      Context.enter();
+      enterContext();
     }
   }
 
@@ -191,13 +279,39 @@ public class RhinoScriptBuilder {
       LOG.error("JavaScriptException occured: " + e.getMessage());
       throw e;
     } finally {
-      // Rhino throws an exception when trying to exit twice. Make sure we don't get any exception
-      if (Context.getCurrentContext() != null) {
-        Context.exit();
-      }
+      release();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void release() {
+    // Rhino throws an exception when trying to exit twice. Make sure we don't get any exception
+    if (Context.getCurrentContext() != null) {
+      Context.exit();
     }
   }
 
+  /**
+   * @return the optimization level used to compile the scripts, configured by the {@link WroConfiguration} of the
+   *         current context or the default one when no context is set. A script which cannot be compiled to bytecode
+   *         is interpreted.
+   */
+  private static int getOptimizationLevel() {
+    final int level = ro.isdc.wro.config.Context.isContextSet() ? ro.isdc.wro.config.Context.get().getConfig()
+        .getScriptOptimizationLevel() : WroConfiguration.DEFAULT_SCRIPT_OPTIMIZATION_LEVEL;
+    Validate.isTrue(Context.isValidOptimizationLevel(level), "Invalid optimization level: " + level);
+    return level;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public RhinoScriptBuilder newChildChain() {
+    return newChain(scope);
+  }
+
   /**
    * @return default {@link RhinoScriptBuilder} for script evaluation chaining.
    */
@@ -206,6 +320,12 @@ public class RhinoScriptBuilder {
   }
 
 
+  /**
+   * @param scope
+   *          the scope of a previous chain, holding the already evaluated scripts (ex: a library). The new chain uses a
+   *          child of this scope, so that the evaluated scripts are not evaluated again.
+   * @return {@link RhinoScriptBuilder} for script evaluation chaining.
+   */
   public static RhinoScriptBuilder newChain(final ScriptableObject scope) {
     return new RhinoScriptBuilder(scope);
   }
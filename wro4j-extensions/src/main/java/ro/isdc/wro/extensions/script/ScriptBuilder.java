@@ -0,0 +1,71 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.extensions.script;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * Evaluates javascript on the serverside, hiding the details of the underlying javascript engine. The scripts are
+ * evaluated in a chain: the variables and functions defined by a script are visible to the scripts evaluated
+ * afterwards by the same chain.
+ *
+ * @since 1.4.8
+ */
+public interface ScriptBuilder {
+  /**
+   * Evaluates a script and return {@link ScriptBuilder} for a chained script evaluation.
+   *
+   * @param stream
+   *          {@link InputStream} of the script to evaluate. The stream is closed after evaluation.
+   * @param sourceName
+   *          the name of the evaluated script.
+   * @return this chain with required script evaluated.
+   * @throws IOException
+   *           if the script couldn't be retrieved.
+   */
+  ScriptBuilder evaluateChain(InputStream stream, String sourceName)
+    throws IOException;
+
+  /**
+   * Evaluates a script and return {@link ScriptBuilder} for a chained script evaluation.
+   *
+   * @param script
+   *          the string representation of the script to evaluate.
+   * @param sourceName
+   *          the name of the evaluated script.
+   * @return this chain with required script evaluated.
+   */
+  ScriptBuilder evaluateChain(String script, String sourceName);
+
+  /**
+   * Makes the JSON object available to the scripts evaluated afterwards.
+   *
+   * @return this chain.
+   */
+  ScriptBuilder addJSON();
+
+  /**
+   * Evaluates a script.
+   *
+   * @param script
+   *          string representation of the script to evaluate.
+   * @param sourceName
+   *          the name of the evaluated script.
+   * @return evaluated object.
+   */
+  Object evaluate(String script, String sourceName);
+
+  /**
+   * @return a new chain which can use the scripts evaluated so far by this chain, without evaluating them again.
+   */
+  ScriptBuilder newChildChain();
+
+  /**
+   * Releases the resources associated by the engine with the current thread while evaluating the scripts of this chain
+   * (ex: the rhino context). The scripts already evaluated can still be used by the child chains.
+   */
+  void release();
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.extensions.script;
+
+/**
+ * The javascript engines which can be used by the processors evaluating javascript libraries.
+ *
+ * @since 1.4.8
+ */
+public enum ScriptEngineType {
+  /**
+   * The rhino engine bundled with wro4j, see {@link RhinoScriptBuilder}.
+   */
+  RHINO {
+    @Override
+    public ScriptBuilder newChain() {
+      return RhinoScriptBuilder.newChain();
+    }
+  },
+  /**
+   * The javascript engine provided by the JVM through the JSR-223 api, see {@link Jsr223ScriptBuilder}.
+   */
+  JSR223 {
+    @Override
+    public ScriptBuilder newChain() {
+      return Jsr223ScriptBuilder.newChain();
+    }
+  };
+
+  /**
+   * @return a new {@link ScriptBuilder} using this engine.
+   */
+  public abstract ScriptBuilder newChain();
+
+  /**
+   * @return the suffix appended to the alias of a processor to use this engine (ex: uglifyJs.jsr223).
+   */
+  public String getAliasSuffix() {
+    return "." + name().toLowerCase();
+  }
+}
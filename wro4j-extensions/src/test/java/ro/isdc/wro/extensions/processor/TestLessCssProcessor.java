@@ -8,21 +8,33 @@ import java.io.FileReader;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
 import java.net.URL;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ObjectName;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
 
 import junit.framework.Assert;
 
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.extensions.processor.css.LessCssProcessor;
 import ro.isdc.wro.extensions.processor.support.less.LessCss;
+import ro.isdc.wro.http.WroFilter;
+import ro.isdc.wro.manager.factory.BaseWroManagerFactory;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+import ro.isdc.wro.model.resource.processor.factory.SimpleProcessorsFactory;
 import ro.isdc.wro.util.Function;
 import ro.isdc.wro.util.WroTestUtils;
 
@@ -121,6 +133,64 @@ public class TestLessCssProcessor {
   }
   
 
+  @Test
+  public void shouldEvaluateLibraryOfPrewarmedEnginesWhenStarted()
+      throws Exception {
+    final WroConfiguration config = new WroConfiguration();
+    config.setEnginePoolPrewarm(2);
+    Context.set(Context.standaloneContext(), config);
+    final AtomicInteger evaluations = new AtomicInteger();
+    final LessCssProcessor processor = new LessCssProcessor() {
+      @Override
+      protected LessCss newLessCss() {
+        return new LessCss() {
+          @Override
+          protected InputStream getScriptAsStream() {
+            evaluations.incrementAndGet();
+            return super.getScriptAsStream();
+          }
+        };
+      }
+    };
+    try {
+      processor.start();
+      Assert.assertEquals(2, evaluations.get());
+      Assert.assertNull(org.mozilla.javascript.Context.getCurrentContext());
+      processor.process(new StringReader("#id {.class {color: red;}}"), new StringWriter());
+      Assert.assertEquals(2, evaluations.get());
+    } finally {
+      processor.destroy();
+      Context.unset();
+    }
+  }
+
+  @Test
+  public void shouldReleaseEnginePoolWhenFilterIsDestroyed()
+      throws Exception {
+    final WroConfiguration config = new WroConfiguration();
+    config.setEnginePoolPrewarm(1);
+    config.setJmxEnabled(true);
+    config.setMbeanName("testLessCssProcessor");
+    final BaseWroManagerFactory managerFactory = new BaseWroManagerFactory();
+    managerFactory.setProcessorsFactory(new SimpleProcessorsFactory().addPreProcessor(new LessCssProcessor()));
+    final WroFilter filter = new WroFilter();
+    filter.setConfiguration(config);
+    filter.setWroManagerFactory(managerFactory);
+    final FilterConfig filterConfig = Mockito.mock(FilterConfig.class);
+    Mockito.when(filterConfig.getServletContext()).thenReturn(Mockito.mock(ServletContext.class));
+    filter.init(filterConfig);
+    final ObjectName statisticsName = new ObjectName("testLessCssProcessor:type=ObjectPoolStatistics,name=LessCss");
+    Context.set(Context.standaloneContext(), config);
+    try {
+      managerFactory.create().startProcessors();
+      Assert.assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(statisticsName));
+    } finally {
+      Context.unset();
+      filter.destroy();
+    }
+    Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(statisticsName));
+  }
+
   @Test
   public void shouldSupportCorrectResourceTypes() {
     WroTestUtils.assertProcessorSupportResourceTypes(new LessCssProcessor(), ResourceType.CSS);
@@ -19,6 +19,7 @@ import org.junit.Test;
 import ro.isdc.wro.WroRuntimeException;
 import ro.isdc.wro.extensions.processor.js.UglifyJsProcessor;
 import ro.isdc.wro.extensions.processor.support.uglify.UglifyJs;
+import ro.isdc.wro.extensions.script.ScriptEngineType;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.model.resource.processor.ResourcePostProcessor;
 import ro.isdc.wro.util.WroTestUtils;
@@ -50,6 +51,16 @@ public class TestUglifyJsProcessor {
     WroTestUtils.compareFromDifferentFoldersByExtension(testFolder, expectedFolder, "js", processor);
   }
 
+  @Test
+  public void shouldUglifyFilesUsingJsr223Engine()
+    throws IOException {
+    final ResourcePostProcessor processor = new UglifyJsProcessor().setScriptEngineType(ScriptEngineType.JSR223);
+    final URL url = getClass().getResource("uglify");
+
+    final File expectedFolder = new File(url.getFile(), "expected");
+    WroTestUtils.compareFromDifferentFoldersByExtension(testFolder, expectedFolder, "js", processor);
+  }
+
   @Test
   public void shouldUseReservedNames() throws IOException {
     final ResourcePostProcessor processor = new UglifyJsProcessor() {
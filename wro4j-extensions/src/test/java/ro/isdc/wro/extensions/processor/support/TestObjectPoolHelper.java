@@ -3,12 +3,21 @@
  */
 package ro.isdc.wro.extensions.processor.support;
 
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ObjectName;
+
 import junit.framework.Assert;
 
 import org.apache.commons.pool.impl.GenericObjectPool;
+import org.junit.After;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import ro.isdc.wro.WroRuntimeException;
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.util.ObjectFactory;
 
 
@@ -16,6 +25,11 @@ import ro.isdc.wro.util.ObjectFactory;
  * @author Alex Objelean
  */
 public class TestObjectPoolHelper {
+  @After
+  public void tearDown() {
+    Context.unset();
+  }
+
   @Test(expected = NullPointerException.class)
   public void cannotAcceptNullArgument()
       throws Exception {
@@ -75,4 +89,117 @@ public class TestObjectPoolHelper {
     pool.getObject();
     Mockito.verify(mockObjectPool, Mockito.times(1)).borrowObject();
   }
+
+  private static class CountingFactory
+      implements ObjectFactory<Object> {
+    private final AtomicInteger created = new AtomicInteger();
+
+    public Object create() {
+      created.incrementAndGet();
+      return new Object();
+    }
+  }
+
+  private void setConfig(final WroConfiguration config) {
+    Context.set(Context.standaloneContext(), config);
+  }
+
+  @Test
+  public void shouldPrewarmPool() {
+    final WroConfiguration config = new WroConfiguration();
+    config.setEnginePoolPrewarm(2);
+    setConfig(config);
+    final CountingFactory factory = new CountingFactory();
+    final ObjectPoolHelper<Object> pool = new ObjectPoolHelper<Object>(factory);
+    Assert.assertEquals(0, factory.created.get());
+    pool.prewarm();
+    Assert.assertEquals(2, factory.created.get());
+    final Object first = pool.getObject();
+    final Object second = pool.getObject();
+    Assert.assertEquals(2, factory.created.get());
+    pool.returnObject(first);
+    pool.returnObject(second);
+  }
+
+  @Test
+  public void shouldPrewarmEachPrewarmableObject() {
+    final WroConfiguration config = new WroConfiguration();
+    config.setEnginePoolPrewarm(2);
+    setConfig(config);
+    final ObjectPoolHelper<Prewarmable> pool = new ObjectPoolHelper<Prewarmable>(new ObjectFactory<Prewarmable>() {
+      public Prewarmable create() {
+        return Mockito.mock(Prewarmable.class);
+      }
+    });
+    pool.prewarm();
+    final Prewarmable first = pool.getObject();
+    final Prewarmable second = pool.getObject();
+    Assert.assertNotSame(first, second);
+    Mockito.verify(first).prewarm();
+    Mockito.verify(second).prewarm();
+    pool.returnObject(first);
+    pool.returnObject(second);
+  }
+
+  @Test
+  public void shouldUnregisterStatisticsWhenLastPoolIsDestroyed()
+      throws Exception {
+    final WroConfiguration config = new WroConfiguration();
+    config.setJmxEnabled(true);
+    config.setMbeanName("testObjectPoolHelper");
+    setConfig(config);
+    final ObjectName name = new ObjectName("testObjectPoolHelper:type=ObjectPoolStatistics,name=Object");
+    final ObjectPoolHelper<Object> first = new ObjectPoolHelper<Object>(new CountingFactory());
+    final ObjectPoolHelper<Object> second = new ObjectPoolHelper<Object>(new CountingFactory());
+    first.returnObject(first.getObject());
+    second.returnObject(second.getObject());
+    Assert.assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    first.destroy();
+    Assert.assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    second.destroy();
+    Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+  }
+
+  @Test
+  public void shouldProvideObjectsAfterDestroy() {
+    final CountingFactory factory = new CountingFactory();
+    final ObjectPoolHelper<Object> pool = new ObjectPoolHelper<Object>(factory);
+    pool.returnObject(pool.getObject());
+    pool.destroy();
+    pool.returnObject(pool.getObject());
+    Assert.assertEquals(2, factory.created.get());
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void shouldFailWhenExhaustedPoolIsConfiguredToFail() {
+    final WroConfiguration config = new WroConfiguration();
+    config.setEnginePoolSize(1);
+    config.setEnginePoolExhaustedAction("FAIL");
+    setConfig(config);
+    final ObjectPoolHelper<Object> pool = new ObjectPoolHelper<Object>(new CountingFactory());
+    pool.getObject();
+    pool.getObject();
+  }
+
+  @Test(expected = WroRuntimeException.class)
+  public void cannotUseInvalidExhaustedAction() {
+    final WroConfiguration config = new WroConfiguration();
+    config.setEnginePoolExhaustedAction("INVALID");
+    setConfig(config);
+    new ObjectPoolHelper<Object>(new CountingFactory());
+  }
+
+  @Test
+  public void shouldRecordStatistics() {
+    final ObjectPoolHelper<Object> pool = new ObjectPoolHelper<Object>(new CountingFactory());
+    Assert.assertNull(pool.getStatistics());
+    pool.returnObject(pool.getObject());
+    final ObjectPoolStatistics statistics = pool.getStatistics();
+    Assert.assertNotNull(statistics);
+    final long borrowCount = statistics.getBorrowCount();
+    final long createCount = statistics.getCreateCount();
+    pool.returnObject(pool.getObject());
+    Assert.assertEquals(borrowCount + 1, statistics.getBorrowCount());
+    Assert.assertEquals(createCount, statistics.getCreateCount());
+  }
 }
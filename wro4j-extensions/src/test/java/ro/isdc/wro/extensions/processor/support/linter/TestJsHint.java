@@ -3,6 +3,8 @@
  */
 package ro.isdc.wro.extensions.processor.support.linter;
 
+import junit.framework.Assert;
+
 import org.junit.Test;
 
 
@@ -58,6 +60,21 @@ public class TestJsHint {
   }
 
 
+  @Test
+  public void shouldReportOnlyErrorsOfCurrentScriptWhenReused()
+    throws Exception {
+    jsHint.prewarm();
+    jsHint.validate("var a = 1;");
+    try {
+      jsHint.validate("al ert(1)");
+      Assert.fail("Should have failed");
+    } catch (final LinterException e) {
+      Assert.assertFalse(e.getErrors().isEmpty());
+    }
+    jsHint.validate("var b = 2;");
+  }
+
+
   @Test(expected = LinterException.class)
   public void shouldValidateWithUndefOption()
     throws Exception {
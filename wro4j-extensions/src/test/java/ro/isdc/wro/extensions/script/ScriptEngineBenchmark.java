@@ -0,0 +1,64 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.extensions.script;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.apache.commons.io.IOUtils;
+
+import ro.isdc.wro.extensions.processor.js.BeautifyJsProcessor;
+import ro.isdc.wro.extensions.processor.js.PackerJsProcessor;
+import ro.isdc.wro.extensions.processor.js.UglifyJsProcessor;
+import ro.isdc.wro.extensions.processor.support.handlebarsjs.HandlebarsJs;
+import ro.isdc.wro.model.resource.processor.ResourcePreProcessor;
+
+
+/**
+ * Compares the time spent by the javascript based processors for each available {@link ScriptEngineType}, when
+ * processing a bundled library (handlebars). The results depend heavily on the hardware and the JVM, this is why it is
+ * not executed as part of the test suite. Run it using the main method.
+ */
+public class ScriptEngineBenchmark {
+  private static final int WARMUP_ITERATIONS = 5;
+  private static final int ITERATIONS = 10;
+
+  private static ResourcePreProcessor createProcessor(final String name, final ScriptEngineType engineType) {
+    if ("uglifyJs".equals(name)) {
+      return new UglifyJsProcessor().setScriptEngineType(engineType);
+    } else if ("beautifyJs".equals(name)) {
+      return new BeautifyJsProcessor().setScriptEngineType(engineType);
+    }
+    return new PackerJsProcessor().setScriptEngineType(engineType);
+  }
+
+  /**
+   * @return the average number of milliseconds spent to process the script.
+   */
+  private static long measure(final ResourcePreProcessor processor, final String script)
+      throws Exception {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      processor.process(null, new StringReader(script), new StringWriter());
+    }
+    final long start = System.currentTimeMillis();
+    for (int i = 0; i < ITERATIONS; i++) {
+      processor.process(null, new StringReader(script), new StringWriter());
+    }
+    return (System.currentTimeMillis() - start) / ITERATIONS;
+  }
+
+  public static void main(final String[] args)
+      throws Exception {
+    final String script = IOUtils.toString(HandlebarsJs.class.getResourceAsStream("handlebars-1.0.0.beta.6.js"));
+    System.out.println("processor\tengine\tms/op");
+    for (final String name : new String[] {
+      "uglifyJs", "beautifyJs", "packerJs"
+    }) {
+      for (final ScriptEngineType engineType : ScriptEngineType.values()) {
+        final long millis = measure(createProcessor(name, engineType), script);
+        System.out.println(name + "\t" + engineType + "\t" + millis);
+      }
+    }
+  }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.extensions.script;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import ro.isdc.wro.WroRuntimeException;
+
+
+public class TestJsr223ScriptBuilder {
+  @Test
+  public void shouldEvaluateScript() {
+    final Object result = Jsr223ScriptBuilder.newChain().evaluate("[1, 2, 3].length", "length");
+    Assert.assertEquals(3, ((Number) result).intValue());
+  }
+
+  @Test
+  public void shouldUseScriptsEvaluatedByParentChain() {
+    final ScriptBuilder parent = ScriptEngineType.JSR223.newChain().evaluateChain(
+        "function sum(a, b) { return a + b; }", "parent");
+    final Object result = parent.newChildChain().evaluate("sum(1, 2)", "child");
+    Assert.assertEquals(3, ((Number) result).intValue());
+  }
+
+  @Test
+  public void shouldNotLeakVariablesOfChildChain() {
+    final ScriptBuilder parent = Jsr223ScriptBuilder.newChain().evaluateChain("var value = 'parent';", "parent");
+    final ScriptBuilder child = parent.newChildChain().evaluateChain("var value = 'child'; var other = 1;", "child");
+    Assert.assertEquals("child", child.evaluate("value", "child"));
+    Assert.assertEquals("parent", parent.evaluate("value", "parent"));
+    Assert.assertEquals("undefined", parent.evaluate("typeof other", "parent"));
+  }
+
+  @Test
+  public void shouldNotShareVariablesBetweenSiblingChains() {
+    final ScriptBuilder parent = Jsr223ScriptBuilder.newChain();
+    parent.newChildChain().evaluateChain("var value = 1;", "first");
+    Assert.assertEquals("undefined", parent.newChildChain().evaluate("typeof value", "second"));
+  }
+
+  @Test
+  public void shouldProvideJSON() {
+    final Object result = Jsr223ScriptBuilder.newChain().addJSON().evaluate("JSON.stringify({a: 1})", "json");
+    Assert.assertEquals("{\"a\":1}", result);
+  }
+
+  @Test(expected = WroRuntimeException.class)
+  public void cannotEvaluateInvalidScript() {
+    Jsr223ScriptBuilder.newChain().evaluate("invalid script {", "invalid");
+  }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright Alex Objelean
+ */
+package ro.isdc.wro.extensions.script;
+
+import java.io.ByteArrayInputStream;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ro.isdc.wro.config.Context;
+import ro.isdc.wro.config.jmx.WroConfiguration;
+
+
+public class TestRhinoScriptBuilder {
+  @After
+  public void tearDown() {
+    Context.unset();
+  }
+
+  private void setOptimizationLevel(final int level) {
+    final WroConfiguration config = new WroConfiguration();
+    config.setScriptOptimizationLevel(level);
+    Context.set(Context.standaloneContext(), config);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotUseInvalidOptimizationLevel() {
+    setOptimizationLevel(10);
+    RhinoScriptBuilder.newChain();
+  }
+
+  @Test
+  public void shouldSeeFunctionsOfParentScope() {
+    final RhinoScriptBuilder parent = RhinoScriptBuilder.newChain().evaluateChain(
+        "function sum(a, b) { return a + b; }", "parent");
+    final Object result = RhinoScriptBuilder.newChain(parent.getScope()).evaluate("sum(1, 2)", "child");
+    Assert.assertEquals(3, ((Number) result).intValue());
+  }
+
+  @Test
+  public void shouldNotLeakVariablesOfChildScope() {
+    final RhinoScriptBuilder parent = RhinoScriptBuilder.newChain().evaluateChain("var value = 'parent';", "parent");
+    RhinoScriptBuilder.newChain(parent.getScope()).evaluateChain("value = 'child';", "child");
+    Assert.assertEquals("parent", parent.evaluate("value", "parent"));
+  }
+
+  @Test
+  public void shouldEvaluateCompiledScripts()
+      throws Exception {
+    setOptimizationLevel(9);
+    final Object result = RhinoScriptBuilder.newChain().evaluateChain(
+        new ByteArrayInputStream("var items = [1, 2, 3];".getBytes()), "compiled").evaluate("items.length", "length");
+    Assert.assertEquals(3, ((Number) result).intValue());
+  }
+
+  @Test
+  public void shouldNotReuseCompiledScriptWithSameNameAndDifferentContent()
+      throws Exception {
+    final Object first = RhinoScriptBuilder.newChain().evaluateChain(
+        new ByteArrayInputStream("var value = 1;".getBytes()), "library").evaluate("value", "value");
+    final Object second = RhinoScriptBuilder.newChain().evaluateChain(
+        new ByteArrayInputStream("var value = 2;".getBytes()), "library").evaluate("value", "value");
+    Assert.assertEquals(1, ((Number) first).intValue());
+    Assert.assertEquals(2, ((Number) second).intValue());
+  }
+}
@@ -26,6 +26,7 @@ import org.mockito.Mockito;
 import ro.isdc.wro.config.Context;
 import ro.isdc.wro.config.jmx.WroConfiguration;
 import ro.isdc.wro.http.support.DelegatingServletOutputStream;
+import ro.isdc.wro.manager.WroManager;
 import ro.isdc.wro.model.resource.ResourceType;
 import ro.isdc.wro.util.io.UnclosableBufferedInputStream;
 
@@ -110,12 +111,19 @@ public class Wro4jMojo extends AbstractWro4jMojo {
     getLog().info("groupNameMappingFile: " + groupNameMappingFile);
 
     final Collection<String> groupsAsList = getTargetGroupsAsList();
-    for (final String group : groupsAsList) {
-      for (final ResourceType resourceType : ResourceType.values()) {
-        final File destinationFolder = computeDestinationFolder(resourceType);
-        final String groupWithExtension = group + "." + resourceType.name().toLowerCase();
-        processGroup(groupWithExtension, destinationFolder);
+    final WroManager manager = getManagerFactory().create();
+    // the resources shared by many groups are processed only once
+    manager.beginBuild();
+    try {
+      for (final String group : groupsAsList) {
+        for (final ResourceType resourceType : ResourceType.values()) {
+          final File destinationFolder = computeDestinationFolder(resourceType);
+          final String groupWithExtension = group + "." + resourceType.name().toLowerCase();
+          processGroup(groupWithExtension, destinationFolder);
+        }
       }
+    } finally {
+      manager.endBuild();
     }
 
     writeGroupNameMap();